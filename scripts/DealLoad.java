@@ -0,0 +1,101 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load generator shared by both runtimes; see load-test.sh. Runs two phases
+ * against a started instance and prints one line per phase:
+ * concurrent single-deal creates, then concurrent batch imports.
+ *
+ *   java scripts/DealLoad.java <base-url> <label> [clients] [seconds] [batch-size]
+ */
+public class DealLoad {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        String label = args[1];
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        int batchSize = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        String runId = Long.toString(System.nanoTime(), 36);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        run(label + " single", clients, seconds, (worker, sequence) -> HttpRequest
+                .newBuilder(URI.create(baseUrl + "/api/v1/fx-deals"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(deal(runId + "-S-" + worker + "-" + sequence)))
+                .build(), client, 1);
+        run(label + " batch", Math.max(1, clients / 50), seconds, (worker, sequence) -> {
+            StringBuilder body = new StringBuilder("{\"deals\":[");
+            for (int i = 0; i < batchSize; i++) {
+                body.append(i > 0 ? "," : "").append(deal(runId + "-B-" + worker + "-" + sequence + "-" + i));
+            }
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/fx-deals/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append("]}").toString()))
+                    .build();
+        }, client, batchSize);
+    }
+
+    interface RequestFactory {
+        HttpRequest create(int worker, int sequence);
+    }
+
+    private static void run(String phase, int clients, int seconds, RequestFactory requests,
+                            HttpClient client, int dealsPerRequest) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<long[]>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int worker = 0; worker < clients; worker++) {
+                int id = worker;
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(requests.create(id, count), HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        long[] all = workers.stream().map(DealLoad::join).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%-20s %9.0f deals/s  p50 %7.1f ms  p99 %7.1f ms  %d requests, %d errors%n",
+                phase, all.length * (double) dealsPerRequest / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), all.length, errors.get());
+    }
+
+    private static long[] join(Future<long[]> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * quantile)] / 1e6;
+    }
+
+    private static String deal(String id) {
+        return "{\"dealUniqueId\":\"" + id + "\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\","
+                + "\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":1000.25}";
+    }
+}
@@ -0,0 +1,30 @@
+#!/usr/bin/env bash
+# Runs the same load (DealLoad.java) against the servlet + JPA runtime and the
+# WebFlux + R2DBC runtime, one after the other, on the database from
+# docker-compose.yml.
+#
+#   ./scripts/load-test.sh [clients] [seconds] [batch-size]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT="${PORT:-8080}"
+LOAD_ARGS=("${1:-200}" "${2:-30}" "${3:-1000}")
+
+./mvnw -q -DskipTests package
+cp "$(ls target/ClusteredDataWarehouse-*.jar | grep -v original | head -n 1)" target/servlet-runtime.jar
+./mvnw -q -Preactive -DskipTests package
+cp "$(ls target/ClusteredDataWarehouse-*.jar | grep -v original | head -n 1)" target/reactive-runtime.jar
+
+measure() {
+  local label=$1 jar=$2
+  java --add-opens=java.base/java.nio=ALL-UNNAMED -jar "$jar" --server.port="$PORT" >/dev/null 2>&1 &
+  local pid=$!
+  until curl -s "http://localhost:$PORT/actuator/health" | grep -q UP; do
+    sleep 0.2
+  done
+  java scripts/DealLoad.java "http://localhost:$PORT" "$label" "${LOAD_ARGS[@]}"
+  kill -TERM $pid && wait $pid 2>/dev/null || true
+}
+
+measure servlet target/servlet-runtime.jar
+measure reactive target/reactive-runtime.jar
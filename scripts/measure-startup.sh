@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Reports time-to-first-accepted-deal (JVM launch until the first 201) for the
+# regular fat jar and for the fast-start layout built by train-cds.sh.
+#
+#   ./scripts/measure-startup.sh [runs]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-5}"
+PORT="${PORT:-8080}"
+FAST=target/fast-start
+
+first_deal_millis() {
+  local start end id
+  start=$(date +%s%N)
+  "$@" --server.port="$PORT" >/dev/null 2>&1 &
+  local pid=$!
+  id="STARTUP-$(date +%s%N)"
+  until curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/api/v1/fx-deals" \
+      -H 'Content-Type: application/json' \
+      -d "{\"dealUniqueId\":\"$id\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\",\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":1}" \
+      | grep -q 201; do
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  kill -TERM $pid && wait $pid 2>/dev/null || true
+  echo $(( (end - start) / 1000000 ))
+}
+
+report() {
+  local label=$1; shift
+  local total=0 result
+  for _ in $(seq 1 "$RUNS"); do
+    result=$(first_deal_millis "$@")
+    total=$((total + result))
+  done
+  printf '%-28s %6d ms (mean of %d)\n' "$label" $((total / RUNS)) "$RUNS"
+}
+
+JAR=$(ls target/ClusteredDataWarehouse-*.jar | grep -v original | head -n 1)
+report "default (fat jar)" java --add-opens=java.base/java.nio=ALL-UNNAMED -jar "$JAR"
+
+if [[ -f "$FAST/application.jsa" ]]; then
+  report "fast-start (AOT+CDS+lazy)" java -XX:SharedArchiveFile="$FAST/application.jsa" \
+    -Dspring.aot.enabled=true -Dspring.profiles.active=fast-start \
+    --add-opens=java.base/java.nio=ALL-UNNAMED \
+    -cp "$FAST/application.jar:$FAST/lib/*" com.progressoft.clustereddata.ClusteredDataWarehouseApplication
+else
+  echo "Run scripts/train-cds.sh first to measure the fast-start layout"
+fi
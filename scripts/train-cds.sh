@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Builds the fast-start layout and trains an AppCDS archive on a real import run.
+#
+#   ./scripts/train-cds.sh            # needs the database from docker-compose
+#
+# Output: target/fast-start/ with application.jar, lib/ and application.jsa
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PORT="${PORT:-8080}"
+OUT=target/fast-start
+
+./mvnw -B -q -Pfast-start -DskipTests package
+
+rm -rf "$OUT" && mkdir -p "$OUT/unpacked"
+JAR=$(ls target/ClusteredDataWarehouse-*.jar | grep -v original | head -n 1)
+(cd "$OUT/unpacked" && jar -xf "../../../$JAR")
+
+# CDS only archives classes loaded from jar files, so the application classes
+# are re-packed into a jar of their own next to the dependency jars.
+mv "$OUT/unpacked/BOOT-INF/lib" "$OUT/lib"
+jar -cf "$OUT/application.jar" -C "$OUT/unpacked/BOOT-INF/classes" .
+rm -rf "$OUT/unpacked"
+
+JAVA_OPTS=(
+  -XX:ArchiveClassesAtExit="$OUT/application.jsa"
+  -Dspring.aot.enabled=true
+  -Dspring.profiles.active=fast-start
+  -Dserver.port="$PORT"
+  --add-opens=java.base/java.nio=ALL-UNNAMED
+  -cp "$OUT/application.jar:$OUT/lib/*"
+)
+java "${JAVA_OPTS[@]}" com.progressoft.clustereddata.ClusteredDataWarehouseApplication &
+APP_PID=$!
+trap 'kill $APP_PID 2>/dev/null || true' EXIT
+
+until curl -sf "http://localhost:$PORT/actuator/health" >/dev/null; do sleep 0.2; done
+
+# Exercise the real ingest path so its classes end up in the archive
+RUN_ID=$(date +%s)
+DEALS=""
+for i in $(seq 1 500); do
+  DEALS+="{\"dealUniqueId\":\"CDS-TRAINING-$RUN_ID-$i\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\",\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":1000.50},"
+done
+curl -sf -X POST "http://localhost:$PORT/api/v1/fx-deals/batch" \
+  -H 'Content-Type: application/json' -d "{\"deals\":[${DEALS%,}]}" >/dev/null
+curl -sf -X POST "http://localhost:$PORT/api/v1/fx-deals" \
+  -H 'Content-Type: application/json' \
+  -d "{\"dealUniqueId\":\"CDS-TRAINING-$RUN_ID-single\",\"fromCurrencyIsoCode\":\"GBP\",\"toCurrencyIsoCode\":\"JPY\",\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":42}" >/dev/null
+
+kill -TERM $APP_PID
+wait $APP_PID || true
+trap - EXIT
+echo "AppCDS archive written to $OUT/application.jsa"
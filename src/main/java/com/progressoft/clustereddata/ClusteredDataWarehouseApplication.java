@@ -2,8 +2,16 @@ package com.progressoft.clustereddata;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+/**
+ * The servlet runtime. R2DBC is only on the classpath in the reactive build,
+ * where its connection factory would otherwise replace the JDBC data source.
+ */
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class ClusteredDataWarehouseApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,143 @@
+package com.progressoft.clustereddata.admission;
+
+/**
+ * Admission limit for in-flight deals that adapts to persist latency.
+ * <p>
+ * Every finished request reports its latency per deal. A short and a long
+ * exponential average are kept; while the short one stays within
+ * {@code latencyTolerance} of the long one the limit grows by about the square
+ * root of itself, and once requests slow down it shrinks in proportion
+ * (the gradient). Server errors cut the limit multiplicatively. Independently
+ * of the limit, the estimated request body bytes in flight are capped.
+ * <p>
+ * A request is always admitted when nothing else is in flight, so a single
+ * batch larger than the limit can still run on its own.
+ */
+public class AdaptiveAdmissionLimiter {
+
+    private static final double SHORT_WINDOW_WEIGHT = 2.0 / (10 + 1);
+    private static final double LONG_WINDOW_WEIGHT = 2.0 / (500 + 1);
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double LONG_WINDOW_DRIFT = 2.0;
+
+    private final AdmissionProperties properties;
+
+    private double limit;
+    private long inFlightDeals;
+    private long inFlightBytes;
+    private double shortLatency = Double.NaN;
+    private double longLatency = Double.NaN;
+
+    public AdaptiveAdmissionLimiter(AdmissionProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    public sealed interface Admission {
+    }
+
+    public record Admitted(Permit permit) implements Admission {
+    }
+
+    public record Rejected(Reason reason) implements Admission {
+    }
+
+    public enum Reason {
+        CONCURRENCY,
+        MEMORY
+    }
+
+    /**
+     * Admit a request carrying {@code deals} deals and {@code bodyBytes} of
+     * body, or reject it without waiting
+     */
+    public synchronized Admission tryAcquire(long deals, long bodyBytes) {
+        boolean idle = inFlightDeals == 0 && inFlightBytes == 0;
+        if (!idle && inFlightDeals + deals > limit) {
+            return new Rejected(Reason.CONCURRENCY);
+        }
+        if (!idle && inFlightBytes + bodyBytes > properties.getMaxInFlightBodyBytes()) {
+            return new Rejected(Reason.MEMORY);
+        }
+        inFlightDeals += deals;
+        inFlightBytes += bodyBytes;
+        return new Admitted(new Permit(deals, bodyBytes));
+    }
+
+    public synchronized long limit() {
+        return (long) limit;
+    }
+
+    public synchronized long inFlightDeals() {
+        return inFlightDeals;
+    }
+
+    public synchronized long inFlightBytes() {
+        return inFlightBytes;
+    }
+
+    private synchronized void release(Permit permit, long elapsedNanos, boolean failed) {
+        long inFlightBefore = inFlightDeals;
+        inFlightDeals -= permit.deals;
+        inFlightBytes -= permit.bodyBytes;
+
+        if (failed) {
+            limit = Math.max(properties.getMinLimit(), limit * properties.getBackoffRatio());
+            return;
+        }
+
+        double latency = (double) elapsedNanos / Math.max(1, permit.deals);
+        shortLatency = Double.isNaN(shortLatency) ? latency : average(shortLatency, latency, SHORT_WINDOW_WEIGHT);
+        longLatency = Double.isNaN(longLatency) ? latency : average(longLatency, latency, LONG_WINDOW_WEIGHT);
+        if (longLatency > shortLatency * LONG_WINDOW_DRIFT) {
+            // Latency improved for good, let the baseline follow quickly
+            longLatency = average(longLatency, shortLatency, 0.05);
+        }
+
+        double gradient = Math.max(MIN_GRADIENT,
+                Math.min(1.0, properties.getLatencyTolerance() * longLatency / shortLatency));
+        if (gradient >= 1.0 && inFlightBefore < limit / 2) {
+            // Far below the limit, latency says nothing about a higher one
+            return;
+        }
+        double estimate = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(properties.getMinLimit(),
+                Math.min(properties.getMaxLimit(), average(limit, estimate, properties.getSmoothing())));
+    }
+
+    private static double average(double current, double sample, double weight) {
+        return current * (1 - weight) + sample * weight;
+    }
+
+    /**
+     * Held for the duration of one admitted request
+     */
+    public final class Permit {
+        private final long deals;
+        private final long bodyBytes;
+        private final long startedNanos = System.nanoTime();
+        private boolean released;
+
+        private Permit(long deals, long bodyBytes) {
+            this.deals = deals;
+            this.bodyBytes = bodyBytes;
+        }
+
+        /**
+         * Return the permit and feed the request's latency into the limit
+         *
+         * @param failed whether the request failed on the server side
+         */
+        public void release(boolean failed) {
+            release(System.nanoTime() - startedNanos, failed);
+        }
+
+        void release(long elapsedNanos, boolean failed) {
+            if (released) {
+                return;
+            }
+            released = true;
+            AdaptiveAdmissionLimiter.this.release(this, elapsedNanos, failed);
+        }
+    }
+}
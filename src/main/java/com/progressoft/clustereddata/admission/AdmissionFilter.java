@@ -0,0 +1,138 @@
+package com.progressoft.clustereddata.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progressoft.clustereddata.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admission control for deal writes. Runs before the body is read, so a
+ * rejected batch never reaches the heap: the number of deals is estimated from
+ * {@code Content-Length} and the request is either admitted by the
+ * {@link AdaptiveAdmissionLimiter} or answered with 429 and
+ * {@code Retry-After}. A batch sent without {@code Content-Length}, e.g.
+ * chunked, cannot be sized up front and is answered with 411.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.admission", name = "enabled", havingValue = "true")
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+@Slf4j
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String DEALS_PATH = "/api/v1/fx-deals";
+    private static final String BATCH_PATH = DEALS_PATH + "/batch";
+
+    private final AdaptiveAdmissionLimiter limiter;
+    private final AdmissionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Map<AdaptiveAdmissionLimiter.Reason, Counter> rejections =
+            new EnumMap<>(AdaptiveAdmissionLimiter.Reason.class);
+    private final Counter lengthRequired;
+
+    public AdmissionFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = new AdaptiveAdmissionLimiter(properties);
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("fxdeals.admission.limit", limiter, AdaptiveAdmissionLimiter::limit)
+                .description("Current adaptive limit of deals in flight")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.admission.inflight.deals", limiter, AdaptiveAdmissionLimiter::inFlightDeals)
+                .description("Estimated deals in admitted requests")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.admission.inflight.bytes", limiter, AdaptiveAdmissionLimiter::inFlightBytes)
+                .description("Body bytes of admitted requests")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        for (AdaptiveAdmissionLimiter.Reason reason : AdaptiveAdmissionLimiter.Reason.values()) {
+            rejections.put(reason, Counter.builder("fxdeals.admission.rejected")
+                    .description("Deal write requests rejected with 429")
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        this.lengthRequired = Counter.builder("fxdeals.admission.length_required")
+                .description("Batch imports rejected with 411 because they had no Content-Length")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !(path.equals(DEALS_PATH) || path.equals(BATCH_PATH));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean batch = request.getRequestURI().endsWith(BATCH_PATH);
+        long bodyBytes = request.getContentLengthLong();
+        if (bodyBytes < 0) {
+            if (batch) {
+                lengthRequired.increment();
+                respond(request, response, HttpStatus.LENGTH_REQUIRED, "Batch imports must be sent with Content-Length");
+                return;
+            }
+            bodyBytes = properties.getAverageDealBytes();
+        }
+        long deals = batch ? Math.max(1, bodyBytes / properties.getAverageDealBytes()) : 1;
+
+        switch (limiter.tryAcquire(deals, bodyBytes)) {
+            case AdaptiveAdmissionLimiter.Rejected rejected -> reject(request, response, rejected.reason());
+            case AdaptiveAdmissionLimiter.Admitted admitted -> {
+                boolean failed = true;
+                try {
+                    chain.doFilter(request, response);
+                    failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+                } finally {
+                    admitted.permit().release(failed);
+                }
+            }
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        AdaptiveAdmissionLimiter.Reason reason) throws IOException {
+        rejections.get(reason).increment();
+        log.debug("Rejected {} with 429, {} limit reached", request.getRequestURI(), reason);
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        respond(request, response, HttpStatus.TOO_MANY_REQUESTS, reason == AdaptiveAdmissionLimiter.Reason.MEMORY
+                ? "Too much deal data in flight, please retry later"
+                : "Too many deals in flight, please retry later");
+    }
+
+    private void respond(HttpServletRequest request, HttpServletResponse response,
+                         HttpStatus status, String message) throws IOException {
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
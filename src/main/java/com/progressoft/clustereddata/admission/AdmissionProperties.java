@@ -0,0 +1,65 @@
+package com.progressoft.clustereddata.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.admission")
+public class AdmissionProperties {
+
+    /**
+     * Sheds deal writes with 429 when the adaptive limit or the memory budget
+     * would be exceeded
+     */
+    private boolean enabled = false;
+
+    /**
+     * Deals allowed in flight before any latency has been observed
+     */
+    private int initialLimit = 20_000;
+
+    /**
+     * Lower bound of the adaptive limit
+     */
+    private int minLimit = 1_000;
+
+    /**
+     * Upper bound of the adaptive limit
+     */
+    private int maxLimit = 1_000_000;
+
+    /**
+     * How much slower than the best observed per-deal latency requests may
+     * get before the limit shrinks
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Weight of each new limit estimate, 1 follows every sample
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Factor applied to the limit when a request fails with a server error
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Request body bytes allowed in flight. Parsed deals take several times
+     * their JSON size on the heap, so keep this well below the heap size.
+     */
+    private long maxInFlightBodyBytes = 64L * 1024 * 1024;
+
+    /**
+     * Typical size of one deal in a batch body, used to estimate how many
+     * deals a batch carries before it is parsed
+     */
+    private int averageDealBytes = 200;
+
+    /**
+     * Value of the Retry-After header on rejected requests
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
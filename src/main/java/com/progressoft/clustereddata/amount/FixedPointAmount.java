@@ -0,0 +1,229 @@
+package com.progressoft.clustereddata.amount;
+
+import java.math.BigDecimal;
+
+/**
+ * Deal amounts as plain {@code long} units of 0.0001, matching the
+ * {@code NUMERIC(19, 4)} column.
+ * <p>
+ * Amounts travel through parsing, validation, aggregation and JDBC binding as
+ * primitives, so the ingest path allocates no {@link BigDecimal}. Values that
+ * cannot be represented are parsed into one of the sentinels below, all of
+ * them below any valid amount, so that validation can report why.
+ */
+public final class FixedPointAmount {
+
+    public static final int SCALE = 4;
+
+    public static final long UNITS_PER_WHOLE = 10_000L;
+
+    /** No amount was given */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    /** Positive, but smaller than one unit */
+    public static final long BELOW_MINIMUM = Long.MIN_VALUE + 1;
+
+    /** More than {@link #SCALE} significant decimal places */
+    public static final long TOO_PRECISE = Long.MIN_VALUE + 2;
+
+    /** Magnitude above {@link #MAX_UNITS} */
+    public static final long TOO_LARGE = Long.MIN_VALUE + 3;
+
+    /** Largest amount, 922337203685477.5807 */
+    public static final long MAX_UNITS = Long.MAX_VALUE;
+
+    private static final long MIN_UNITS = -(Long.MAX_VALUE - 16);
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPointAmount() {
+    }
+
+    public static long parse(CharSequence text) {
+        if (text == null) {
+            return ABSENT;
+        }
+        int length = text.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parse(chars, 0, length);
+    }
+
+    /**
+     * Parse a decimal number, optionally signed and with an exponent, into
+     * units without creating intermediate objects
+     *
+     * @return the units, or {@link #BELOW_MINIMUM}, {@link #TOO_PRECISE} or
+     * {@link #TOO_LARGE} if the value has no exact representation
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static long parse(char[] chars, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i++] == '-';
+        }
+
+        long digits = 0;
+        boolean overflow = false;
+        boolean sawDigit = false;
+        int fractionDigits = 0;
+        int pendingZeros = 0;
+        boolean inFraction = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c == '.' && !inFraction) {
+                inFraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            sawDigit = true;
+            int digit = c - '0';
+            if (inFraction && digit == 0) {
+                // Trailing fraction zeros do not count, only flush them once a non-zero digit follows
+                pendingZeros++;
+                continue;
+            }
+            if (inFraction) {
+                fractionDigits += pendingZeros + 1;
+            }
+            for (int zeros = inFraction ? pendingZeros : 0; zeros >= 0 && !overflow; zeros--) {
+                int next = zeros == 0 ? digit : 0;
+                if (digits > (Long.MAX_VALUE - next) / 10) {
+                    overflow = true;
+                } else {
+                    digits = digits * 10 + next;
+                }
+            }
+            pendingZeros = 0;
+        }
+        if (!sawDigit) {
+            throw new NumberFormatException("Not a number: " + new String(chars, offset, length));
+        }
+
+        int exponent = 0;
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+                negativeExponent = chars[i++] == '-';
+            }
+            int exponentStart = i;
+            for (; i < end && chars[i] >= '0' && chars[i] <= '9'; i++) {
+                exponent = Math.min(exponent * 10 + (chars[i] - '0'), 10_000);
+            }
+            if (i == exponentStart) {
+                throw new NumberFormatException("Not a number: " + new String(chars, offset, length));
+            }
+            exponent = negativeExponent ? -exponent : exponent;
+        }
+        if (i != end) {
+            throw new NumberFormatException("Not a number: " + new String(chars, offset, length));
+        }
+
+        if (digits == 0 && !overflow) {
+            return 0;
+        }
+        int scale = fractionDigits - exponent;
+        if (scale > SCALE) {
+            if (negative) {
+                return -1;
+            }
+            int extra = scale - SCALE;
+            boolean belowOneUnit = !overflow && (extra >= POWERS_OF_TEN.length || digits < POWERS_OF_TEN[extra]);
+            return belowOneUnit ? BELOW_MINIMUM : TOO_PRECISE;
+        }
+        int shift = SCALE - scale;
+        if (overflow || shift >= POWERS_OF_TEN.length || digits > MAX_UNITS / POWERS_OF_TEN[shift]) {
+            return TOO_LARGE;
+        }
+        long units = digits * POWERS_OF_TEN[shift];
+        if (negative) {
+            return -units < MIN_UNITS ? TOO_LARGE : -units;
+        }
+        return units;
+    }
+
+    public static boolean isRepresentable(long units) {
+        return units > TOO_LARGE;
+    }
+
+    public static long of(BigDecimal amount) {
+        return amount == null ? ABSENT : parse(amount.toPlainString());
+    }
+
+    /**
+     * Convert at the edges that need a {@link BigDecimal}, e.g. the JDBC
+     * driver. Uses the compact representation, no {@code BigInteger}.
+     */
+    public static BigDecimal toBigDecimal(long units) {
+        if (!isRepresentable(units)) {
+            throw new IllegalArgumentException("Amount sentinel " + units + " has no decimal value");
+        }
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    /**
+     * Write the amount in plain notation without trailing fraction zeros
+     *
+     * @param buffer at least 22 characters
+     * @return the number of characters written
+     */
+    public static int format(long units, char[] buffer) {
+        int position = 0;
+        long magnitude = units;
+        if (units < 0) {
+            buffer[position++] = '-';
+            magnitude = -units;
+        }
+        long whole = magnitude / UNITS_PER_WHOLE;
+        int fraction = (int) (magnitude % UNITS_PER_WHOLE);
+
+        int wholeStart = position;
+        do {
+            buffer[position++] = (char) ('0' + whole % 10);
+            whole /= 10;
+        } while (whole > 0);
+        reverse(buffer, wholeStart, position - 1);
+
+        if (fraction != 0) {
+            int fractionDigits = SCALE;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                fractionDigits--;
+            }
+            buffer[position++] = '.';
+            for (int digit = fractionDigits - 1; digit >= 0; digit--) {
+                buffer[position + digit] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            position += fractionDigits;
+        }
+        return position;
+    }
+
+    public static String toPlainString(long units) {
+        char[] buffer = new char[22];
+        return new String(buffer, 0, format(units, buffer));
+    }
+
+    private static void reverse(char[] buffer, int from, int to) {
+        while (from < to) {
+            char swap = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = swap;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.progressoft.clustereddata.amount;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link FixedPointAmount} units to the {@code NUMERIC(19, 4)} column
+ */
+@Converter
+public class FixedPointAmountConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long units) {
+        return units == null || units == FixedPointAmount.ABSENT ? null : FixedPointAmount.toBigDecimal(units);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return FixedPointAmount.of(amount);
+    }
+}
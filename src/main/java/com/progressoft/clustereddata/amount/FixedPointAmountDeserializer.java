@@ -0,0 +1,34 @@
+package com.progressoft.clustereddata.amount;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON number (or numeric string) straight from the parser's
+ * character buffer into {@link FixedPointAmount} units
+ */
+public class FixedPointAmountDeserializer extends JsonDeserializer<Long> {
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                && token != JsonToken.VALUE_STRING) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        try {
+            return FixedPointAmount.parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        } catch (NumberFormatException e) {
+            return (Long) context.handleWeirdStringValue(Long.class, parser.getText(), "not a decimal amount");
+        }
+    }
+
+    @Override
+    public Long getNullValue(DeserializationContext context) {
+        return FixedPointAmount.ABSENT;
+    }
+}
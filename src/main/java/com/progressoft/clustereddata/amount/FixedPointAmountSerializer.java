@@ -0,0 +1,24 @@
+package com.progressoft.clustereddata.amount;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link FixedPointAmount} units as a plain JSON number, e.g.
+ * {@code 1000.5}. Sentinels are written as {@code null}.
+ */
+public class FixedPointAmountSerializer extends JsonSerializer<Long> {
+
+    @Override
+    public void serialize(Long units, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (!FixedPointAmount.isRepresentable(units)) {
+            generator.writeNull();
+            return;
+        }
+        char[] buffer = new char[22];
+        generator.writeNumber(buffer, 0, FixedPointAmount.format(units, buffer));
+    }
+}
@@ -0,0 +1,92 @@
+package com.progressoft.clustereddata.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One execution lane: at most {@code maxConcurrent} requests run, at most
+ * {@code maxQueued} wait for up to {@code maxWait}, everything else is turned
+ * away immediately. Waiting is FIFO.
+ */
+public class Bulkhead {
+
+    private final Semaphore slots;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer waits;
+
+    public Bulkhead(String lane, BulkheadProperties.Lane properties, MeterRegistry meterRegistry) {
+        this.slots = new Semaphore(properties.getMaxConcurrent(), true);
+        this.maxQueued = properties.getMaxQueued();
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+
+        Gauge.builder("fxdeals.bulkhead.active", active, AtomicInteger::get)
+                .description("Requests running in the lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.bulkhead.queued", queued, AtomicInteger::get)
+                .description("Requests waiting for a slot in the lane")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fxdeals.bulkhead.rejected")
+                .description("Requests turned away because the lane was full")
+                .tag("lane", lane)
+                .register(meterRegistry);
+        this.waits = Timer.builder("fxdeals.bulkhead.wait")
+                .description("Time admitted requests waited for a slot")
+                .tag("lane", lane)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a slot, waiting in line if allowed
+     *
+     * @return whether a slot was taken; if so {@link #exit()} must follow
+     */
+    public boolean tryEnter() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            active.incrementAndGet();
+            waits.record(0, TimeUnit.NANOSECONDS);
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        long started = System.nanoTime();
+        try {
+            if (slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                active.incrementAndGet();
+                waits.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void exit() {
+        active.decrementAndGet();
+        slots.release();
+    }
+
+    int active() {
+        return active.get();
+    }
+
+    int queued() {
+        return queued.get();
+    }
+}
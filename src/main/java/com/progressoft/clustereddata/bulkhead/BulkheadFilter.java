@@ -0,0 +1,114 @@
+package com.progressoft.clustereddata.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progressoft.clustereddata.dto.ErrorResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Keeps batch imports from starving single-deal writes. Each kind of request
+ * runs in its own {@link Bulkhead}, so batches can hold at most
+ * {@code bulk.maxConcurrent} Tomcat threads and pool connections and single
+ * deals never queue behind them. A request finding its lane full is answered
+ * with 503 and {@code Retry-After}. Runs after admission control, so shed
+ * requests never take a place in a lane.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.bulkhead", name = "enabled", havingValue = "true")
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+@Slf4j
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final String DEALS_PATH = "/api/v1/fx-deals";
+    private static final String BATCH_PATH = DEALS_PATH + "/batch";
+
+    private final Bulkhead single;
+    private final Bulkhead bulk;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BulkheadFilter(BulkheadProperties properties,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          ObjectProvider<DataSource> dataSource) {
+        this(new Bulkhead("single", properties.getSingle(), meterRegistry),
+                new Bulkhead("bulk", properties.getBulk(), meterRegistry),
+                objectMapper);
+        if (dataSource.getIfAvailable() instanceof HikariDataSource hikari
+                && properties.getBulk().getMaxConcurrent() >= hikari.getMaximumPoolSize()) {
+            log.warn("Bulk lane allows {} concurrent batches but the pool has only {} connections, "
+                            + "single deals may still wait for a connection",
+                    properties.getBulk().getMaxConcurrent(), hikari.getMaximumPoolSize());
+        }
+    }
+
+    BulkheadFilter(Bulkhead single, Bulkhead bulk, ObjectMapper objectMapper) {
+        this.single = single;
+        this.bulk = bulk;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.POST.matches(request.getMethod())
+                || !(path.equals(DEALS_PATH) || path.equals(BATCH_PATH));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Bulkhead lane = request.getRequestURI().endsWith(BATCH_PATH) ? bulk : single;
+        boolean entered;
+        try {
+            entered = lane.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            reject(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            lane.exit();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.debug("Rejected {} with 503, lane is full", request.getRequestURI());
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message("Too many concurrent requests of this kind, please retry later")
+                .path(request.getRequestURI())
+                .build();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,56 @@
+package com.progressoft.clustereddata.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Runs single-deal and batch writes in separate lanes with their own
+     * concurrency and queue limits
+     */
+    private boolean enabled = false;
+
+    /**
+     * Lane of POST /api/v1/fx-deals
+     */
+    private Lane single = new Lane(64, 256, Duration.ofMillis(100));
+
+    /**
+     * Lane of POST /api/v1/fx-deals/batch. Keep maxConcurrent below the
+     * Hikari pool size so single deals always find a free connection.
+     */
+    private Lane bulk = new Lane(2, 8, Duration.ofSeconds(30));
+
+    @Data
+    public static class Lane {
+
+        /**
+         * Requests of this lane running at the same time
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests allowed to wait for a free slot; more are rejected at once
+         */
+        private int maxQueued;
+
+        /**
+         * Longest a request waits for a slot before it is rejected
+         */
+        private Duration maxWait;
+
+        public Lane() {
+        }
+
+        public Lane(int maxConcurrent, int maxQueued, Duration maxWait) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWait = maxWait;
+        }
+    }
+}
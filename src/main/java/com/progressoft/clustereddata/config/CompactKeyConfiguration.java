@@ -0,0 +1,47 @@
+package com.progressoft.clustereddata.config;
+
+import org.flywaydb.core.api.Location;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact-key schema mode: adds the {@code db/compact-keys} migrations, which
+ * give fx_deals a BIGINT identity column and a non-unique index on
+ * {@code deal_id_hash}, and the {@code db/vendor-compact-keys/{vendor}} ones,
+ * which make that column the primary key in place of the VARCHAR ID and keep
+ * IDs unique through a cheaper constraint.
+ * Lookups add the hash predicate only in this mode, see
+ * {@link CompactKeyProperties}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx-deals.compact-keys", name = "enabled", havingValue = "true")
+public class CompactKeyConfiguration {
+
+    static final String COMPACT_KEYS_LOCATION = "classpath:db/compact-keys";
+    static final String VENDOR_COMPACT_KEYS_LOCATION = "classpath:db/vendor-compact-keys/";
+
+    @Bean
+    public FlywayConfigurationCustomizer compactKeyMigrations() {
+        return configuration -> {
+            List<Location> locations = new ArrayList<>(List.of(configuration.getLocations()));
+            locations.add(new Location(COMPACT_KEYS_LOCATION));
+            // Locations added here are not resolved by spring.flyway, so {vendor} is looked up the same way
+            try {
+                String url = JdbcUtils.extractDatabaseMetaData(configuration.getDataSource(), DatabaseMetaData::getURL);
+                locations.add(new Location(VENDOR_COMPACT_KEYS_LOCATION + DatabaseDriver.fromJdbcUrl(url).getId()));
+            } catch (MetaDataAccessException e) {
+                throw new IllegalStateException("Unable to determine the database vendor for compact keys", e);
+            }
+            configuration.locations(locations.toArray(Location[]::new));
+        };
+    }
+}
@@ -0,0 +1,16 @@
+package com.progressoft.clustereddata.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.compact-keys")
+public class CompactKeyProperties {
+
+    /**
+     * Replaces the VARCHAR primary key of fx_deals with a BIGINT surrogate key
+     * and probes deals through a non-unique index on deal_id_hash. Off, deals
+     * are looked up by ID alone, so rows written without a hash stay visible.
+     */
+    private boolean enabled = false;
+}
@@ -0,0 +1,39 @@
+package com.progressoft.clustereddata.config;
+
+import com.progressoft.clustereddata.controller.FxDealController;
+import com.progressoft.clustereddata.exception.GlobalExceptionHandler;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.service.FxDealService;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.Validator;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * The fast-start profile initializes beans lazily. The beans on the ingest
+ * path stay eager so that the first deal does not pay for their creation.
+ */
+@Configuration
+@Profile("fast-start")
+public class FastStartConfiguration {
+
+    @Bean
+    public static LazyInitializationExcludeFilter ingestPathEagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                DataSource.class,
+                EntityManagerFactory.class,
+                Validator.class,
+                FxDealRepository.class,
+                FxDealMapper.class,
+                FxDealValidationService.class,
+                FxDealService.class,
+                FxDealController.class,
+                GlobalExceptionHandler.class);
+    }
+}
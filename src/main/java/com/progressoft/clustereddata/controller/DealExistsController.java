@@ -0,0 +1,89 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.dto.DealExistsRequest;
+import com.progressoft.clustereddata.dto.DealExistsResponse;
+import com.progressoft.clustereddata.exists.DealExistenceService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/exists")
+@ConditionalOnProperty(prefix = "fx-deals.exists", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class DealExistsController {
+
+    static final String COUNT_HEADER = "X-Deal-Count";
+    static final String EXISTING_COUNT_HEADER = "X-Existing-Count";
+
+    private final DealExistenceService existenceService;
+
+    /**
+     * Check a JSON list of deal IDs; the bitmap comes back Base64 encoded
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public DealExistsResponse exists(@Valid @RequestBody DealExistsRequest request) {
+        List<String> ids = request.getDealUniqueIds();
+        BitSet existing = existenceService.existing(ids);
+        return DealExistsResponse.builder()
+                .count(ids.size())
+                .existingCount(existing.cardinality())
+                .existing(toBytes(existing, ids.size()))
+                .build();
+    }
+
+    /**
+     * Check newline-delimited UTF-8 deal IDs; the response body is the raw
+     * bitmap, {@code ceil(n / 8)} bytes
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> exists(@RequestBody byte[] body) {
+        List<String> ids = parseLines(body);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Deal unique IDs cannot be empty");
+        }
+        BitSet existing = existenceService.existing(ids);
+        return ResponseEntity.ok()
+                .header(COUNT_HEADER, String.valueOf(ids.size()))
+                .header(EXISTING_COUNT_HEADER, String.valueOf(existing.cardinality()))
+                .body(toBytes(existing, ids.size()));
+    }
+
+    /**
+     * Split the body into one ID per line. A blank line is rejected rather
+     * than skipped, as skipping it would shift every later bit of the
+     * bitmap; only the empty remainder after a final newline is ignored.
+     */
+    static List<String> parseLines(byte[] body) {
+        List<String> ids = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= body.length; i++) {
+            if (i == body.length || body[i] == '\n') {
+                int end = i > start && body[i - 1] == '\r' ? i - 1 : i;
+                String id = new String(body, start, end - start, StandardCharsets.UTF_8);
+                if (id.isBlank()) {
+                    if (i < body.length || end > start) {
+                        throw new IllegalArgumentException("Deal unique ID on line " + (ids.size() + 1) + " is blank");
+                    }
+                } else {
+                    ids.add(id);
+                }
+                start = i + 1;
+            }
+        }
+        return ids;
+    }
+
+    static byte[] toBytes(BitSet bits, int count) {
+        return Arrays.copyOf(bits.toByteArray(), (count + 7) / 8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.query.DealPage;
+import com.progressoft.clustereddata.query.DealQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/query")
+@RequiredArgsConstructor
+public class DealQueryController {
+
+    private final DealQueryService queryService;
+
+    /**
+     * Deals of one currency pair in a deal timestamp window, oldest first.
+     * Pass the returned {@code next} cursor as {@code after} to read the
+     * following page.
+     */
+    @GetMapping("/pair")
+    public ResponseEntity<DealPage> byPair(@RequestParam String from,
+                                           @RequestParam String to,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                           @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(queryService.byPair(from, to, since, until, after, limit));
+    }
+
+    @GetMapping("/largest")
+    public ResponseEntity<List<FxDealResponse>> largest(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+                                                        @RequestParam(required = false) String from,
+                                                        @RequestParam(required = false) String to,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(queryService.largest(since, until, from, to, limit));
+    }
+}
@@ -0,0 +1,30 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.stream.DealStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/stream")
+@ConditionalOnProperty(prefix = "fx-deals.stream", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class DealStreamController {
+
+    private final DealStream dealStream;
+
+    /**
+     * Stream committed deals. Each event id is the deal's sequence; send it
+     * back as {@code Last-Event-ID} (browsers do this on reconnect) or
+     * {@code after} to resume without gaps.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                             @RequestParam(required = false) Long after,
+                             @RequestParam(required = false) String from,
+                             @RequestParam(required = false) String to) {
+        return dealStream.subscribe(after != null ? after : lastEventId, from, to);
+    }
+}
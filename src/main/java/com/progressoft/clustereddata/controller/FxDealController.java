@@ -1,33 +1,144 @@
 package com.progressoft.clustereddata.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.progressoft.clustereddata.dto.*;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.BatchDryRunService;
+import com.progressoft.clustereddata.service.ChunkedBatchImporter;
+import com.progressoft.clustereddata.service.DealOutcome;
 import com.progressoft.clustereddata.service.FxDealService;
-import jakarta.validation.Valid;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import com.progressoft.clustereddata.service.GroupCommitDealWriter;
+import com.progressoft.clustereddata.service.IdempotentBatchImportService;
+import com.progressoft.clustereddata.shard.ShardedFxDealService;
+import com.progressoft.clustereddata.spool.DealSpool;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/v1/fx-deals")
 @RequiredArgsConstructor
 @Slf4j
 public class FxDealController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final FxDealService fxDealService;
+    private final FxDealMapper mapper;
+    private final FxDealValidationService validationService;
+    private final RejectionResponses rejections;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ObjectProvider<DealSpool> dealSpool;
+    private final ObjectProvider<GroupCommitDealWriter> groupCommitDealWriter;
+    private final ObjectProvider<ShardedFxDealService> shardedFxDealService;
+    private final ObjectProvider<IdempotentBatchImportService> idempotentBatchImportService;
+    private final ObjectProvider<ChunkedBatchImporter> chunkedBatchImporter;
+    private final ObjectProvider<BatchDryRunService> batchDryRunService;
 
     @PostMapping
-    public ResponseEntity<FxDealResponse> createDeal(@Valid @RequestBody FxDealRequest request) {
-        log.info("Received request to create FX deal: {}", request.getDealUniqueId());
-        FxDealResponse response = fxDealService.createDeal(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<?> createDeal(@RequestBody FxDealRequest request, HttpServletRequest httpRequest) {
+        log.debug("Received request to create FX deal: {}", request.getDealUniqueId());
+        DealSpool spool = dealSpool.getIfAvailable();
+        if (spool != null) {
+            FxDeal deal = mapper.toEntity(request);
+            List<DealError> errors = validationService.check(deal);
+            if (!errors.isEmpty()) {
+                return rejections.invalid(new DealOutcome.Invalid(request.getDealUniqueId(), errors), httpRequest.getRequestURI());
+            }
+            spool.append(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(mapper.toResponse(deal));
+        }
+        ShardedFxDealService sharded = shardedFxDealService.getIfAvailable();
+        GroupCommitDealWriter groupCommit = groupCommitDealWriter.getIfAvailable();
+        DealOutcome outcome;
+        if (sharded != null) {
+            outcome = sharded.submitDeal(request);
+        } else if (groupCommit != null) {
+            outcome = groupCommit.submitDeal(request);
+        } else {
+            outcome = fxDealService.submitDeal(request);
+        }
+        return switch (outcome) {
+            case DealOutcome.Accepted accepted -> ResponseEntity.status(HttpStatus.CREATED).body(accepted.deal());
+            case DealOutcome.Duplicate duplicate -> rejections.duplicate(duplicate, httpRequest.getRequestURI());
+            case DealOutcome.Invalid invalid -> rejections.invalid(invalid, httpRequest.getRequestURI());
+        };
+    }
+
+    @GetMapping("/{dealUniqueId}")
+    public ResponseEntity<FxDealResponse> getDeal(@PathVariable String dealUniqueId) {
+        ShardedFxDealService sharded = shardedFxDealService.getIfAvailable();
+        FxDealResponse response = sharded != null
+                ? sharded.getDeal(dealUniqueId)
+                : fxDealService.getDeal(dealUniqueId);
+        return ResponseEntity.ok(response);
     }
 
+    /**
+     * The body is taken as raw bytes so that a retry of a stored batch is
+     * answered without parsing or validating it again
+     */
     @PostMapping("/batch")
-    public ResponseEntity<BatchImportResponse> importDeals(@Valid @RequestBody BatchImportRequest request) {
+    public ResponseEntity<BatchImportResponse> importDeals(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            @RequestBody byte[] body) {
+        if (dryRun) {
+            BatchDryRunService dryRunService = batchDryRunService.getIfAvailable();
+            if (dryRunService == null) {
+                throw new IllegalArgumentException("Dry runs are not enabled");
+            }
+            return ResponseEntity.ok(dryRunService.dryRun(readBatch(body)));
+        }
+        IdempotentBatchImportService idempotency = idempotentBatchImportService.getIfAvailable();
+        if (idempotency == null) {
+            return ResponseEntity.ok(runImport(readBatch(body)));
+        }
+        IdempotentBatchImportService.Outcome outcome = idempotency.importDeals(idempotencyKey, body,
+                raw -> runImport(readBatch(raw)));
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                .body(outcome.response());
+    }
+
+    private BatchImportRequest readBatch(byte[] body) {
+        BatchImportRequest request;
+        try {
+            request = objectMapper.readValue(body, BatchImportRequest.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed batch import request");
+        }
+        Set<ConstraintViolation<BatchImportRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
         log.info("Received batch import request with {} deals", request.getDeals().size());
-        BatchImportResponse response = fxDealService.importDeals(request);
-        return ResponseEntity.ok(response);
+        return request;
+    }
+
+    private BatchImportResponse runImport(BatchImportRequest request) {
+        ShardedFxDealService sharded = shardedFxDealService.getIfAvailable();
+        if (sharded != null) {
+            return sharded.importDeals(request);
+        }
+        ChunkedBatchImporter chunked = chunkedBatchImporter.getIfAvailable();
+        return chunked != null
+                ? chunked.importDeals(request)
+                : fxDealService.importDeals(request);
     }
 }
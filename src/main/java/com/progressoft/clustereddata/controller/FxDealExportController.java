@@ -0,0 +1,36 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.export.ExportResult;
+import com.progressoft.clustereddata.export.FxDealColumnarExporter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/exports")
+@ConditionalOnProperty(prefix = "fx-deals.export", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealExportController {
+
+    private final FxDealColumnarExporter exporter;
+
+    @PostMapping
+    public ResponseEntity<ExportResult> exportRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Received export request for deals between {} and {}", from, to);
+        return ResponseEntity.ok(exporter.exportRange(from, to));
+    }
+
+    @PostMapping("/incremental")
+    public ResponseEntity<ExportResult> exportIncremental() {
+        log.info("Received incremental export request");
+        return ResponseEntity.ok(exporter.exportIncremental());
+    }
+}
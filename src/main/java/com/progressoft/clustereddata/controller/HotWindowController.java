@@ -0,0 +1,34 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.hotwindow.HotDeal;
+import com.progressoft.clustereddata.hotwindow.HotDealWindow;
+import com.progressoft.clustereddata.hotwindow.PairVolume;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/hot")
+@ConditionalOnProperty(prefix = "fx-deals.hot-window", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class HotWindowController {
+
+    private final HotDealWindow window;
+
+    @GetMapping("/volume")
+    public ResponseEntity<PairVolume> volume(@RequestParam String from,
+                                             @RequestParam String to,
+                                             @RequestParam(defaultValue = "PT15M") Duration lookback) {
+        return ResponseEntity.ok(window.volume(from, to, lookback));
+    }
+
+    @GetMapping("/largest")
+    public ResponseEntity<List<HotDeal>> largest(@RequestParam(defaultValue = "PT1H") Duration lookback,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(window.largest(lookback, limit));
+    }
+}
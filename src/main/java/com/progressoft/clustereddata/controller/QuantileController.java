@@ -0,0 +1,29 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.quantiles.DealQuantileService;
+import com.progressoft.clustereddata.quantiles.PairQuantiles;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/fx-deals/quantiles")
+@ConditionalOnProperty(prefix = "fx-deals.quantiles", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class QuantileController {
+
+    private final DealQuantileService quantileService;
+
+    @GetMapping
+    public ResponseEntity<PairQuantiles> pair(@RequestParam String from, @RequestParam String to) {
+        return ResponseEntity.ok(quantileService.quantiles(from, to));
+    }
+
+    @GetMapping("/pairs")
+    public ResponseEntity<List<PairQuantiles>> pairs() {
+        return ResponseEntity.ok(quantileService.allQuantiles());
+    }
+}
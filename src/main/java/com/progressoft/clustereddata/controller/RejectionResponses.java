@@ -0,0 +1,148 @@
+package com.progressoft.clustereddata.controller;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.service.DealOutcome;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes the bodies of duplicate and validation rejections straight to bytes.
+ * <p>
+ * The JSON has the same shape as {@code ErrorResponse}, but the constant parts
+ * are encoded once and the timestamp once per second, so a rejection costs a
+ * few array copies instead of building and serializing a response object.
+ */
+@Component
+public class RejectionResponses {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    private static final byte[] TIMESTAMP_START = ascii("{\"timestamp\":\"");
+    private static final byte[] CONFLICT_MESSAGE_START = ascii(
+            "\",\"status\":409,\"error\":\"Conflict\",\"message\":\"Deal with ID '");
+    private static final byte[] CONFLICT_MESSAGE_END = ascii("' already exists\",\"path\":\"");
+    private static final byte[] CONFLICT_END = ascii("\",\"details\":null,\"errors\":null}");
+    private static final byte[] BAD_REQUEST_START = ascii(
+            "\",\"status\":400,\"error\":\"Bad Request\",\"message\":\"Validation failed\",\"path\":\"");
+    private static final byte[] DETAILS_START = ascii("\",\"details\":[");
+    private static final byte[] ERRORS_START = ascii("],\"errors\":[");
+    private static final byte[] FIELD_START = ascii("{\"field\":\"");
+    private static final byte[] CODE_START = ascii("\",\"code\":\"");
+    private static final byte[] MESSAGE_START = ascii("\",\"message\":\"");
+    private static final byte[] ERROR_END = ascii("\"}");
+    private static final byte[] BAD_REQUEST_END = ascii("]}");
+    private static final byte[][] CODES = Arrays.stream(DealError.Code.values())
+            .map(code -> ascii(code.name()))
+            .toArray(byte[][]::new);
+
+    private final Clock clock;
+    private volatile CachedTimestamp timestamp = new CachedTimestamp(Long.MIN_VALUE, new byte[0]);
+
+    @Autowired
+    public RejectionResponses() {
+        this(Clock.systemDefaultZone());
+    }
+
+    RejectionResponses(Clock clock) {
+        this.clock = clock;
+    }
+
+    public ResponseEntity<byte[]> duplicate(DealOutcome.Duplicate duplicate, String path) {
+        Buffer body = new Buffer(160);
+        body.writeBytes(TIMESTAMP_START);
+        body.writeBytes(timestamp());
+        body.writeBytes(CONFLICT_MESSAGE_START);
+        body.writeEscaped(duplicate.dealUniqueId());
+        body.writeBytes(CONFLICT_MESSAGE_END);
+        body.writeEscaped(path);
+        body.writeBytes(CONFLICT_END);
+        return respond(HttpStatus.CONFLICT, body);
+    }
+
+    public ResponseEntity<byte[]> invalid(DealOutcome.Invalid invalid, String path) {
+        List<DealError> errors = invalid.errors();
+        Buffer body = new Buffer(160 + errors.size() * 160);
+        body.writeBytes(TIMESTAMP_START);
+        body.writeBytes(timestamp());
+        body.writeBytes(BAD_REQUEST_START);
+        body.writeEscaped(path);
+        body.writeBytes(DETAILS_START);
+        for (int i = 0; i < errors.size(); i++) {
+            DealError error = errors.get(i);
+            if (i > 0) {
+                body.write(',');
+            }
+            body.write('"');
+            body.writeEscaped(error.getField());
+            body.write(':');
+            body.write(' ');
+            body.writeEscaped(error.getMessage());
+            body.write('"');
+        }
+        body.writeBytes(ERRORS_START);
+        for (int i = 0; i < errors.size(); i++) {
+            DealError error = errors.get(i);
+            if (i > 0) {
+                body.write(',');
+            }
+            body.writeBytes(FIELD_START);
+            body.writeEscaped(error.getField());
+            body.writeBytes(CODE_START);
+            body.writeBytes(CODES[error.getCode().ordinal()]);
+            body.writeBytes(MESSAGE_START);
+            body.writeEscaped(error.getMessage());
+            body.writeBytes(ERROR_END);
+        }
+        body.writeBytes(BAD_REQUEST_END);
+        return respond(HttpStatus.BAD_REQUEST, body);
+    }
+
+    private byte[] timestamp() {
+        long second = clock.millis() / 1000;
+        CachedTimestamp cached = timestamp;
+        if (cached.second != second) {
+            cached = new CachedTimestamp(second, ascii(LocalDateTime.now(clock).format(TIMESTAMP_FORMAT)));
+            timestamp = cached;
+        }
+        return cached.bytes;
+    }
+
+    private static ResponseEntity<byte[]> respond(HttpStatus status, Buffer body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.toByteArray());
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record CachedTimestamp(long second, byte[] bytes) {
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer(int size) {
+            super(size);
+        }
+
+        void writeEscaped(String value) {
+            if (value != null) {
+                writeBytes(ENCODER.quoteAsUTF8(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.progressoft.clustereddata.controller;
+
+import com.progressoft.clustereddata.shard.ShardRebalancer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/shards")
+@ConditionalOnProperty(prefix = "fx-deals.sharding", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ShardAdminController {
+
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * Put a standby shard from {@code fx-deals.sharding.shards} on the ring;
+     * connection settings only ever come from the configuration
+     */
+    @PostMapping("/{name}")
+    public ResponseEntity<ShardRebalancer.RebalanceStatus> addShard(@PathVariable String name) {
+        log.info("Received request to add shard {}", name);
+        shardRebalancer.addShard(name);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(shardRebalancer.status());
+    }
+
+    @PostMapping("/rebalance")
+    public ResponseEntity<ShardRebalancer.RebalanceStatus> rebalance() {
+        log.info("Received request to rebalance shards");
+        shardRebalancer.rebalance();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(shardRebalancer.status());
+    }
+
+    @GetMapping("/rebalance")
+    public ResponseEntity<ShardRebalancer.RebalanceStatus> status() {
+        return ResponseEntity.ok(shardRebalancer.status());
+    }
+}
@@ -0,0 +1,46 @@
+package com.progressoft.clustereddata.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Explicit routing hint for code that does not run in a read-only
+ * transaction, or that must read its own writes from the primary.
+ */
+public final class ReadRouting {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Target> CURRENT = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onReplica(Supplier<T> work) {
+        return with(Target.REPLICA, work);
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        return with(Target.PRIMARY, work);
+    }
+
+    static Target current() {
+        return CURRENT.get();
+    }
+
+    private static <T> T with(Target target, Supplier<T> work) {
+        Target previous = CURRENT.get();
+        CURRENT.set(target);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
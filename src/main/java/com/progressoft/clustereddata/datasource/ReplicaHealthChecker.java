@@ -0,0 +1,66 @@
+package com.progressoft.clustereddata.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Periodically measures replica lag and takes replicas that are unreachable
+ * or too far behind out of the read rotation.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.datasource.replica-routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReplicaRoutingProperties properties;
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routingDataSource,
+                                ReplicaRoutingConfiguration.ReplicaDataSources replicaDataSources,
+                                ReplicaRoutingProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.properties = properties;
+        replicaDataSources.replicas().forEach((key, dataSource) -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.setQueryTimeout(2);
+            replicas.put(key, jdbcTemplate);
+            lagSeconds.put(key, 0.0);
+            Gauge.builder("fxdeals.datasource.replica.lag", lagSeconds, lags -> lags.getOrDefault(key, Double.NaN))
+                    .tag("replica", key)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("fxdeals.datasource.replica.healthy", routingDataSource, routing -> routing.isHealthy(key) ? 1 : 0)
+                    .tag("replica", key)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.datasource.replica-routing.health-check-interval-ms:2000}")
+    public void checkReplicas() {
+        double maxLagSeconds = properties.getMaxLag().toMillis() / 1000.0;
+        replicas.forEach((key, jdbcTemplate) -> {
+            try {
+                Double lag = jdbcTemplate.queryForObject(properties.getLagQuery(), Double.class);
+                double measured = lag == null ? 0.0 : lag;
+                lagSeconds.put(key, measured);
+                routingDataSource.setHealthy(key, measured <= maxLagSeconds);
+            } catch (Exception e) {
+                log.debug("Health check of replica {} failed: {}", key, e.getMessage());
+                lagSeconds.put(key, Double.NaN);
+                routingDataSource.setHealthy(key, false);
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.progressoft.clustereddata.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions and {@link ReadRouting#onReplica} work to a
+ * healthy replica, round robin, and everything else to the primary.
+ * <p>
+ * The routing decision is taken when a connection is fetched, so this must be
+ * wrapped in a {@code LazyConnectionDataSourceProxy}: transaction managers
+ * ask for the connection before the read-only flag is published.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final Set<String> healthyReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.healthyReplicas.addAll(replicaKeys);
+    }
+
+    public List<String> getReplicaKeys() {
+        return replicaKeys;
+    }
+
+    public boolean isHealthy(String replicaKey) {
+        return healthyReplicas.contains(replicaKey);
+    }
+
+    public void setHealthy(String replicaKey, boolean healthy) {
+        boolean changed = healthy ? healthyReplicas.add(replicaKey) : healthyReplicas.remove(replicaKey);
+        if (changed) {
+            log.warn("Replica {} is now {}", replicaKey, healthy ? "in rotation" : "out of rotation, reads fall back to primary");
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        ReadRouting.Target hint = ReadRouting.current();
+        if (hint == ReadRouting.Target.PRIMARY) {
+            return PRIMARY;
+        }
+        boolean readOnly = hint == ReadRouting.Target.REPLICA
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly ? pickReplica() : PRIMARY;
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (healthyReplicas.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,40 @@
+package com.progressoft.clustereddata.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.datasource.replica-routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Routes read-only transactions to the replicas below
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replicas lagging more than this are taken out of rotation
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Query returning the replica's replay lag in seconds; a replica that has
+     * replayed everything it received reports zero even when the primary is idle
+     */
+    private String lagQuery = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())), 0) END";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -1,6 +1,5 @@
-package com.progressoft/clustereddata.dto;
+package com.progressoft.clustereddata.dto;
 
-import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -13,7 +12,10 @@ import java.util.List;
 @AllArgsConstructor
 public class BatchImportRequest {
 
+    /**
+     * Deals are validated one by one during the import, so one invalid deal
+     * is reported as a failed deal instead of rejecting the whole batch
+     */
     @NotEmpty(message = "Deals list cannot be empty")
-    @Valid
     private List<FxDealRequest> deals;
 }
@@ -1,4 +1,4 @@
-package com.progressoft/clustereddata.dto;
+package com.progressoft.clustereddata.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,6 +28,7 @@ public class BatchImportResponse {
         private String dealUniqueId;
         private String reason;
         private FailureType type;
+        private List<DealError> errors;
     }
 
     public enum FailureType {
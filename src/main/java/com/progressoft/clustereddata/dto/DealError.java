@@ -0,0 +1,29 @@
+package com.progressoft.clustereddata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One reason a deal was rejected, with a code clients can branch on
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealError {
+
+    private String field;
+    private Code code;
+    private String message;
+
+    public enum Code {
+        REQUIRED,
+        BLANK,
+        INVALID_CURRENCY,
+        FUTURE_TIMESTAMP,
+        INVALID_AMOUNT,
+        INVALID
+    }
+}
@@ -0,0 +1,17 @@
+package com.progressoft.clustereddata.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealExistsRequest {
+
+    @NotEmpty(message = "Deal unique IDs cannot be empty")
+    private List<String> dealUniqueIds;
+}
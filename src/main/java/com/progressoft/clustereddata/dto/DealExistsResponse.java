@@ -0,0 +1,23 @@
+package com.progressoft.clustereddata.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DealExistsResponse {
+
+    private int count;
+    private int existingCount;
+
+    /**
+     * Bit {@code i} (byte {@code i / 8}, bit {@code i % 8} from the least
+     * significant) is set when the {@code i}-th requested ID exists; Base64
+     * in JSON
+     */
+    private byte[] existing;
+}
@@ -1,4 +1,4 @@
-package com.progressoft/clustereddata.dto;
+package com.progressoft.clustereddata.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
@@ -23,4 +23,5 @@ public class ErrorResponse {
     private String message;
     private String path;
     private List<String> details;
+    private List<DealError> errors;
 }
@@ -1,13 +1,18 @@
 package com.progressoft.clustereddata.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.amount.FixedPointAmountDeserializer;
+import com.progressoft.clustereddata.amount.FixedPointAmountSerializer;
 import com.progressoft.clustereddata.validation.ValidCurrencyCode;
+import com.progressoft.clustereddata.validation.ValidDealAmount;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -32,9 +37,11 @@ public class FxDealRequest {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime dealTimestamp;
 
-    @NotNull(message = "Deal amount is required")
-    @Positive(message = "Deal amount must be a positive number")
-    @DecimalMin(value = "0.0001", inclusive = true, message = "Deal amount must be at least 0.0001")
-    @Digits(integer = 15, fraction = 4, message = "Deal amount must have at most 15 integer digits and 4 decimal places")
-    private BigDecimal dealAmount;
+    /**
+     * Amount in {@link FixedPointAmount} units, a plain decimal number in JSON
+     */
+    @ValidDealAmount
+    @JsonDeserialize(using = FixedPointAmountDeserializer.class)
+    @JsonSerialize(using = FixedPointAmountSerializer.class)
+    private long dealAmount = FixedPointAmount.ABSENT;
 }
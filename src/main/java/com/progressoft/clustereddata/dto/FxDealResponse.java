@@ -1,12 +1,13 @@
 package com.progressoft.clustereddata.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.progressoft.clustereddata.amount.FixedPointAmountSerializer;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -22,7 +23,8 @@ public class FxDealResponse {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime dealTimestamp;
 
-    private BigDecimal dealAmount;
+    @JsonSerialize(using = FixedPointAmountSerializer.class)
+    private long dealAmount;
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
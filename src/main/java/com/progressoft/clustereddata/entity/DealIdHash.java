@@ -0,0 +1,31 @@
+package com.progressoft.clustereddata.entity;
+
+/**
+ * 64-bit hash of a deal unique ID, stored in {@code fx_deals.deal_id_hash}.
+ * <p>
+ * Duplicate probes look the hash up first and compare the full ID only on a
+ * hit. The value is persisted, so the function must never change.
+ */
+public final class DealIdHash {
+
+    private DealIdHash() {
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the MurmurHash3 fmix64
+     * step so short IDs that differ in one character spread over all bits
+     */
+    public static long of(String dealUniqueId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < dealUniqueId.length(); i++) {
+            hash ^= dealUniqueId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
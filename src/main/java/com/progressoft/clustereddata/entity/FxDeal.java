@@ -1,30 +1,31 @@
 package com.progressoft.clustereddata.entity;
 
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.amount.FixedPointAmountConverter;
 import com.progressoft.clustereddata.validation.ValidCurrencyCode;
+import com.progressoft.clustereddata.validation.ValidDealAmount;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "fx_deals", uniqueConstraints = {
-    @UniqueConstraint(columnNames = "deal_unique_id")
-})
+@Table(name = "fx_deals")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class FxDeal {
+public class FxDeal implements Persistable<String> {
 
     @Id
     @NotNull(message = "Deal unique ID is required")
     @NotBlank(message = "Deal unique ID cannot be blank")
-    @Column(name = "deal_unique_id", nullable = false, unique = true)
+    @Column(name = "deal_unique_id", nullable = false)
     private String dealUniqueId;
 
     @NotNull(message = "From currency ISO code is required")
@@ -42,12 +43,10 @@ public class FxDeal {
     @Column(name = "deal_timestamp", nullable = false)
     private LocalDateTime dealTimestamp;
 
-    @NotNull(message = "Deal amount is required")
-    @Positive(message = "Deal amount must be a positive number")
-    @DecimalMin(value = "0.0001", inclusive = true, message = "Deal amount must be at least 0.0001")
-    @Digits(integer = 15, fraction = 4, message = "Deal amount must have at most 15 integer digits and 4 decimal places")
+    @ValidDealAmount
+    @Convert(converter = FixedPointAmountConverter.class)
     @Column(name = "deal_amount", nullable = false, precision = 19, scale = 4)
-    private BigDecimal dealAmount;
+    private long dealAmount = FixedPointAmount.ABSENT;
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -56,4 +55,32 @@ public class FxDeal {
     @UpdateTimestamp
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    /**
+     * Derived from {@code dealUniqueId}, persisted so duplicate probes can
+     * go through the compact hash index
+     */
+    @Access(AccessType.PROPERTY)
+    @Column(name = "deal_id_hash")
+    public long getDealIdHash() {
+        return dealUniqueId == null ? 0L : DealIdHash.of(dealUniqueId);
+    }
+
+    protected void setDealIdHash(long dealIdHash) {
+        // Always recomputed from dealUniqueId
+    }
+
+    @Override
+    public String getId() {
+        return dealUniqueId;
+    }
+
+    /**
+     * Deals are created with an assigned ID, so {@code save} would merge and
+     * SELECT first. A deal that has never been stored has no creation time.
+     */
+    @Override
+    public boolean isNew() {
+        return createdAt == null;
+    }
+}
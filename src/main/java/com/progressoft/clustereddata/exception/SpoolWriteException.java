@@ -0,0 +1,11 @@
+package com.progressoft.clustereddata.exception;
+
+public class SpoolWriteException extends RuntimeException {
+    public SpoolWriteException(String message) {
+        super(message);
+    }
+
+    public SpoolWriteException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
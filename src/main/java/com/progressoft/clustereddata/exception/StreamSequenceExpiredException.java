@@ -0,0 +1,7 @@
+package com.progressoft.clustereddata.exception;
+
+public class StreamSequenceExpiredException extends RuntimeException {
+    public StreamSequenceExpiredException(String message) {
+        super(message);
+    }
+}
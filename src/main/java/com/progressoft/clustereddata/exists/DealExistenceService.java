@@ -0,0 +1,232 @@
+package com.progressoft.clustereddata.exists;
+
+import com.progressoft.clustereddata.entity.DealIdHash;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Answers which of many deal IDs already exist, for clients that want to drop
+ * duplicates before sending a batch.
+ * <p>
+ * A Bloom filter over the hashes of every stored deal ID rules out unknown
+ * IDs in memory; only the IDs it cannot rule out go to the database, in one
+ * set-based query. The filter is loaded in the background at startup and
+ * kept current from {@link DealsPersistedEvent}s. Until it is loaded, and
+ * with sharded storage, every ID is checked in the database.
+ * <p>
+ * Deals written by other instances, or by the reactive runtime, publish no
+ * event here. A scheduled catch-up adds the deals created since the newest
+ * creation time seen so far, re-reading an overlap so deals that commit late
+ * are still found. Such a deal can be answered as absent until the next
+ * catch-up, so the answers are advisory and imports check again.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.exists", name = "enabled", havingValue = "true")
+@Slf4j
+public class DealExistenceService {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // deal_id_hash is NULL for deals written by other clients outside compact-key mode; their ID is read instead
+    private static final String SELECT_HOT = "SELECT deal_id_hash, created_at, "
+            + "CASE WHEN deal_id_hash IS NULL THEN deal_unique_id END FROM fx_deals";
+
+    private final FxDealRepository fxDealRepository;
+    private final ObjectProvider<ShardedFxDealStore> shardedStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExistsProperties properties;
+    private final DealIdBloomFilter filter;
+    private final Counter checked;
+    private final Counter ruledOut;
+
+    private volatile boolean filterLoaded;
+    private volatile LocalDateTime newestCreatedAt = EPOCH;
+
+    public DealExistenceService(FxDealRepository fxDealRepository,
+                                ObjectProvider<ShardedFxDealStore> shardedStore,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ExistsProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.fxDealRepository = fxDealRepository;
+        this.shardedStore = shardedStore;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.filter = new DealIdBloomFilter(properties.getExpectedDeals(), properties.getFalsePositiveRate());
+        this.checked = Counter.builder("fxdeals.exists.checked")
+                .description("Deal IDs asked about on the exists endpoint")
+                .register(meterRegistry);
+        this.ruledOut = Counter.builder("fxdeals.exists.filtered")
+                .description("Deal IDs answered as absent by the membership filter without a query")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Check which IDs exist
+     *
+     * @param dealUniqueIds the IDs to check, in client order
+     * @return a bit set whose bit {@code i} tells whether {@code dealUniqueIds[i]} exists
+     * @throws IllegalArgumentException if more than {@code max-ids} IDs are given
+     */
+    public BitSet existing(List<String> dealUniqueIds) {
+        if (dealUniqueIds.size() > properties.getMaxIds()) {
+            throw new IllegalArgumentException("At most " + properties.getMaxIds() + " deal IDs can be checked at once, got "
+                    + dealUniqueIds.size());
+        }
+        checked.increment(dealUniqueIds.size());
+
+        ShardedFxDealStore sharded = shardedStore.getIfAvailable();
+        boolean useFilter = filterLoaded && sharded == null;
+        Set<String> candidates = new HashSet<>(dealUniqueIds.size() * 2);
+        for (String id : dealUniqueIds) {
+            if (id != null && (!useFilter || filter.mightContain(DealIdHash.of(id)))) {
+                candidates.add(id);
+            }
+        }
+        if (useFilter) {
+            ruledOut.increment(dealUniqueIds.size() - candidates.size());
+        }
+
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : sharded != null ? sharded.findExisting(candidates) : findExisting(candidates);
+
+        BitSet bits = new BitSet(dealUniqueIds.size());
+        for (int i = 0; i < dealUniqueIds.size(); i++) {
+            if (existing.contains(dealUniqueIds.get(i))) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        for (FxDeal deal : event.deals()) {
+            filter.put(deal.getDealIdHash());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFilterInBackground() {
+        if (shardedStore.getIfAvailable() != null) {
+            return;
+        }
+        Thread load = new Thread(this::loadFilter, "fx-deal-exists-filter-load");
+        load.setDaemon(true);
+        load.start();
+    }
+
+    /**
+     * Add the hash of every hot and archived deal. Deals committed while this
+     * runs arrive through the event listener or the next catch-up, so none
+     * are missed.
+     */
+    void loadFilter() {
+        long started = System.nanoTime();
+        long[] loaded = {0};
+        RowCallbackHandler add = rs -> {
+            filter.put(rs.getLong(1));
+            loaded[0]++;
+        };
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query(SELECT_HOT, (RowCallbackHandler) rs -> {
+                    filter.put(hotHash(rs));
+                    loaded[0]++;
+                    seen(rs.getTimestamp(2));
+                });
+                jdbcTemplate.query("SELECT deal_id_hash FROM fx_deal_archive_ids", add);
+            });
+            filterLoaded = true;
+            log.info("Deal ID filter loaded with {} deals ({} KB) in {} ms", loaded[0], filter.sizeInBytes() / 1024,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Deal ID filter load failed, exists checks will all query the database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add the deals created since the last scan, including those committed
+     * without an event on this instance
+     */
+    @Scheduled(fixedDelayString = "${fx-deals.exists.catch-up-interval-ms:5000}",
+            initialDelayString = "${fx-deals.exists.catch-up-interval-ms:5000}")
+    public void catchUp() {
+        if (!filterLoaded) {
+            return;
+        }
+        LocalDateTime from = newestCreatedAt.minus(properties.getCatchUpOverlap());
+        long[] added = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    SELECT_HOT + " WHERE created_at >= ?",
+                    (RowCallbackHandler) rs -> {
+                        filter.put(hotHash(rs));
+                        seen(rs.getTimestamp(2));
+                        added[0]++;
+                    },
+                    Timestamp.valueOf(from.isAfter(EPOCH) ? from : EPOCH)));
+            log.debug("Deal ID filter caught up with {} deals created since {}", added[0], from);
+        } catch (RuntimeException e) {
+            log.error("Deal ID filter catch-up failed after {} deals: {}", added[0], e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hash of a {@link #SELECT_HOT} row, computed from the ID for deals
+     * stored without one
+     */
+    private static long hotHash(ResultSet rs) throws SQLException {
+        long hash = rs.getLong(1);
+        return rs.wasNull() ? DealIdHash.of(rs.getString(3)) : hash;
+    }
+
+    private void seen(Timestamp createdAt) {
+        LocalDateTime created = createdAt.toLocalDateTime();
+        if (created.isAfter(newestCreatedAt)) {
+            newestCreatedAt = created;
+        }
+    }
+
+    private Set<String> findExisting(Collection<String> ids) {
+        List<String> all = new ArrayList<>(ids);
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < all.size(); from += FxDealRows.MAX_IN_LIST) {
+            existing.addAll(fxDealRepository.findExistingDealUniqueIds(all.subList(from, Math.min(from + FxDealRows.MAX_IN_LIST, all.size()))));
+        }
+        return existing;
+    }
+}
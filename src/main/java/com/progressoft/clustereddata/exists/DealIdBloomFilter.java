@@ -0,0 +1,53 @@
+package com.progressoft.clustereddata.exists;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter over {@link com.progressoft.clustereddata.entity.DealIdHash}
+ * values. The probe positions are derived from the two halves of the 64-bit
+ * hash (Kirsch-Mitzenmacher), so no further hashing is needed.
+ */
+final class DealIdBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int probes;
+
+    DealIdBloomFilter(long expectedEntries, double falsePositiveRate) {
+        long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = wordCount * 64L;
+        this.probes = Math.max(1, (int) Math.round((double) bits / Math.max(1, expectedEntries) * Math.log(2)));
+    }
+
+    void put(long hash) {
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+        for (int i = 1; i <= probes; i++) {
+            long bit = Math.floorMod(low + (long) i * high, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    boolean mightContain(long hash) {
+        int low = (int) hash;
+        int high = (int) (hash >>> 32);
+        for (int i = 1; i <= probes; i++) {
+            long bit = Math.floorMod(low + (long) i * high, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long sizeInBytes() {
+        return bits / 8;
+    }
+}
@@ -0,0 +1,40 @@
+package com.progressoft.clustereddata.exists;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.exists")
+public class ExistsProperties {
+
+    /**
+     * Enables {@code POST /api/v1/fx-deals/exists}
+     */
+    private boolean enabled = false;
+
+    /**
+     * Most deal IDs one request may ask about
+     */
+    private int maxIds = 10_000;
+
+    /**
+     * Deals the membership filter is sized for; beyond this its false
+     * positive rate rises and more IDs go to the database
+     */
+    private long expectedDeals = 10_000_000;
+
+    /**
+     * Share of unknown IDs the filter lets through to the database at
+     * {@code expectedDeals}
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How far before the newest creation time already seen each catch-up scan
+     * starts. Creation times are stamped at insert, so a deal committing up to
+     * this much later is still added to the filter.
+     */
+    private Duration catchUpOverlap = Duration.ofMinutes(10);
+}
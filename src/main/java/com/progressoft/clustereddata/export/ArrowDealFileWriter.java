@@ -0,0 +1,183 @@
+package com.progressoft.clustereddata.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes FX deals to an Arrow IPC file in record batches.
+ * <p>
+ * Layout: {@code deal_unique_id} utf8, currency codes as int16 indexes into a
+ * shared {@link CurrencyDictionary}, {@code deal_amount} as decimal(19,4) and
+ * both timestamps as int64 epoch milliseconds (UTC).
+ */
+public class ArrowDealFileWriter implements AutoCloseable {
+
+    static final String DEAL_UNIQUE_ID = "deal_unique_id";
+    static final String FROM_CURRENCY = "from_currency_iso_code";
+    static final String TO_CURRENCY = "to_currency_iso_code";
+    static final String DEAL_TIMESTAMP = "deal_timestamp";
+    static final String DEAL_AMOUNT = "deal_amount";
+    static final String CREATED_AT = "created_at";
+
+    private static final long CURRENCY_DICTIONARY_ID = 0L;
+    private static final int AMOUNT_PRECISION = 19;
+    private static final int AMOUNT_SCALE = 4;
+
+    private final CurrencyDictionary currencies;
+    private final int batchSize;
+    private final BufferAllocator allocator;
+    private final VarCharVector dictionaryVector;
+    private final VectorSchemaRoot root;
+    private final FileChannel channel;
+    private final ArrowFileWriter writer;
+
+    private final VarCharVector dealUniqueIds;
+    private final SmallIntVector fromCurrencies;
+    private final SmallIntVector toCurrencies;
+    private final TimeStampMilliTZVector dealTimestamps;
+    private final DecimalVector dealAmounts;
+    private final TimeStampMilliTZVector createdAts;
+
+    private int rowsInBatch;
+    private long rowsWritten;
+
+    public ArrowDealFileWriter(Path file, CurrencyDictionary currencies, int batchSize) {
+        this.currencies = currencies;
+        this.batchSize = batchSize;
+        this.allocator = new RootAllocator();
+
+        DictionaryEncoding encoding = new DictionaryEncoding(CURRENCY_DICTIONARY_ID, true, new ArrowType.Int(16, true));
+        this.dictionaryVector = buildDictionaryVector();
+        DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider();
+        provider.put(new Dictionary(dictionaryVector, encoding));
+
+        ArrowType.Timestamp utcMillis = new ArrowType.Timestamp(TimeUnit.MILLISECOND, "UTC");
+        Schema schema = new Schema(List.of(
+                Field.notNullable(DEAL_UNIQUE_ID, ArrowType.Utf8.INSTANCE),
+                new Field(FROM_CURRENCY, new FieldType(false, new ArrowType.Int(16, true), encoding), null),
+                new Field(TO_CURRENCY, new FieldType(false, new ArrowType.Int(16, true), encoding), null),
+                Field.notNullable(DEAL_TIMESTAMP, utcMillis),
+                Field.notNullable(DEAL_AMOUNT, new ArrowType.Decimal(AMOUNT_PRECISION, AMOUNT_SCALE, 128)),
+                Field.notNullable(CREATED_AT, utcMillis)
+        ));
+        this.root = VectorSchemaRoot.create(schema, allocator);
+        this.dealUniqueIds = (VarCharVector) root.getVector(DEAL_UNIQUE_ID);
+        this.fromCurrencies = (SmallIntVector) root.getVector(FROM_CURRENCY);
+        this.toCurrencies = (SmallIntVector) root.getVector(TO_CURRENCY);
+        this.dealTimestamps = (TimeStampMilliTZVector) root.getVector(DEAL_TIMESTAMP);
+        this.dealAmounts = (DecimalVector) root.getVector(DEAL_AMOUNT);
+        this.createdAts = (TimeStampMilliTZVector) root.getVector(CREATED_AT);
+
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            this.writer = new ArrowFileWriter(root, provider, channel);
+            writer.start();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Unable to open export file " + file, e);
+        }
+    }
+
+    public void append(String dealUniqueId, String fromCurrency, String toCurrency,
+                       long dealTimestampMillis, BigDecimal dealAmount, long createdAtMillis) {
+        int row = rowsInBatch;
+        dealUniqueIds.setSafe(row, dealUniqueId.getBytes(StandardCharsets.UTF_8));
+        fromCurrencies.setSafe(row, currencies.indexOf(fromCurrency));
+        toCurrencies.setSafe(row, currencies.indexOf(toCurrency));
+        dealTimestamps.setSafe(row, dealTimestampMillis);
+        dealAmounts.setSafe(row, dealAmount.setScale(AMOUNT_SCALE, RoundingMode.UNNECESSARY));
+        createdAts.setSafe(row, createdAtMillis);
+
+        rowsInBatch++;
+        if (rowsInBatch == batchSize) {
+            flushBatch();
+        }
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten + rowsInBatch;
+    }
+
+    /**
+     * Writes the pending batch and the file footer. The file is only readable
+     * once this returns.
+     */
+    public void finish() {
+        if (rowsInBatch > 0) {
+            flushBatch();
+        }
+        try {
+            writer.end();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to finish export file", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closeQuietly(writer);
+        closeQuietly(channel);
+        root.close();
+        dictionaryVector.close();
+        allocator.close();
+    }
+
+    private void flushBatch() {
+        root.setRowCount(rowsInBatch);
+        try {
+            writer.writeBatch();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write record batch", e);
+        }
+        rowsWritten += rowsInBatch;
+        rowsInBatch = 0;
+        root.getFieldVectors().forEach(FieldVector::reset);
+    }
+
+    private VarCharVector buildDictionaryVector() {
+        VarCharVector vector = new VarCharVector("currency_dictionary", allocator);
+        vector.allocateNew(currencies.size());
+        for (int i = 0; i < currencies.size(); i++) {
+            vector.setSafe(i, currencies.codeAt(i).getBytes(StandardCharsets.US_ASCII));
+        }
+        vector.setValueCount(currencies.size());
+        return vector;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // the export is abandoned at this point, nothing useful to report
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.progressoft.clustereddata.export;
+
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed dictionary of ISO 4217 codes shared by every export file, so that the
+ * currency columns can be stored as small integer indexes.
+ */
+public final class CurrencyDictionary {
+
+    private final List<String> codes;
+    private final Map<String, Short> indexes;
+
+    public CurrencyDictionary() {
+        this.codes = Currency.getAvailableCurrencies()
+                .stream()
+                .map(Currency::getCurrencyCode)
+                .sorted()
+                .toList();
+        this.indexes = new HashMap<>(codes.size() * 2);
+        for (int i = 0; i < codes.size(); i++) {
+            indexes.put(codes.get(i), (short) i);
+        }
+    }
+
+    public short indexOf(String currencyCode) {
+        Short index = indexes.get(currencyCode);
+        if (index == null) {
+            throw new IllegalArgumentException("Currency code '" + currencyCode + "' is not in the export dictionary");
+        }
+        return index;
+    }
+
+    public String codeAt(int index) {
+        return codes.get(index);
+    }
+
+    public List<String> codes() {
+        return codes;
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,39 @@
+package com.progressoft.clustereddata.export;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.export")
+public class ExportProperties {
+
+    /**
+     * Enables the scheduled incremental export and the export endpoint
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory the columnar files and the high-water mark are written to
+     */
+    private String directory = "./exports";
+
+    /**
+     * Number of rows per Arrow record batch
+     */
+    private int batchSize = 65_536;
+
+    /**
+     * JDBC fetch size used while streaming rows out of fx_deals
+     */
+    private int fetchSize = 10_000;
+
+    /**
+     * Rows created more recently than this are left for the next run. Runs
+     * continue after the last exported row, so a transaction that commits
+     * more than this after stamping created_at is not exported; keep it above
+     * the longest insert transaction.
+     */
+    private Duration safetyLag = Duration.ofSeconds(30);
+}
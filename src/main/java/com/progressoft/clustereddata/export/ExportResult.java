@@ -0,0 +1,19 @@
+package com.progressoft.clustereddata.export;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExportResult {
+
+    private String file;
+    private long rowCount;
+    private Instant highWaterMark;
+}
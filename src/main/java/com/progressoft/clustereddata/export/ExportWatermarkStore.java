@@ -0,0 +1,63 @@
+package com.progressoft.clustereddata.export;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persists the incremental export position next to the exported files: the
+ * {@code created_at} and ID of the last exported deal.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExportWatermarkStore {
+
+    private static final String WATERMARK_FILE = "_created_at.watermark";
+
+    private final ExportProperties properties;
+
+    /**
+     * Position after the last exported deal, in (created_at, deal_unique_id) order
+     */
+    public record Watermark(Instant createdAt, String dealUniqueId) {
+    }
+
+    public Optional<Watermark> read() {
+        Path file = Path.of(properties.getDirectory(), WATERMARK_FILE);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            return Optional.of(new Watermark(Instant.parse(lines.get(0).trim()), lines.get(1)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read export watermark " + file, e);
+        }
+    }
+
+    /**
+     * Replace the watermark with one atomic file move, so a crash never
+     * leaves it half written
+     */
+    public void write(Watermark watermark) {
+        Path directory = Path.of(properties.getDirectory());
+        Path file = directory.resolve(WATERMARK_FILE);
+        Path tmp = directory.resolve(WATERMARK_FILE + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            Files.write(tmp, List.of(watermark.createdAt().toString(), watermark.dealUniqueId()), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write export watermark " + file, e);
+        }
+    }
+}
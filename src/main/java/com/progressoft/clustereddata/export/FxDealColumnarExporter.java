@@ -0,0 +1,214 @@
+package com.progressoft.clustereddata.export;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class FxDealColumnarExporter {
+
+    private static final String SELECT_COLUMNS =
+            "SELECT deal_unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount, created_at FROM fx_deals ";
+
+    private static final String RANGE_QUERY = SELECT_COLUMNS
+            + "WHERE deal_timestamp >= ? AND deal_timestamp < ? ORDER BY deal_timestamp";
+
+    private static final String INCREMENTAL_QUERY = SELECT_COLUMNS
+            + "WHERE created_at >= ? AND (created_at, deal_unique_id) > (?, ?) AND created_at <= ? "
+            + "ORDER BY created_at, deal_unique_id";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExportProperties properties;
+    private final ExportWatermarkStore watermarkStore;
+    private final CurrencyDictionary currencies = new CurrencyDictionary();
+    private final Clock clock;
+
+    @Autowired
+    public FxDealColumnarExporter(DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  ExportProperties properties,
+                                  ExportWatermarkStore watermarkStore) {
+        this(dataSource, transactionManager, properties, watermarkStore, Clock.systemUTC());
+    }
+
+    FxDealColumnarExporter(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           ExportProperties properties,
+                           ExportWatermarkStore watermarkStore,
+                           Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.watermarkStore = watermarkStore;
+        this.clock = clock;
+    }
+
+    /**
+     * Export all deals whose deal timestamp falls in [from, to)
+     *
+     * @param from inclusive lower bound on deal_timestamp
+     * @param to exclusive upper bound on deal_timestamp
+     * @return the written file and its row count
+     */
+    public ExportResult exportRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Export range start must be before its end");
+        }
+        String fileName = "fx_deals_" + FILE_TIMESTAMP.format(from) + "_" + FILE_TIMESTAMP.format(to) + ".arrow";
+        log.info("Exporting FX deals with deal timestamp in [{}, {})", from, to);
+        return export(fileName, RANGE_QUERY, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Export every deal created since the last incremental run and advance the
+     * high-water mark to the last exported deal.
+     * <p>
+     * Deals are read in (created_at, deal_unique_id) order after the mark, so
+     * deals sharing a created_at with the mark are neither skipped nor
+     * exported twice. created_at is stamped at insert, not at commit, so a
+     * run stops {@code safetyLag} short of now to let in-flight transactions
+     * commit first.
+     *
+     * @return the written file, or a result without file when nothing was new
+     */
+    public synchronized ExportResult exportIncremental() {
+        Optional<ExportWatermarkStore.Watermark> watermark = watermarkStore.read();
+        Instant lowerBound = watermark.map(ExportWatermarkStore.Watermark::createdAt).orElse(Instant.EPOCH);
+        // Sorts before every deal with the same created_at, as deal IDs are never blank
+        String afterId = watermark.map(ExportWatermarkStore.Watermark::dealUniqueId).orElse("");
+        Instant upperBound = clock.instant().minus(properties.getSafetyLag());
+        if (!lowerBound.isBefore(upperBound)) {
+            return ExportResult.builder().highWaterMark(lowerBound).build();
+        }
+
+        String fileName = "fx_deals_created_" + lowerBound.toEpochMilli() + "_" + upperBound.toEpochMilli() + ".arrow";
+        log.info("Exporting FX deals created in [{}, {}] after deal '{}'", lowerBound, upperBound, afterId);
+        LastRow last = new LastRow();
+        ExportResult result = export(fileName, INCREMENTAL_QUERY, last, Timestamp.from(lowerBound),
+                Timestamp.from(lowerBound), afterId, Timestamp.from(upperBound));
+
+        if (result.getRowCount() > 0) {
+            Instant newWatermark = last.createdAt.toInstant();
+            result.setHighWaterMark(newWatermark);
+            watermarkStore.write(new ExportWatermarkStore.Watermark(newWatermark, last.dealUniqueId));
+        } else {
+            result.setHighWaterMark(lowerBound);
+        }
+        return result;
+    }
+
+    private ExportResult export(String fileName, String sql, Timestamp lower, Timestamp upper) {
+        return export(fileName, sql, null, lower, upper);
+    }
+
+    /**
+     * @param last receives the created_at and ID of the last row read, or {@code null}
+     */
+    private ExportResult export(String fileName, String sql, LastRow last, Object... args) {
+        Path directory = Path.of(properties.getDirectory());
+        Path target = directory.resolve(fileName);
+        Path tmp = directory.resolve(fileName + ".tmp");
+
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to prepare export directory " + directory, e);
+        }
+
+        Timestamp[] maxCreatedAt = {null};
+        long rowCount;
+        try (ArrowDealFileWriter writer = new ArrowDealFileWriter(tmp, currencies, properties.getBatchSize())) {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                Timestamp createdAt = rs.getTimestamp(6);
+                if (last != null) {
+                    last.createdAt = createdAt;
+                    last.dealUniqueId = rs.getString(1);
+                }
+                writer.append(
+                        rs.getString(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        utcMillis(rs.getTimestamp(4)),
+                        rs.getBigDecimal(5),
+                        utcMillis(createdAt));
+                if (maxCreatedAt[0] == null || createdAt.after(maxCreatedAt[0])) {
+                    maxCreatedAt[0] = createdAt;
+                }
+            }, args));
+            writer.finish();
+            rowCount = writer.getRowsWritten();
+        } catch (RuntimeException e) {
+            deleteQuietly(tmp);
+            throw e;
+        }
+
+        if (rowCount == 0) {
+            deleteQuietly(tmp);
+            log.info("No FX deals to export for {}", fileName);
+            return ExportResult.builder().rowCount(0).build();
+        }
+
+        try {
+            // Re-exporting a range replaces its previous file
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to publish export file " + target, e);
+        }
+
+        log.info("Exported {} FX deals to {}", rowCount, target);
+        return ExportResult.builder()
+                .file(target.toString())
+                .rowCount(rowCount)
+                .highWaterMark(maxCreatedAt[0].toInstant())
+                .build();
+    }
+
+    /**
+     * Keyset position of the last row an incremental run read
+     */
+    private static final class LastRow {
+        private Timestamp createdAt;
+        private String dealUniqueId;
+    }
+
+    /**
+     * Epoch millis of a zone-less TIMESTAMP read as UTC, as in the file
+     * schema, whatever the JVM time zone
+     */
+    private static long utcMillis(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Unable to delete partial export file {}: {}", file, e.getMessage());
+        }
+    }
+}
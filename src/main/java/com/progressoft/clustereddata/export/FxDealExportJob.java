@@ -0,0 +1,27 @@
+package com.progressoft.clustereddata.export;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.export", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class FxDealExportJob {
+
+    private final FxDealColumnarExporter exporter;
+
+    @Scheduled(fixedDelayString = "${fx-deals.export.interval-ms:300000}",
+            initialDelayString = "${fx-deals.export.initial-delay-ms:60000}")
+    public void exportNewDeals() {
+        try {
+            ExportResult result = exporter.exportIncremental();
+            log.debug("Incremental export finished: {}", result);
+        } catch (Exception e) {
+            log.error("Incremental FX deal export failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.progressoft.clustereddata.amount.FixedPointAmountSerializer;
+
+import java.time.LocalDateTime;
+
+public record HotDeal(String dealUniqueId,
+                      String fromCurrencyIsoCode,
+                      String toCurrencyIsoCode,
+                      LocalDateTime dealTimestamp,
+                      @JsonSerialize(using = FixedPointAmountSerializer.class) long dealAmount) {
+}
@@ -0,0 +1,375 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.export.CurrencyDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Recent deals held in off-heap columns for intraday analytics.
+ * <p>
+ * Each deal takes one slot of a ring: its deal timestamp (epoch millis), its
+ * {@link FixedPointAmount} units, its currency pair as two dictionary indexes
+ * packed into an int, and the position and length of its deal ID in a second
+ * ring of UTF-8 ID bytes. Once either ring is full the oldest inserted deals
+ * are evicted.
+ * <p>
+ * There is a single writer at a time. Scans take no lock: they run over the
+ * published slots in parallel and are retried if the writer evicted deals in
+ * the scanned range meanwhile, like an optimistic read of a seqlock.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.hot-window", name = "enabled", havingValue = "true")
+@Slf4j
+public class HotDealWindow {
+
+    private static final int MIN_ROWS_PER_TASK = 64 * 1024;
+    private static final int MAX_OPTIMISTIC_SCANS = 4;
+    private static final int ID_LENGTH_BITS = 16;
+    private static final long ID_LENGTH_MASK = (1L << ID_LENGTH_BITS) - 1;
+    /** Bytes per deal in the slot ring: timestamp, amount, pair and ID reference */
+    private static final int SLOT_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final int capacity;
+    private final int idCapacity;
+    private final int maxIdBytes;
+    private final Duration retention;
+    private final Clock clock;
+    private final CurrencyDictionary currencies = new CurrencyDictionary();
+    private final ByteBuffer timestamps;
+    private final ByteBuffer amounts;
+    private final ByteBuffer pairs;
+    /** Per slot, the position of its deal ID in the ID ring shifted left by 16 bits, or'ed with its length */
+    private final ByteBuffer idRefs;
+    private final ByteBuffer idBytes;
+
+    /** First deal still readable; raised before any of its slot or ID bytes are overwritten */
+    private volatile long oldest;
+    /** Deals ever appended; those from {@code oldest} on are readable */
+    private volatile long published;
+    /** ID bytes ever written, guarded by this */
+    private long idWritten;
+
+    @Autowired
+    public HotDealWindow(HotWindowProperties properties) {
+        this(properties.getMaxDeals(), properties.getIdBytesPerDeal(), properties.getRetention(),
+                Clock.systemDefaultZone());
+    }
+
+    HotDealWindow(int capacity, int idBytesPerDeal, Duration retention, Clock clock) {
+        long idCapacity = (long) capacity * idBytesPerDeal;
+        if (idCapacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Hot window ID buffer of " + idCapacity + " bytes exceeds 2 GB");
+        }
+        this.capacity = capacity;
+        this.idCapacity = (int) idCapacity;
+        // A deal ID never takes more than half the ring, so one append always fits after evicting older deals
+        this.maxIdBytes = (int) Math.min(ID_LENGTH_MASK, idCapacity / 2);
+        this.retention = retention;
+        this.clock = clock;
+        this.timestamps = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+        this.amounts = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+        this.pairs = ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder());
+        this.idRefs = ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder());
+        this.idBytes = ByteBuffer.allocateDirect(this.idCapacity);
+        log.info("Hot window holds up to {} deals ({} MB off-heap) over {}",
+                capacity, ((long) capacity * SLOT_BYTES + idCapacity) >> 20, retention);
+    }
+
+    /**
+     * Add committed deals to the window
+     */
+    public synchronized void append(Collection<FxDeal> deals) {
+        List<Row> rows = new ArrayList<>(deals.size());
+        for (FxDeal deal : deals) {
+            long amount = deal.getDealAmount();
+            if (!FixedPointAmount.isRepresentable(amount)) {
+                log.debug("Deal {} has no representable amount, left out of the hot window", deal.getDealUniqueId());
+                continue;
+            }
+            int pair;
+            try {
+                pair = currencies.indexOf(deal.getFromCurrencyIsoCode()) << 16
+                        | currencies.indexOf(deal.getToCurrencyIsoCode());
+            } catch (IllegalArgumentException e) {
+                log.debug("Deal {} does not fit the hot window: {}", deal.getDealUniqueId(), e.getMessage());
+                continue;
+            }
+            byte[] id = deal.getDealUniqueId().getBytes(StandardCharsets.UTF_8);
+            if (id.length > maxIdBytes) {
+                log.debug("Deal {} has an ID longer than {} bytes, left out of the hot window",
+                        deal.getDealUniqueId(), maxIdBytes);
+                continue;
+            }
+            rows.add(new Row(toEpochMillis(deal.getDealTimestamp()), amount, pair, id));
+        }
+
+        // Chunks of at most half of either ring only ever evict deals appended before them
+        int from = 0;
+        while (from < rows.size()) {
+            int to = from;
+            long chunkIdBytes = 0;
+            while (to < rows.size() && to - from < Math.max(1, capacity / 2)
+                    && chunkIdBytes + rows.get(to).id().length <= idCapacity / 2) {
+                chunkIdBytes += rows.get(to++).id().length;
+            }
+            write(rows.subList(from, to), chunkIdBytes);
+            from = to;
+        }
+    }
+
+    private void write(List<Row> rows, long chunkIdBytes) {
+        long next = published;
+        long end = next + rows.size();
+        long idEnd = idWritten + chunkIdBytes;
+        long first = Math.max(oldest, end - capacity);
+        while (first < next && idRefs.getLong(slot(first) * Long.BYTES) >>> ID_LENGTH_BITS < idEnd - idCapacity) {
+            first++;
+        }
+        oldest = first;
+        // Readers that check oldest after their scan must see it before any slot changes
+        VarHandle.releaseFence();
+
+        for (Row row : rows) {
+            int slot = slot(next++);
+            timestamps.putLong(slot * Long.BYTES, row.timestamp());
+            amounts.putLong(slot * Long.BYTES, row.amount());
+            pairs.putInt(slot * Integer.BYTES, row.pair());
+            idRefs.putLong(slot * Long.BYTES, idWritten << ID_LENGTH_BITS | row.id().length);
+            int at = (int) (idWritten % idCapacity);
+            int head = Math.min(row.id().length, idCapacity - at);
+            idBytes.put(at, row.id(), 0, head);
+            idBytes.put(0, row.id(), head, row.id().length - head);
+            idWritten += row.id().length;
+        }
+        published = end;
+    }
+
+    /**
+     * Number and total amount of deals in one currency pair over the last
+     * {@code lookback}
+     */
+    public PairVolume volume(String fromCurrencyIsoCode, String toCurrencyIsoCode, Duration lookback) {
+        int pair = currencies.indexOf(fromCurrencyIsoCode.toUpperCase()) << 16
+                | currencies.indexOf(toCurrencyIsoCode.toUpperCase());
+        LocalDateTime since = since(lookback);
+        long sinceMillis = toEpochMillis(since);
+
+        VolumeSum sum = scan(VolumeSum::new, (acc, slot) -> {
+            if (pairs.getInt(slot * Integer.BYTES) == pair
+                    && timestamps.getLong(slot * Long.BYTES) >= sinceMillis) {
+                acc.add(amounts.getLong(slot * Long.BYTES));
+            }
+        }, VolumeSum::merge);
+
+        return new PairVolume(fromCurrencyIsoCode.toUpperCase(), toCurrencyIsoCode.toUpperCase(), since,
+                sum.count, new BigDecimal(sum.total(), FixedPointAmount.SCALE));
+    }
+
+    /**
+     * The largest deals, by amount, over the last {@code lookback}
+     */
+    public List<HotDeal> largest(Duration lookback, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1");
+        }
+        long sinceMillis = toEpochMillis(since(lookback));
+
+        TopDeals top = scan(() -> new TopDeals(limit), (acc, slot) -> {
+            long timestamp = timestamps.getLong(slot * Long.BYTES);
+            if (timestamp >= sinceMillis) {
+                long amount = amounts.getLong(slot * Long.BYTES);
+                // IDs are only decoded for deals that make it into the top so far
+                if (acc.accepts(amount)) {
+                    acc.add(new Candidate(amount, timestamp, pairs.getInt(slot * Integer.BYTES), dealIdAt(slot)));
+                }
+            }
+        }, TopDeals::merge);
+
+        return top.sortedDescending()
+                .stream()
+                .map(candidate -> new HotDeal(
+                        candidate.dealUniqueId(),
+                        currencies.codeAt(candidate.pair() >>> 16),
+                        currencies.codeAt(candidate.pair() & 0xFFFF),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(candidate.timestamp()), ZoneOffset.UTC),
+                        candidate.amount()))
+                .toList();
+    }
+
+    public long size() {
+        long end = published;
+        return Math.max(0, end - Math.max(oldest, end - capacity));
+    }
+
+    private <A> A scan(Supplier<A> identity, SlotVisitor<A> visitor, BinaryOperator<A> combiner) {
+        for (int attempt = 0; attempt < MAX_OPTIMISTIC_SCANS; attempt++) {
+            long end = published;
+            long start = Math.max(oldest, end - capacity);
+            A result = scanRange(start, end, identity, visitor, combiner);
+            // Slots read above must not be reordered after the check below
+            VarHandle.acquireFence();
+            if (oldest <= start) {
+                return result;
+            }
+        }
+        // The writer keeps evicting from the scanned range, hold it off for one pass
+        synchronized (this) {
+            long end = published;
+            return scanRange(Math.max(oldest, end - capacity), end, identity, visitor, combiner);
+        }
+    }
+
+    private <A> A scanRange(long start, long end, Supplier<A> identity, SlotVisitor<A> visitor,
+                            BinaryOperator<A> combiner) {
+        long rows = end - start;
+        int tasks = (int) Math.max(1, Math.min(rows / MIN_ROWS_PER_TASK, Runtime.getRuntime().availableProcessors()));
+        IntStream taskIds = IntStream.range(0, tasks);
+        if (tasks > 1) {
+            taskIds = taskIds.parallel();
+        }
+        return taskIds.mapToObj(task -> {
+            A accumulator = identity.get();
+            long from = start + rows * task / tasks;
+            long to = start + rows * (task + 1) / tasks;
+            for (long sequence = from; sequence < to; sequence++) {
+                visitor.visit(accumulator, slot(sequence));
+            }
+            return accumulator;
+        }).reduce(combiner).orElseGet(identity);
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    /**
+     * The deal ID of a slot. A torn read returns garbage of bounded length,
+     * which the scan then discards.
+     */
+    private String dealIdAt(int slot) {
+        long ref = idRefs.getLong(slot * Long.BYTES);
+        byte[] id = new byte[(int) Math.min(ref & ID_LENGTH_MASK, idCapacity)];
+        int at = (int) ((ref >>> ID_LENGTH_BITS) % idCapacity);
+        int head = Math.min(id.length, idCapacity - at);
+        idBytes.get(at, id, 0, head);
+        idBytes.get(0, id, head, id.length - head);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    private LocalDateTime since(Duration lookback) {
+        if (lookback.isNegative() || lookback.compareTo(retention) > 0) {
+            throw new IllegalArgumentException("Lookback must be between 0 and " + retention);
+        }
+        return LocalDateTime.now(clock).minus(lookback);
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @FunctionalInterface
+    private interface SlotVisitor<A> {
+        void visit(A accumulator, int slot);
+    }
+
+    /**
+     * Sum of positive {@link FixedPointAmount} units kept as an unsigned 128-bit number, so
+     * that it cannot overflow whatever the window holds
+     */
+    private static final class VolumeSum {
+        private long count;
+        private long low;
+        private long high;
+
+        void add(long amount) {
+            count++;
+            low += amount;
+            if (Long.compareUnsigned(low, amount) < 0) {
+                high++;
+            }
+        }
+
+        VolumeSum merge(VolumeSum other) {
+            count += other.count;
+            long before = low;
+            low += other.low;
+            high += other.high;
+            if (Long.compareUnsigned(low, before) < 0) {
+                high++;
+            }
+            return this;
+        }
+
+        BigInteger total() {
+            return BigInteger.valueOf(high).shiftLeft(64).add(new BigInteger(Long.toUnsignedString(low)));
+        }
+    }
+
+    private record Row(long timestamp, long amount, int pair, byte[] id) {
+    }
+
+    private record Candidate(long amount, long timestamp, int pair, String dealUniqueId) {
+    }
+
+    private static final class TopDeals {
+        private static final Comparator<Candidate> BY_AMOUNT = Comparator.comparingLong(Candidate::amount);
+
+        private final int limit;
+        private final PriorityQueue<Candidate> smallestFirst;
+
+        TopDeals(int limit) {
+            this.limit = limit;
+            this.smallestFirst = new PriorityQueue<>(limit + 1, BY_AMOUNT);
+        }
+
+        boolean accepts(long amount) {
+            return smallestFirst.size() < limit || smallestFirst.peek().amount() < amount;
+        }
+
+        void add(Candidate candidate) {
+            smallestFirst.add(candidate);
+            if (smallestFirst.size() > limit) {
+                smallestFirst.poll();
+            }
+        }
+
+        TopDeals merge(TopDeals other) {
+            other.smallestFirst.forEach(c -> {
+                if (accepts(c.amount())) {
+                    add(c);
+                }
+            });
+            return this;
+        }
+
+        List<Candidate> sortedDescending() {
+            List<Candidate> sorted = new ArrayList<>(smallestFirst);
+            sorted.sort(BY_AMOUNT.reversed());
+            return sorted;
+        }
+    }
+}
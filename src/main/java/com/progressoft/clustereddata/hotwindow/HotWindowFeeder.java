@@ -0,0 +1,170 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the {@link HotDealWindow} filled: committed inserts are appended as
+ * they happen, and on startup the window is rebuilt from fx_deals in the
+ * background. The rebuild only reads deals created before this instance
+ * started listening.
+ * <p>
+ * A deal created before that point can still commit, and be published,
+ * while the rebuild runs, so the rebuild may read it as well. Such late deals
+ * are held back until the rebuild has read everything. The rebuild runs in one
+ * repeatable-read transaction, and its last query asks its own snapshot which
+ * of them it already appended; only the others are appended then. The IDs of
+ * rebuilt deals are never kept.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.hot-window", name = "enabled", havingValue = "true")
+@Slf4j
+public class HotWindowFeeder {
+
+    private static final int APPEND_BATCH = 4_096;
+
+    private final HotDealWindow window;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final HotWindowProperties properties;
+    private final LocalDateTime listeningSince = LocalDateTime.now();
+    /** Late deals held back until the rebuild ends, null after that; guarded by this */
+    private Map<String, FxDeal> lateDeals = new LinkedHashMap<>();
+
+    public HotWindowFeeder(HotDealWindow window,
+                           DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           HotWindowProperties properties) {
+        this.window = window;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getRebuildFetchSize());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        List<FxDeal> deals = event.deals();
+        synchronized (this) {
+            if (lateDeals != null) {
+                List<FxDeal> current = new ArrayList<>(deals.size());
+                for (FxDeal deal : deals) {
+                    // Deals created since listening started are outside the rebuild
+                    if (deal.getCreatedAt() != null && !deal.getCreatedAt().isBefore(listeningSince)) {
+                        current.add(deal);
+                    } else {
+                        lateDeals.put(deal.getDealUniqueId(), deal);
+                    }
+                }
+                deals = current;
+            }
+        }
+        window.append(deals);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        Thread rebuild = new Thread(this::rebuild, "fx-deal-hot-window-rebuild");
+        rebuild.setDaemon(true);
+        rebuild.start();
+    }
+
+    void rebuild() {
+        LocalDateTime from = listeningSince.minus(properties.getRetention());
+        List<FxDeal> pending = new ArrayList<>(APPEND_BATCH);
+        long started = System.nanoTime();
+        long[] loaded = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.query(
+                        "SELECT deal_unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount "
+                                + "FROM fx_deals WHERE deal_timestamp >= ? AND created_at < ? ORDER BY created_at",
+                        (RowCallbackHandler) rs -> {
+                            FxDeal deal = new FxDeal();
+                            deal.setDealUniqueId(rs.getString(1));
+                            deal.setFromCurrencyIsoCode(rs.getString(2));
+                            deal.setToCurrencyIsoCode(rs.getString(3));
+                            deal.setDealTimestamp(rs.getTimestamp(4).toLocalDateTime());
+                            deal.setDealAmount(FixedPointAmount.of(rs.getBigDecimal(5)));
+                            pending.add(deal);
+                            if (pending.size() == APPEND_BATCH) {
+                                window.append(pending);
+                                loaded[0] += pending.size();
+                                pending.clear();
+                            }
+                        },
+                        Timestamp.valueOf(from), Timestamp.valueOf(listeningSince));
+                window.append(pending);
+                loaded[0] += pending.size();
+
+                List<FxDeal> late = releaseLateDeals();
+                Set<String> rebuilt = findInSnapshot(late, from);
+                window.append(late.stream().filter(deal -> !rebuilt.contains(deal.getDealUniqueId())).toList());
+            });
+            log.info("Hot window rebuilt with {} deals in {} ms", loaded[0], (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Hot window rebuild failed after {} deals, it only holds new inserts: {}",
+                    loaded[0], e.getMessage(), e);
+        } finally {
+            // After a failure the late deals may or may not have been read; appending them keeps them visible
+            window.append(releaseLateDeals());
+        }
+    }
+
+    /**
+     * Stop holding back late deals
+     *
+     * @return the deals held back so far, empty if already released
+     */
+    private synchronized List<FxDeal> releaseLateDeals() {
+        List<FxDeal> late = lateDeals != null ? new ArrayList<>(lateDeals.values()) : List.of();
+        lateDeals = null;
+        return late;
+    }
+
+    /**
+     * IDs of the given deals that the rebuild query read, asked in the same
+     * repeatable-read transaction so that it sees the same snapshot
+     */
+    private Set<String> findInSnapshot(List<FxDeal> deals, LocalDateTime from) {
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        List<String> ids = deals.stream().map(FxDeal::getDealUniqueId).toList();
+        Set<String> found = new HashSet<>();
+        for (int start = 0; start < ids.size(); start += FxDealRows.MAX_IN_LIST) {
+            found.addAll(namedJdbcTemplate.queryForList(
+                    "SELECT deal_unique_id FROM fx_deals WHERE deal_unique_id IN (:ids) "
+                            + "AND deal_timestamp >= :from AND created_at < :listeningSince",
+                    Map.of("ids", ids.subList(start, Math.min(start + FxDealRows.MAX_IN_LIST, ids.size())),
+                            "from", Timestamp.valueOf(from),
+                            "listeningSince", Timestamp.valueOf(listeningSince)),
+                    String.class));
+        }
+        return found;
+    }
+}
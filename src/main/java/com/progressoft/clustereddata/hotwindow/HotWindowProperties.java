@@ -0,0 +1,39 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.hot-window")
+public class HotWindowProperties {
+
+    /**
+     * Keeps recent deals in memory and serves the intraday analytics from it
+     */
+    private boolean enabled = false;
+
+    /**
+     * How far back, by deal timestamp, the window answers queries
+     */
+    private Duration retention = Duration.ofHours(4);
+
+    /**
+     * Number of deals the off-heap buffers hold (28 bytes each, plus their
+     * ID bytes). Once full, the oldest inserted deals are overwritten.
+     */
+    private int maxDeals = 4_000_000;
+
+    /**
+     * Off-heap bytes reserved per deal for its UTF-8 deal ID; the ID buffer
+     * holds {@code max-deals} times this. With longer IDs on average, the
+     * oldest deals are overwritten before {@code max-deals} is reached.
+     */
+    private int idBytesPerDeal = 32;
+
+    /**
+     * JDBC fetch size used while rebuilding the window on startup
+     */
+    private int rebuildFetchSize = 10_000;
+}
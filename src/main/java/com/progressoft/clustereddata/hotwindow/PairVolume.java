@@ -0,0 +1,11 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PairVolume(String fromCurrencyIsoCode,
+                         String toCurrencyIsoCode,
+                         LocalDateTime since,
+                         long dealCount,
+                         BigDecimal totalAmount) {
+}
@@ -0,0 +1,13 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.service.DealOutcome;
+
+/**
+ * Write path a deal received by the TCP listener is handed to
+ */
+@FunctionalInterface
+public interface DealSubmitter {
+
+    DealOutcome submit(FxDealRequest request);
+}
@@ -0,0 +1,41 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.service.DealOutcome;
+
+import java.util.List;
+
+/**
+ * Acknowledgement line sent back for every deal line received, in the order
+ * the deals were received
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record IngestAck(String dealUniqueId, Status status, List<DealError> errors, String message) {
+
+    public enum Status {
+        ACCEPTED,
+        DUPLICATE,
+        INVALID,
+        /** The line was not a readable deal */
+        MALFORMED,
+        /** The deal could not be stored, it may be retried */
+        ERROR
+    }
+
+    public static IngestAck of(DealOutcome outcome) {
+        return switch (outcome) {
+            case DealOutcome.Accepted accepted -> new IngestAck(accepted.dealUniqueId(), Status.ACCEPTED, null, null);
+            case DealOutcome.Duplicate duplicate -> new IngestAck(duplicate.dealUniqueId(), Status.DUPLICATE, null, null);
+            case DealOutcome.Invalid invalid -> new IngestAck(invalid.dealUniqueId(), Status.INVALID, invalid.errors(), null);
+        };
+    }
+
+    public static IngestAck malformed(String message) {
+        return new IngestAck(null, Status.MALFORMED, null, message);
+    }
+
+    public static IngestAck error(String dealUniqueId, String message) {
+        return new IngestAck(dealUniqueId, Status.ERROR, null, message);
+    }
+}
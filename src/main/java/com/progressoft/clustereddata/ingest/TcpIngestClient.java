@@ -0,0 +1,112 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Blocking client for {@link TcpIngestListener}, for feeds and load tests.
+ * <p>
+ * {@link #submitAll} pipelines: a background thread writes every deal while
+ * the caller reads the acknowledgements, so the connection never waits on a
+ * round trip. Not thread-safe, use one client per thread.
+ */
+public class TcpIngestClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final OutputStream output;
+    private final InputStream input;
+    private final ObjectWriter requestWriter;
+    private final ObjectReader ackReader;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+
+    public TcpIngestClient(String host, int port) throws IOException {
+        this(host, port, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    public TcpIngestClient(String host, int port, ObjectMapper objectMapper) throws IOException {
+        this.socket = new Socket(host, port);
+        this.socket.setTcpNoDelay(true);
+        this.output = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+        this.input = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+        this.requestWriter = objectMapper.writerFor(FxDealRequest.class);
+        this.ackReader = objectMapper.readerFor(IngestAck.class);
+    }
+
+    /**
+     * Send one deal and wait for its acknowledgement
+     */
+    public IngestAck submit(FxDealRequest request) throws IOException {
+        send(request);
+        output.flush();
+        return readAck();
+    }
+
+    /**
+     * Send all deals without waiting and return their acknowledgements in
+     * request order
+     */
+    public List<IngestAck> submitAll(List<FxDealRequest> requests) throws IOException {
+        CompletableFuture<Void> sending = CompletableFuture.runAsync(() -> {
+            try {
+                for (FxDealRequest request : requests) {
+                    send(request);
+                }
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        List<IngestAck> acks = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            acks.add(readAck());
+        }
+        try {
+            sending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw e;
+        }
+        return acks;
+    }
+
+    private void send(FxDealRequest request) throws IOException {
+        output.write(requestWriter.writeValueAsBytes(request));
+        output.write('\n');
+    }
+
+    private IngestAck readAck() throws IOException {
+        line.reset();
+        int next;
+        while ((next = input.read()) != '\n') {
+            if (next < 0) {
+                throw new EOFException("Connection closed before all deals were acknowledged");
+            }
+            line.write(next);
+        }
+        return ackReader.readValue(line.toByteArray());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
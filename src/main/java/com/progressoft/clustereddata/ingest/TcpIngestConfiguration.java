@@ -0,0 +1,42 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progressoft.clustereddata.service.FxDealService;
+import com.progressoft.clustereddata.service.GroupCommitDealWriter;
+import com.progressoft.clustereddata.shard.ShardedFxDealService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Starts the TCP deal listener. Deals take the same write path as
+ * {@code POST /api/v1/fx-deals} minus the spool, so duplicates are detected
+ * before a deal is acknowledged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx-deals.tcp-ingest", name = "enabled", havingValue = "true")
+public class TcpIngestConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TcpIngestListener tcpIngestListener(TcpIngestProperties properties,
+                                               ObjectMapper objectMapper,
+                                               FxDealService fxDealService,
+                                               ObjectProvider<GroupCommitDealWriter> groupCommitDealWriter,
+                                               ObjectProvider<ShardedFxDealService> shardedFxDealService) {
+        return new TcpIngestListener(properties, objectMapper,
+                submitter(fxDealService, groupCommitDealWriter.getIfAvailable(), shardedFxDealService.getIfAvailable()));
+    }
+
+    private static DealSubmitter submitter(FxDealService fxDealService,
+                                           GroupCommitDealWriter groupCommit,
+                                           ShardedFxDealService sharded) {
+        if (sharded != null) {
+            return sharded::submitDeal;
+        }
+        if (groupCommit != null) {
+            return groupCommit::submitDeal;
+        }
+        return fxDealService::submitDeal;
+    }
+}
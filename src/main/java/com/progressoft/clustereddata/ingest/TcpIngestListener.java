@@ -0,0 +1,416 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking TCP listener for long-lived deal feeds.
+ * <p>
+ * Clients send one JSON deal per line and may pipeline as many lines as they
+ * like; every line gets one {@link IngestAck} line back, in the order the
+ * lines were sent. A single selector thread does all network I/O and hands
+ * complete lines to worker threads, which parse, validate and store them
+ * through the {@link DealSubmitter}.
+ * <p>
+ * Backpressure: a connection is no longer read while it has too many deals
+ * outstanding or while the worker queue is full, so the kernel socket buffers
+ * fill up and the sender is slowed down by TCP itself.
+ */
+@Slf4j
+public class TcpIngestListener implements AutoCloseable {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+    private static final byte NEWLINE = '\n';
+
+    private final TcpIngestProperties properties;
+    private final DealSubmitter submitter;
+    private final ObjectReader requestReader;
+    private final ObjectWriter ackWriter;
+    private final BlockingQueue<PendingDeal> queue;
+    private final Queue<Connection> acknowledged = new ConcurrentLinkedQueue<>();
+    private final Set<Connection> paused = new HashSet<>();
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+    private final List<Thread> workers = new ArrayList<>();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public TcpIngestListener(TcpIngestProperties properties, ObjectMapper objectMapper, DealSubmitter submitter) {
+        this.properties = properties;
+        this.submitter = submitter;
+        this.requestReader = objectMapper.readerFor(FxDealRequest.class);
+        this.ackWriter = objectMapper.writerFor(IngestAck.class);
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(properties.getHost(), properties.getPort()));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            Thread worker = new Thread(this::workLoop, "fx-deal-tcp-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        selectorThread = new Thread(this::selectLoop, "fx-deal-tcp-selector");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("TCP deal ingest listening on {}", serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Port actually bound, useful when the configured port is 0
+     */
+    public int port() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stop accepting and reading. Deals still queued are not processed and
+     * get no acknowledgement, so clients resend them; duplicates are detected.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            selectorThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select(POLL_INTERVAL_MILLIS);
+                wakeupRequested.set(false);
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    }
+                }
+
+                Connection connection;
+                while ((connection = acknowledged.poll()) != null) {
+                    flush(connection);
+                }
+                resumePaused();
+            }
+        } catch (IOException e) {
+            log.error("TCP deal ingest selector stopped: {}", e.getMessage(), e);
+        } finally {
+            selector.keys().forEach(key -> closeQuietly(key.channel()));
+            closeQuietly(selector);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection connection = new Connection(channel, properties.getMaxLineBytes() + READ_BUFFER_BYTES);
+        connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        log.debug("Accepted deal feed connection from {}", channel.getRemoteAddress());
+    }
+
+    private void read(Connection connection) {
+        int read;
+        try {
+            read = connection.channel.read(connection.input);
+        } catch (IOException e) {
+            log.debug("Deal feed connection failed: {}", e.getMessage());
+            close(connection);
+            return;
+        }
+        if (read < 0) {
+            connection.endOfInput = true;
+            connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+        }
+        dispatchLines(connection);
+        closeIfFinished(connection);
+    }
+
+    /**
+     * Hand every complete line in the input buffer to the workers, stopping
+     * early when this connection or the worker queue is saturated. At the end
+     * of the stream a last line without newline counts as complete.
+     */
+    private void dispatchLines(Connection connection) {
+        ByteBuffer input = connection.input;
+        input.flip();
+        boolean saturated = false;
+        while (input.hasRemaining()) {
+            int end = indexOf(input, NEWLINE);
+            if (end < 0) {
+                if (!connection.endOfInput) {
+                    break;
+                }
+                end = input.limit();
+            }
+            int next = Math.min(end + 1, input.limit());
+            int length = end - input.position();
+            if (length > 0 && input.get(end - 1) == '\r') {
+                length--;
+            }
+            if (length == 0) {
+                input.position(next);
+                continue;
+            }
+            if (connection.inFlight.size() >= properties.getMaxInFlightPerConnection()) {
+                saturated = true;
+                break;
+            }
+            byte[] line = new byte[length];
+            input.get(input.position(), line);
+            PendingDeal pending = new PendingDeal(connection, line);
+            if (!queue.offer(pending)) {
+                saturated = true;
+                break;
+            }
+            connection.inFlight.addLast(pending);
+            input.position(next);
+        }
+        input.compact();
+
+        if (!saturated && input.position() > properties.getMaxLineBytes()) {
+            rejectOversizedLine(connection);
+            return;
+        }
+        if (saturated) {
+            paused.add(connection);
+        } else {
+            paused.remove(connection);
+        }
+        if (!connection.endOfInput) {
+            int ops = connection.key.interestOps();
+            connection.key.interestOps(saturated ? ops & ~SelectionKey.OP_READ : ops | SelectionKey.OP_READ);
+        }
+    }
+
+    private void resumePaused() {
+        if (paused.isEmpty()) {
+            return;
+        }
+        for (Connection connection : List.copyOf(paused)) {
+            if (connection.key.isValid()) {
+                dispatchLines(connection);
+            } else {
+                paused.remove(connection);
+            }
+        }
+    }
+
+    private void rejectOversizedLine(Connection connection) {
+        log.warn("Closing deal feed connection, line longer than {} bytes", properties.getMaxLineBytes());
+        PendingDeal pending = new PendingDeal(connection, null);
+        pending.complete(encode(IngestAck.malformed("Line longer than " + properties.getMaxLineBytes() + " bytes")));
+        connection.inFlight.addLast(pending);
+        connection.input.clear();
+        connection.endOfInput = true;
+        connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_READ);
+        paused.remove(connection);
+        flush(connection);
+    }
+
+    /**
+     * Move the acknowledgements that are ready, in order, to the socket
+     */
+    private void flush(Connection connection) {
+        if (!connection.key.isValid()) {
+            return;
+        }
+        PendingDeal head;
+        while ((head = connection.inFlight.peekFirst()) != null && head.ack != null) {
+            connection.output.addLast(head.ack);
+            connection.inFlight.pollFirst();
+        }
+        try {
+            while (!connection.output.isEmpty()) {
+                ByteBuffer[] buffers = connection.output.toArray(ByteBuffer[]::new);
+                connection.channel.write(buffers);
+                while (!connection.output.isEmpty() && !connection.output.peekFirst().hasRemaining()) {
+                    connection.output.pollFirst();
+                }
+                if (!connection.output.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Deal feed connection failed while acknowledging: {}", e.getMessage());
+            close(connection);
+            return;
+        }
+        int ops = connection.key.interestOps();
+        connection.key.interestOps(connection.output.isEmpty() ? ops & ~SelectionKey.OP_WRITE : ops | SelectionKey.OP_WRITE);
+        if (paused.contains(connection)) {
+            dispatchLines(connection);
+        }
+        closeIfFinished(connection);
+    }
+
+    private void closeIfFinished(Connection connection) {
+        if (connection.endOfInput && connection.inFlight.isEmpty() && connection.output.isEmpty()
+                && connection.key.isValid()) {
+            close(connection);
+        }
+    }
+
+    private void close(Connection connection) {
+        paused.remove(connection);
+        connection.key.cancel();
+        closeQuietly(connection.channel);
+    }
+
+    private void workLoop() {
+        while (running) {
+            PendingDeal pending;
+            try {
+                pending = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pending != null) {
+                pending.complete(encode(process(pending.line)));
+                acknowledged.add(pending.connection);
+                if (wakeupRequested.compareAndSet(false, true)) {
+                    selector.wakeup();
+                }
+            }
+        }
+    }
+
+    private IngestAck process(byte[] line) {
+        FxDealRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (IOException e) {
+            String message = e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage();
+            return IngestAck.malformed(message);
+        }
+        try {
+            return IngestAck.of(submitter.submit(request));
+        } catch (RuntimeException e) {
+            log.error("Unable to store deal {} received over TCP: {}", request.getDealUniqueId(), e.getMessage());
+            return IngestAck.error(request.getDealUniqueId(), e.getMessage());
+        }
+    }
+
+    private ByteBuffer encode(IngestAck ack) {
+        try {
+            byte[] json = ackWriter.writeValueAsBytes(ack);
+            return ByteBuffer.allocate(json.length + 1).put(json).put(NEWLINE).flip();
+        } catch (JsonProcessingException e) {
+            // Every field is a string, an enum or a list of DealError
+            throw new IllegalStateException("Unable to serialize acknowledgement", e);
+        }
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value) {
+        for (int i = buffer.position(); i < buffer.limit(); i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Unable to close {}: {}", closeable, e.getMessage());
+        }
+    }
+
+    /**
+     * State of one client connection, only touched by the selector thread
+     */
+    private static final class Connection {
+        private final SocketChannel channel;
+        private final ByteBuffer input;
+        private final ArrayDeque<PendingDeal> inFlight = new ArrayDeque<>();
+        private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+        private SelectionKey key;
+        private boolean endOfInput;
+
+        private Connection(SocketChannel channel, int bufferBytes) {
+            this.channel = channel;
+            this.input = ByteBuffer.allocate(bufferBytes);
+        }
+    }
+
+    private static final class PendingDeal {
+        private final Connection connection;
+        private final byte[] line;
+        private volatile ByteBuffer ack;
+
+        private PendingDeal(Connection connection, byte[] line) {
+            this.connection = connection;
+            this.line = line;
+        }
+
+        private void complete(ByteBuffer ack) {
+            this.ack = ack;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.progressoft.clustereddata.ingest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.tcp-ingest")
+public class TcpIngestProperties {
+
+    /**
+     * Starts the TCP listener accepting line-delimited JSON deals
+     */
+    private boolean enabled = false;
+
+    /**
+     * Address the listener binds to
+     */
+    private String host = "0.0.0.0";
+
+    /**
+     * Port the listener binds to, 0 picks a free port
+     */
+    private int port = 9400;
+
+    /**
+     * Threads parsing, validating and storing deals
+     */
+    private int workers = 16;
+
+    /**
+     * Deals read from the network but not yet picked up by a worker. When it
+     * is full, connections stop being read until it drains.
+     */
+    private int queueCapacity = 4096;
+
+    /**
+     * Deals one connection may have outstanding before reading from it pauses
+     */
+    private int maxInFlightPerConnection = 1024;
+
+    /**
+     * Longest accepted line; a longer line closes the connection
+     */
+    private int maxLineBytes = 16 * 1024;
+}
@@ -0,0 +1,113 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.progressoft.clustereddata.json.DealJsonWriting.name;
+import static com.progressoft.clustereddata.json.DealJsonWriting.writeEnum;
+import static com.progressoft.clustereddata.json.DealJsonWriting.writeString;
+
+/**
+ * Writes {@link BatchImportResponse} with its failed deals and their errors
+ * inline, in the same order and with the same values as the annotated beans
+ */
+class BatchImportResponseSerializer extends StdSerializer<BatchImportResponse> {
+
+    private static final SerializableString TOTAL_PROCESSED = name("totalProcessed");
+    private static final SerializableString SUCCESS_COUNT = name("successCount");
+    private static final SerializableString FAILED_COUNT = name("failedCount");
+    private static final SerializableString DUPLICATE_COUNT = name("duplicateCount");
+    private static final SerializableString SUCCESSFUL_DEALS = name("successfulDeals");
+    private static final SerializableString FAILED_DEALS = name("failedDeals");
+    private static final SerializableString DEAL_UNIQUE_ID = name("dealUniqueId");
+    private static final SerializableString REASON = name("reason");
+    private static final SerializableString TYPE = name("type");
+    private static final SerializableString ERRORS = name("errors");
+    private static final SerializableString FIELD = name("field");
+    private static final SerializableString CODE = name("code");
+    private static final SerializableString MESSAGE = name("message");
+
+    BatchImportResponseSerializer() {
+        super(BatchImportResponse.class);
+    }
+
+    @Override
+    public void serialize(BatchImportResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response);
+        generator.writeFieldName(TOTAL_PROCESSED);
+        generator.writeNumber(response.getTotalProcessed());
+        generator.writeFieldName(SUCCESS_COUNT);
+        generator.writeNumber(response.getSuccessCount());
+        generator.writeFieldName(FAILED_COUNT);
+        generator.writeNumber(response.getFailedCount());
+        generator.writeFieldName(DUPLICATE_COUNT);
+        generator.writeNumber(response.getDuplicateCount());
+
+        generator.writeFieldName(SUCCESSFUL_DEALS);
+        List<String> successfulDeals = response.getSuccessfulDeals();
+        if (successfulDeals == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(successfulDeals, successfulDeals.size());
+            for (String id : successfulDeals) {
+                generator.writeString(id);
+            }
+            generator.writeEndArray();
+        }
+
+        generator.writeFieldName(FAILED_DEALS);
+        List<BatchImportResponse.FailedDeal> failedDeals = response.getFailedDeals();
+        if (failedDeals == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(failedDeals, failedDeals.size());
+            for (BatchImportResponse.FailedDeal failed : failedDeals) {
+                writeFailedDeal(generator, failed);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeFailedDeal(JsonGenerator generator, BatchImportResponse.FailedDeal failed) throws IOException {
+        if (failed == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(failed);
+        writeString(generator, DEAL_UNIQUE_ID, failed.getDealUniqueId());
+        writeString(generator, REASON, failed.getReason());
+        writeEnum(generator, TYPE, failed.getType());
+        generator.writeFieldName(ERRORS);
+        List<DealError> errors = failed.getErrors();
+        if (errors == null) {
+            generator.writeNull();
+        } else {
+            generator.writeStartArray(errors, errors.size());
+            for (DealError error : errors) {
+                writeError(generator, error);
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeError(JsonGenerator generator, DealError error) throws IOException {
+        if (error == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject(error);
+        writeString(generator, FIELD, error.getField());
+        writeEnum(generator, CODE, error.getCode());
+        writeString(generator, MESSAGE, error.getMessage());
+        generator.writeEndObject();
+    }
+}
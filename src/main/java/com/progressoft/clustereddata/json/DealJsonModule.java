@@ -0,0 +1,21 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+
+/**
+ * Hand-written codecs for the hot DTOs of the deal API.
+ * <p>
+ * {@link FxDealRequest} only gets a deserializer, as the API never writes one.
+ */
+public class DealJsonModule extends SimpleModule {
+
+    public DealJsonModule() {
+        super("DealJsonModule");
+        addDeserializer(FxDealRequest.class, new FxDealRequestDeserializer());
+        addSerializer(FxDealResponse.class, new FxDealResponseSerializer());
+        addSerializer(BatchImportResponse.class, new BatchImportResponseSerializer());
+    }
+}
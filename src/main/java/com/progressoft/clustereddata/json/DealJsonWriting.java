@@ -0,0 +1,62 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Field writers shared by the hand-written serializers. Field names are
+ * pre-encoded {@link SerializedString}s so their quoting and escaping is
+ * done once.
+ */
+final class DealJsonWriting {
+
+    private DealJsonWriting() {
+    }
+
+    static SerializableString name(String fieldName) {
+        return new SerializedString(fieldName);
+    }
+
+    static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    static void writeEnum(JsonGenerator generator, SerializableString name, Enum<?> value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.name());
+        }
+    }
+
+    static void writeTimestamp(JsonGenerator generator, SerializableString name, LocalDateTime value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        char[] buffer = new char[DealTimestamps.LENGTH];
+        if (DealTimestamps.format(value, buffer)) {
+            generator.writeString(buffer, 0, DealTimestamps.LENGTH);
+        } else {
+            generator.writeString(DealTimestamps.FORMATTER.format(value));
+        }
+    }
+
+    static void writeAmount(JsonGenerator generator, SerializableString name, long units) throws IOException {
+        generator.writeFieldName(name);
+        if (!FixedPointAmount.isRepresentable(units)) {
+            generator.writeNull();
+            return;
+        }
+        char[] buffer = new char[22];
+        generator.writeNumber(buffer, 0, FixedPointAmount.format(units, buffer));
+    }
+}
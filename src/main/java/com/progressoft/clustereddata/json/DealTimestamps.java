@@ -0,0 +1,92 @@
+package com.progressoft.clustereddata.json;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Fixed-layout codec for the {@code yyyy-MM-dd'T'HH:mm:ss} timestamps of the
+ * deal API. Reads and writes the 19 characters by position instead of going
+ * through a pattern-based {@link DateTimeFormatter}; anything off the fast
+ * path is left to the formatter, so the accepted inputs stay the same.
+ */
+final class DealTimestamps {
+
+    static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss";
+    static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+    static final int LENGTH = 19;
+
+    private DealTimestamps() {
+    }
+
+    /**
+     * @return the timestamp, or {@code null} when the text does not have the
+     *         exact layout or is not a valid date and time
+     */
+    static LocalDateTime parse(char[] text, int offset, int length) {
+        if (length != LENGTH
+                || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T'
+                || text[offset + 13] != ':' || text[offset + 16] != ':') {
+            return null;
+        }
+        int year = digits(text, offset, 4);
+        int month = digits(text, offset + 5, 2);
+        int day = digits(text, offset + 8, 2);
+        int hour = digits(text, offset + 11, 2);
+        int minute = digits(text, offset + 14, 2);
+        int second = digits(text, offset + 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write the timestamp into {@code buffer}, which must hold
+     * {@link #LENGTH} characters
+     *
+     * @return {@code false} for years outside 0 to 9999, which the caller
+     *         formats with {@link #FORMATTER}
+     */
+    static boolean format(LocalDateTime time, char[] buffer) {
+        int year = time.getYear();
+        if (year < 0 || year > 9999) {
+            return false;
+        }
+        put(buffer, 0, year, 4);
+        buffer[4] = '-';
+        put(buffer, 5, time.getMonthValue(), 2);
+        buffer[7] = '-';
+        put(buffer, 8, time.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        put(buffer, 11, time.getHour(), 2);
+        buffer[13] = ':';
+        put(buffer, 14, time.getMinute(), 2);
+        buffer[16] = ':';
+        put(buffer, 17, time.getSecond(), 2);
+        return true;
+    }
+
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void put(char[] buffer, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
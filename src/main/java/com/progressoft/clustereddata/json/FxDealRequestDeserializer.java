@@ -0,0 +1,85 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.amount.FixedPointAmountDeserializer;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming reader for {@link FxDealRequest}: one pass over the tokens with a
+ * switch on the field name, timestamps read by position from the parser's
+ * character buffer and amounts parsed straight into fixed-point units.
+ * Inputs off the fast path behave exactly like the annotated bean.
+ */
+class FxDealRequestDeserializer extends StdDeserializer<FxDealRequest> {
+
+    private static final LocalDateTimeDeserializer TIMESTAMP_FALLBACK = new LocalDateTimeDeserializer(DealTimestamps.FORMATTER);
+    private static final FixedPointAmountDeserializer AMOUNT = new FixedPointAmountDeserializer();
+
+    FxDealRequestDeserializer() {
+        super(FxDealRequest.class);
+    }
+
+    @Override
+    public FxDealRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (FxDealRequest) context.handleUnexpectedToken(FxDealRequest.class, parser);
+        }
+
+        FxDealRequest request = new FxDealRequest();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String name = parser.currentName();
+            parser.nextToken();
+            switch (name) {
+                case "dealUniqueId" -> request.setDealUniqueId(readString(parser, context));
+                case "fromCurrencyIsoCode" -> request.setFromCurrencyIsoCode(readString(parser, context));
+                case "toCurrencyIsoCode" -> request.setToCurrencyIsoCode(readString(parser, context));
+                case "dealTimestamp" -> request.setDealTimestamp(readTimestamp(parser, context));
+                case "dealAmount" -> request.setDealAmount(parser.currentToken() == JsonToken.VALUE_NULL
+                        ? FixedPointAmount.ABSENT
+                        : AMOUNT.deserialize(parser, context));
+                default -> context.handleUnknownProperty(parser, this, FxDealRequest.class, name);
+            }
+        }
+        return request;
+    }
+
+    private static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        return (String) context.handleUnexpectedToken(String.class, parser);
+    }
+
+    private static LocalDateTime readTimestamp(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            LocalDateTime parsed = DealTimestamps.parse(
+                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            if (parsed != null) {
+                return parsed;
+            }
+        }
+        return TIMESTAMP_FALLBACK.deserialize(parser, context);
+    }
+}
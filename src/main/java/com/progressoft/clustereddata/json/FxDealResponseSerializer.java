@@ -0,0 +1,46 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+
+import java.io.IOException;
+
+import static com.progressoft.clustereddata.json.DealJsonWriting.name;
+import static com.progressoft.clustereddata.json.DealJsonWriting.writeAmount;
+import static com.progressoft.clustereddata.json.DealJsonWriting.writeString;
+import static com.progressoft.clustereddata.json.DealJsonWriting.writeTimestamp;
+
+/**
+ * Writes {@link FxDealResponse} field by field, in the same order and with
+ * the same values as the annotated bean
+ */
+class FxDealResponseSerializer extends StdSerializer<FxDealResponse> {
+
+    private static final SerializableString DEAL_UNIQUE_ID = name("dealUniqueId");
+    private static final SerializableString FROM_CURRENCY = name("fromCurrencyIsoCode");
+    private static final SerializableString TO_CURRENCY = name("toCurrencyIsoCode");
+    private static final SerializableString DEAL_TIMESTAMP = name("dealTimestamp");
+    private static final SerializableString DEAL_AMOUNT = name("dealAmount");
+    private static final SerializableString CREATED_AT = name("createdAt");
+    private static final SerializableString UPDATED_AT = name("updatedAt");
+
+    FxDealResponseSerializer() {
+        super(FxDealResponse.class);
+    }
+
+    @Override
+    public void serialize(FxDealResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(response);
+        writeString(generator, DEAL_UNIQUE_ID, response.getDealUniqueId());
+        writeString(generator, FROM_CURRENCY, response.getFromCurrencyIsoCode());
+        writeString(generator, TO_CURRENCY, response.getToCurrencyIsoCode());
+        writeTimestamp(generator, DEAL_TIMESTAMP, response.getDealTimestamp());
+        writeAmount(generator, DEAL_AMOUNT, response.getDealAmount());
+        writeTimestamp(generator, CREATED_AT, response.getCreatedAt());
+        writeTimestamp(generator, UPDATED_AT, response.getUpdatedAt());
+        generator.writeEndObject();
+    }
+}
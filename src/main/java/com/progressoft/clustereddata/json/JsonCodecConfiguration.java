@@ -0,0 +1,27 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the hand-written deal codecs and Blackbird, which replaces
+ * reflective getters, setters and constructors with generated lambdas for
+ * every other bean. Spring Boot adds both modules to the shared
+ * {@code ObjectMapper}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx-deals.json-codecs", name = "enabled", havingValue = "true")
+public class JsonCodecConfiguration {
+
+    @Bean
+    public DealJsonModule dealJsonModule() {
+        return new DealJsonModule();
+    }
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
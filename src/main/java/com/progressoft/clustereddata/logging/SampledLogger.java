@@ -0,0 +1,68 @@
+package com.progressoft.clustereddata.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rate-limited INFO logging for events that happen once per deal.
+ * <p>
+ * At most one line is written per interval; it carries the arguments of the
+ * event that was sampled plus how many similar events were skipped since the
+ * previous line. Skipped events cost one counter increment and one clock read.
+ */
+public final class SampledLogger {
+
+    private final Logger log;
+    private final long intervalNanos;
+    private final AtomicLong nextSampleNanos;
+    private final AtomicLong skipped = new AtomicLong();
+
+    private SampledLogger(Logger log, Duration interval) {
+        this.log = log;
+        this.intervalNanos = interval.toNanos();
+        this.nextSampleNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Sample events logged by {@code type}, writing at most one line per
+     * {@code interval}
+     */
+    public static SampledLogger every(Duration interval, Class<?> type) {
+        return every(interval, LoggerFactory.getLogger(type));
+    }
+
+    /**
+     * Sample events logged through {@code log}, writing at most one line per
+     * {@code interval}
+     */
+    public static SampledLogger every(Duration interval, Logger log) {
+        return new SampledLogger(log, interval);
+    }
+
+    /**
+     * Log one event at INFO if the interval has elapsed, otherwise count it
+     *
+     * @param format message pattern with one {@code {}} placeholder
+     * @param argument value for the placeholder
+     */
+    public void info(String format, Object argument) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextSampleNanos.get();
+        if (now - next < 0 || !nextSampleNanos.compareAndSet(next, now + intervalNanos)) {
+            skipped.incrementAndGet();
+            return;
+        }
+        long skippedSinceLast = skipped.getAndSet(0);
+        if (skippedSinceLast == 0) {
+            log.info(format, argument);
+        } else {
+            log.info(format + " (+{} similar since last sample)", argument, skippedSinceLast);
+        }
+    }
+}
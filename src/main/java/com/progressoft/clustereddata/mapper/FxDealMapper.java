@@ -11,8 +11,8 @@ public class FxDealMapper {
     public FxDeal toEntity(FxDealRequest request) {
         FxDeal deal = new FxDeal();
         deal.setDealUniqueId(request.getDealUniqueId());
-        deal.setFromCurrencyIsoCode(request.getFromCurrencyIsoCode().toUpperCase());
-        deal.setToCurrencyIsoCode(request.getToCurrencyIsoCode().toUpperCase());
+        deal.setFromCurrencyIsoCode(upperCase(request.getFromCurrencyIsoCode()));
+        deal.setToCurrencyIsoCode(upperCase(request.getToCurrencyIsoCode()));
         deal.setDealTimestamp(request.getDealTimestamp());
         deal.setDealAmount(request.getDealAmount());
         return deal;
@@ -29,4 +29,8 @@ public class FxDealMapper {
                 .updatedAt(deal.getUpdatedAt())
                 .build();
     }
+
+    private static String upperCase(String code) {
+        return code != null ? code.toUpperCase() : null;
+    }
 }
@@ -0,0 +1,180 @@
+package com.progressoft.clustereddata.quantiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Mergeable quantile sketch over deal amounts in fixed-point units, with a
+ * relative error bound (DDSketch-style logarithmic buckets).
+ * <p>
+ * Amount {@code x} falls into bucket {@code ceil(log(x) / log(gamma))} with
+ * {@code gamma = (1 + a) / (1 - a)}, so every estimate is within a relative
+ * error {@code a} of a value whose rank is exact. The bucket count only
+ * depends on {@code a} (about 2,200 at 1%), which makes adding an amount one
+ * atomic increment and a quantile query a bounded walk, however many deals
+ * were added. Two sketches with the same accuracy merge by adding their
+ * buckets.
+ */
+public final class AmountSketch {
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+    private final double gamma;
+    private final AtomicLongArray buckets;
+    private final AtomicLong count = new AtomicLong();
+
+    public AmountSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1, got " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.buckets = new AtomicLongArray(bucketOf(Long.MAX_VALUE) + 1);
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Add one amount; amounts below one unit are counted as one unit
+     */
+    public void add(long units) {
+        buckets.incrementAndGet(bucketOf(units));
+        count.incrementAndGet();
+    }
+
+    /**
+     * Estimate the amount at quantile {@code q}
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the amount in fixed-point units, or {@code -1} if the sketch is empty
+     */
+    public long quantile(double q) {
+        int bucket = quantileBucket(q);
+        return bucket < 0 ? -1 : valueOf(bucket);
+    }
+
+    /**
+     * Bucket holding the amount at quantile {@code q}; an amount is above that
+     * quantile for certain only if {@link #bucketOf(long) its bucket} is higher
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the bucket index, or {@code -1} if the sketch is empty
+     */
+    public int quantileBucket(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + q);
+        }
+        long total = count.get();
+        if (total == 0) {
+            return -1;
+        }
+        long rank = (long) (q * (total - 1));
+        long seen = 0;
+        int last = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long inBucket = buckets.get(i);
+            if (inBucket == 0) {
+                continue;
+            }
+            seen += inBucket;
+            last = i;
+            if (seen > rank) {
+                return i;
+            }
+        }
+        // Adds that raced with this walk bumped the count before their bucket was visible
+        return last;
+    }
+
+    /**
+     * Add every amount of {@code other} to this sketch
+     *
+     * @throws IllegalArgumentException if the sketches have different accuracies
+     */
+    public void merge(AmountSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge a sketch with accuracy " + other.relativeAccuracy
+                    + " into one with accuracy " + relativeAccuracy);
+        }
+        long merged = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            long inBucket = other.buckets.get(i);
+            if (inBucket != 0) {
+                buckets.addAndGet(i, inBucket);
+                merged += inBucket;
+            }
+        }
+        count.addAndGet(merged);
+    }
+
+    /**
+     * Encode the non-empty buckets, for snapshots
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeDouble(relativeAccuracy);
+            for (int i = 0; i < buckets.length(); i++) {
+                long inBucket = buckets.get(i);
+                if (inBucket != 0) {
+                    out.writeInt(i);
+                    out.writeLong(inBucket);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode a sketch written by {@link #toBytes()}
+     */
+    public static AmountSketch fromBytes(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+            AmountSketch sketch = new AmountSketch(in.readDouble());
+            long total = 0;
+            while (in.available() > 0) {
+                int bucket = in.readInt();
+                long inBucket = in.readLong();
+                sketch.buckets.set(bucket, inBucket);
+                total += inBucket;
+            }
+            sketch.count.set(total);
+            return sketch;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Bucket an amount is counted in; amounts below one unit share bucket 0
+     */
+    public int bucketOf(long units) {
+        if (units <= 1) {
+            return 0;
+        }
+        return (int) Math.ceil(Math.log(units) / logGamma);
+    }
+
+    private long valueOf(int bucket) {
+        if (bucket == 0) {
+            return 1;
+        }
+        // Midpoint in relative terms of (gamma^(i-1), gamma^i]
+        return Math.max(1, Math.round(2 * Math.pow(gamma, bucket) / (gamma + 1)));
+    }
+}
@@ -0,0 +1,308 @@
+package com.progressoft.clustereddata.quantiles;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.logging.SampledLogger;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per currency pair deal amount quantiles, maintained as committed inserts
+ * happen.
+ * <p>
+ * Each pair has an {@link AmountSketch}, so recording a deal is two atomic
+ * increments and a query does not depend on how many deals were sketched.
+ * <p>
+ * fx_deal_amount_sketches holds one sketch per pair covering every deal
+ * created before the covered_until of fx_deal_amount_sketch_progress,
+ * whichever instance inserted it. On a schedule, an instance locks the
+ * progress row, replays the deals created since into the stored sketches and
+ * moves covered_until forward, so instances never overwrite each other's
+ * deals. On startup the stored sketches are loaded and the deals created
+ * between covered_until and this instance listening are replayed from
+ * fx_deals. A deal committing more than {@code snapshot-lag} after it was
+ * created is left out of the snapshot, and a deal created while this instance
+ * starts may be counted twice, which is well within the sketch error.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.quantiles", name = "enabled", havingValue = "true")
+@Slf4j
+public class DealQuantileService {
+
+    private static final int ALERT_REFRESH_MASK = 1_023;
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final SampledLogger LARGE_DEALS = SampledLogger.every(Duration.ofSeconds(10), DealQuantileService.class);
+
+    private final Map<String, PairSketch> sketches = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final QuantileProperties properties;
+    private final Clock clock;
+    private final Counter largeDeals;
+    private final LocalDateTime listeningSince;
+
+    @Autowired
+    public DealQuantileService(DataSource dataSource,
+                               PlatformTransactionManager transactionManager,
+                               QuantileProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(dataSource, transactionManager, properties, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    DealQuantileService(DataSource dataSource,
+                        PlatformTransactionManager transactionManager,
+                        QuantileProperties properties,
+                        MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getRebuildFetchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+        this.clock = clock;
+        this.largeDeals = Counter.builder("fxdeals.quantiles.large_deals")
+                .description("Inserted deals above the alert quantile of their currency pair")
+                .register(meterRegistry);
+        this.listeningSince = LocalDateTime.now(clock);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        for (FxDeal deal : event.deals()) {
+            PairSketch pair = pair(deal.getFromCurrencyIsoCode(), deal.getToCurrencyIsoCode());
+            if (pair.isLarge(deal.getDealAmount())) {
+                largeDeals.increment();
+                LARGE_DEALS.info("Large FX deal inserted: {}", deal.getDealUniqueId());
+            }
+            pair.add(deal.getDealAmount());
+        }
+    }
+
+    /**
+     * Quantiles of the deal amounts of one currency pair
+     *
+     * @return the quantiles, with a zero deal count and no amounts if the
+     * pair has no deals yet
+     */
+    public PairQuantiles quantiles(String fromCurrencyIsoCode, String toCurrencyIsoCode) {
+        PairSketch pair = sketches.get(key(fromCurrencyIsoCode, toCurrencyIsoCode));
+        AmountSketch sketch = pair != null ? pair.sketch : new AmountSketch(properties.getRelativeAccuracy());
+        return quantiles(fromCurrencyIsoCode, toCurrencyIsoCode, sketch);
+    }
+
+    /**
+     * Quantiles of every currency pair seen so far, by pair
+     */
+    public List<PairQuantiles> allQuantiles() {
+        return sketches.values().stream()
+                .map(pair -> quantiles(pair.fromCurrencyIsoCode, pair.toCurrencyIsoCode, pair.sketch))
+                .sorted(Comparator.comparing(PairQuantiles::fromCurrencyIsoCode)
+                        .thenComparing(PairQuantiles::toCurrencyIsoCode))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.quantiles.snapshot-interval-ms:60000}",
+            initialDelayString = "${fx-deals.quantiles.snapshot-interval-ms:60000}")
+    public void snapshot() {
+        try {
+            int pairs = writeSnapshot();
+            log.debug("Advanced deal amount sketch snapshot of {} currency pairs", pairs);
+        } catch (Exception e) {
+            log.error("Deal amount sketch snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverInBackground() {
+        Thread recovery = new Thread(this::recover, "fx-deal-quantiles-recovery");
+        recovery.setDaemon(true);
+        recovery.start();
+    }
+
+    /**
+     * Replay the deals created since the snapshot was last advanced into the
+     * stored sketches, up to {@code snapshot-lag} ago
+     *
+     * @return number of pairs written, 0 if another instance has just advanced the snapshot
+     */
+    int writeSnapshot() {
+        LocalDateTime until = LocalDateTime.now(clock).minus(properties.getSnapshotLag());
+        Integer written = transactionTemplate.execute(status -> {
+            // The row lock keeps two instances from replaying the same deals
+            LocalDateTime coveredUntil = jdbcTemplate.queryForObject("SELECT covered_until "
+                    + "FROM fx_deal_amount_sketch_progress WHERE id = 1 FOR UPDATE", Timestamp.class).toLocalDateTime();
+            if (!coveredUntil.isBefore(until)) {
+                return 0;
+            }
+
+            Map<String, StoredSketch> stored = new HashMap<>();
+            boolean[] stale = {false};
+            jdbcTemplate.query("SELECT from_currency_iso_code, to_currency_iso_code, relative_accuracy, buckets "
+                            + "FROM fx_deal_amount_sketches",
+                    (RowCallbackHandler) rs -> {
+                        if (rs.getDouble(3) != properties.getRelativeAccuracy()) {
+                            stale[0] = true;
+                            return;
+                        }
+                        stored.put(key(rs.getString(1), rs.getString(2)), new StoredSketch(rs.getString(1),
+                                rs.getString(2), AmountSketch.fromBytes(rs.getBytes(4))));
+                    });
+            if (stale[0]) {
+                // Sketches of another accuracy cannot be merged, so they are rebuilt from every deal
+                stored.clear();
+                coveredUntil = EPOCH;
+            }
+
+            jdbcTemplate.query("SELECT from_currency_iso_code, to_currency_iso_code, deal_amount FROM fx_deals "
+                            + "WHERE created_at >= ? AND created_at < ?",
+                    (RowCallbackHandler) rs -> {
+                        String fromCurrencyIsoCode = rs.getString(1);
+                        String toCurrencyIsoCode = rs.getString(2);
+                        stored.computeIfAbsent(key(fromCurrencyIsoCode, toCurrencyIsoCode),
+                                        key -> new StoredSketch(fromCurrencyIsoCode, toCurrencyIsoCode,
+                                                new AmountSketch(properties.getRelativeAccuracy())))
+                                .sketch().add(FixedPointAmount.of(rs.getBigDecimal(3)));
+                    },
+                    Timestamp.valueOf(coveredUntil), Timestamp.valueOf(until));
+
+            Timestamp snapshotAt = Timestamp.valueOf(until);
+            List<Object[]> rows = new ArrayList<>(stored.size());
+            for (StoredSketch pair : stored.values()) {
+                rows.add(new Object[]{pair.fromCurrencyIsoCode(), pair.toCurrencyIsoCode(),
+                        pair.sketch().relativeAccuracy(), pair.sketch().count(), pair.sketch().toBytes(), snapshotAt});
+            }
+            jdbcTemplate.update("DELETE FROM fx_deal_amount_sketches");
+            jdbcTemplate.batchUpdate("INSERT INTO fx_deal_amount_sketches (from_currency_iso_code, "
+                    + "to_currency_iso_code, relative_accuracy, deal_count, buckets, snapshot_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+            jdbcTemplate.update("UPDATE fx_deal_amount_sketch_progress SET covered_until = ? WHERE id = 1", snapshotAt);
+            return rows.size();
+        });
+        return written != null ? written : 0;
+    }
+
+    void recover() {
+        long started = System.nanoTime();
+        long[] replayed = {0};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                boolean[] stale = {false};
+                jdbcTemplate.query("SELECT from_currency_iso_code, to_currency_iso_code, relative_accuracy, "
+                                + "buckets FROM fx_deal_amount_sketches",
+                        (RowCallbackHandler) rs -> {
+                            if (rs.getDouble(3) != properties.getRelativeAccuracy()) {
+                                stale[0] = true;
+                                return;
+                            }
+                            pair(rs.getString(1), rs.getString(2)).merge(AmountSketch.fromBytes(rs.getBytes(4)));
+                        });
+                // Without a usable snapshot, the whole of fx_deals is replayed
+                LocalDateTime from = stale[0] ? EPOCH : jdbcTemplate.queryForObject(
+                        "SELECT covered_until FROM fx_deal_amount_sketch_progress WHERE id = 1", Timestamp.class)
+                        .toLocalDateTime();
+                jdbcTemplate.query("SELECT from_currency_iso_code, to_currency_iso_code, deal_amount FROM fx_deals "
+                                + "WHERE created_at >= ? AND created_at < ?",
+                        (RowCallbackHandler) rs -> {
+                            pair(rs.getString(1), rs.getString(2)).add(FixedPointAmount.of(rs.getBigDecimal(3)));
+                            replayed[0]++;
+                        },
+                        Timestamp.valueOf(from), Timestamp.valueOf(listeningSince));
+            });
+            log.info("Deal amount sketches of {} pairs recovered, {} deals replayed in {} ms",
+                    sketches.size(), replayed[0], (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Deal amount sketch recovery failed after {} deals, quantiles only cover new inserts: {}",
+                    replayed[0], e.getMessage(), e);
+        }
+    }
+
+    private PairSketch pair(String fromCurrencyIsoCode, String toCurrencyIsoCode) {
+        return sketches.computeIfAbsent(key(fromCurrencyIsoCode, toCurrencyIsoCode),
+                key -> new PairSketch(fromCurrencyIsoCode, toCurrencyIsoCode, properties.getRelativeAccuracy()));
+    }
+
+    private static PairQuantiles quantiles(String fromCurrencyIsoCode, String toCurrencyIsoCode, AmountSketch sketch) {
+        long count = sketch.count();
+        return new PairQuantiles(fromCurrencyIsoCode, toCurrencyIsoCode, count, sketch.relativeAccuracy(),
+                amount(sketch, 0.50), amount(sketch, 0.95), amount(sketch, 0.99));
+    }
+
+    private static BigDecimal amount(AmountSketch sketch, double q) {
+        long units = sketch.quantile(q);
+        return units < 0 ? null : FixedPointAmount.toBigDecimal(units);
+    }
+
+    private static String key(String fromCurrencyIsoCode, String toCurrencyIsoCode) {
+        return fromCurrencyIsoCode + '/' + toCurrencyIsoCode;
+    }
+
+    private record StoredSketch(String fromCurrencyIsoCode, String toCurrencyIsoCode, AmountSketch sketch) {
+    }
+
+    private final class PairSketch {
+        private final String fromCurrencyIsoCode;
+        private final String toCurrencyIsoCode;
+        private final AmountSketch sketch;
+        private volatile int alertBucket = Integer.MAX_VALUE;
+
+        private PairSketch(String fromCurrencyIsoCode, String toCurrencyIsoCode, double relativeAccuracy) {
+            this.fromCurrencyIsoCode = fromCurrencyIsoCode;
+            this.toCurrencyIsoCode = toCurrencyIsoCode;
+            this.sketch = new AmountSketch(relativeAccuracy);
+        }
+
+        void add(long units) {
+            sketch.add(units);
+            // Walking the buckets once every 1,024 deals keeps the alert bucket current enough
+            if ((sketch.count() & ALERT_REFRESH_MASK) == 0) {
+                refreshAlertThreshold();
+            }
+        }
+
+        void merge(AmountSketch snapshot) {
+            sketch.merge(snapshot);
+            refreshAlertThreshold();
+        }
+
+        private void refreshAlertThreshold() {
+            if (sketch.count() >= properties.getAlertMinDeals()) {
+                alertBucket = sketch.quantileBucket(properties.getAlertQuantile());
+            }
+        }
+
+        boolean isLarge(long units) {
+            // Amounts sharing the quantile's bucket may lie on either side of it
+            return sketch.bucketOf(units) > alertBucket;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.progressoft.clustereddata.quantiles;
+
+import java.math.BigDecimal;
+
+public record PairQuantiles(String fromCurrencyIsoCode,
+                            String toCurrencyIsoCode,
+                            long dealCount,
+                            double relativeAccuracy,
+                            BigDecimal p50,
+                            BigDecimal p95,
+                            BigDecimal p99) {
+}
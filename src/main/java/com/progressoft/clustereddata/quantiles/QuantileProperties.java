@@ -0,0 +1,43 @@
+package com.progressoft.clustereddata.quantiles;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.quantiles")
+public class QuantileProperties {
+
+    /**
+     * Maintains per currency pair deal amount quantiles at insert time
+     */
+    private boolean enabled = false;
+
+    /**
+     * Relative error of every quantile estimate, e.g. 0.01 for 1%
+     */
+    private double relativeAccuracy = 0.01;
+
+    /**
+     * Quantile above which an inserted deal counts as a large deal
+     */
+    private double alertQuantile = 0.99;
+
+    /**
+     * Deals a pair needs before large-deal alerts start, so early estimates
+     * do not flag ordinary deals
+     */
+    private long alertMinDeals = 1_000;
+
+    /**
+     * How far behind the current time the shared snapshot is advanced. A deal
+     * committing more than this after it was created is left out of the snapshot.
+     */
+    private Duration snapshotLag = Duration.ofMinutes(1);
+
+    /**
+     * JDBC fetch size used while replaying deals on startup
+     */
+    private int rebuildFetchSize = 10_000;
+}
@@ -0,0 +1,12 @@
+package com.progressoft.clustereddata.query;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+
+import java.util.List;
+
+/**
+ * One page of deals; {@code next} is the cursor of the following page, or
+ * {@code null} on the last one
+ */
+public record DealPage(List<FxDealResponse> deals, String next) {
+}
@@ -0,0 +1,19 @@
+package com.progressoft.clustereddata.query;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.query")
+public class DealQueryProperties {
+
+    /**
+     * Most deals a pair query returns per page
+     */
+    private int maxPageSize = 1_000;
+
+    /**
+     * Most deals a largest-deals query returns
+     */
+    private int maxTopN = 1_000;
+}
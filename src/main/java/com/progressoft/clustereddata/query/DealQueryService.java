@@ -0,0 +1,193 @@
+package com.progressoft.clustereddata.query;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Range queries over fx_deals: the deals of one currency pair in a deal
+ * timestamp window, and the largest deals of a window.
+ * <p>
+ * Pair pages are read in (deal_timestamp, deal_unique_id) order from
+ * idx_fx_deals_pair_timestamp and continued with a keyset cursor, so a deep
+ * page costs the same as the first one. Both queries also run with sharded
+ * storage: every shard answers with at most one page or {@code limit} deals,
+ * and the results are merged in memory. Archived deals are not included.
+ * <p>
+ * Both run read-only, so they may be served by a replica when replica
+ * routing is enabled.
+ */
+@Service
+public class DealQueryService {
+
+    private static final Comparator<FxDeal> BY_TIMESTAMP = Comparator.comparing(FxDeal::getDealTimestamp)
+            .thenComparing(FxDeal::getDealUniqueId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<ShardedFxDealStore> shardedStore;
+    private final FxDealMapper mapper;
+    private final DealQueryProperties properties;
+
+    public DealQueryService(JdbcTemplate jdbcTemplate,
+                            ObjectProvider<ShardedFxDealStore> shardedStore,
+                            FxDealMapper mapper,
+                            DealQueryProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardedStore = shardedStore;
+        this.mapper = mapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Deals of one currency pair with a deal timestamp in {@code [since, until)},
+     * oldest first
+     *
+     * @param after the {@code next} cursor of the previous page, or {@code null} for the first page
+     * @throws IllegalArgumentException if the window, limit or cursor is invalid
+     */
+    @Transactional(readOnly = true)
+    public DealPage byPair(String fromCurrencyIsoCode,
+                           String toCurrencyIsoCode,
+                           LocalDateTime since,
+                           LocalDateTime until,
+                           String after,
+                           int limit) {
+        checkWindow(since, until);
+        checkLimit(limit, properties.getMaxPageSize());
+
+        List<Object> args = new ArrayList<>(List.of(upperCase(fromCurrencyIsoCode), upperCase(toCurrencyIsoCode),
+                Timestamp.valueOf(since), Timestamp.valueOf(until)));
+        StringBuilder where = new StringBuilder("WHERE from_currency_iso_code = ? AND to_currency_iso_code = ? "
+                + "AND deal_timestamp >= ? AND deal_timestamp < ? ");
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            where.append("AND (deal_timestamp, deal_unique_id) > (?, ?) ");
+            args.add(Timestamp.valueOf(cursor.dealTimestamp()));
+            args.add(cursor.dealUniqueId());
+        }
+        // One extra row tells whether there is a next page
+        where.append("ORDER BY deal_timestamp, deal_unique_id LIMIT ?");
+        args.add(limit + 1);
+
+        List<FxDeal> deals = query(where.toString(), args.toArray());
+        ShardedFxDealStore sharded = shardedStore.getIfAvailable();
+        if (sharded != null) {
+            deals = distinct(deals).stream().sorted(BY_TIMESTAMP).limit(limit + 1L).toList();
+        }
+
+        if (deals.size() <= limit) {
+            return new DealPage(toResponses(deals), null);
+        }
+        FxDeal last = deals.get(limit - 1);
+        return new DealPage(toResponses(deals.subList(0, limit)),
+                new Cursor(last.getDealTimestamp(), last.getDealUniqueId()).encode());
+    }
+
+    /**
+     * The {@code limit} largest deals, by amount, with a deal timestamp in
+     * {@code [since, until)}, optionally of one currency pair only
+     *
+     * @throws IllegalArgumentException if the window or limit is invalid, or only one currency is given
+     */
+    @Transactional(readOnly = true)
+    public List<FxDealResponse> largest(LocalDateTime since,
+                                        LocalDateTime until,
+                                        String fromCurrencyIsoCode,
+                                        String toCurrencyIsoCode,
+                                        int limit) {
+        checkWindow(since, until);
+        checkLimit(limit, properties.getMaxTopN());
+        if ((fromCurrencyIsoCode == null) != (toCurrencyIsoCode == null)) {
+            throw new IllegalArgumentException("Both currencies of the pair are required");
+        }
+
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(since), Timestamp.valueOf(until)));
+        StringBuilder where = new StringBuilder("WHERE deal_timestamp >= ? AND deal_timestamp < ? ");
+        if (fromCurrencyIsoCode != null) {
+            where.append("AND from_currency_iso_code = ? AND to_currency_iso_code = ? ");
+            args.add(upperCase(fromCurrencyIsoCode));
+            args.add(upperCase(toCurrencyIsoCode));
+        }
+        where.append("ORDER BY deal_amount DESC, deal_unique_id LIMIT ?");
+        args.add(limit);
+
+        LargestDeals top = new LargestDeals(limit);
+        distinct(query(where.toString(), args.toArray())).forEach(top::offer);
+        return toResponses(top.sortedDescending());
+    }
+
+    private List<FxDeal> query(String where, Object... args) {
+        ShardedFxDealStore sharded = shardedStore.getIfAvailable();
+        return sharded != null
+                ? sharded.queryEveryShard(where, args)
+                : jdbcTemplate.query(FxDealRows.SELECT_COLUMNS + where, FxDealRows.ROW_MAPPER, args);
+    }
+
+    /**
+     * Drop the second copy of deals seen on two shards while a rebalance moves them
+     */
+    private static List<FxDeal> distinct(List<FxDeal> deals) {
+        Set<String> seen = new HashSet<>(deals.size() * 2);
+        return deals.stream().filter(deal -> seen.add(deal.getDealUniqueId())).toList();
+    }
+
+    private List<FxDealResponse> toResponses(List<FxDeal> deals) {
+        return deals.stream().map(mapper::toResponse).toList();
+    }
+
+    private static void checkWindow(LocalDateTime since, LocalDateTime until) {
+        if (!since.isBefore(until)) {
+            throw new IllegalArgumentException("'since' must be before 'until'");
+        }
+    }
+
+    private static void checkLimit(int limit, int max) {
+        if (limit < 1 || limit > max) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + max);
+        }
+    }
+
+    private static String upperCase(String code) {
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Position after the last deal of a page, sent to clients as URL-safe Base64
+     */
+    record Cursor(LocalDateTime dealTimestamp, String dealUniqueId) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((dealTimestamp + " " + dealUniqueId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String encoded) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(' ');
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        decoded.substring(separator + 1));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid page cursor '" + encoded + "'");
+            }
+        }
+    }
+}
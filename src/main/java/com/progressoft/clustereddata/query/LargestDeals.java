@@ -0,0 +1,43 @@
+package com.progressoft.clustereddata.query;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded min-heap keeping the {@code limit} largest deals offered, so
+ * memory stays proportional to the limit however many deals are seen. Ties
+ * on amount are broken by deal ID to keep results stable.
+ */
+final class LargestDeals {
+
+    static final Comparator<FxDeal> BY_AMOUNT = Comparator.comparingLong(FxDeal::getDealAmount)
+            .thenComparing(FxDeal::getDealUniqueId, Comparator.reverseOrder());
+
+    private final int limit;
+    private final PriorityQueue<FxDeal> smallestFirst;
+
+    LargestDeals(int limit) {
+        this.limit = limit;
+        this.smallestFirst = new PriorityQueue<>(limit + 1, BY_AMOUNT);
+    }
+
+    void offer(FxDeal deal) {
+        if (smallestFirst.size() == limit && BY_AMOUNT.compare(smallestFirst.peek(), deal) >= 0) {
+            return;
+        }
+        smallestFirst.add(deal);
+        if (smallestFirst.size() > limit) {
+            smallestFirst.poll();
+        }
+    }
+
+    List<FxDeal> sortedDescending() {
+        List<FxDeal> sorted = new ArrayList<>(smallestFirst);
+        sorted.sort(BY_AMOUNT.reversed());
+        return sorted;
+    }
+}
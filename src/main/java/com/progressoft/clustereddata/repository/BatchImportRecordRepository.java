@@ -0,0 +1,23 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.entity.BatchImportRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BatchImportRecordRepository extends JpaRepository<BatchImportRecord, String> {
+
+    @Query("SELECT r.createdAt FROM BatchImportRecord r ORDER BY r.createdAt DESC")
+    List<LocalDateTime> findCreatedAtNewestFirst(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM BatchImportRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
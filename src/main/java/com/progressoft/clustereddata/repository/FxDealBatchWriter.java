@@ -0,0 +1,76 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC multi-row inserts into fx_deals.
+ * <p>
+ * Bypasses the persistence context, so there is no merge SELECT per deal;
+ * callers are responsible for the duplicate check. Runs in the surrounding
+ * transaction when there is one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FxDealBatchWriter {
+
+    public static final int MAX_ROWS_PER_STATEMENT = 1_000;
+
+    private static final String INSERT_PREFIX = "INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, "
+            + "to_currency_iso_code, deal_timestamp, deal_amount, created_at, updated_at, deal_id_hash) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert the given deals with one multi-row statement per
+     * {@link #MAX_ROWS_PER_STATEMENT} deals. Deals without audit timestamps
+     * get the current time, which is also set on the passed entities.
+     *
+     * @param deals the validated, non-duplicate deals to insert
+     */
+    public void insertAll(List<FxDeal> deals) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < deals.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<FxDeal> chunk = deals.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, deals.size()));
+            jdbcTemplate.update(insertSql(chunk.size()), ps -> {
+                int index = 1;
+                for (FxDeal deal : chunk) {
+                    if (deal.getCreatedAt() == null) {
+                        deal.setCreatedAt(now);
+                    }
+                    if (deal.getUpdatedAt() == null) {
+                        deal.setUpdatedAt(now);
+                    }
+                    ps.setString(index++, deal.getDealUniqueId());
+                    ps.setString(index++, deal.getFromCurrencyIsoCode());
+                    ps.setString(index++, deal.getToCurrencyIsoCode());
+                    ps.setTimestamp(index++, Timestamp.valueOf(deal.getDealTimestamp()));
+                    ps.setBigDecimal(index++, FixedPointAmount.toBigDecimal(deal.getDealAmount()));
+                    ps.setTimestamp(index++, Timestamp.valueOf(deal.getCreatedAt()));
+                    ps.setTimestamp(index++, Timestamp.valueOf(deal.getUpdatedAt()));
+                    ps.setLong(index++, deal.getDealIdHash());
+                }
+            });
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,20 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deal lookups by unique ID across both storage tiers: fx_deals and, when
+ * tiering is enabled, the archive of aged deals.
+ */
+public interface FxDealLookup {
+
+    boolean existsByDealUniqueId(String dealUniqueId);
+
+    Optional<FxDeal> findByDealUniqueId(String dealUniqueId);
+
+    List<String> findExistingDealUniqueIds(Collection<String> dealUniqueIds);
+}
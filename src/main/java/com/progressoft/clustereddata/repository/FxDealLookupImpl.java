@@ -0,0 +1,96 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.config.CompactKeyProperties;
+import com.progressoft.clustereddata.entity.DealIdHash;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.tiering.DealArchive;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Probes fx_deals by hash and ID in compact-key mode, where the hash index is
+ * the only index on deal IDs, and by ID alone on the ID primary key
+ * otherwise, where deal_id_hash may still be NULL for rows written by other
+ * clients. Falls back to the archive for IDs the hot table does not have.
+ */
+public class FxDealLookupImpl implements FxDealLookup {
+
+    private final ObjectProvider<DealArchive> dealArchive;
+    private final boolean compactKeys;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public FxDealLookupImpl(ObjectProvider<DealArchive> dealArchive, CompactKeyProperties compactKeyProperties) {
+        this.dealArchive = dealArchive;
+        this.compactKeys = compactKeyProperties.isEnabled();
+    }
+
+    @Override
+    public boolean existsByDealUniqueId(String dealUniqueId) {
+        boolean hot = !byId("SELECT d.dealUniqueId FROM FxDeal d", dealUniqueId, String.class)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+        if (hot) {
+            return true;
+        }
+        DealArchive archive = dealArchive.getIfAvailable();
+        return archive != null && archive.contains(dealUniqueId);
+    }
+
+    @Override
+    public Optional<FxDeal> findByDealUniqueId(String dealUniqueId) {
+        Optional<FxDeal> hot = byId("SELECT d FROM FxDeal d", dealUniqueId, FxDeal.class)
+                .getResultStream()
+                .findFirst();
+        if (hot.isPresent()) {
+            return hot;
+        }
+        DealArchive archive = dealArchive.getIfAvailable();
+        return archive != null ? archive.find(dealUniqueId) : Optional.empty();
+    }
+
+    @Override
+    public List<String> findExistingDealUniqueIds(Collection<String> dealUniqueIds) {
+        if (dealUniqueIds.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<String> query = entityManager.createQuery(compactKeys
+                        ? "SELECT d.dealUniqueId FROM FxDeal d WHERE d.dealIdHash IN :hashes AND d.dealUniqueId IN :ids"
+                        : "SELECT d.dealUniqueId FROM FxDeal d WHERE d.dealUniqueId IN :ids", String.class)
+                .setParameter("ids", dealUniqueIds);
+        if (compactKeys) {
+            query.setParameter("hashes", dealUniqueIds.stream().map(DealIdHash::of).toList());
+        }
+        List<String> existing = new ArrayList<>(query.getResultList());
+        DealArchive archive = dealArchive.getIfAvailable();
+        if (archive != null && existing.size() < dealUniqueIds.size()) {
+            Set<String> hot = new HashSet<>(existing);
+            existing.addAll(archive.findExisting(dealUniqueIds.stream().filter(id -> !hot.contains(id)).toList()));
+        }
+        return existing;
+    }
+
+    /**
+     * Query for one deal ID, with the hash predicate in compact-key mode
+     */
+    private <T> TypedQuery<T> byId(String select, String dealUniqueId, Class<T> type) {
+        if (!compactKeys) {
+            return entityManager.createQuery(select + " WHERE d.dealUniqueId = :id", type)
+                    .setParameter("id", dealUniqueId);
+        }
+        return entityManager.createQuery(select + " WHERE d.dealIdHash = :hash AND d.dealUniqueId = :id", type)
+                .setParameter("hash", DealIdHash.of(dealUniqueId))
+                .setParameter("id", dealUniqueId);
+    }
+}
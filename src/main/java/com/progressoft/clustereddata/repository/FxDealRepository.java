@@ -4,12 +4,10 @@ import com.progressoft.clustereddata.entity.FxDeal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
-
+/**
+ * Lookups by deal unique ID come from {@link FxDealLookup}, which sees both
+ * the hot table and the archive.
+ */
 @Repository
-public interface FxDealRepository extends JpaRepository<FxDeal, String> {
-
-    boolean existsByDealUniqueId(String dealUniqueId);
-
-    Optional<FxDeal> findByDealUniqueId(String dealUniqueId);
+public interface FxDealRepository extends JpaRepository<FxDeal, String>, FxDealLookup {
 }
@@ -0,0 +1,35 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * The fx_deals columns, row mapper and IN-list size shared by the plain JDBC
+ * readers of the table.
+ */
+public final class FxDealRows {
+
+    /**
+     * Most deal IDs or hashes bound into one {@code IN} list
+     */
+    public static final int MAX_IN_LIST = 1_000;
+
+    public static final String SELECT_COLUMNS = "SELECT deal_unique_id, from_currency_iso_code, "
+            + "to_currency_iso_code, deal_timestamp, deal_amount, created_at, updated_at FROM fx_deals ";
+
+    /**
+     * Maps the columns of {@link #SELECT_COLUMNS}
+     */
+    public static final RowMapper<FxDeal> ROW_MAPPER = (rs, rowNum) -> new FxDeal(
+            rs.getString("deal_unique_id"),
+            rs.getString("from_currency_iso_code"),
+            rs.getString("to_currency_iso_code"),
+            rs.getTimestamp("deal_timestamp").toLocalDateTime(),
+            FixedPointAmount.of(rs.getBigDecimal("deal_amount")),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getTimestamp("updated_at").toLocalDateTime());
+
+    private FxDealRows() {
+    }
+}
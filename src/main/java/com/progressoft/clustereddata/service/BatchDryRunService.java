@@ -0,0 +1,218 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.exists.DealExistenceService;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+
+/**
+ * Checks a batch import without writing it: the same validation and duplicate
+ * rules as {@code FxDealService.importDeals}, reported as the same
+ * {@link BatchImportResponse}, with no inserts and no transaction.
+ * <p>
+ * The deal list is split fork-join style into ranges of {@code leaf-size}
+ * deals, checked on all cores in two passes. The first validates every deal
+ * and records the first valid occurrence of each ID; the second marks later
+ * occurrences as duplicates and asks the store about the first ones, one
+ * set-based query per range.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.dry-run", name = "enabled", havingValue = "true")
+@Slf4j
+public class BatchDryRunService {
+
+    private final FxDealValidationService validationService;
+    private final FxDealMapper mapper;
+    private final FxDealRepository fxDealRepository;
+    private final ObjectProvider<ShardedFxDealStore> shardedStore;
+    private final ObjectProvider<DealExistenceService> existenceService;
+    private final int leafSize;
+    private final ForkJoinPool pool;
+
+    public BatchDryRunService(FxDealValidationService validationService,
+                              FxDealMapper mapper,
+                              FxDealRepository fxDealRepository,
+                              ObjectProvider<ShardedFxDealStore> shardedStore,
+                              ObjectProvider<DealExistenceService> existenceService,
+                              DryRunProperties properties) {
+        this.validationService = validationService;
+        this.mapper = mapper;
+        this.fxDealRepository = fxDealRepository;
+        this.shardedStore = shardedStore;
+        this.existenceService = existenceService;
+        this.leafSize = properties.getLeafSize();
+        int parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("fx-deal-dry-run-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Report what importing the batch would do right now
+     *
+     * @param request the batch import request
+     * @return the batch import response the import would return, barring
+     *         deals stored concurrently
+     */
+    public BatchImportResponse dryRun(BatchImportRequest request) {
+        long started = System.nanoTime();
+        List<FxDealRequest> deals = request.getDeals();
+        BatchImportResponse.FailedDeal[] failures = new BatchImportResponse.FailedDeal[deals.size()];
+        Map<String, Integer> firstValid = new ConcurrentHashMap<>(deals.size() * 2);
+
+        pool.invoke(new Split(0, deals.size(), (from, to) -> validate(deals, from, to, failures, firstValid)));
+        pool.invoke(new Split(0, deals.size(), (from, to) -> checkDuplicates(deals, from, to, failures, firstValid)));
+
+        List<String> successfulDeals = new ArrayList<>();
+        List<BatchImportResponse.FailedDeal> failedDeals = new ArrayList<>();
+        int duplicateCount = 0;
+        for (int i = 0; i < failures.length; i++) {
+            BatchImportResponse.FailedDeal failure = failures[i];
+            if (failure == null) {
+                successfulDeals.add(deals.get(i).getDealUniqueId());
+                continue;
+            }
+            failedDeals.add(failure);
+            if (failure.getType() == BatchImportResponse.FailureType.DUPLICATE) {
+                duplicateCount++;
+            }
+        }
+
+        log.info("Dry run of {} deals in {} ms: {} would succeed, {} would fail, {} duplicates",
+                deals.size(), (System.nanoTime() - started) / 1_000_000,
+                successfulDeals.size(), failedDeals.size(), duplicateCount);
+
+        return BatchImportResponse.builder()
+                .totalProcessed(deals.size())
+                .successCount(successfulDeals.size())
+                .failedCount(failedDeals.size())
+                .duplicateCount(duplicateCount)
+                .successfulDeals(successfulDeals)
+                .failedDeals(failedDeals)
+                .build();
+    }
+
+    private void validate(List<FxDealRequest> deals, int from, int to,
+                          BatchImportResponse.FailedDeal[] failures, Map<String, Integer> firstValid) {
+        for (int i = from; i < to; i++) {
+            FxDealRequest deal = deals.get(i);
+            List<DealError> errors = validationService.check(mapper.toEntity(deal));
+            if (errors.isEmpty()) {
+                firstValid.merge(deal.getDealUniqueId(), i, Math::min);
+                continue;
+            }
+            DealOutcome.Invalid invalid = new DealOutcome.Invalid(deal.getDealUniqueId(), errors);
+            failures[i] = BatchImportResponse.FailedDeal.builder()
+                    .dealUniqueId(invalid.dealUniqueId())
+                    .reason(invalid.reason())
+                    .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                    .errors(invalid.errors())
+                    .build();
+        }
+    }
+
+    private void checkDuplicates(List<FxDealRequest> deals, int from, int to,
+                                 BatchImportResponse.FailedDeal[] failures, Map<String, Integer> firstValid) {
+        List<Integer> firsts = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (failures[i] != null) {
+                continue;
+            }
+            String id = deals.get(i).getDealUniqueId();
+            if (firstValid.get(id) == i) {
+                firsts.add(i);
+            } else {
+                failures[i] = duplicate(id);
+            }
+        }
+        if (firsts.isEmpty()) {
+            return;
+        }
+
+        List<String> ids = firsts.stream().map(i -> deals.get(i).getDealUniqueId()).toList();
+        Set<String> existing = findExisting(ids);
+        for (int i : firsts) {
+            String id = deals.get(i).getDealUniqueId();
+            if (existing.contains(id)) {
+                failures[i] = duplicate(id);
+            }
+        }
+    }
+
+    private Set<String> findExisting(List<String> ids) {
+        DealExistenceService existence = existenceService.getIfAvailable();
+        if (existence != null) {
+            BitSet bits = existence.existing(ids);
+            return bits.stream().mapToObj(ids::get).collect(Collectors.toSet());
+        }
+        ShardedFxDealStore sharded = shardedStore.getIfAvailable();
+        return sharded != null
+                ? sharded.findExisting(ids)
+                : new HashSet<>(fxDealRepository.findExistingDealUniqueIds(ids));
+    }
+
+    private static BatchImportResponse.FailedDeal duplicate(String id) {
+        return BatchImportResponse.FailedDeal.builder()
+                .dealUniqueId(id)
+                .reason("Deal already exists")
+                .type(BatchImportResponse.FailureType.DUPLICATE)
+                .build();
+    }
+
+    private interface RangeCheck {
+        void run(int from, int to);
+    }
+
+    private final class Split extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final RangeCheck check;
+
+        private Split(int from, int to, RangeCheck check) {
+            this.from = from;
+            this.to = to;
+            this.check = check;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                check.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Split(from, middle, check), new Split(middle, to, check));
+        }
+    }
+}
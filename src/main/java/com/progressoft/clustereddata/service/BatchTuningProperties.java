@@ -0,0 +1,47 @@
+package com.progressoft.clustereddata.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.batch-tuning")
+public class BatchTuningProperties {
+
+    /**
+     * Writes batch imports in separately committed chunks whose size adapts
+     * to the observed commit latency and throughput
+     */
+    private boolean enabled = false;
+
+    /**
+     * Chunk size used until enough chunks have been measured
+     */
+    private int initialChunkSize = 1_000;
+
+    /**
+     * Smallest chunk size the controller may choose
+     */
+    private int minChunkSize = 100;
+
+    /**
+     * Largest chunk size the controller may choose
+     */
+    private int maxChunkSize = 20_000;
+
+    /**
+     * Longest acceptable commit of one chunk; slower chunks shrink the size
+     */
+    private Duration latencyCeiling = Duration.ofMillis(500);
+
+    /**
+     * Factor by which the chunk size grows or shrinks per decision
+     */
+    private double step = 1.25;
+
+    /**
+     * Chunks measured at one size before deciding on the next
+     */
+    private int windowChunks = 3;
+}
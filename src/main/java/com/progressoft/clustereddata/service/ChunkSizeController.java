@@ -0,0 +1,95 @@
+package com.progressoft.clustereddata.service;
+
+/**
+ * Picks how many deals a batch import commits at once.
+ * <p>
+ * Hill climbing on throughput: after {@code windowChunks} chunks at the
+ * current size the rows per second are compared with the previous window. An
+ * improvement keeps the size moving in the same direction, otherwise the
+ * direction reverses, so the size settles around the best throughput and
+ * follows it when the database gets faster or slower. A chunk slower than
+ * the latency ceiling shrinks the size immediately, whatever the throughput.
+ */
+public class ChunkSizeController {
+
+    private static final double MIN_IMPROVEMENT = 0.01;
+
+    private final int minChunkSize;
+    private final int maxChunkSize;
+    private final long latencyCeilingNanos;
+    private final double step;
+    private final int windowChunks;
+
+    private int chunkSize;
+    private int direction = 1;
+    private double previousThroughput;
+    private long windowRows;
+    private long windowNanos;
+    private int windowCount;
+
+    public ChunkSizeController(BatchTuningProperties properties) {
+        this.minChunkSize = properties.getMinChunkSize();
+        this.maxChunkSize = properties.getMaxChunkSize();
+        this.latencyCeilingNanos = properties.getLatencyCeiling().toNanos();
+        this.step = properties.getStep();
+        this.windowChunks = properties.getWindowChunks();
+        this.chunkSize = clamp(properties.getInitialChunkSize());
+    }
+
+    public synchronized int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Record one committed chunk
+     *
+     * @param rows deals in the chunk
+     * @param elapsedNanos time from the first insert to the end of the commit
+     */
+    public synchronized void record(int rows, long elapsedNanos) {
+        if (elapsedNanos > latencyCeilingNanos) {
+            direction = -1;
+            move();
+            return;
+        }
+        if (rows < chunkSize) {
+            // The tail of a batch says little about the chosen size
+            return;
+        }
+        windowRows += rows;
+        windowNanos += elapsedNanos;
+        if (++windowCount < windowChunks) {
+            return;
+        }
+
+        double throughput = windowRows * 1e9 / Math.max(1, windowNanos);
+        if (throughput < previousThroughput * (1 + MIN_IMPROVEMENT)) {
+            direction = -direction;
+        }
+        previousThroughput = throughput;
+        move();
+    }
+
+    /**
+     * Rows per second of the last complete window
+     */
+    public synchronized double throughput() {
+        return previousThroughput;
+    }
+
+    private void move() {
+        int next = clamp((int) Math.round(direction > 0 ? chunkSize * step : chunkSize / step));
+        if (next == chunkSize) {
+            // Pinned at a bound, probe the other way next time
+            direction = -direction;
+        }
+        chunkSize = next;
+        windowRows = 0;
+        windowNanos = 0;
+        windowCount = 0;
+    }
+
+    private int clamp(int size) {
+        return Math.max(minChunkSize, Math.min(maxChunkSize, size));
+    }
+}
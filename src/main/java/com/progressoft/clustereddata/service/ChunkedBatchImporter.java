@@ -0,0 +1,208 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch import that commits in chunks sized by a {@link ChunkSizeController}.
+ * <p>
+ * Deals are validated and checked for duplicates up front, then written with
+ * multi-row inserts, one transaction per chunk. Each commit is timed and fed
+ * back to the controller, which picks the size of the next chunk. A failed
+ * chunk does not undo the chunks committed before it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.batch-tuning", name = "enabled", havingValue = "true")
+@Slf4j
+public class ChunkedBatchImporter {
+
+
+    private final FxDealRepository fxDealRepository;
+    private final FxDealBatchWriter batchWriter;
+    private final FxDealValidationService validationService;
+    private final FxDealMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChunkSizeController chunkSizes;
+    private final Timer commitTimer;
+
+    public ChunkedBatchImporter(FxDealRepository fxDealRepository,
+                                FxDealBatchWriter batchWriter,
+                                FxDealValidationService validationService,
+                                FxDealMapper mapper,
+                                PlatformTransactionManager transactionManager,
+                                ApplicationEventPublisher eventPublisher,
+                                BatchTuningProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.fxDealRepository = fxDealRepository;
+        this.batchWriter = batchWriter;
+        this.validationService = validationService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSizes = new ChunkSizeController(properties);
+        this.commitTimer = Timer.builder("fxdeals.batch.chunk.commit")
+                .description("Time to insert and commit one batch import chunk")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.batch.chunk.size", chunkSizes, ChunkSizeController::chunkSize)
+                .description("Chunk size the controller currently commits batch imports with")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.batch.chunk.throughput", chunkSizes, ChunkSizeController::throughput)
+                .description("Rows per second measured over the last decision window")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Import multiple FX deals, committing them chunk by chunk
+     *
+     * @param request the batch import request
+     * @return the batch import response with results
+     */
+    public BatchImportResponse importDeals(BatchImportRequest request) {
+        log.info("Starting chunked batch import of {} deals", request.getDeals().size());
+
+        List<BatchImportResponse.FailedDeal> failedDeals = new ArrayList<>();
+        Map<String, FxDeal> candidates = new LinkedHashMap<>();
+        int duplicateCount = 0;
+
+        for (FxDealRequest dealRequest : request.getDeals()) {
+            String id = dealRequest.getDealUniqueId();
+            if (candidates.containsKey(id)) {
+                duplicateCount++;
+                failedDeals.add(failure(id, "Deal already exists", BatchImportResponse.FailureType.DUPLICATE));
+                continue;
+            }
+            FxDeal deal = mapper.toEntity(dealRequest);
+            List<DealError> validationErrors = validationService.check(deal);
+            if (!validationErrors.isEmpty()) {
+                DealOutcome.Invalid invalid = new DealOutcome.Invalid(id, validationErrors);
+                failedDeals.add(BatchImportResponse.FailedDeal.builder()
+                        .dealUniqueId(id)
+                        .reason(invalid.reason())
+                        .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                        .errors(invalid.errors())
+                        .build());
+                continue;
+            }
+            candidates.put(id, deal);
+        }
+
+        for (String id : findExisting(List.copyOf(candidates.keySet()))) {
+            candidates.remove(id);
+            duplicateCount++;
+            failedDeals.add(failure(id, "Deal already exists", BatchImportResponse.FailureType.DUPLICATE));
+        }
+
+        List<FxDeal> pending = List.copyOf(candidates.values());
+        List<FxDeal> persisted = new ArrayList<>(pending.size());
+        int from = 0;
+        while (from < pending.size()) {
+            List<FxDeal> chunk = pending.subList(from, Math.min(from + chunkSizes.chunkSize(), pending.size()));
+            from += chunk.size();
+            duplicateCount += writeChunk(chunk, persisted, failedDeals);
+        }
+
+        List<String> successfulDeals = persisted.stream().map(FxDeal::getDealUniqueId).toList();
+        if (!persisted.isEmpty()) {
+            eventPublisher.publishEvent(new DealsPersistedEvent(persisted));
+        }
+
+        log.info("Chunked batch import completed: {} successful, {} failed, {} duplicates, next chunk size {}",
+                successfulDeals.size(), failedDeals.size(), duplicateCount, chunkSizes.chunkSize());
+
+        return BatchImportResponse.builder()
+                .totalProcessed(request.getDeals().size())
+                .successCount(successfulDeals.size())
+                .failedCount(failedDeals.size())
+                .duplicateCount(duplicateCount)
+                .successfulDeals(successfulDeals)
+                .failedDeals(failedDeals)
+                .build();
+    }
+
+    ChunkSizeController chunkSizes() {
+        return chunkSizes;
+    }
+
+    /**
+     * Commit one chunk, falling back to deal-by-deal inserts if a concurrent
+     * writer took one of its IDs
+     *
+     * @return number of duplicates found while writing
+     */
+    private int writeChunk(List<FxDeal> chunk, List<FxDeal> persisted, List<BatchImportResponse.FailedDeal> failedDeals) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchWriter.insertAll(chunk));
+            long elapsed = System.nanoTime() - start;
+            commitTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            chunkSizes.record(chunk.size(), elapsed);
+            persisted.addAll(chunk);
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Chunk of {} deals hit a concurrent insert, writing them one by one", chunk.size());
+            int duplicates = 0;
+            for (FxDeal deal : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> batchWriter.insertAll(List.of(deal)));
+                    persisted.add(deal);
+                } catch (DataIntegrityViolationException duplicate) {
+                    duplicates++;
+                    failedDeals.add(failure(deal.getDealUniqueId(), "Deal already exists",
+                            BatchImportResponse.FailureType.DUPLICATE));
+                } catch (RuntimeException other) {
+                    failedDeals.add(failure(deal.getDealUniqueId(), "Processing error: " + other.getMessage(),
+                            BatchImportResponse.FailureType.PROCESSING_ERROR));
+                }
+            }
+            return duplicates;
+        } catch (RuntimeException e) {
+            log.error("Chunk of {} deals failed: {}", chunk.size(), e.getMessage());
+            chunk.forEach(deal -> failedDeals.add(failure(deal.getDealUniqueId(), "Processing error: " + e.getMessage(),
+                    BatchImportResponse.FailureType.PROCESSING_ERROR)));
+            return 0;
+        }
+    }
+
+    private Set<String> findExisting(List<String> ids) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < ids.size(); from += FxDealRows.MAX_IN_LIST) {
+            existing.addAll(fxDealRepository.findExistingDealUniqueIds(ids.subList(from, Math.min(from + FxDealRows.MAX_IN_LIST, ids.size()))));
+        }
+        return existing;
+    }
+
+    private static BatchImportResponse.FailedDeal failure(String id, String reason, BatchImportResponse.FailureType type) {
+        return BatchImportResponse.FailedDeal.builder()
+                .dealUniqueId(id)
+                .reason(reason)
+                .type(type)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+
+import java.util.List;
+
+/**
+ * Result of submitting a single deal. Duplicates and validation failures are
+ * ordinary results, not exceptions; exceptions are left for real faults such
+ * as a lost database connection.
+ */
+public sealed interface DealOutcome {
+
+    String dealUniqueId();
+
+    record Accepted(FxDealResponse deal) implements DealOutcome {
+        @Override
+        public String dealUniqueId() {
+            return deal.getDealUniqueId();
+        }
+    }
+
+    record Duplicate(String dealUniqueId) implements DealOutcome {
+        public String message() {
+            return "Deal with ID '" + dealUniqueId + "' already exists";
+        }
+    }
+
+    record Invalid(String dealUniqueId, List<DealError> errors) implements DealOutcome {
+        /**
+         * The errors as {@code field: message}, the format used by the
+         * {@code details} of error responses
+         */
+        public List<String> details() {
+            return errors.stream().map(error -> error.getField() + ": " + error.getMessage()).toList();
+        }
+
+        /**
+         * The errors joined into one line, as used for batch failure reasons
+         */
+        public String reason() {
+            return String.join(", ", details());
+        }
+    }
+
+    /**
+     * Unwrap for callers that keep the exception based contract
+     *
+     * @throws DuplicateDealException if the deal is a duplicate
+     * @throws IllegalArgumentException if the deal is invalid
+     */
+    default FxDealResponse orThrow() {
+        return switch (this) {
+            case Accepted accepted -> accepted.deal();
+            case Duplicate duplicate -> throw new DuplicateDealException(duplicate.message());
+            case Invalid invalid -> throw new IllegalArgumentException(
+                    "FX deal validation failed: " + invalid.reason());
+        };
+    }
+}
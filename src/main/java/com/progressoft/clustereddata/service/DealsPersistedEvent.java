@@ -0,0 +1,13 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+
+import java.util.List;
+
+/**
+ * Published by every write path with the deals it inserted. Listeners should
+ * use {@code @TransactionalEventListener(fallbackExecution = true)} so they
+ * only see deals whose transaction committed.
+ */
+public record DealsPersistedEvent(List<FxDeal> deals) {
+}
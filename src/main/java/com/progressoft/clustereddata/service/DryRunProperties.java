@@ -0,0 +1,25 @@
+package com.progressoft.clustereddata.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.dry-run")
+public class DryRunProperties {
+
+    /**
+     * Enables {@code POST /api/v1/fx-deals/batch?dryRun=true}
+     */
+    private boolean enabled = false;
+
+    /**
+     * Threads checking one dry run; {@code 0} uses one per available core
+     */
+    private int parallelism = 0;
+
+    /**
+     * Deals one task checks without splitting further. Also the most IDs sent
+     * to the database in one duplicate query.
+     */
+    private int leafSize = 1_000;
+}
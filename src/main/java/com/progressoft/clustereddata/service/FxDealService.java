@@ -2,18 +2,22 @@ package com.progressoft.clustereddata.service;
 
 import com.progressoft.clustereddata.dto.BatchImportRequest;
 import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
 import com.progressoft.clustereddata.dto.FxDealRequest;
 import com.progressoft.clustereddata.dto.FxDealResponse;
 import com.progressoft.clustereddata.entity.FxDeal;
 import com.progressoft.clustereddata.exception.DealNotFoundException;
 import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.logging.SampledLogger;
 import com.progressoft.clustereddata.mapper.FxDealMapper;
 import com.progressoft.clustereddata.repository.FxDealRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -22,9 +26,12 @@ import java.util.List;
 @Slf4j
 public class FxDealService {
 
+    private static final SampledLogger CREATED_LOG = SampledLogger.every(Duration.ofSeconds(1), FxDealService.class);
+
     private final FxDealRepository fxDealRepository;
     private final FxDealValidationService validationService;
     private final FxDealMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Create a new FX deal
@@ -36,25 +43,54 @@ public class FxDealService {
      */
     @Transactional
     public FxDealResponse createDeal(FxDealRequest request) {
-        log.info("Creating FX deal with ID: {}", request.getDealUniqueId());
+        return submitDeal(request).orThrow();
+    }
 
-        // Check for duplicate
-        if (fxDealRepository.existsByDealUniqueId(request.getDealUniqueId())) {
-            log.warn("Duplicate deal detected: {}", request.getDealUniqueId());
-            throw new DuplicateDealException("Deal with ID '" + request.getDealUniqueId() + "' already exists");
-        }
+    /**
+     * Submit a new FX deal. Duplicates and invalid deals come back as
+     * outcomes rather than exceptions, so rejecting them costs no stack trace.
+     *
+     * @param request the FX deal request
+     * @return whether the deal was accepted, a duplicate or invalid
+     */
+    @Transactional
+    public DealOutcome submitDeal(FxDealRequest request) {
+        log.debug("Submitting FX deal with ID: {}", request.getDealUniqueId());
 
-        // Convert to entity
+        // Validate first, it needs no database round trip
         FxDeal deal = mapper.toEntity(request);
+        List<DealError> errors = validationService.check(deal);
+        if (!errors.isEmpty()) {
+            return new DealOutcome.Invalid(request.getDealUniqueId(), errors);
+        }
 
-        // Validate
-        validationService.validateOrThrow(deal);
+        // Check for duplicate
+        if (fxDealRepository.existsByDealUniqueId(request.getDealUniqueId())) {
+            log.debug("Duplicate deal detected: {}", request.getDealUniqueId());
+            return new DealOutcome.Duplicate(request.getDealUniqueId());
+        }
 
         // Save
         FxDeal savedDeal = fxDealRepository.save(deal);
-        log.info("Successfully created FX deal: {}", savedDeal.getDealUniqueId());
+        CREATED_LOG.info("Successfully created FX deal: {}", savedDeal.getDealUniqueId());
+        eventPublisher.publishEvent(new DealsPersistedEvent(List.of(savedDeal)));
+
+        return new DealOutcome.Accepted(mapper.toResponse(savedDeal));
+    }
 
-        return mapper.toResponse(savedDeal);
+    /**
+     * Find an FX deal by its unique ID. Runs read-only, so it may be served by
+     * a replica when replica routing is enabled.
+     *
+     * @param dealUniqueId the deal unique ID
+     * @return the FX deal response
+     * @throws DealNotFoundException if no deal has this ID
+     */
+    @Transactional(readOnly = true)
+    public FxDealResponse getDeal(String dealUniqueId) {
+        return fxDealRepository.findByDealUniqueId(dealUniqueId)
+                .map(mapper::toResponse)
+                .orElseThrow(() -> new DealNotFoundException("Deal with ID '" + dealUniqueId + "' not found"));
     }
 
     /**
@@ -68,11 +104,27 @@ public class FxDealService {
         log.info("Starting batch import of {} deals", request.getDeals().size());
 
         List<String> successfulDeals = new ArrayList<>();
+        List<FxDeal> savedDeals = new ArrayList<>();
         List<BatchImportResponse.FailedDeal> failedDeals = new ArrayList<>();
         int duplicateCount = 0;
 
         for (FxDealRequest dealRequest : request.getDeals()) {
             try {
+                // Convert to entity and validate
+                FxDeal deal = mapper.toEntity(dealRequest);
+                List<DealError> validationErrors = validationService.check(deal);
+                if (!validationErrors.isEmpty()) {
+                    DealOutcome.Invalid invalid = new DealOutcome.Invalid(dealRequest.getDealUniqueId(), validationErrors);
+                    log.debug("Validation failed for deal {}: {}", invalid.dealUniqueId(), invalid.reason());
+                    failedDeals.add(BatchImportResponse.FailedDeal.builder()
+                            .dealUniqueId(invalid.dealUniqueId())
+                            .reason(invalid.reason())
+                            .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                            .errors(invalid.errors())
+                            .build());
+                    continue;
+                }
+
                 // Check for duplicate
                 if (fxDealRepository.existsByDealUniqueId(dealRequest.getDealUniqueId())) {
                     log.debug("Skipping duplicate deal: {}", dealRequest.getDealUniqueId());
@@ -85,23 +137,8 @@ public class FxDealService {
                     continue;
                 }
 
-                // Convert to entity
-                FxDeal deal = mapper.toEntity(dealRequest);
-
-                // Validate
-                List<String> validationErrors = validationService.validate(deal);
-                if (!validationErrors.isEmpty()) {
-                    log.debug("Validation failed for deal {}: {}", dealRequest.getDealUniqueId(), validationErrors);
-                    failedDeals.add(BatchImportResponse.FailedDeal.builder()
-                            .dealUniqueId(dealRequest.getDealUniqueId())
-                            .reason(String.join(", ", validationErrors))
-                            .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
-                            .build());
-                    continue;
-                }
-
                 // Save
-                fxDealRepository.save(deal);
+                savedDeals.add(fxDealRepository.save(deal));
                 successfulDeals.add(dealRequest.getDealUniqueId());
                 log.debug("Successfully imported deal: {}", dealRequest.getDealUniqueId());
 
@@ -115,6 +152,10 @@ public class FxDealService {
             }
         }
 
+        if (!savedDeals.isEmpty()) {
+            eventPublisher.publishEvent(new DealsPersistedEvent(savedDeals));
+        }
+
         BatchImportResponse response = BatchImportResponse.builder()
                 .totalProcessed(request.getDeals().size())
                 .successCount(successfulDeals.size())
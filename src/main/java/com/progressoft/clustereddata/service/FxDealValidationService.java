@@ -1,12 +1,21 @@
 package com.progressoft.clustereddata.service;
 
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.DealError;
 import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.validation.ValidCurrencyCode;
+import com.progressoft.clustereddata.validation.ValidDealAmount;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.lang.annotation.Annotation;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -16,34 +25,48 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FxDealValidationService {
 
+    private static final Comparator<DealError> BY_DETAIL =
+            Comparator.comparing(error -> error.getField() + ": " + error.getMessage());
+
     private final Validator validator;
 
     /**
-     * Validates an FX deal and returns a list of validation error messages
+     * Validates an FX deal and returns its structured errors
      *
      * @param fxDeal the FX deal to validate
-     * @return list of validation error messages, empty if valid
+     * @return the errors sorted by field, empty if valid
      */
-    public List<String> validate(FxDeal fxDeal) {
-        log.debug("Validating FX deal: {}", fxDeal);
-
+    public List<DealError> check(FxDeal fxDeal) {
         Set<ConstraintViolation<FxDeal>> violations = validator.validate(fxDeal);
-
         if (violations.isEmpty()) {
-            log.debug("FX deal validation successful");
             return List.of();
         }
 
-        List<String> errors = violations.stream()
-                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
-                .sorted()
-                .collect(Collectors.toList());
-
-        log.warn("FX deal validation failed with {} errors: {}", errors.size(), errors);
+        List<DealError> errors = violations.stream()
+                .map(violation -> DealError.builder()
+                        .field(violation.getPropertyPath().toString())
+                        .code(codeOf(violation))
+                        .message(violation.getMessage())
+                        .build())
+                .sorted(BY_DETAIL)
+                .toList();
 
+        log.debug("FX deal {} failed validation with {} errors", fxDeal.getDealUniqueId(), errors.size());
         return errors;
     }
 
+    /**
+     * Validates an FX deal and returns a list of validation error messages
+     *
+     * @param fxDeal the FX deal to validate
+     * @return list of validation error messages, empty if valid
+     */
+    public List<String> validate(FxDeal fxDeal) {
+        return check(fxDeal).stream()
+                .map(error -> error.getField() + ": " + error.getMessage())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Validates an FX deal and returns true if valid
      *
@@ -51,7 +74,7 @@ public class FxDealValidationService {
      * @return true if valid, false otherwise
      */
     public boolean isValid(FxDeal fxDeal) {
-        return validate(fxDeal).isEmpty();
+        return validator.validate(fxDeal).isEmpty();
     }
 
     /**
@@ -63,9 +86,29 @@ public class FxDealValidationService {
     public void validateOrThrow(FxDeal fxDeal) {
         List<String> errors = validate(fxDeal);
         if (!errors.isEmpty()) {
-            String errorMessage = "FX deal validation failed: " + String.join(", ", errors);
-            log.error(errorMessage);
-            throw new IllegalArgumentException(errorMessage);
+            throw new IllegalArgumentException("FX deal validation failed: " + String.join(", ", errors));
+        }
+    }
+
+    private static DealError.Code codeOf(ConstraintViolation<FxDeal> violation) {
+        Class<? extends Annotation> constraint = violation.getConstraintDescriptor().getAnnotation().annotationType();
+        if (constraint == NotNull.class) {
+            return DealError.Code.REQUIRED;
+        }
+        if (constraint == NotBlank.class) {
+            return DealError.Code.BLANK;
+        }
+        if (constraint == ValidCurrencyCode.class) {
+            return DealError.Code.INVALID_CURRENCY;
+        }
+        if (constraint == PastOrPresent.class) {
+            return DealError.Code.FUTURE_TIMESTAMP;
+        }
+        if (constraint == ValidDealAmount.class) {
+            return Long.valueOf(FixedPointAmount.ABSENT).equals(violation.getInvalidValue())
+                    ? DealError.Code.REQUIRED
+                    : DealError.Code.INVALID_AMOUNT;
         }
+        return DealError.Code.INVALID;
     }
 }
@@ -0,0 +1,240 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single-deal creation.
+ * <p>
+ * Concurrent callers enqueue their validated deal and block. Flusher threads
+ * collect up to {@code maxSize} deals or wait at most {@code maxDelay}, then
+ * run one duplicate query, one multi-row insert and one commit for the whole
+ * group. Every caller still receives its own {@link DealOutcome}.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.group-commit", name = "enabled", havingValue = "true")
+@Slf4j
+public class GroupCommitDealWriter {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final FxDealRepository fxDealRepository;
+    private final FxDealBatchWriter batchWriter;
+    private final FxDealValidationService validationService;
+    private final FxDealService fxDealService;
+    private final FxDealMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingDeal> queue;
+    private final DistributionSummary groupSizes;
+    private final List<Thread> flushers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public GroupCommitDealWriter(FxDealRepository fxDealRepository,
+                                 FxDealBatchWriter batchWriter,
+                                 FxDealValidationService validationService,
+                                 FxDealService fxDealService,
+                                 FxDealMapper mapper,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 GroupCommitProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.fxDealRepository = fxDealRepository;
+        this.batchWriter = batchWriter;
+        this.validationService = validationService;
+        this.fxDealService = fxDealService;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.groupSizes = DistributionSummary.builder("fxdeals.group_commit.size")
+                .description("Number of single-deal requests committed together")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        for (int i = 0; i < properties.getFlushers(); i++) {
+            Thread flusher = new Thread(this::flushLoop, "fx-deal-group-commit-" + i);
+            flusher.setDaemon(true);
+            flusher.start();
+            flushers.add(flusher);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread flusher : flushers) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        PendingDeal pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new IllegalStateException("Group commit is shutting down"));
+        }
+    }
+
+    /**
+     * Create a new FX deal as part of the next group commit
+     *
+     * @param request the FX deal request
+     * @return the created FX deal response
+     * @throws DuplicateDealException if deal with same ID already exists
+     * @throws IllegalArgumentException if validation fails
+     */
+    public FxDealResponse createDeal(FxDealRequest request) {
+        return submitDeal(request).orThrow();
+    }
+
+    /**
+     * Submit a new FX deal as part of the next group commit. Invalid deals are
+     * answered without queueing.
+     *
+     * @param request the FX deal request
+     * @return whether the deal was accepted, a duplicate or invalid
+     */
+    public DealOutcome submitDeal(FxDealRequest request) {
+        FxDeal deal = mapper.toEntity(request);
+        List<DealError> errors = validationService.check(deal);
+        if (!errors.isEmpty()) {
+            return new DealOutcome.Invalid(request.getDealUniqueId(), errors);
+        }
+
+        PendingDeal pending = new PendingDeal(request, deal);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing deal " + request.getDealUniqueId(), e);
+        }
+
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void flushLoop() {
+        List<PendingDeal> group = new ArrayList<>(properties.getMaxSize());
+        while (running) {
+            try {
+                PendingDeal first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                fillGroup(group);
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void fillGroup(List<PendingDeal> group) throws InterruptedException {
+        int maxSize = properties.getMaxSize();
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (group.size() < maxSize) {
+            queue.drainTo(group, maxSize - group.size());
+            long remaining = deadline - System.nanoTime();
+            if (group.size() >= maxSize || remaining <= 0) {
+                return;
+            }
+            PendingDeal next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    private void commit(List<PendingDeal> group) {
+        groupSizes.record(group.size());
+        List<PendingDeal> accepted = new ArrayList<>(group.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                accepted.clear();
+                List<String> ids = group.stream().map(pending -> pending.deal.getDealUniqueId()).toList();
+                Set<String> existing = new HashSet<>(fxDealRepository.findExistingDealUniqueIds(ids));
+                Set<String> seen = new HashSet<>(group.size() * 2);
+                for (PendingDeal pending : group) {
+                    String id = pending.deal.getDealUniqueId();
+                    if (existing.contains(id) || !seen.add(id)) {
+                        pending.result.complete(new DealOutcome.Duplicate(id));
+                    } else {
+                        accepted.add(pending);
+                    }
+                }
+                List<FxDeal> deals = accepted.stream().map(pending -> pending.deal).toList();
+                batchWriter.insertAll(deals);
+                eventPublisher.publishEvent(new DealsPersistedEvent(deals));
+            });
+            accepted.forEach(pending -> pending.result.complete(new DealOutcome.Accepted(mapper.toResponse(pending.deal))));
+            log.debug("Group committed {} of {} deals", accepted.size(), group.size());
+        } catch (DataIntegrityViolationException e) {
+            // Another writer inserted one of the IDs between our check and insert
+            log.debug("Group commit of {} deals hit a concurrent insert, committing them one by one", accepted.size());
+            accepted.forEach(this::commitAlone);
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} deals failed: {}", group.size(), e.getMessage());
+            group.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private void commitAlone(PendingDeal pending) {
+        try {
+            pending.result.complete(fxDealService.submitDeal(pending.request));
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingDeal {
+        private final FxDealRequest request;
+        private final FxDeal deal;
+        private final CompletableFuture<DealOutcome> result = new CompletableFuture<>();
+
+        private PendingDeal(FxDealRequest request, FxDeal deal) {
+            this.request = request;
+            this.deal = deal;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.progressoft.clustereddata.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.group-commit")
+public class GroupCommitProperties {
+
+    /**
+     * Coalesces concurrent single-deal creations into shared transactions
+     */
+    private boolean enabled = false;
+
+    /**
+     * Longest time the first deal of a group waits for company
+     */
+    private Duration maxDelay = Duration.ofMillis(2);
+
+    /**
+     * Largest number of deals written by one group commit
+     */
+    private int maxSize = 256;
+
+    /**
+     * Number of groups that may be committing at the same time
+     */
+    private int flushers = 2;
+
+    /**
+     * Deals allowed to wait for a group before callers are pushed back
+     */
+    private int queueCapacity = 8_192;
+}
@@ -0,0 +1,27 @@
+package com.progressoft.clustereddata.service;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Answers retried batch submissions from the stored result of the first
+     * attempt instead of importing them again
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long a completed batch result can be replayed
+     */
+    private Duration retention = Duration.ofHours(24);
+
+    /**
+     * Upper bound on stored results; the oldest ones are purged first
+     */
+    private int maxEntries = 100_000;
+}
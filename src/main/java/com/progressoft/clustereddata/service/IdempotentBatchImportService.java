@@ -0,0 +1,240 @@
+package com.progressoft.clustereddata.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.entity.BatchImportRecord;
+import com.progressoft.clustereddata.exception.IdempotencyKeyReuseException;
+import com.progressoft.clustereddata.repository.BatchImportRecordRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Makes batch imports idempotent.
+ * <p>
+ * Each batch is identified by the client's {@code Idempotency-Key} or, when
+ * none is sent, by the SHA-256 of its request body as sent. A completed result
+ * is stored in {@code batch_import_results}, so a retry is answered from there
+ * without touching fx_deals. The body is only parsed and validated by the
+ * importer, so a replay costs a hash of the raw bytes and one lookup. Retries
+ * that arrive while the first attempt is still running wait for it and
+ * receive the same result.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.idempotency", name = "enabled", havingValue = "true")
+@Slf4j
+public class IdempotentBatchImportService {
+
+    static final String CONTENT_HASH_PREFIX = "sha256:";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final BatchImportRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final ConcurrentMap<String, InFlightImport> inFlight = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    @Autowired
+    public IdempotentBatchImportService(BatchImportRecordRepository repository,
+                                        ObjectMapper objectMapper,
+                                        IdempotencyProperties properties,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this(repository, objectMapper, properties, transactionManager, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    IdempotentBatchImportService(BatchImportRecordRepository repository,
+                                 ObjectMapper objectMapper,
+                                 IdempotencyProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 Clock clock) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.replays = Counter.builder("fxdeals.idempotency.replays")
+                .description("Batch submissions answered with the result of an earlier attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Import a batch at most once per idempotency key
+     *
+     * @param idempotencyKey the client supplied key, or {@code null} to key by content
+     * @param body the raw batch import request body
+     * @param importer parses, validates and imports the body on the first attempt
+     * @return the import result and whether it was replayed
+     * @throws IdempotencyKeyReuseException if the key was already used for a different batch
+     */
+    public Outcome importDeals(String idempotencyKey,
+                               byte[] body,
+                               Function<byte[], BatchImportResponse> importer) {
+        String requestHash = hash(body);
+        String key = resolveKey(idempotencyKey, requestHash);
+
+        Optional<BatchImportRecord> stored = findFresh(key);
+        if (stored.isPresent()) {
+            return replay(key, requestHash, stored.get());
+        }
+
+        InFlightImport attempt = new InFlightImport(requestHash);
+        InFlightImport running = inFlight.putIfAbsent(key, attempt);
+        if (running != null) {
+            ensureSameRequest(key, requestHash, running.requestHash);
+            log.info("Batch with idempotency key {} is already running, waiting for its result", key);
+            replays.increment();
+            return new Outcome(join(running.result), true);
+        }
+
+        try {
+            // The first attempt may have completed between the lookup and registering this one
+            Optional<BatchImportRecord> completed = findFresh(key);
+            if (completed.isPresent()) {
+                Outcome outcome = replay(key, requestHash, completed.get());
+                attempt.result.complete(outcome.response());
+                return outcome;
+            }
+
+            BatchImportResponse response = importer.apply(body);
+            if (isReplayable(response)) {
+                store(key, requestHash, response);
+            }
+            attempt.result.complete(response);
+            return new Outcome(response, false);
+        } catch (RuntimeException e) {
+            attempt.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, attempt);
+        }
+    }
+
+    /**
+     * Drop results that are past their retention or beyond the configured
+     * number of entries
+     */
+    @Scheduled(fixedDelayString = "${fx-deals.idempotency.purge-interval-ms:60000}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status -> {
+            LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getRetention());
+            List<LocalDateTime> overflow = repository.findCreatedAtNewestFirst(
+                    PageRequest.of(properties.getMaxEntries(), 1));
+            if (!overflow.isEmpty() && !overflow.get(0).isBefore(cutoff)) {
+                cutoff = overflow.get(0).plusNanos(1);
+            }
+            return repository.deleteCreatedBefore(cutoff);
+        });
+        if (purged != null && purged > 0) {
+            log.info("Purged {} stored batch import results", purged);
+        }
+    }
+
+    private Optional<BatchImportRecord> findFresh(String key) {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(properties.getRetention());
+        return repository.findById(key).filter(record -> record.getCreatedAt().isAfter(cutoff));
+    }
+
+    private Outcome replay(String key, String requestHash, BatchImportRecord record) {
+        ensureSameRequest(key, requestHash, record.getRequestHash());
+        log.info("Replaying stored result for batch with idempotency key {}", key);
+        replays.increment();
+        try {
+            return new Outcome(objectMapper.readValue(record.getResponseBody(), BatchImportResponse.class), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored result for idempotency key " + key + " is unreadable", e);
+        }
+    }
+
+    private void store(String key, String requestHash, BatchImportResponse response) {
+        try {
+            repository.save(new BatchImportRecord(key, requestHash,
+                    objectMapper.writeValueAsString(response), LocalDateTime.now(clock)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The deals are committed, a retry will just be deduplicated row by row
+            log.warn("Unable to store result for idempotency key {}: {}", key, e.getMessage());
+        }
+    }
+
+    private String resolveKey(String idempotencyKey, String requestHash) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return CONTENT_HASH_PREFIX + requestHash;
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        return idempotencyKey;
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to hash batch import request", e);
+        }
+    }
+
+    private static void ensureSameRequest(String key, String requestHash, String originalHash) {
+        if (!requestHash.equals(originalHash)) {
+            throw new IdempotencyKeyReuseException(
+                    "Idempotency key '" + key + "' was already used for a different batch");
+        }
+    }
+
+    /**
+     * Processing errors are transient, so such a result must not stop the
+     * retry from importing the failed deals
+     */
+    private static boolean isReplayable(BatchImportResponse response) {
+        return response.getFailedDeals() == null || response.getFailedDeals().stream()
+                .noneMatch(failed -> failed.getType() == BatchImportResponse.FailureType.PROCESSING_ERROR);
+    }
+
+    private static BatchImportResponse join(CompletableFuture<BatchImportResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record Outcome(BatchImportResponse response, boolean replayed) {
+    }
+
+    private static final class InFlightImport {
+        private final String requestHash;
+        private final CompletableFuture<BatchImportResponse> result = new CompletableFuture<>();
+
+        private InFlightImport(String requestHash) {
+            this.requestHash = requestHash;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.entity.DealIdHash;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent hash ring with virtual nodes.
+ * <p>
+ * Adding a shard only moves the keys that land on the new shard's virtual
+ * nodes, roughly 1/N of the data, and never moves keys between old shards.
+ * Keys and virtual nodes are placed with {@link DealIdHash}.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+    private final List<String> shards;
+    private final int virtualNodes;
+
+    public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards.stream().sorted().distinct().toList();
+        this.virtualNodes = virtualNodes;
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(DealIdHash.of(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(DealIdHash.of(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public ConsistentHashRing withShard(String shard) {
+        List<String> extended = new ArrayList<>(shards);
+        extended.add(shard);
+        return new ConsistentHashRing(extended, virtualNodes);
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+}
@@ -0,0 +1,142 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Online shard rebalancing.
+ * <p>
+ * Adding a shard puts it on the ring immediately, so new writes already go to
+ * their final owner, then walks every shard in deal ID order and moves the
+ * deals it no longer owns: copy to the owner, then delete from the source.
+ * Reads and duplicate checks fan out while this runs, so every deal stays
+ * visible throughout.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private final ShardedFxDealStore store;
+    private final int pageSize;
+    private final List<ShardingProperties.Shard> configuredShards;
+    private final Function<ShardingProperties.Shard, DataSource> dataSourceFactory;
+    private final AtomicLong movedDeals = new AtomicLong();
+    private volatile Thread worker;
+    private volatile String lastError;
+
+    public ShardRebalancer(ShardedFxDealStore store,
+                           int pageSize,
+                           List<ShardingProperties.Shard> configuredShards,
+                           Function<ShardingProperties.Shard, DataSource> dataSourceFactory) {
+        this.store = store;
+        this.pageSize = pageSize;
+        this.configuredShards = List.copyOf(configuredShards);
+        this.dataSourceFactory = dataSourceFactory;
+    }
+
+    /**
+     * Add a standby shard and start moving its share of the deals in the
+     * background
+     *
+     * @param name name of a configured standby shard
+     * @throws IllegalArgumentException if no standby shard has that name, or it is already on the ring
+     * @throws IllegalStateException if a rebalance is already running
+     */
+    public synchronized void addShard(String name) {
+        ShardingProperties.Shard shard = configuredShards.stream()
+                .filter(configured -> configured.isStandby() && configured.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No standby shard named '" + name + "' is configured"));
+        ensureIdle();
+        DataSource dataSource = dataSourceFactory.apply(shard);
+        store.addShard(shard.getName(), dataSource);
+        startWorker();
+    }
+
+    /**
+     * Move every deal that is not stored on its owner, e.g. after a restart
+     * interrupted a previous rebalance
+     */
+    public synchronized void rebalance() {
+        ensureIdle();
+        store.setRebalancing(true);
+        startWorker();
+    }
+
+    public RebalanceStatus status() {
+        Thread current = worker;
+        return new RebalanceStatus(current != null && current.isAlive(), movedDeals.get(), store.shardNames(), lastError);
+    }
+
+    void runToCompletion() {
+        movedDeals.set(0);
+        lastError = null;
+        try {
+            for (ShardedFxDealStore.Shard source : List.copyOf(store.shards())) {
+                moveMisplacedDeals(source);
+            }
+            store.setRebalancing(false);
+            log.info("Rebalance finished, {} deals moved", movedDeals.get());
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Rebalance stopped, fan-out reads stay enabled until it is resumed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void moveMisplacedDeals(ShardedFxDealStore.Shard source) {
+        String after = "";
+        while (true) {
+            List<FxDeal> page = source.jdbcTemplate.query(
+                    FxDealRows.SELECT_COLUMNS + "WHERE deal_unique_id > ? ORDER BY deal_unique_id LIMIT ?",
+                    FxDealRows.ROW_MAPPER, after, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            after = page.get(page.size() - 1).getDealUniqueId();
+
+            Map<String, List<FxDeal>> misplaced = page.stream()
+                    .filter(deal -> !store.ownerOf(deal.getDealUniqueId()).equals(source.name))
+                    .collect(Collectors.groupingBy(deal -> store.ownerOf(deal.getDealUniqueId())));
+
+            misplaced.forEach((ownerName, deals) -> {
+                ShardedFxDealStore.Shard owner = store.shard(ownerName);
+                List<String> ids = deals.stream().map(FxDeal::getDealUniqueId).toList();
+                Set<String> alreadyThere = new HashSet<>(owner.findExisting(ids));
+                List<FxDeal> toCopy = deals.stream()
+                        .filter(deal -> !alreadyThere.contains(deal.getDealUniqueId()))
+                        .toList();
+                if (!toCopy.isEmpty()) {
+                    owner.insert(toCopy);
+                }
+                source.transactionTemplate.executeWithoutResult(status -> source.delete(ids));
+                movedDeals.addAndGet(ids.size());
+            });
+        }
+    }
+
+    private void ensureIdle() {
+        Thread current = worker;
+        if (current != null && current.isAlive()) {
+            throw new IllegalStateException("A shard rebalance is already running");
+        }
+    }
+
+    private void startWorker() {
+        Thread thread = new Thread(this::runToCompletion, "fx-deal-shard-rebalancer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    public record RebalanceStatus(boolean running, long movedDeals, List<String> shards, String lastError) {
+    }
+}
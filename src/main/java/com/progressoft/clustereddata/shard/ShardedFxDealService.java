@@ -0,0 +1,238 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.exception.DealNotFoundException;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealOutcome;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * FX deal operations on top of {@link ShardedFxDealStore}: the same contract
+ * as {@code FxDealService}, with batch imports split per shard and written in
+ * parallel.
+ */
+@Slf4j
+public class ShardedFxDealService {
+
+    private final ShardedFxDealStore store;
+    private final FxDealValidationService validationService;
+    private final FxDealMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService shardWriters;
+
+    public ShardedFxDealService(ShardedFxDealStore store,
+                                FxDealValidationService validationService,
+                                FxDealMapper mapper,
+                                ApplicationEventPublisher eventPublisher,
+                                int parallelism) {
+        this.store = store;
+        this.validationService = validationService;
+        this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
+        this.shardWriters = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "fx-deal-shard-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        shardWriters.shutdown();
+    }
+
+    /**
+     * Create a new FX deal on the shard owning its ID
+     *
+     * @param request the FX deal request
+     * @return the created FX deal response
+     * @throws DuplicateDealException if deal with same ID already exists
+     * @throws IllegalArgumentException if validation fails
+     */
+    public FxDealResponse createDeal(FxDealRequest request) {
+        return submitDeal(request).orThrow();
+    }
+
+    /**
+     * Submit a new FX deal to the shard owning its ID
+     *
+     * @param request the FX deal request
+     * @return whether the deal was accepted, a duplicate or invalid
+     */
+    public DealOutcome submitDeal(FxDealRequest request) {
+        log.debug("Submitting FX deal with ID: {}", request.getDealUniqueId());
+
+        FxDeal deal = mapper.toEntity(request);
+        List<DealError> errors = validationService.check(deal);
+        if (!errors.isEmpty()) {
+            return new DealOutcome.Invalid(request.getDealUniqueId(), errors);
+        }
+
+        if (store.existsByDealUniqueId(request.getDealUniqueId())) {
+            log.debug("Duplicate deal detected: {}", request.getDealUniqueId());
+            return new DealOutcome.Duplicate(request.getDealUniqueId());
+        }
+
+        try {
+            store.shard(store.ownerOf(deal.getDealUniqueId())).insert(List.of(deal));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer inserted the same ID after our check
+            return new DealOutcome.Duplicate(request.getDealUniqueId());
+        }
+        eventPublisher.publishEvent(new DealsPersistedEvent(List.of(deal)));
+        return new DealOutcome.Accepted(mapper.toResponse(deal));
+    }
+
+    public FxDealResponse getDeal(String dealUniqueId) {
+        return store.findByDealUniqueId(dealUniqueId)
+                .map(mapper::toResponse)
+                .orElseThrow(() -> new DealNotFoundException("Deal with ID '" + dealUniqueId + "' not found"));
+    }
+
+    /**
+     * Import multiple FX deals, writing each shard's share in parallel
+     *
+     * @param request the batch import request
+     * @return the batch import response with results
+     */
+    public BatchImportResponse importDeals(BatchImportRequest request) {
+        log.info("Starting sharded batch import of {} deals", request.getDeals().size());
+
+        List<BatchImportResponse.FailedDeal> failedDeals = new ArrayList<>();
+        Map<String, FxDeal> candidates = new LinkedHashMap<>();
+        int duplicateCount = 0;
+
+        for (FxDealRequest dealRequest : request.getDeals()) {
+            String id = dealRequest.getDealUniqueId();
+            if (candidates.containsKey(id)) {
+                duplicateCount++;
+                failedDeals.add(failure(id, "Deal already exists", BatchImportResponse.FailureType.DUPLICATE));
+                continue;
+            }
+            FxDeal deal = mapper.toEntity(dealRequest);
+            List<DealError> validationErrors = validationService.check(deal);
+            if (!validationErrors.isEmpty()) {
+                DealOutcome.Invalid invalid = new DealOutcome.Invalid(id, validationErrors);
+                failedDeals.add(BatchImportResponse.FailedDeal.builder()
+                        .dealUniqueId(id)
+                        .reason(invalid.reason())
+                        .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                        .errors(invalid.errors())
+                        .build());
+                continue;
+            }
+            candidates.put(id, deal);
+        }
+
+        Set<String> existing = store.findExisting(candidates.keySet());
+        for (String id : existing) {
+            candidates.remove(id);
+            duplicateCount++;
+            failedDeals.add(failure(id, "Deal already exists", BatchImportResponse.FailureType.DUPLICATE));
+        }
+
+        List<CompletableFuture<ShardOutcome>> writes = store.partition(candidates.values())
+                .entrySet()
+                .stream()
+                .map(entry -> CompletableFuture.supplyAsync(
+                        () -> writeShard(entry.getKey(), entry.getValue()), shardWriters))
+                .toList();
+
+        Set<String> written = new HashSet<>();
+        List<FxDeal> persisted = new ArrayList<>();
+        for (CompletableFuture<ShardOutcome> write : writes) {
+            ShardOutcome outcome = write.join();
+            written.addAll(outcome.inserted());
+            persisted.addAll(outcome.persisted());
+            duplicateCount += outcome.duplicates().size();
+            outcome.duplicates().forEach(id ->
+                    failedDeals.add(failure(id, "Deal already exists", BatchImportResponse.FailureType.DUPLICATE)));
+            outcome.errors().forEach((id, reason) ->
+                    failedDeals.add(failure(id, "Processing error: " + reason, BatchImportResponse.FailureType.PROCESSING_ERROR)));
+        }
+
+        List<String> successfulDeals = candidates.keySet().stream().filter(written::contains).toList();
+        if (!persisted.isEmpty()) {
+            eventPublisher.publishEvent(new DealsPersistedEvent(persisted));
+        }
+
+        log.info("Sharded batch import completed: {} successful, {} failed, {} duplicates",
+                successfulDeals.size(), failedDeals.size(), duplicateCount);
+
+        return BatchImportResponse.builder()
+                .totalProcessed(request.getDeals().size())
+                .successCount(successfulDeals.size())
+                .failedCount(failedDeals.size())
+                .duplicateCount(duplicateCount)
+                .successfulDeals(successfulDeals)
+                .failedDeals(failedDeals)
+                .build();
+    }
+
+    private ShardOutcome writeShard(String shardName, List<FxDeal> deals) {
+        ShardedFxDealStore.Shard shard = store.shard(shardName);
+        try {
+            shard.insert(deals);
+            return new ShardOutcome(deals, List.of(), Map.of());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent import won the race for some IDs, retry deal by deal
+            log.debug("Shard {} hit a concurrent insert, writing {} deals one by one", shardName, deals.size());
+            List<FxDeal> inserted = new ArrayList<>();
+            List<String> duplicates = new ArrayList<>();
+            Map<String, String> errors = new LinkedHashMap<>();
+            for (FxDeal deal : deals) {
+                try {
+                    shard.insert(List.of(deal));
+                    inserted.add(deal);
+                } catch (DataIntegrityViolationException duplicate) {
+                    duplicates.add(deal.getDealUniqueId());
+                } catch (RuntimeException other) {
+                    errors.put(deal.getDealUniqueId(), other.getMessage());
+                }
+            }
+            return new ShardOutcome(inserted, duplicates, errors);
+        } catch (RuntimeException e) {
+            // The other shards may have committed, so their deals are still reported and published
+            log.error("Shard {} failed to write {} deals: {}", shardName, deals.size(), e.getMessage());
+            Map<String, String> errors = new LinkedHashMap<>();
+            deals.forEach(deal -> errors.put(deal.getDealUniqueId(), e.getMessage()));
+            return new ShardOutcome(List.of(), List.of(), errors);
+        }
+    }
+
+    private static BatchImportResponse.FailedDeal failure(String id, String reason, BatchImportResponse.FailureType type) {
+        return BatchImportResponse.FailedDeal.builder()
+                .dealUniqueId(id)
+                .reason(reason)
+                .type(type)
+                .build();
+    }
+
+    private record ShardOutcome(List<FxDeal> persisted, List<String> duplicates, Map<String, String> errors) {
+
+        List<String> inserted() {
+            return persisted.stream().map(FxDeal::getDealUniqueId).toList();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deal storage spread over several databases, routed by consistent hashing of
+ * {@code dealUniqueId}.
+ * <p>
+ * While a rebalance is moving deals, a deal may still sit on its old shard, so
+ * lookups and duplicate checks that miss on the owner fan out to the other
+ * shards until the move has finished.
+ */
+@Slf4j
+public class ShardedFxDealStore {
+
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    private final int virtualNodes;
+    private volatile ConsistentHashRing ring;
+    private volatile boolean rebalancing;
+
+    public ShardedFxDealStore(Map<String, DataSource> dataSources, int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+        dataSources.forEach((name, dataSource) -> shards.put(name, new Shard(name, dataSource)));
+        this.ring = new ConsistentHashRing(dataSources.keySet(), virtualNodes);
+    }
+
+    public String ownerOf(String dealUniqueId) {
+        return ring.shardFor(dealUniqueId);
+    }
+
+    public List<String> shardNames() {
+        return ring.shards();
+    }
+
+    public boolean isRebalancing() {
+        return rebalancing;
+    }
+
+    public Optional<FxDeal> findByDealUniqueId(String dealUniqueId) {
+        for (Shard shard : candidateShards(dealUniqueId)) {
+            List<FxDeal> found = shard.jdbcTemplate.query(
+                    FxDealRows.SELECT_COLUMNS + "WHERE deal_unique_id = ?", FxDealRows.ROW_MAPPER, dealUniqueId);
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean existsByDealUniqueId(String dealUniqueId) {
+        for (Shard shard : candidateShards(dealUniqueId)) {
+            Integer count = shard.jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM fx_deals WHERE deal_unique_id = ?", Integer.class, dealUniqueId);
+            if (count != null && count > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Return which of the given IDs are already stored, on any shard that may
+     * hold them
+     */
+    public Set<String> findExisting(Collection<String> dealUniqueIds) {
+        Map<Shard, List<String>> byShard = new LinkedHashMap<>();
+        for (String id : dealUniqueIds) {
+            for (Shard shard : candidateShards(id)) {
+                byShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(id);
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        byShard.forEach((shard, ids) -> existing.addAll(shard.findExisting(ids)));
+        return existing;
+    }
+
+    /**
+     * Run the same query on every shard and return all rows
+     *
+     * @param where the SQL after {@code FROM fx_deals}, e.g. a WHERE, ORDER BY and LIMIT clause
+     */
+    public List<FxDeal> queryEveryShard(String where, Object... args) {
+        List<FxDeal> deals = new ArrayList<>();
+        for (Shard shard : shards.values()) {
+            deals.addAll(shard.jdbcTemplate.query(FxDealRows.SELECT_COLUMNS + where, FxDealRows.ROW_MAPPER, args));
+        }
+        return deals;
+    }
+
+    /**
+     * Group deals by the shard that owns them
+     */
+    public Map<String, List<FxDeal>> partition(Collection<FxDeal> deals) {
+        Map<String, List<FxDeal>> byShard = new LinkedHashMap<>();
+        for (FxDeal deal : deals) {
+            byShard.computeIfAbsent(ownerOf(deal.getDealUniqueId()), key -> new ArrayList<>()).add(deal);
+        }
+        return byShard;
+    }
+
+    Shard shard(String name) {
+        Shard shard = shards.get(name);
+        if (shard == null) {
+            throw new IllegalArgumentException("Unknown shard '" + name + "'");
+        }
+        return shard;
+    }
+
+    Collection<Shard> shards() {
+        return shards.values();
+    }
+
+    /**
+     * Put a new shard on the ring. From now on it owns its share of the IDs,
+     * while deals that still sit elsewhere stay reachable through fan-out.
+     */
+    synchronized void addShard(String name, DataSource dataSource) {
+        if (shards.containsKey(name)) {
+            throw new IllegalArgumentException("Shard '" + name + "' already exists");
+        }
+        shards.put(name, new Shard(name, dataSource));
+        rebalancing = true;
+        ring = ring.withShard(name);
+        log.info("Shard {} added to the ring, {} shards in total", name, ring.shards().size());
+    }
+
+    void setRebalancing(boolean rebalancing) {
+        this.rebalancing = rebalancing;
+    }
+
+    int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    private List<Shard> candidateShards(String dealUniqueId) {
+        Shard owner = shards.get(ownerOf(dealUniqueId));
+        if (!rebalancing) {
+            return List.of(owner);
+        }
+        List<Shard> candidates = new ArrayList<>(shards.size());
+        candidates.add(owner);
+        shards.values().stream().filter(shard -> shard != owner).forEach(candidates::add);
+        return candidates;
+    }
+
+    static final class Shard {
+        final String name;
+        final JdbcTemplate jdbcTemplate;
+        final NamedParameterJdbcTemplate namedJdbcTemplate;
+        final TransactionTemplate transactionTemplate;
+        final FxDealBatchWriter batchWriter;
+
+        Shard(String name, DataSource dataSource) {
+            this.name = name;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+            this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            this.batchWriter = new FxDealBatchWriter(jdbcTemplate);
+        }
+
+        List<String> findExisting(Collection<String> ids) {
+            List<String> all = List.copyOf(ids);
+            List<String> existing = new ArrayList<>();
+            for (int from = 0; from < all.size(); from += FxDealRows.MAX_IN_LIST) {
+                existing.addAll(namedJdbcTemplate.queryForList(
+                        "SELECT deal_unique_id FROM fx_deals WHERE deal_unique_id IN (:ids)",
+                        Map.of("ids", all.subList(from, Math.min(from + FxDealRows.MAX_IN_LIST, all.size()))),
+                        String.class));
+            }
+            return existing;
+        }
+
+        void insert(List<FxDeal> deals) {
+            transactionTemplate.executeWithoutResult(status -> batchWriter.insertAll(deals));
+        }
+
+        void delete(Collection<String> ids) {
+            namedJdbcTemplate.update("DELETE FROM fx_deals WHERE deal_unique_id IN (:ids)", Map.of("ids", ids));
+        }
+    }
+}
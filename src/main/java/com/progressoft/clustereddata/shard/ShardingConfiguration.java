@@ -0,0 +1,98 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wires the sharded deal storage. Every shard gets its own Hikari pool and is
+ * migrated with the same Flyway scripts as the primary database.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "fx-deals.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardDataSources shardDataSources() {
+        return new ShardDataSources();
+    }
+
+    @Bean
+    public ShardedFxDealStore shardedFxDealStore(ShardingProperties properties, ShardDataSources shardDataSources) {
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            if (!shard.isStandby()) {
+                dataSources.put(shard.getName(), shardDataSources.open(shard));
+            }
+        }
+        return new ShardedFxDealStore(dataSources, properties.getVirtualNodes());
+    }
+
+    @Bean
+    public ShardedFxDealService shardedFxDealService(ShardedFxDealStore store,
+                                                     FxDealValidationService validationService,
+                                                     FxDealMapper mapper,
+                                                     ApplicationEventPublisher eventPublisher,
+                                                     ShardingProperties properties) {
+        return new ShardedFxDealService(store, validationService, mapper, eventPublisher,
+                properties.getParallelism());
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardedFxDealStore store,
+                                           ShardingProperties properties,
+                                           ShardDataSources shardDataSources) {
+        return new ShardRebalancer(store, properties.getRebalancePageSize(), properties.getShards(),
+                shardDataSources::open);
+    }
+
+    /**
+     * Opens, migrates and eventually closes the shard pools, including shards
+     * added at runtime.
+     */
+    public static class ShardDataSources implements AutoCloseable {
+
+        private final List<HikariDataSource> opened = new CopyOnWriteArrayList<>();
+
+        public DataSource open(ShardingProperties.Shard shard) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + shard.getName());
+            dataSource.setJdbcUrl(shard.getUrl());
+            dataSource.setUsername(shard.getUsername());
+            dataSource.setPassword(shard.getPassword());
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            opened.add(dataSource);
+            migrate(dataSource, DatabaseDriver.fromJdbcUrl(shard.getUrl()));
+            return dataSource;
+        }
+
+        /**
+         * Apply the shared migrations plus the ones for the shard's database
+         * vendor, the same locations {@code spring.flyway.locations} uses
+         */
+        static void migrate(DataSource dataSource, DatabaseDriver driver) {
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration", "classpath:db/vendor/" + driver.getId())
+                    .load()
+                    .migrate();
+        }
+
+        @Override
+        public void close() {
+            opened.forEach(HikariDataSource::close);
+        }
+    }
+}
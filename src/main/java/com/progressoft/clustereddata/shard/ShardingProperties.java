@@ -0,0 +1,49 @@
+package com.progressoft.clustereddata.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.sharding")
+public class ShardingProperties {
+
+    /**
+     * Stores deals across the shards below instead of the primary datasource
+     */
+    private boolean enabled = false;
+
+    /**
+     * Points per shard on the consistent hash ring
+     */
+    private int virtualNodes = 160;
+
+    /**
+     * Number of shards written to in parallel by a batch import
+     */
+    private int parallelism = 8;
+
+    /**
+     * Deals copied per step while rebalancing
+     */
+    private int rebalancePageSize = 1_000;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        /**
+         * Kept off the ring until added with {@code POST /api/v1/admin/shards/{name}};
+         * set back to false once it has joined
+         */
+        private boolean standby = false;
+    }
+}
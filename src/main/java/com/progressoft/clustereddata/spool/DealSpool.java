@@ -0,0 +1,355 @@
+package com.progressoft.clustereddata.spool;
+
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.exception.SpoolWriteException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only local log of accepted deals.
+ * <p>
+ * Callers hand their record to a single writer thread which appends whatever
+ * is queued, fsyncs once for the whole group and only then acknowledges each
+ * caller. Full segments are sealed and handed to the {@link SpoolDrainer}.
+ * <p>
+ * A failed append cuts the segment back to where the batch started, so a torn
+ * record never hides deals acknowledged after it. If the segment cannot be
+ * cut, it is sealed as is and a new one is started; if that fails as well,
+ * the spool stops acknowledging deals until restarted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.spool", name = "enabled", havingValue = "true")
+@Slf4j
+public class DealSpool {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final SpoolProperties properties;
+    private final Path directory;
+    private final BlockingQueue<PendingAppend> queue;
+    private final ConcurrentLinkedDeque<SpoolSegment> sealedSegments = new ConcurrentLinkedDeque<>();
+    private final ReentrantLock segmentLock = new ReentrantLock();
+    private final AtomicLong depth = new AtomicLong();
+    private final ChannelOpener channelOpener;
+
+    private volatile SpoolSegment activeSegment;
+    private FileChannel activeChannel;
+    private long nextSegmentId;
+    private Thread writerThread;
+    private volatile boolean running;
+    private volatile boolean broken;
+
+    @Autowired
+    public DealSpool(SpoolProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry,
+                path -> FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE));
+    }
+
+    DealSpool(SpoolProperties properties, MeterRegistry meterRegistry, ChannelOpener channelOpener) {
+        this.properties = properties;
+        this.channelOpener = channelOpener;
+        this.directory = Path.of(properties.getDirectory());
+        this.queue = new ArrayBlockingQueue<>(properties.getFsyncMaxBatch() * 8);
+
+        Gauge.builder("fxdeals.spool.depth", depth, AtomicLong::get)
+                .description("Deals acknowledged by the spool and not yet loaded into fx_deals")
+                .register(meterRegistry);
+        TimeGauge.builder("fxdeals.spool.oldest.age", this, TimeUnit.MILLISECONDS, DealSpool::oldestEntryAgeMillis)
+                .description("Age of the oldest deal still waiting in the spool")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        recover();
+        openActiveSegment();
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "fx-deal-spool-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        segmentLock.lock();
+        try {
+            if (activeChannel != null) {
+                activeChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Unable to close active spool segment: {}", e.getMessage());
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    /**
+     * Durably append a deal to the spool
+     *
+     * @param request the already validated FX deal request
+     * @throws SpoolWriteException if the deal could not be made durable in time
+     */
+    public void append(FxDealRequest request) {
+        long now = System.currentTimeMillis();
+        PendingAppend pending = new PendingAppend(SpoolCodec.encode(request, now), now);
+        long timeoutMillis = properties.getAckTimeout().toMillis();
+        try {
+            if (!queue.offer(pending, timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SpoolWriteException("Deal spool is full, please retry later");
+            }
+            pending.acknowledged.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SpoolWriteException("Interrupted while spooling deal " + request.getDealUniqueId(), e);
+        } catch (TimeoutException e) {
+            throw new SpoolWriteException("Timed out while spooling deal " + request.getDealUniqueId(), e);
+        } catch (ExecutionException e) {
+            throw new SpoolWriteException("Unable to spool deal " + request.getDealUniqueId(), e.getCause());
+        }
+    }
+
+    /**
+     * Seal the active segment if it holds records and return every sealed
+     * segment, oldest first
+     */
+    List<SpoolSegment> sealedSegments() {
+        segmentLock.lock();
+        try {
+            if (activeSegment.getRecordCount() > 0) {
+                sealActiveSegment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to seal active spool segment", e);
+        } finally {
+            segmentLock.unlock();
+        }
+        return new ArrayList<>(sealedSegments);
+    }
+
+    /**
+     * Forget a segment once all its deals have been loaded into fx_deals
+     */
+    void markDrained(SpoolSegment segment) {
+        try {
+            Files.deleteIfExists(segment.getPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to delete drained spool segment " + segment.getPath(), e);
+        }
+        if (sealedSegments.remove(segment)) {
+            depth.addAndGet(-segment.getRecordCount());
+        }
+    }
+
+    long depth() {
+        return depth.get();
+    }
+
+    long oldestEntryAgeMillis() {
+        SpoolSegment oldest = sealedSegments.peekFirst();
+        if (oldest == null) {
+            oldest = activeSegment;
+        }
+        if (oldest == null || oldest.getRecordCount() == 0) {
+            return 0L;
+        }
+        return Math.max(0L, System.currentTimeMillis() - oldest.getOldestSpooledAtMillis());
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(properties.getFsyncMaxBatch());
+        while (running || !queue.isEmpty()) {
+            PendingAppend first;
+            try {
+                first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, properties.getFsyncMaxBatch() - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        segmentLock.lock();
+        try {
+            if (broken) {
+                IOException stopped = new IOException("Deal spool stopped after an unrecoverable write failure");
+                batch.forEach(pending -> pending.acknowledged.completeExceptionally(stopped));
+                return;
+            }
+            if (!appendDurably(batch)) {
+                return;
+            }
+            depth.addAndGet(batch.size());
+            batch.forEach(pending -> pending.acknowledged.complete(null));
+
+            if (activeSegment.getSizeBytes() >= properties.getSegmentMaxBytes()) {
+                rotate();
+            }
+        } finally {
+            segmentLock.unlock();
+        }
+    }
+
+    /**
+     * Append and fsync the batch, or leave the segment as it was before it
+     *
+     * @return whether the whole batch is durable
+     */
+    private boolean appendDurably(List<PendingAppend> batch) {
+        int recordCount = activeSegment.getRecordCount();
+        long sizeBytes = activeSegment.getSizeBytes();
+        long position = -1;
+        try {
+            position = activeChannel.position();
+            for (PendingAppend pending : batch) {
+                int bytes = pending.record.remaining();
+                while (pending.record.hasRemaining()) {
+                    activeChannel.write(pending.record);
+                }
+                activeSegment.recordAppended(pending.spooledAtMillis, bytes);
+            }
+            activeChannel.force(false);
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to write {} deals to spool segment {}", batch.size(), activeSegment.getPath(), e);
+            batch.forEach(pending -> pending.acknowledged.completeExceptionally(e));
+            activeSegment.rollBack(recordCount, sizeBytes);
+            if (position < 0) {
+                rotate();
+            } else {
+                cutBackTo(position);
+            }
+            return false;
+        }
+    }
+
+    private void cutBackTo(long position) {
+        try {
+            activeChannel.truncate(position);
+            activeChannel.position(position);
+            activeChannel.force(false);
+        } catch (IOException e) {
+            // Everything before position is intact, so the segment can still be drained up to it
+            log.error("Unable to cut spool segment {} back to byte {}, sealing it", activeSegment.getPath(), position, e);
+            rotate();
+        }
+    }
+
+    private void rotate() {
+        try {
+            sealActiveSegment();
+        } catch (IOException e) {
+            broken = true;
+            log.error("Unable to start a new spool segment, the spool stops accepting deals", e);
+        }
+    }
+
+    private void sealActiveSegment() throws IOException {
+        activeChannel.close();
+        sealedSegments.addLast(activeSegment);
+        openActiveSegment();
+    }
+
+    private void openActiveSegment() throws IOException {
+        SpoolSegment segment = SpoolSegment.empty(nextSegmentId++, directory);
+        activeChannel = channelOpener.open(segment.getPath());
+        activeSegment = segment;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SpoolSegment.PREFIX) && name.endsWith(SpoolSegment.SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(SpoolSegment::parseId))
+                    .toList();
+        }
+
+        for (Path file : files) {
+            long id = SpoolSegment.parseId(file);
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+
+            SpoolCodec.ScanResult scan = SpoolCodec.scan(file);
+            if (scan.deals().isEmpty()) {
+                Files.delete(file);
+                continue;
+            }
+            if (scan.validBytes() < Files.size(file)) {
+                log.warn("Truncating torn tail of spool segment {} at byte {}", file, scan.validBytes());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(scan.validBytes());
+                    channel.force(true);
+                }
+            }
+
+            SpoolSegment segment = new SpoolSegment(id, file, scan.deals().size(),
+                    scan.deals().get(0).spooledAtMillis(), scan.validBytes());
+            sealedSegments.addLast(segment);
+            depth.addAndGet(segment.getRecordCount());
+        }
+
+        if (!sealedSegments.isEmpty()) {
+            log.info("Recovered {} un-drained deals from {} spool segments", depth.get(), sealedSegments.size());
+        }
+    }
+
+    @FunctionalInterface
+    interface ChannelOpener {
+        FileChannel open(Path segment) throws IOException;
+    }
+
+    private static final class PendingAppend {
+        private final ByteBuffer record;
+        private final long spooledAtMillis;
+        private final CompletableFuture<Void> acknowledged = new CompletableFuture<>();
+
+        private PendingAppend(ByteBuffer record, long spooledAtMillis) {
+            this.record = record;
+            this.spooledAtMillis = spooledAtMillis;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.progressoft.clustereddata.spool;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of spool records: {@code [int payloadLength][int crc32c][payload]}.
+ * <p>
+ * A record whose length or checksum does not match marks the torn tail of a
+ * segment that was being written when the process died; everything from that
+ * point on is discarded by recovery.
+ */
+final class SpoolCodec {
+
+    static final int HEADER_BYTES = 8;
+
+    private SpoolCodec() {
+    }
+
+    static ByteBuffer encode(FxDealRequest request, long spooledAtMillis) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(spooledAtMillis);
+            out.writeUTF(request.getDealUniqueId());
+            out.writeUTF(request.getFromCurrencyIsoCode());
+            out.writeUTF(request.getToCurrencyIsoCode());
+            out.writeLong(request.getDealTimestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(request.getDealTimestamp().getNano());
+            out.writeUTF(FixedPointAmount.toPlainString(request.getDealAmount()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] payload = bytes.toByteArray();
+
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        record.putInt(payload.length);
+        record.putInt((int) crc.getValue());
+        record.put(payload);
+        record.flip();
+        return record;
+    }
+
+    static SpooledDeal decode(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            long spooledAtMillis = in.readLong();
+            FxDealRequest request = new FxDealRequest();
+            request.setDealUniqueId(in.readUTF());
+            request.setFromCurrencyIsoCode(in.readUTF());
+            request.setToCurrencyIsoCode(in.readUTF());
+            request.setDealTimestamp(LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC));
+            request.setDealAmount(FixedPointAmount.parse(in.readUTF()));
+            return new SpooledDeal(request, spooledAtMillis);
+        }
+    }
+
+    /**
+     * Read every intact record of a segment.
+     *
+     * @param segment the segment file
+     * @return the records and the byte offset right after the last intact one
+     */
+    static ScanResult scan(Path segment) throws IOException {
+        List<SpooledDeal> deals = new ArrayList<>();
+        long validBytes = 0;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (validBytes + HEADER_BYTES <= size) {
+                header.clear();
+                channel.read(header, validBytes);
+                header.flip();
+                int length = header.getInt();
+                int expectedCrc = header.getInt();
+                if (length <= 0 || validBytes + HEADER_BYTES + length > size) {
+                    break;
+                }
+
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, validBytes + HEADER_BYTES);
+                CRC32C crc = new CRC32C();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != expectedCrc) {
+                    break;
+                }
+
+                deals.add(decode(payload.array()));
+                validBytes += HEADER_BYTES + length;
+            }
+        }
+        return new ScanResult(deals, validBytes);
+    }
+
+    record SpooledDeal(FxDealRequest request, long spooledAtMillis) {
+    }
+
+    record ScanResult(List<SpooledDeal> deals, long validBytes) {
+    }
+}
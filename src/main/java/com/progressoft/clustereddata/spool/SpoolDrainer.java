@@ -0,0 +1,99 @@
+package com.progressoft.clustereddata.spool;
+
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.service.FxDealService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Loads spooled deals into fx_deals through the regular batch import, so
+ * duplicates and validation failures are handled exactly as for /batch.
+ * <p>
+ * A segment is deleted only after all of its deals were committed. If the
+ * process dies halfway through a segment it is replayed on restart and the
+ * already loaded deals come back as duplicates.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.spool", name = "enabled", havingValue = "true")
+@Slf4j
+public class SpoolDrainer {
+
+    private final DealSpool spool;
+    private final FxDealService fxDealService;
+    private final SpoolProperties properties;
+    private final Counter drained;
+    private final Counter duplicates;
+    private final Counter rejected;
+
+    public SpoolDrainer(DealSpool spool, FxDealService fxDealService, SpoolProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.spool = spool;
+        this.fxDealService = fxDealService;
+        this.properties = properties;
+        this.drained = Counter.builder("fxdeals.spool.drained")
+                .description("Spooled deals loaded into fx_deals")
+                .register(meterRegistry);
+        this.duplicates = Counter.builder("fxdeals.spool.drain.duplicates")
+                .description("Spooled deals skipped because they already existed")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("fxdeals.spool.drain.rejected")
+                .description("Spooled deals rejected by validation")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.spool.drain-interval-ms:500}")
+    public void drain() {
+        for (SpoolSegment segment : spool.sealedSegments()) {
+            try {
+                drainSegment(segment);
+            } catch (Exception e) {
+                log.warn("Spool drain paused at segment {}: {}", segment.getPath().getFileName(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void drainSegment(SpoolSegment segment) throws IOException {
+        List<FxDealRequest> deals = SpoolCodec.scan(segment.getPath())
+                .deals()
+                .stream()
+                .map(SpoolCodec.SpooledDeal::request)
+                .toList();
+
+        int chunkSize = properties.getDrainBatchSize();
+        for (int from = 0; from < deals.size(); from += chunkSize) {
+            List<FxDealRequest> chunk = deals.subList(from, Math.min(from + chunkSize, deals.size()));
+            BatchImportResponse response = fxDealService.importDeals(new BatchImportRequest(chunk));
+            if (hasProcessingErrors(response)) {
+                throw new IllegalStateException("database rejected the chunk with processing errors, will retry");
+            }
+
+            drained.increment(response.getSuccessCount());
+            duplicates.increment(response.getDuplicateCount());
+            int failures = response.getFailedCount() - response.getDuplicateCount();
+            if (failures > 0) {
+                rejected.increment(failures);
+                log.warn("{} spooled deals failed validation while draining {}: {}",
+                        failures, segment.getPath().getFileName(), response.getFailedDeals());
+            }
+        }
+
+        spool.markDrained(segment);
+        log.debug("Drained {} deals from spool segment {}", deals.size(), segment.getPath().getFileName());
+    }
+
+    private static boolean hasProcessingErrors(BatchImportResponse response) {
+        return response.getFailedDeals()
+                .stream()
+                .anyMatch(failed -> failed.getType() == BatchImportResponse.FailureType.PROCESSING_ERROR);
+    }
+}
@@ -0,0 +1,42 @@
+package com.progressoft.clustereddata.spool;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.spool")
+public class SpoolProperties {
+
+    /**
+     * Routes single-deal ingestion through the local spool instead of writing
+     * to the database inside the request
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory holding the spool segment files
+     */
+    private String directory = "./spool";
+
+    /**
+     * Size after which the active segment is sealed and a new one is started
+     */
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of appends made durable by a single fsync
+     */
+    private int fsyncMaxBatch = 512;
+
+    /**
+     * How long a caller waits for its append to be fsynced before failing
+     */
+    private Duration ackTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Number of spooled deals loaded into fx_deals per drain transaction
+     */
+    private int drainBatchSize = 1_000;
+}
@@ -0,0 +1,58 @@
+package com.progressoft.clustereddata.spool;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Bookkeeping for one segment file of the spool.
+ */
+@Getter
+class SpoolSegment {
+
+    static final String PREFIX = "segment-";
+    static final String SUFFIX = ".log";
+
+    private final long id;
+    private final Path path;
+    private volatile int recordCount;
+    private volatile long oldestSpooledAtMillis;
+    private volatile long sizeBytes;
+
+    SpoolSegment(long id, Path path, int recordCount, long oldestSpooledAtMillis, long sizeBytes) {
+        this.id = id;
+        this.path = path;
+        this.recordCount = recordCount;
+        this.oldestSpooledAtMillis = oldestSpooledAtMillis;
+        this.sizeBytes = sizeBytes;
+    }
+
+    static SpoolSegment empty(long id, Path directory) {
+        return new SpoolSegment(id, directory.resolve(fileName(id)), 0, 0L, 0L);
+    }
+
+    static String fileName(long id) {
+        return String.format("%s%019d%s", PREFIX, id, SUFFIX);
+    }
+
+    static long parseId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    void recordAppended(long spooledAtMillis, int bytes) {
+        if (recordCount == 0) {
+            oldestSpooledAtMillis = spooledAtMillis;
+        }
+        recordCount++;
+        sizeBytes += bytes;
+    }
+
+    /**
+     * Forget the records appended after the segment had {@code recordCount} records
+     */
+    void rollBack(int recordCount, long sizeBytes) {
+        this.recordCount = recordCount;
+        this.sizeBytes = sizeBytes;
+    }
+}
@@ -0,0 +1,101 @@
+package com.progressoft.clustereddata.stream;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-size ring of the most recently committed deals, in the style of a
+ * Disruptor ring buffer.
+ * <p>
+ * One writer at a time claims the next sequences, fills the slots and then
+ * publishes them by advancing the volatile {@code cursor}. Readers never lock
+ * and never slow the writer down: each one tracks its own sequence and
+ * detects that it was lapped when the slot it wants already holds a newer
+ * sequence.
+ */
+public class DealRingBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+    private volatile long cursor = -1;
+
+    public DealRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Append deals and wake up waiting readers. Committing threads take turns
+     * here; readers are never waited for.
+     */
+    public synchronized void publish(List<FxDealResponse> deals) {
+        long sequence = cursor;
+        for (FxDealResponse deal : deals) {
+            sequence++;
+            slots[(int) (sequence & mask)] = new Slot(sequence, deal);
+        }
+        cursor = sequence;
+        waiters.forEach(LockSupport::unpark);
+    }
+
+    /**
+     * Sequence of the last published deal, -1 before the first one
+     */
+    public long cursor() {
+        return cursor;
+    }
+
+    /**
+     * Oldest sequence that can still be read
+     */
+    public long oldestSequence() {
+        return Math.max(0, cursor - slots.length + 1);
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Read a published deal
+     *
+     * @return the deal, or {@code null} if its slot has been reused since
+     */
+    public FxDealResponse read(long sequence) {
+        Slot slot = slots[(int) (sequence & mask)];
+        return slot != null && slot.sequence == sequence ? slot.deal : null;
+    }
+
+    /**
+     * Park the calling thread until {@code sequence} is published or the
+     * timeout elapses
+     */
+    public void awaitPublished(long sequence, long timeoutNanos) {
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+        try {
+            if (cursor < sequence) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            waiters.remove(current);
+        }
+    }
+
+    /**
+     * Wake up a reader parked in {@link #awaitPublished}, e.g. because its
+     * subscriber went away
+     */
+    public void wakeUp(Thread reader) {
+        LockSupport.unpark(reader);
+    }
+
+    private record Slot(long sequence, FxDealResponse deal) {
+    }
+}
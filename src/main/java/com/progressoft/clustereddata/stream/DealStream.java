@@ -0,0 +1,181 @@
+package com.progressoft.clustereddata.stream;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.exception.StreamSequenceExpiredException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes committed deals to Server-Sent Events subscribers.
+ * <p>
+ * Committed deals go into the {@link DealRingBuffer}; every subscriber has its
+ * own virtual thread reading the ring at its own pace, so a slow subscriber
+ * only delays itself. One that falls a whole ring behind is dropped with an
+ * {@code overrun} event and can reconnect from a newer position.
+ */
+@Service
+@ConditionalOnProperty(prefix = "fx-deals.stream", name = "enabled", havingValue = "true")
+@Slf4j
+public class DealStream {
+
+    private final DealRingBuffer ring;
+    private final FxDealMapper mapper;
+    private final long heartbeatNanos;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final Counter droppedSubscribers;
+
+    public DealStream(FxDealMapper mapper, DealStreamProperties properties, MeterRegistry meterRegistry) {
+        this.ring = new DealRingBuffer(properties.getCapacity());
+        this.mapper = mapper;
+        this.heartbeatNanos = properties.getHeartbeat().toNanos();
+
+        Gauge.builder("fxdeals.stream.subscribers", subscriptions, Set::size)
+                .description("Open deal stream subscriptions")
+                .register(meterRegistry);
+        Gauge.builder("fxdeals.stream.consumer.lag.max", this, DealStream::maxLag)
+                .description("Deals published but not yet sent to the slowest subscriber")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("fxdeals.stream.dropped_subscribers")
+                .description("Subscribers dropped because they fell a whole ring behind")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDealsPersisted(DealsPersistedEvent event) {
+        ring.publish(event.deals().stream().map(mapper::toResponse).toList());
+    }
+
+    /**
+     * Open a subscription
+     *
+     * @param lastSequence last sequence the subscriber has seen, {@code null}
+     *                     to start with the next committed deal
+     * @param from only deals selling this currency, {@code null} for all
+     * @param to only deals buying this currency, {@code null} for all
+     * @throws StreamSequenceExpiredException if the deals after
+     *                                        {@code lastSequence} are no longer retained
+     */
+    public SseEmitter subscribe(Long lastSequence, String from, String to) {
+        long cursor = ring.cursor();
+        long next = lastSequence == null ? cursor + 1 : lastSequence + 1;
+        if (next < ring.oldestSequence() || next > cursor + 1) {
+            throw new StreamSequenceExpiredException("Cannot resume after sequence " + lastSequence
+                    + ", retained sequences are " + ring.oldestSequence() + " to " + cursor);
+        }
+
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscription subscription = new Subscription(emitter, next,
+                from == null ? null : from.toUpperCase(), to == null ? null : to.toUpperCase());
+        emitter.onCompletion(() -> close(subscription));
+        emitter.onTimeout(() -> close(subscription));
+        emitter.onError(error -> close(subscription));
+        subscriptions.add(subscription);
+        subscription.reader = Thread.ofVirtual()
+                .name("fx-deal-stream-" + subscriptionIds.incrementAndGet())
+                .start(() -> deliver(subscription));
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(subscription -> {
+            close(subscription);
+            subscription.emitter.complete();
+        });
+    }
+
+    long maxLag() {
+        long cursor = ring.cursor();
+        long lag = 0;
+        for (Subscription subscription : subscriptions) {
+            lag = Math.max(lag, cursor + 1 - subscription.next);
+        }
+        return lag;
+    }
+
+    private void deliver(Subscription subscription) {
+        SseEmitter emitter = subscription.emitter;
+        long lastSent = System.nanoTime();
+        try {
+            while (!subscription.closed) {
+                long sequence = subscription.next;
+                if (sequence > ring.cursor()) {
+                    if (System.nanoTime() - lastSent >= heartbeatNanos) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                        lastSent = System.nanoTime();
+                    }
+                    ring.awaitPublished(sequence, heartbeatNanos);
+                    continue;
+                }
+
+                FxDealResponse deal = ring.read(sequence);
+                if (deal == null) {
+                    droppedSubscribers.increment();
+                    log.debug("Dropping deal stream subscriber lapped at sequence {}", sequence);
+                    emitter.send(SseEmitter.event().name("overrun").data("Deals after sequence " + (sequence - 1)
+                            + " are no longer retained, resume from a newer sequence"));
+                    emitter.complete();
+                    return;
+                }
+                if (subscription.matches(deal)) {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(sequence))
+                            .name("deal")
+                            .data(deal, MediaType.APPLICATION_JSON));
+                    lastSent = System.nanoTime();
+                }
+                subscription.next = sequence + 1;
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Deal stream subscriber went away: {}", e.getMessage());
+        } finally {
+            subscriptions.remove(subscription);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        subscription.closed = true;
+        subscriptions.remove(subscription);
+        Thread reader = subscription.reader;
+        if (reader != null) {
+            ring.wakeUp(reader);
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final String from;
+        private final String to;
+        private volatile long next;
+        private volatile boolean closed;
+        private volatile Thread reader;
+
+        private Subscription(SseEmitter emitter, long next, String from, String to) {
+            this.emitter = emitter;
+            this.next = next;
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean matches(FxDealResponse deal) {
+            return (from == null || from.equals(deal.getFromCurrencyIsoCode()))
+                    && (to == null || to.equals(deal.getToCurrencyIsoCode()));
+        }
+    }
+}
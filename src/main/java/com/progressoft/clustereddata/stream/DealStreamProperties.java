@@ -0,0 +1,29 @@
+package com.progressoft.clustereddata.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.stream")
+public class DealStreamProperties {
+
+    /**
+     * Exposes GET /api/v1/fx-deals/stream and publishes committed deals to it
+     */
+    private boolean enabled = false;
+
+    /**
+     * Deals retained in the ring buffer, rounded up to a power of two. A
+     * subscriber further behind than this is dropped, and a resume must start
+     * within it.
+     */
+    private int capacity = 65_536;
+
+    /**
+     * Idle time after which a comment line is sent, which also detects
+     * subscribers that went away
+     */
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
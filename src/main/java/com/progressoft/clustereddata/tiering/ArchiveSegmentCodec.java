@@ -0,0 +1,88 @@
+package com.progressoft.clustereddata.tiering;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary layout of an archive segment: a header, then every deal as its ID,
+ * currency pair, timestamps as epoch second plus nanos and the amount in
+ * fixed-point units, all GZIP compressed. Shared with the reactive runtime,
+ * which reads the same segments.
+ */
+public final class ArchiveSegmentCodec {
+
+    private static final int MAGIC = 0x46584131; // "FXA1"
+
+    private ArchiveSegmentCodec() {
+    }
+
+    public static byte[] encode(List<FxDeal> deals) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(deals.size() * 24);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(MAGIC);
+            out.writeInt(deals.size());
+            for (FxDeal deal : deals) {
+                out.writeUTF(deal.getDealUniqueId());
+                out.writeUTF(deal.getFromCurrencyIsoCode());
+                out.writeUTF(deal.getToCurrencyIsoCode());
+                writeTime(out, deal.getDealTimestamp());
+                out.writeLong(deal.getDealAmount());
+                writeTime(out, deal.getCreatedAt());
+                writeTime(out, deal.getUpdatedAt());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decode the deals whose ID matches, skipping the others
+     */
+    public static List<FxDeal> decode(byte[] payload, Predicate<String> wanted) {
+        List<FxDeal> found = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Not an FX deal archive segment");
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String id = in.readUTF();
+                String from = in.readUTF();
+                String to = in.readUTF();
+                LocalDateTime dealTimestamp = readTime(in);
+                long amount = in.readLong();
+                LocalDateTime createdAt = readTime(in);
+                LocalDateTime updatedAt = readTime(in);
+                if (wanted.test(id)) {
+                    found.add(new FxDeal(id, from, to, dealTimestamp, amount, createdAt, updatedAt));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return found;
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
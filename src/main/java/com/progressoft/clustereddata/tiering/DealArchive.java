@@ -0,0 +1,133 @@
+package com.progressoft.clustereddata.tiering;
+
+import com.progressoft.clustereddata.entity.DealIdHash;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cold tier for aged deals.
+ * <p>
+ * Deals are stored in append-only segments of GZIP compressed rows in
+ * {@code fx_deal_archive_segments}. {@code fx_deal_archive_ids} maps the
+ * 64-bit hash of every archived ID to its segment, 16 bytes per deal, so a
+ * lookup that misses the archive costs one probe of a small index. Only on a
+ * hash hit is the segment decompressed to compare the full ID.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.tiering", name = "enabled", havingValue = "true")
+public class DealArchive {
+
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public DealArchive(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Store the deals as one new segment. Runs in the surrounding transaction,
+     * so the caller can delete the hot rows atomically with it.
+     *
+     * @param deals the deals to archive, not empty
+     * @return the ID of the new segment
+     */
+    public long append(List<FxDeal> deals) {
+        byte[] payload = ArchiveSegmentCodec.encode(deals);
+        FxDeal first = deals.stream().min(Comparator.comparing(FxDeal::getDealTimestamp)).orElseThrow();
+        FxDeal last = deals.stream().max(Comparator.comparing(FxDeal::getDealTimestamp)).orElseThrow();
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO fx_deal_archive_segments (first_deal_timestamp, last_deal_timestamp, deal_count, payload) "
+                            + "VALUES (?, ?, ?, ?)", new String[]{"segment_id"});
+            ps.setTimestamp(1, Timestamp.valueOf(first.getDealTimestamp()));
+            ps.setTimestamp(2, Timestamp.valueOf(last.getDealTimestamp()));
+            ps.setInt(3, deals.size());
+            ps.setBytes(4, payload);
+            return ps;
+        }, keyHolder);
+        long segmentId = keyHolder.getKeyAs(Number.class).longValue();
+
+        // Colliding hashes within one segment need a single index entry
+        List<Long> hashes = deals.stream().map(FxDeal::getDealIdHash).distinct().toList();
+        jdbcTemplate.batchUpdate("INSERT INTO fx_deal_archive_ids (deal_id_hash, segment_id) VALUES (?, ?)",
+                hashes, hashes.size(), (ps, hash) -> {
+                    ps.setLong(1, hash);
+                    ps.setLong(2, segmentId);
+                });
+        return segmentId;
+    }
+
+    public boolean contains(String dealUniqueId) {
+        return !findExisting(List.of(dealUniqueId)).isEmpty();
+    }
+
+    public Optional<FxDeal> find(String dealUniqueId) {
+        for (long segmentId : segmentsFor(List.of(dealUniqueId)).keySet()) {
+            List<FxDeal> found = scan(segmentId, Set.of(dealUniqueId));
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Return which of the given IDs are archived
+     */
+    public Set<String> findExisting(Collection<String> dealUniqueIds) {
+        Set<String> existing = new HashSet<>();
+        segmentsFor(dealUniqueIds).forEach((segmentId, ids) ->
+                scan(segmentId, ids).forEach(deal -> existing.add(deal.getDealUniqueId())));
+        return existing;
+    }
+
+    /**
+     * Candidate segments per ID, from hash hits only
+     */
+    private Map<Long, Set<String>> segmentsFor(Collection<String> dealUniqueIds) {
+        Map<Long, List<String>> idsByHash = new LinkedHashMap<>();
+        for (String id : dealUniqueIds) {
+            idsByHash.computeIfAbsent(DealIdHash.of(id), hash -> new ArrayList<>(1)).add(id);
+        }
+        List<Long> hashes = List.copyOf(idsByHash.keySet());
+        Map<Long, Set<String>> idsBySegment = new LinkedHashMap<>();
+        for (int from = 0; from < hashes.size(); from += FxDealRows.MAX_IN_LIST) {
+            namedJdbcTemplate.query(
+                    "SELECT deal_id_hash, segment_id FROM fx_deal_archive_ids WHERE deal_id_hash IN (:hashes)",
+                    Map.of("hashes", hashes.subList(from, Math.min(from + FxDealRows.MAX_IN_LIST, hashes.size()))),
+                    rs -> {
+                        idsBySegment.computeIfAbsent(rs.getLong("segment_id"), segment -> new HashSet<>())
+                                .addAll(idsByHash.get(rs.getLong("deal_id_hash")));
+                    });
+        }
+        return idsBySegment;
+    }
+
+    private List<FxDeal> scan(long segmentId, Set<String> ids) {
+        byte[] payload = jdbcTemplate.queryForObject(
+                "SELECT payload FROM fx_deal_archive_segments WHERE segment_id = ?", byte[].class, segmentId);
+        return ArchiveSegmentCodec.decode(payload, ids::contains);
+    }
+}
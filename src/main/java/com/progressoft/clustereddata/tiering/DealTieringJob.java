@@ -0,0 +1,200 @@
+package com.progressoft.clustereddata.tiering;
+
+import com.progressoft.clustereddata.config.CompactKeyProperties;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealRows;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves aged deals from fx_deals into the {@link DealArchive}, one segment per
+ * transaction: the archive insert and the hot delete commit together, so a
+ * deal is always visible in exactly one tier.
+ * <p>
+ * Aged deals are walked in deal timestamp windows, oldest first, and each
+ * window is paged with a keyset on (deal_timestamp, deal_unique_id). A
+ * segment query only reads and sorts the rows of its window, which on
+ * PostgreSQL the BRIN index on deal_timestamp narrows to a few block ranges,
+ * instead of every aged row. The window doubles while it holds less than a
+ * segment and halves while it needs more than two.
+ * <p>
+ * Moved deals are deleted by primary key: the BIGINT id in compact-key mode,
+ * the deal ID otherwise.
+ */
+@Component
+@ConditionalOnProperty(prefix = "fx-deals.tiering", name = "enabled", havingValue = "true")
+@Slf4j
+public class DealTieringJob {
+
+    private static final Duration INITIAL_WINDOW = Duration.ofHours(1);
+    private static final Duration MIN_WINDOW = Duration.ofSeconds(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final boolean compactKeys;
+    private final TransactionTemplate transactionTemplate;
+    private final DealArchive archive;
+    private final TieringProperties properties;
+    private final Clock clock;
+    private final Counter archived;
+
+    @Autowired
+    public DealTieringJob(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          DealArchive archive,
+                          TieringProperties properties,
+                          CompactKeyProperties compactKeyProperties,
+                          MeterRegistry meterRegistry) {
+        this(jdbcTemplate, transactionManager, archive, properties, compactKeyProperties, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    DealTieringJob(JdbcTemplate jdbcTemplate,
+                   PlatformTransactionManager transactionManager,
+                   DealArchive archive,
+                   TieringProperties properties,
+                   CompactKeyProperties compactKeyProperties,
+                   MeterRegistry meterRegistry,
+                   Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.compactKeys = compactKeyProperties.isEnabled();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archive = archive;
+        this.properties = properties;
+        this.clock = clock;
+        this.archived = Counter.builder("fxdeals.tiering.archived")
+                .description("Deals moved from fx_deals into the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${fx-deals.tiering.interval-ms:3600000}",
+            initialDelayString = "${fx-deals.tiering.initial-delay-ms:300000}")
+    public void archiveAgedDeals() {
+        try {
+            int moved = archiveOlderThan(LocalDateTime.now(clock).minus(properties.getMaxAge()));
+            if (moved > 0) {
+                log.info("Archived {} aged FX deals", moved);
+            }
+        } catch (Exception e) {
+            log.error("FX deal tiering failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive every deal with deal timestamp and creation time before the
+     * cutoff. Requiring both keeps late-arriving deals hot until they have
+     * been exported.
+     *
+     * @return number of deals moved
+     */
+    int archiveOlderThan(LocalDateTime cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(deal_timestamp) FROM fx_deals WHERE deal_timestamp < ? AND created_at < ?",
+                Timestamp.class, Timestamp.valueOf(cutoff), Timestamp.valueOf(cutoff));
+        LocalDateTime from = oldest != null ? oldest.toLocalDateTime() : null;
+        Duration window = INITIAL_WINDOW;
+        int total = 0;
+        while (from != null && from.isBefore(cutoff)) {
+            LocalDateTime until = from.plus(window).isBefore(cutoff) ? from.plus(window) : cutoff;
+            // Sorts before every deal of the window, as deal IDs are never blank
+            Position after = new Position(from, "");
+            int pages = 0;
+            int moved;
+            do {
+                List<FxDeal> segment = moveSegment(after, until, cutoff);
+                moved = segment.size();
+                if (moved > 0) {
+                    FxDeal last = segment.get(moved - 1);
+                    after = new Position(last.getDealTimestamp(), last.getDealUniqueId());
+                    total += moved;
+                    archived.increment(moved);
+                }
+                pages++;
+            } while (moved == properties.getSegmentSize());
+
+            if (pages == 1) {
+                window = window.multipliedBy(2);
+            } else if (pages > 2 && window.compareTo(MIN_WINDOW.multipliedBy(2)) >= 0) {
+                window = window.dividedBy(2);
+            }
+            from = until;
+        }
+        return total;
+    }
+
+    /**
+     * Archive the next segment of the window {@code [after, until)}, in its own transaction
+     *
+     * @return the archived deals, in keyset order
+     */
+    private List<FxDeal> moveSegment(Position after, LocalDateTime until, LocalDateTime cutoff) {
+        List<FxDeal> moved = transactionTemplate.execute(status -> {
+            List<Object> keys = new ArrayList<>();
+            List<FxDeal> deals = jdbcTemplate.query(
+                    "SELECT " + (compactKeys ? "id, " : "")
+                            + "deal_unique_id, from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_amount, "
+                            + "created_at, updated_at FROM fx_deals "
+                            + "WHERE deal_timestamp >= ? AND deal_timestamp < ? AND created_at < ? "
+                            + "AND (deal_timestamp, deal_unique_id) > (?, ?) "
+                            + "ORDER BY deal_timestamp, deal_unique_id LIMIT ?",
+                    (rs, rowNum) -> {
+                        keys.add(compactKeys ? rs.getLong("id") : rs.getString("deal_unique_id"));
+                        return FxDealRows.ROW_MAPPER.mapRow(rs, rowNum);
+                    },
+                    Timestamp.valueOf(after.dealTimestamp()), Timestamp.valueOf(until),
+                    Timestamp.valueOf(cutoff), Timestamp.valueOf(after.dealTimestamp()), after.dealUniqueId(),
+                    properties.getSegmentSize());
+            if (!deals.isEmpty()) {
+                archive(deals, keys);
+            }
+            return deals;
+        });
+        return moved != null ? moved : List.of();
+    }
+
+    /**
+     * @param keys primary keys of the deals, in the same order
+     */
+    private void archive(List<FxDeal> deals, List<Object> keys) {
+        long segmentId = archive.append(deals);
+
+        String delete = compactKeys
+                ? "DELETE FROM fx_deals WHERE id IN (:keys)"
+                : "DELETE FROM fx_deals WHERE deal_unique_id IN (:keys)";
+        int deleted = 0;
+        for (int from = 0; from < keys.size(); from += FxDealRows.MAX_IN_LIST) {
+            deleted += namedJdbcTemplate.update(delete,
+                    Map.of("keys", keys.subList(from, Math.min(from + FxDealRows.MAX_IN_LIST, keys.size()))));
+        }
+        if (deleted != deals.size()) {
+            // Another node archived some of these deals first
+            throw new IllegalStateException("Expected to archive " + deals.size() + " deals but removed " + deleted
+                    + ", segment " + segmentId + " rolled back");
+        }
+        log.debug("Archived {} deals into segment {}", deals.size(), segmentId);
+    }
+
+    /**
+     * Keyset position of the last archived deal
+     */
+    private record Position(LocalDateTime dealTimestamp, String dealUniqueId) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.progressoft.clustereddata.tiering;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.tiering")
+public class TieringProperties {
+
+    /**
+     * Moves aged deals out of fx_deals into the compressed archive, and makes
+     * duplicate checks and lookups consult the archive
+     */
+    private boolean enabled = false;
+
+    /**
+     * Deals whose deal timestamp and creation time are both older than this
+     * are archived
+     */
+    private Duration maxAge = Duration.ofDays(90);
+
+    /**
+     * Deals per archive segment; each segment is compressed and committed on
+     * its own
+     */
+    private int segmentSize = 10_000;
+}
@@ -0,0 +1,42 @@
+package com.progressoft.clustereddata.validation;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class DealAmountValidator implements ConstraintValidator<ValidDealAmount, Long> {
+
+    @Override
+    public boolean isValid(Long units, ConstraintValidatorContext context) {
+        String message = violation(units == null ? FixedPointAmount.ABSENT : units);
+        if (message == null) {
+            return true;
+        }
+        context.disableDefaultConstraintViolation();
+        context.buildConstraintViolationWithTemplate(message).addConstraintViolation();
+        return false;
+    }
+
+    /**
+     * @return the violation message for these units, or {@code null} if they are a valid deal amount
+     */
+    public static String violation(long units) {
+        if (units == FixedPointAmount.ABSENT) {
+            return "Deal amount is required";
+        }
+        if (units == FixedPointAmount.BELOW_MINIMUM) {
+            return "Deal amount must be at least 0.0001";
+        }
+        if (units == FixedPointAmount.TOO_PRECISE) {
+            return "Deal amount must have at most 15 integer digits and 4 decimal places";
+        }
+        if (units == FixedPointAmount.TOO_LARGE) {
+            return "Deal amount must have at most 15 integer digits and 4 decimal places, "
+                    + "and be at most 922337203685477.5807";
+        }
+        if (units <= 0) {
+            return "Deal amount must be a positive number";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.progressoft.clustereddata.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.*;
+
+/**
+ * Checks {@link com.progressoft.clustereddata.amount.FixedPointAmount} units:
+ * present, positive and representable at scale 4
+ */
+@Documented
+@Constraint(validatedBy = DealAmountValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidDealAmount {
+    String message() default "Invalid deal amount";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+}
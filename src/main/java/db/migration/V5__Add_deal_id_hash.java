@@ -0,0 +1,41 @@
+package db.migration;
+
+import com.progressoft.clustereddata.entity.DealIdHash;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.List;
+
+/**
+ * Adds {@code fx_deals.deal_id_hash} and fills it for existing deals. The
+ * hash is computed in Java by {@link DealIdHash}, so this cannot be a SQL
+ * migration.
+ */
+public class V5__Add_deal_id_hash extends BaseJavaMigration {
+
+    private static final int PAGE_SIZE = 1_000;
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        jdbcTemplate.execute("ALTER TABLE fx_deals ADD COLUMN IF NOT EXISTS deal_id_hash BIGINT");
+
+        String after = "";
+        while (true) {
+            List<String> ids = jdbcTemplate.queryForList(
+                    "SELECT deal_unique_id FROM fx_deals WHERE deal_unique_id > ? ORDER BY deal_unique_id LIMIT ?",
+                    String.class, after, PAGE_SIZE);
+            if (ids.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate("UPDATE fx_deals SET deal_id_hash = ? WHERE deal_unique_id = ?", ids, ids.size(),
+                    (ps, id) -> {
+                        ps.setLong(1, DealIdHash.of(id));
+                        ps.setString(2, id);
+                    });
+            after = ids.get(ids.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Compact-key layout, applied only with fx-deals.compact-keys.enabled=true.
+-- Repeatable so it can be switched on after later versioned migrations ran;
+-- every statement is idempotent. db/vendor-compact-keys/{vendor}, which runs
+-- after this script, moves the primary key from the VARCHAR ID to id.
+
+-- BIGINT surrogate key. The identity sequence hands out 50 values per
+-- session at a time, and the value is assigned inside the INSERT, so new
+-- deals cost no extra round trip.
+ALTER TABLE fx_deals ADD COLUMN IF NOT EXISTS id BIGINT GENERATED BY DEFAULT AS IDENTITY (CACHE 50);
+
+-- Duplicate probes descend on the 8-byte hash alone and compare the full ID
+-- on the few heap rows it points to, so the index holds no VARCHAR keys.
+ALTER TABLE fx_deals ALTER COLUMN deal_id_hash SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_fx_deals_id_hash ON fx_deals (deal_id_hash);
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS batch_import_results (
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    response_body TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_batch_import_results PRIMARY KEY (idempotency_key)
+);
+
+-- Purge scans by age
+CREATE INDEX IF NOT EXISTS idx_batch_import_results_created_at ON batch_import_results (created_at);
+
+COMMENT ON TABLE batch_import_results IS 'Completed batch imports, replayed for retried submissions';
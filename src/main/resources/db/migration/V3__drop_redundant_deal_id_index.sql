@@ -0,0 +1,3 @@
+-- pk_fx_deals already is a unique B-tree on deal_unique_id; a second one
+-- doubled the index work of every insert without serving any query
+DROP INDEX IF EXISTS idx_fx_deals_unique_id;
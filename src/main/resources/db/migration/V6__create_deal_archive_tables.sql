@@ -0,0 +1,21 @@
+-- Cold tier: aged deals in append-only, GZIP compressed segments
+CREATE TABLE IF NOT EXISTS fx_deal_archive_segments (
+    segment_id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    first_deal_timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_deal_timestamp TIMESTAMP WITH TIME ZONE NOT NULL,
+    deal_count INTEGER NOT NULL,
+    payload BYTEA NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_fx_deal_archive_segments PRIMARY KEY (segment_id)
+);
+
+-- Compact ID index of the archive: 16 bytes per deal, the full ID is
+-- verified inside the segment on a hash hit
+CREATE TABLE IF NOT EXISTS fx_deal_archive_ids (
+    deal_id_hash BIGINT NOT NULL,
+    segment_id BIGINT NOT NULL,
+    CONSTRAINT pk_fx_deal_archive_ids PRIMARY KEY (deal_id_hash, segment_id)
+);
+
+COMMENT ON TABLE fx_deal_archive_segments IS 'Aged FX deals moved out of fx_deals, compressed per segment';
+COMMENT ON TABLE fx_deal_archive_ids IS 'Hash of every archived deal ID and the segment holding it';
@@ -0,0 +1,25 @@
+-- Latest snapshot of the per pair deal amount sketches, read back on startup
+CREATE TABLE IF NOT EXISTS fx_deal_amount_sketches (
+    from_currency_iso_code VARCHAR(3) NOT NULL,
+    to_currency_iso_code VARCHAR(3) NOT NULL,
+    relative_accuracy DOUBLE PRECISION NOT NULL,
+    deal_count BIGINT NOT NULL,
+    buckets BYTEA NOT NULL,
+    snapshot_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_fx_deal_amount_sketches PRIMARY KEY (from_currency_iso_code, to_currency_iso_code)
+);
+
+COMMENT ON TABLE fx_deal_amount_sketches IS 'Deal amount quantile sketch per currency pair, as of snapshot_at';
+
+-- How far fx_deal_amount_sketches covers fx_deals: every deal created before
+-- covered_until is in the sketches. Instances advance the snapshot by locking
+-- this row and replaying only the deals created since, so the snapshot holds
+-- the deals of every instance and none twice.
+CREATE TABLE IF NOT EXISTS fx_deal_amount_sketch_progress (
+    id SMALLINT NOT NULL,
+    covered_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_fx_deal_amount_sketch_progress PRIMARY KEY (id)
+);
+
+INSERT INTO fx_deal_amount_sketch_progress (id, covered_until)
+VALUES (1, TIMESTAMP WITH TIME ZONE '1970-01-01 00:00:00+00');
@@ -0,0 +1,5 @@
+-- Serves deals-by-pair pages in (deal_timestamp, deal_unique_id) order
+-- straight from the index, and narrows per pair top-N queries to the pair's
+-- window. Unfiltered top-N windows keep using the deal_timestamp index.
+CREATE INDEX IF NOT EXISTS idx_fx_deals_pair_timestamp
+    ON fx_deals (from_currency_iso_code, to_currency_iso_code, deal_timestamp, deal_unique_id);
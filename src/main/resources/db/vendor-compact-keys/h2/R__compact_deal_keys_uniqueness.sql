@@ -0,0 +1,9 @@
+-- H2 has no hash exclusion constraints, so IDs stay unique through a plain
+-- unique constraint. Only the tests run on H2.
+DROP INDEX IF EXISTS uk_fx_deals_id_hash;
+
+ALTER TABLE fx_deals DROP CONSTRAINT IF EXISTS pk_fx_deals;
+
+ALTER TABLE fx_deals ADD CONSTRAINT IF NOT EXISTS uk_fx_deals_unique_id UNIQUE (deal_unique_id);
+
+ALTER TABLE fx_deals ADD CONSTRAINT IF NOT EXISTS pk_fx_deals_id PRIMARY KEY (id);
@@ -0,0 +1,23 @@
+-- A hash exclusion constraint keeps deal IDs unique with a hash index, which
+-- stores a 4-byte hash code per row instead of the ID itself. Inserts of an
+-- existing ID fail with an integrity violation, as with the primary key.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'fx_deals'::regclass AND conname = 'ex_fx_deals_unique_id') THEN
+        ALTER TABLE fx_deals ADD CONSTRAINT ex_fx_deals_unique_id EXCLUDE USING hash (deal_unique_id WITH =);
+    END IF;
+END
+$$;
+
+-- Dropped only once the constraint above is in place
+DROP INDEX IF EXISTS uk_fx_deals_id_hash;
+
+ALTER TABLE fx_deals DROP CONSTRAINT IF EXISTS pk_fx_deals;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'fx_deals'::regclass AND conname = 'pk_fx_deals_id') THEN
+        ALTER TABLE fx_deals ADD CONSTRAINT pk_fx_deals_id PRIMARY KEY (id);
+    END IF;
+END
+$$;
@@ -0,0 +1,211 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.tiering.ArchiveSegmentCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(
+        classes = ReactiveFxDealApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive-deals;DB_CLOSE_DELAY=-1",
+                "spring.r2dbc.username=sa",
+                "spring.r2dbc.password=",
+                "spring.flyway.url=jdbc:h2:mem:reactive-deals;DB_CLOSE_DELAY=-1",
+                "spring.flyway.user=sa",
+                "spring.flyway.password=",
+                "fx-deals.reactive.insert-batch-size=100",
+                "fx-deals.tiering.enabled=true"
+        })
+@ActiveProfiles("reactive")
+class ReactiveFxDealControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM fx_deals").then().block();
+        databaseClient.sql("DELETE FROM fx_deal_archive_ids").then().block();
+        databaseClient.sql("DELETE FROM fx_deal_archive_segments").then().block();
+    }
+
+    @Test
+    void shouldCreateAndFetchDeal() {
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-001", "1000.50"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.dealUniqueId").isEqualTo("DEAL-001")
+                .jsonPath("$.dealAmount").isEqualTo(1000.5)
+                .jsonPath("$.createdAt").exists();
+
+        webTestClient.get().uri("/api/v1/fx-deals/DEAL-001")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.fromCurrencyIsoCode").isEqualTo("USD")
+                .jsonPath("$.dealTimestamp").isEqualTo("2024-01-01T10:00:00");
+    }
+
+    @Test
+    void shouldRejectDuplicateAndInvalidDealsLikeTheServletStack() {
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-001", "10"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-001", "10"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Deal with ID 'DEAL-001' already exists")
+                .jsonPath("$.path").isEqualTo("/api/v1/fx-deals");
+
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-002", "-5"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation failed")
+                .jsonPath("$.errors[0].field").isEqualTo("dealAmount");
+
+        webTestClient.get().uri("/api/v1/fx-deals/UNKNOWN")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldReportBatchFailuresInOrder() {
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-OLD", "1"))
+                .exchange()
+                .expectStatus().isCreated();
+
+        String batch = "{\"deals\":[" + String.join(",",
+                deal("DEAL-1", "1"), deal("DEAL-OLD", "1"), deal("DEAL-2", "0"), deal("DEAL-1", "1"), deal("DEAL-3", "1")) + "]}";
+
+        BatchImportResponse response = webTestClient.post().uri("/api/v1/fx-deals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batch)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchImportResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(response.getTotalProcessed()).isEqualTo(5);
+        assertThat(response.getSuccessfulDeals()).containsExactly("DEAL-1", "DEAL-3");
+        assertThat(response.getDuplicateCount()).isEqualTo(2);
+        assertThat(response.getFailedDeals())
+                .extracting(BatchImportResponse.FailedDeal::getDealUniqueId, BatchImportResponse.FailedDeal::getType)
+                .containsExactly(
+                        tuple("DEAL-OLD", BatchImportResponse.FailureType.DUPLICATE),
+                        tuple("DEAL-2", BatchImportResponse.FailureType.VALIDATION_ERROR),
+                        tuple("DEAL-1", BatchImportResponse.FailureType.DUPLICATE));
+    }
+
+    @Test
+    void shouldTreatArchivedDealsAsExisting() {
+        LocalDateTime time = LocalDateTime.of(2023, 1, 1, 10, 0);
+        FxDeal archived = new FxDeal("DEAL-ARCHIVED", "USD", "EUR", time, 10_000L, time, time);
+        databaseClient.sql("INSERT INTO fx_deal_archive_segments (segment_id, first_deal_timestamp, "
+                        + "last_deal_timestamp, deal_count, payload) "
+                        + "VALUES (1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, :payload)")
+                .bind("payload", ArchiveSegmentCodec.encode(List.of(archived)))
+                .then().block();
+        databaseClient.sql("INSERT INTO fx_deal_archive_ids (deal_id_hash, segment_id) VALUES (:hash, 1)")
+                .bind("hash", archived.getDealIdHash())
+                .then().block();
+
+        webTestClient.post().uri("/api/v1/fx-deals")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(deal("DEAL-ARCHIVED", "1"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.post().uri("/api/v1/fx-deals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"deals\":[" + deal("DEAL-ARCHIVED", "1") + "," + deal("DEAL-NEW", "1") + "]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.successfulDeals[0]").isEqualTo("DEAL-NEW")
+                .jsonPath("$.duplicateCount").isEqualTo(1);
+
+        webTestClient.get().uri("/api/v1/fx-deals/DEAL-ARCHIVED")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.dealTimestamp").isEqualTo("2023-01-01T10:00:00");
+    }
+
+    @Test
+    void shouldImportStreamedDealsInInsertBatches() {
+        String ndjson = IntStream.range(0, 2_500)
+                .mapToObj(i -> deal("STREAM-" + i, "1.25"))
+                .collect(Collectors.joining("\n"));
+
+        webTestClient.post().uri("/api/v1/fx-deals/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(ndjson)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalProcessed").isEqualTo(2_500)
+                .jsonPath("$.successCount").isEqualTo(2_500)
+                .jsonPath("$.successfulDeals[2499]").isEqualTo("STREAM-2499");
+
+        Long stored = databaseClient.sql("SELECT COUNT(*) AS deals FROM fx_deals")
+                .map(row -> row.get("deals", Long.class))
+                .one()
+                .block();
+        assertThat(stored).isEqualTo(2_500L);
+    }
+
+    @Test
+    void shouldRejectEmptyBatches() {
+        webTestClient.post().uri("/api/v1/fx-deals/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"deals\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.post().uri("/api/v1/fx-deals/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static String deal(String id, String amount) {
+        return "{\"dealUniqueId\":\"" + id + "\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\","
+                + "\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":" + amount + "}";
+    }
+}
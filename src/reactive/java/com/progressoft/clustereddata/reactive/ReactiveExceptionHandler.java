@@ -0,0 +1,78 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.dto.ErrorResponse;
+import com.progressoft.clustereddata.exception.DealNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The error bodies of {@code GlobalExceptionHandler} for the reactive runtime
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex, ServerHttpRequest request) {
+        log.warn("Validation error: {}", ex.getMessage());
+        List<String> errors = ex.getBindingResult()
+                .getAllErrors()
+                .stream()
+                .map(error -> error instanceof FieldError fieldError
+                        ? fieldError.getField() + ": " + fieldError.getDefaultMessage()
+                        : error.getDefaultMessage())
+                .toList();
+        return respond(HttpStatus.BAD_REQUEST, "Validation failed", errors, request);
+    }
+
+    @ExceptionHandler(DealNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleDealNotFoundException(DealNotFoundException ex, ServerHttpRequest request) {
+        log.warn("Deal not found: {}", ex.getMessage());
+        return respond(HttpStatus.NOT_FOUND, ex.getMessage(), null, request);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex,
+                                                                               ServerHttpRequest request) {
+        log.warn("Concurrent duplicate deal: {}", ex.getMostSpecificCause().getMessage());
+        return respond(HttpStatus.CONFLICT, "Deal was stored concurrently by another request", null, request);
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, ServerWebInputException.class})
+    public ResponseEntity<ErrorResponse> handleBadInput(Exception ex, ServerHttpRequest request) {
+        log.warn("Invalid argument: {}", ex.getMessage());
+        return respond(HttpStatus.BAD_REQUEST, ex.getMessage(), null, request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, ServerHttpRequest request) {
+        log.error("Unexpected error occurred", ex);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred. Please contact support.", null, request);
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(HttpStatus status, String message, List<String> details,
+                                                         ServerHttpRequest request) {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(request.getPath().value())
+                .details(details)
+                .build();
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
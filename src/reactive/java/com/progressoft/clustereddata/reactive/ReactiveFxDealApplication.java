@@ -0,0 +1,41 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.config.CompactKeyProperties;
+import com.progressoft.clustereddata.controller.RejectionResponses;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import com.progressoft.clustereddata.tiering.TieringProperties;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The reactive runtime: {@code /api/v1/fx-deals} on WebFlux with R2DBC.
+ * <p>
+ * Shares the DTOs, validation, rejection bodies and Flyway schema with the
+ * servlet application, but none of its JPA or servlet beans. Flyway runs
+ * over its own JDBC connection ({@code spring.flyway.url}) before the R2DBC
+ * pool opens. Built and packaged with {@code -Preactive}.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ComponentScan(basePackageClasses = ReactiveFxDealApplication.class)
+@Import({FxDealValidationService.class, FxDealMapper.class, RejectionResponses.class})
+@EnableConfigurationProperties({ReactiveProperties.class, TieringProperties.class, CompactKeyProperties.class})
+public class ReactiveFxDealApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveFxDealApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,69 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.controller.RejectionResponses;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.service.DealOutcome;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code /api/v1/fx-deals} on WebFlux, answering like {@code FxDealController}.
+ * <p>
+ * {@code POST /batch} takes the usual {@code {"deals": [...]}} body, or an
+ * {@code application/x-ndjson} stream with one deal per line, which is decoded
+ * and written while it is still arriving.
+ */
+@RestController
+@RequestMapping("/api/v1/fx-deals")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveFxDealController {
+
+    private final ReactiveFxDealService fxDealService;
+    private final RejectionResponses rejections;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createDeal(@RequestBody FxDealRequest request, ServerHttpRequest httpRequest) {
+        log.debug("Received request to create FX deal: {}", request.getDealUniqueId());
+        String path = httpRequest.getPath().value();
+        return fxDealService.submitDeal(request).<ResponseEntity<?>>map(outcome -> switch (outcome) {
+            case DealOutcome.Accepted accepted -> ResponseEntity.status(HttpStatus.CREATED).body(accepted.deal());
+            case DealOutcome.Duplicate duplicate -> rejections.duplicate(duplicate, path);
+            case DealOutcome.Invalid invalid -> rejections.invalid(invalid, path);
+        });
+    }
+
+    @GetMapping("/{dealUniqueId}")
+    public Mono<FxDealResponse> getDeal(@PathVariable String dealUniqueId) {
+        return fxDealService.getDeal(dealUniqueId);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BatchImportResponse> importDeals(@Valid @RequestBody Mono<BatchImportRequest> request) {
+        return request.flatMap(batch -> {
+            log.info("Received batch import request with {} deals", batch.getDeals().size());
+            return fxDealService.importDeals(Flux.fromIterable(batch.getDeals()));
+        });
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<BatchImportResponse> streamDeals(@RequestBody Flux<FxDealRequest> deals) {
+        log.info("Received streamed batch import request");
+        return fxDealService.importDeals(deals)
+                .filter(response -> response.getTotalProcessed() > 0)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Deals list cannot be empty")));
+    }
+}
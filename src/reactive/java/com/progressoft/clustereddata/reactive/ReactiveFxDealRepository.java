@@ -0,0 +1,198 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.config.CompactKeyProperties;
+import com.progressoft.clustereddata.entity.DealIdHash;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.tiering.ArchiveSegmentCodec;
+import com.progressoft.clustereddata.tiering.TieringProperties;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking access to fx_deals over R2DBC, with the same queries as the
+ * JDBC path: lookups by ID, with the ID hash in compact-key mode, and
+ * multi-row inserts. Runs in the
+ * surrounding reactive transaction when there is one.
+ * <p>
+ * With tiering enabled, IDs the hot table does not have are looked up in the
+ * archive like {@code FxDealLookupImpl} does: a probe of fx_deal_archive_ids
+ * by hash, and a segment read only on a hash hit.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveFxDealRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT deal_unique_id, from_currency_iso_code, to_currency_iso_code, "
+            + "deal_timestamp, deal_amount, created_at, updated_at FROM fx_deals ";
+    private static final String INSERT_PREFIX = "INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, "
+            + "to_currency_iso_code, deal_timestamp, deal_amount, created_at, updated_at, deal_id_hash) VALUES ";
+
+    private final DatabaseClient databaseClient;
+    private final TieringProperties tieringProperties;
+    private final CompactKeyProperties compactKeyProperties;
+
+    public Mono<FxDeal> findByDealUniqueId(String dealUniqueId) {
+        DatabaseClient.GenericExecuteSpec select = compactKeyProperties.isEnabled()
+                ? databaseClient.sql(SELECT_COLUMNS + "WHERE deal_id_hash = :hash AND deal_unique_id = :id")
+                        .bind("hash", DealIdHash.of(dealUniqueId))
+                : databaseClient.sql(SELECT_COLUMNS + "WHERE deal_unique_id = :id");
+        return select.bind("id", dealUniqueId)
+                .map(ReactiveFxDealRepository::toDeal)
+                .one()
+                .switchIfEmpty(Mono.defer(() -> findArchived(List.of(dealUniqueId)).next()));
+    }
+
+    public Mono<Boolean> existsByDealUniqueId(String dealUniqueId) {
+        return findExistingDealUniqueIds(List.of(dealUniqueId)).hasElements();
+    }
+
+    /**
+     * Return which of the given IDs are already stored, in at most
+     * {@link FxDealBatchWriter#MAX_ROWS_PER_STATEMENT} IDs per query
+     */
+    public Flux<String> findExistingDealUniqueIds(Collection<String> dealUniqueIds) {
+        List<String> ids = List.copyOf(dealUniqueIds);
+        Flux<String> hot = pages(ids)
+                .concatMap(page -> (compactKeyProperties.isEnabled()
+                        ? databaseClient
+                                .sql("SELECT deal_unique_id FROM fx_deals WHERE deal_id_hash IN (:hashes) AND deal_unique_id IN (:ids)")
+                                .bind("hashes", page.stream().map(DealIdHash::of).distinct().toList())
+                        : databaseClient.sql("SELECT deal_unique_id FROM fx_deals WHERE deal_unique_id IN (:ids)"))
+                        .bind("ids", page)
+                        .map(row -> row.get("deal_unique_id", String.class))
+                        .all());
+        if (!tieringProperties.isEnabled()) {
+            return hot;
+        }
+        return hot.collectList().flatMapMany(found -> {
+            if (found.size() == ids.size()) {
+                return Flux.fromIterable(found);
+            }
+            Set<String> hotIds = new HashSet<>(found);
+            List<String> missing = ids.stream().filter(id -> !hotIds.contains(id)).toList();
+            return Flux.concat(Flux.fromIterable(found), findArchived(missing).map(FxDeal::getDealUniqueId));
+        });
+    }
+
+    /**
+     * Insert the given deals with one multi-row statement per
+     * {@link FxDealBatchWriter#MAX_ROWS_PER_STATEMENT} deals. Deals without
+     * audit timestamps get the current time, which is also set on the
+     * passed entities.
+     *
+     * @param deals the validated, non-duplicate deals to insert
+     */
+    public Mono<Void> insertAll(List<FxDeal> deals) {
+        LocalDateTime now = LocalDateTime.now();
+        return pages(deals)
+                .concatMap(chunk -> insertChunk(chunk, now))
+                .then();
+    }
+
+    private Mono<Long> insertChunk(List<FxDeal> chunk, LocalDateTime now) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + chunk.size() * 96).append(INSERT_PREFIX);
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:id").append(i).append(", :from").append(i).append(", :to").append(i)
+                    .append(", :timestamp").append(i).append(", :amount").append(i)
+                    .append(", :created").append(i).append(", :updated").append(i).append(", :hash").append(i).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < chunk.size(); i++) {
+            FxDeal deal = chunk.get(i);
+            if (deal.getCreatedAt() == null) {
+                deal.setCreatedAt(now);
+            }
+            if (deal.getUpdatedAt() == null) {
+                deal.setUpdatedAt(now);
+            }
+            spec = spec.bind("id" + i, deal.getDealUniqueId())
+                    .bind("from" + i, deal.getFromCurrencyIsoCode())
+                    .bind("to" + i, deal.getToCurrencyIsoCode())
+                    .bind("timestamp" + i, deal.getDealTimestamp())
+                    .bind("amount" + i, FixedPointAmount.toBigDecimal(deal.getDealAmount()))
+                    .bind("created" + i, deal.getCreatedAt())
+                    .bind("updated" + i, deal.getUpdatedAt())
+                    .bind("hash" + i, deal.getDealIdHash());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * Archived deals among the given IDs, from hash hits only
+     */
+    private Flux<FxDeal> findArchived(List<String> dealUniqueIds) {
+        if (!tieringProperties.isEnabled() || dealUniqueIds.isEmpty()) {
+            return Flux.empty();
+        }
+        Map<Long, List<String>> idsByHash = new LinkedHashMap<>();
+        for (String id : dealUniqueIds) {
+            idsByHash.computeIfAbsent(DealIdHash.of(id), hash -> new ArrayList<>(1)).add(id);
+        }
+        return pages(List.copyOf(idsByHash.keySet()))
+                .concatMap(page -> databaseClient
+                        .sql("SELECT deal_id_hash, segment_id FROM fx_deal_archive_ids WHERE deal_id_hash IN (:hashes)")
+                        .bind("hashes", page)
+                        .map(row -> Map.entry(row.get("segment_id", Long.class), row.get("deal_id_hash", Long.class)))
+                        .all())
+                .collectMultimap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMapMany(hashesBySegment -> Flux.fromIterable(hashesBySegment.entrySet()))
+                .concatMap(segment -> {
+                    Set<String> wanted = new HashSet<>();
+                    segment.getValue().forEach(hash -> wanted.addAll(idsByHash.get(hash)));
+                    return databaseClient.sql("SELECT payload FROM fx_deal_archive_segments WHERE segment_id = :segment")
+                            .bind("segment", segment.getKey())
+                            .map(row -> row.get("payload", byte[].class))
+                            .one()
+                            .flatMapIterable(payload -> ArchiveSegmentCodec.decode(payload, wanted::contains));
+                });
+    }
+
+    private static <T> Flux<List<T>> pages(List<T> items) {
+        int size = FxDealBatchWriter.MAX_ROWS_PER_STATEMENT;
+        return Flux.range(0, (items.size() + size - 1) / size)
+                .map(page -> items.subList(page * size, Math.min((page + 1) * size, items.size())));
+    }
+
+    private static FxDeal toDeal(Readable row) {
+        return new FxDeal(
+                row.get("deal_unique_id", String.class),
+                row.get("from_currency_iso_code", String.class),
+                row.get("to_currency_iso_code", String.class),
+                localDateTime(row, "deal_timestamp"),
+                FixedPointAmount.of(row.get("deal_amount", BigDecimal.class)),
+                localDateTime(row, "created_at"),
+                localDateTime(row, "updated_at"));
+    }
+
+    /**
+     * TIMESTAMP WITH TIME ZONE column in the JVM time zone, as JDBC reads it;
+     * not every driver decodes these columns as LocalDateTime
+     */
+    private static LocalDateTime localDateTime(Readable row, String column) {
+        OffsetDateTime value = row.get(column, OffsetDateTime.class);
+        return value == null ? null : value.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
@@ -0,0 +1,228 @@
+package com.progressoft.clustereddata.reactive;
+
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.exception.DealNotFoundException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealOutcome;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * FX deal operations on R2DBC with the contract of {@code FxDealService}:
+ * the same validation, the same duplicate rules and the same batch report.
+ * <p>
+ * Batch deals are consumed as a stream. They are cut into insert batches of
+ * {@code insert-batch-size}, and the next batch is only requested from the
+ * sender once the previous one has committed, so a fast sender is slowed to
+ * the pace of the database instead of being buffered in memory.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveFxDealService {
+
+    private final ReactiveFxDealRepository repository;
+    private final FxDealValidationService validationService;
+    private final FxDealMapper mapper;
+    private final TransactionalOperator transactionalOperator;
+    private final ReactiveProperties properties;
+
+    public ReactiveFxDealService(ReactiveFxDealRepository repository,
+                                 FxDealValidationService validationService,
+                                 FxDealMapper mapper,
+                                 TransactionalOperator transactionalOperator,
+                                 ReactiveProperties properties) {
+        this.repository = repository;
+        this.validationService = validationService;
+        this.mapper = mapper;
+        this.transactionalOperator = transactionalOperator;
+        this.properties = properties;
+    }
+
+    /**
+     * Submit a new FX deal
+     *
+     * @param request the FX deal request
+     * @return whether the deal was accepted, a duplicate or invalid
+     */
+    public Mono<DealOutcome> submitDeal(FxDealRequest request) {
+        FxDeal deal = mapper.toEntity(request);
+        List<DealError> errors = validationService.check(deal);
+        if (!errors.isEmpty()) {
+            return Mono.just(new DealOutcome.Invalid(request.getDealUniqueId(), errors));
+        }
+
+        String id = request.getDealUniqueId();
+        return repository.existsByDealUniqueId(id)
+                .flatMap(exists -> exists
+                        ? Mono.<DealOutcome>just(new DealOutcome.Duplicate(id))
+                        : transactionalOperator.transactional(repository.insertAll(List.of(deal)))
+                                // Mapped once inserted, which stamps createdAt and updatedAt
+                                .then(Mono.<DealOutcome>fromSupplier(() -> new DealOutcome.Accepted(mapper.toResponse(deal)))))
+                // A concurrent writer inserted the same ID after our check
+                .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(new DealOutcome.Duplicate(id)));
+    }
+
+    public Mono<FxDealResponse> getDeal(String dealUniqueId) {
+        return repository.findByDealUniqueId(dealUniqueId)
+                .map(mapper::toResponse)
+                .switchIfEmpty(Mono.error(() -> new DealNotFoundException("Deal with ID '" + dealUniqueId + "' not found")));
+    }
+
+    /**
+     * Import a stream of FX deals, one multi-row insert and commit per insert
+     * batch
+     *
+     * @param deals the deals, in the order they are reported
+     * @return the batch import response once the stream has completed
+     */
+    public Mono<BatchImportResponse> importDeals(Flux<FxDealRequest> deals) {
+        return Mono.defer(() -> {
+            BatchReport report = new BatchReport();
+            // Fair backpressure keeps the timeout from emitting a batch nobody has requested yet
+            return deals.bufferTimeout(properties.getInsertBatchSize(), properties.getMaxBatchDelay(), true)
+                    .concatMap(batch -> writeBatch(batch, report), 0)
+                    .then(Mono.fromSupplier(report::toResponse))
+                    .doOnNext(response -> log.info("Reactive batch import completed: {} successful, {} failed, {} duplicates",
+                            response.getSuccessCount(), response.getFailedCount(), response.getDuplicateCount()));
+        });
+    }
+
+    private Mono<Void> writeBatch(List<FxDealRequest> batch, BatchReport report) {
+        List<Slot> slots = new ArrayList<>(batch.size());
+        List<String> candidateIds = new ArrayList<>();
+        for (FxDealRequest request : batch) {
+            Slot slot = new Slot(request.getDealUniqueId(), mapper.toEntity(request));
+            slots.add(slot);
+            List<DealError> errors = validationService.check(slot.deal);
+            if (!errors.isEmpty()) {
+                DealOutcome.Invalid invalid = new DealOutcome.Invalid(slot.id, errors);
+                slot.failure = BatchImportResponse.FailedDeal.builder()
+                        .dealUniqueId(slot.id)
+                        .reason(invalid.reason())
+                        .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                        .errors(invalid.errors())
+                        .build();
+            } else if (!report.seen.add(slot.id)) {
+                slot.failure = duplicate(slot.id);
+            } else {
+                candidateIds.add(slot.id);
+            }
+        }
+
+        return repository.findExistingDealUniqueIds(candidateIds)
+                .collect(HashSet<String>::new, Set::add)
+                .flatMap(existing -> {
+                    List<Slot> toInsert = new ArrayList<>(candidateIds.size());
+                    for (Slot slot : slots) {
+                        if (slot.failure != null) {
+                            continue;
+                        }
+                        if (existing.contains(slot.id)) {
+                            slot.failure = duplicate(slot.id);
+                        } else {
+                            toInsert.add(slot);
+                        }
+                    }
+                    return insert(toInsert);
+                })
+                .then(Mono.fromRunnable(() -> slots.forEach(report::add)));
+    }
+
+    private Mono<Void> insert(List<Slot> slots) {
+        if (slots.isEmpty()) {
+            return Mono.empty();
+        }
+        List<FxDeal> deals = slots.stream().map(slot -> slot.deal).toList();
+        return transactionalOperator.transactional(repository.insertAll(deals))
+                .onErrorResume(DataIntegrityViolationException.class, e -> {
+                    // A concurrent import won the race for some IDs, retry deal by deal
+                    log.debug("Insert batch hit a concurrent insert, writing {} deals one by one", slots.size());
+                    return Flux.fromIterable(slots).concatMap(this::insertAlone).then();
+                });
+    }
+
+    private Mono<Void> insertAlone(Slot slot) {
+        return transactionalOperator.transactional(repository.insertAll(List.of(slot.deal)))
+                .onErrorResume(DataIntegrityViolationException.class, e -> {
+                    slot.failure = duplicate(slot.id);
+                    return Mono.empty();
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing deal {}: {}", slot.id, e.getMessage());
+                    slot.failure = BatchImportResponse.FailedDeal.builder()
+                            .dealUniqueId(slot.id)
+                            .reason("Processing error: " + e.getMessage())
+                            .type(BatchImportResponse.FailureType.PROCESSING_ERROR)
+                            .build();
+                    return Mono.empty();
+                });
+    }
+
+    private static BatchImportResponse.FailedDeal duplicate(String id) {
+        return BatchImportResponse.FailedDeal.builder()
+                .dealUniqueId(id)
+                .reason("Deal already exists")
+                .type(BatchImportResponse.FailureType.DUPLICATE)
+                .build();
+    }
+
+    private static final class Slot {
+        private final String id;
+        private final FxDeal deal;
+        private BatchImportResponse.FailedDeal failure;
+
+        private Slot(String id, FxDeal deal) {
+            this.id = id;
+            this.deal = deal;
+        }
+    }
+
+    /**
+     * Results of one import, filled batch by batch; {@code concatMap} never
+     * runs two batches at once
+     */
+    private static final class BatchReport {
+        private final Set<String> seen = new HashSet<>();
+        private final List<String> successfulDeals = new ArrayList<>();
+        private final List<BatchImportResponse.FailedDeal> failedDeals = new ArrayList<>();
+        private int duplicateCount;
+
+        private void add(Slot slot) {
+            if (slot.failure == null) {
+                successfulDeals.add(slot.id);
+                return;
+            }
+            failedDeals.add(slot.failure);
+            if (slot.failure.getType() == BatchImportResponse.FailureType.DUPLICATE) {
+                duplicateCount++;
+            }
+        }
+
+        private BatchImportResponse toResponse() {
+            return BatchImportResponse.builder()
+                    .totalProcessed(successfulDeals.size() + failedDeals.size())
+                    .successCount(successfulDeals.size())
+                    .failedCount(failedDeals.size())
+                    .duplicateCount(duplicateCount)
+                    .successfulDeals(successfulDeals)
+                    .failedDeals(failedDeals)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.progressoft.clustereddata.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "fx-deals.reactive")
+public class ReactiveProperties {
+
+    /**
+     * Deals of a streamed batch written with one multi-row insert and one
+     * commit
+     */
+    private int insertBatchSize = 500;
+
+    /**
+     * Longest a partly filled insert batch waits for more deals from a slow
+     * sender before it is written anyway
+     */
+    private Duration maxBatchDelay = Duration.ofMillis(50);
+}
@@ -0,0 +1,34 @@
+package com.progressoft.clustereddata;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+/**
+ * In-memory H2 databases for tests that run SQL without an application
+ * context. Every call returns a database of its own, kept open until the JVM
+ * exits.
+ */
+public final class TestDatabases {
+
+    private TestDatabases() {
+    }
+
+    /**
+     * An empty database, for tests that choose their own migrations
+     */
+    public static DataSource h2() {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /**
+     * A database migrated with the scripts of db/migration
+     */
+    public static DataSource migrated() {
+        DataSource dataSource = h2();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        return dataSource;
+    }
+}
@@ -0,0 +1,39 @@
+package com.progressoft.clustereddata;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+
+import java.time.LocalDateTime;
+
+/**
+ * FX deals for tests that write straight to fx_deals
+ */
+public final class TestDeals {
+
+    public static final LocalDateTime DEAL_TIME = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    private TestDeals() {
+    }
+
+    /**
+     * A USD/EUR deal of 1,000 at {@link #DEAL_TIME}, stamped with the insert time
+     */
+    public static FxDeal deal(String id) {
+        return new FxDeal(id, "USD", "EUR", DEAL_TIME, 10_000_000L, null, null);
+    }
+
+    /**
+     * A USD/EUR deal of 1,000 created at its deal timestamp
+     */
+    public static FxDeal deal(String id, LocalDateTime time) {
+        return deal(id, "USD", "EUR", time, 10_000_000L);
+    }
+
+    /**
+     * A deal created at its deal timestamp
+     *
+     * @param units amount in fixed point units
+     */
+    public static FxDeal deal(String id, String from, String to, LocalDateTime time, long units) {
+        return new FxDeal(id, from, to, time, units, time, time);
+    }
+}
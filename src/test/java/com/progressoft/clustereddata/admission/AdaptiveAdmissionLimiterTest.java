@@ -0,0 +1,91 @@
+package com.progressoft.clustereddata.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveAdmissionLimiterTest {
+
+    private AdmissionProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setInitialLimit(1_000);
+        properties.setMinLimit(100);
+        properties.setMaxLimit(100_000);
+        properties.setMaxInFlightBodyBytes(1_000_000);
+    }
+
+    @Test
+    void shouldRejectBeyondLimitButAlwaysAdmitWhenIdle() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(properties);
+
+        AdaptiveAdmissionLimiter.Admission huge = limiter.tryAcquire(5_000, 100);
+        AdaptiveAdmissionLimiter.Admission next = limiter.tryAcquire(1, 100);
+
+        assertThat(huge).isInstanceOf(AdaptiveAdmissionLimiter.Admitted.class);
+        assertThat(next).isEqualTo(new AdaptiveAdmissionLimiter.Rejected(AdaptiveAdmissionLimiter.Reason.CONCURRENCY));
+
+        ((AdaptiveAdmissionLimiter.Admitted) huge).permit().release(1_000_000, false);
+        assertThat(limiter.inFlightDeals()).isZero();
+        assertThat(limiter.tryAcquire(1, 100)).isInstanceOf(AdaptiveAdmissionLimiter.Admitted.class);
+    }
+
+    @Test
+    void shouldRejectWhenBodyBytesExceedBudget() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(properties);
+
+        limiter.tryAcquire(10, 900_000);
+
+        assertThat(limiter.tryAcquire(10, 200_000))
+                .isEqualTo(new AdaptiveAdmissionLimiter.Rejected(AdaptiveAdmissionLimiter.Reason.MEMORY));
+    }
+
+    @Test
+    void shouldGrowWhileLatencyIsStableAndShrinkWhenItDegrades() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(properties);
+
+        for (int i = 0; i < 50; i++) {
+            completeAtFullLoad(limiter, 10_000);
+        }
+        long grown = limiter.limit();
+        assertThat(grown).isGreaterThan(1_000);
+
+        for (int i = 0; i < 50; i++) {
+            completeAtFullLoad(limiter, 100_000);
+        }
+        assertThat(limiter.limit()).isLessThan(grown);
+    }
+
+    @Test
+    void shouldNotGrowWhenFarBelowLimit() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(properties);
+
+        for (int i = 0; i < 50; i++) {
+            AdaptiveAdmissionLimiter.Admitted admitted = (AdaptiveAdmissionLimiter.Admitted) limiter.tryAcquire(1, 100);
+            admitted.permit().release(10_000, false);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(1_000);
+    }
+
+    @Test
+    void shouldBackOffOnServerErrorsDownToMinimum() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(properties);
+
+        for (int i = 0; i < 100; i++) {
+            AdaptiveAdmissionLimiter.Admitted admitted = (AdaptiveAdmissionLimiter.Admitted) limiter.tryAcquire(1, 100);
+            admitted.permit().release(10_000, true);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(100);
+    }
+
+    private static void completeAtFullLoad(AdaptiveAdmissionLimiter limiter, long nanosPerDeal) {
+        long deals = limiter.limit();
+        AdaptiveAdmissionLimiter.Admitted admitted = (AdaptiveAdmissionLimiter.Admitted) limiter.tryAcquire(deals, 100);
+        admitted.permit().release(nanosPerDeal * deals, false);
+    }
+}
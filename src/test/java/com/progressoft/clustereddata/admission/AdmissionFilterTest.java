@@ -0,0 +1,50 @@
+package com.progressoft.clustereddata.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionFilter filter = new AdmissionFilter(new AdmissionProperties(),
+            new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+
+    @Test
+    void shouldRejectBatchWithoutContentLength() throws Exception {
+        AtomicInteger forwarded = new AtomicInteger();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/fx-deals/batch");
+        request.addHeader("Transfer-Encoding", "chunked");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, resp) -> forwarded.incrementAndGet());
+
+        assertThat(response.getStatus()).isEqualTo(411);
+        assertThat(forwarded).hasValue(0);
+        assertThat(meterRegistry.get("fxdeals.admission.length_required").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAdmitBatchAndSingleDealWithKnownOrDefaultSize() throws Exception {
+        AtomicInteger forwarded = new AtomicInteger();
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/v1/fx-deals/batch");
+        batch.setContent(new byte[2_000]);
+        MockHttpServletRequest single = new MockHttpServletRequest("POST", "/api/v1/fx-deals");
+        MockHttpServletResponse batchResponse = new MockHttpServletResponse();
+        MockHttpServletResponse singleResponse = new MockHttpServletResponse();
+
+        filter.doFilter(batch, batchResponse, (req, resp) -> forwarded.incrementAndGet());
+        filter.doFilter(single, singleResponse, (req, resp) -> forwarded.incrementAndGet());
+
+        assertThat(batchResponse.getStatus()).isEqualTo(200);
+        assertThat(singleResponse.getStatus()).isEqualTo(200);
+        assertThat(forwarded).hasValue(2);
+    }
+}
@@ -0,0 +1,80 @@
+package com.progressoft.clustereddata.amount;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FixedPointAmountTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "1000.50, 10005000",
+            "1000.5000, 10005000",
+            "1.50000000, 15000",
+            "0.0001, 1",
+            "42, 420000",
+            "1e3, 10000000",
+            "2.5E-3, 25",
+            "-100.00, -1000000",
+            "0, 0",
+            "922337203685477.5807, 9223372036854775807"
+    })
+    void shouldParseIntoUnitsAtScaleFour(String text, long units) {
+        assertThat(FixedPointAmount.parse(text)).isEqualTo(units);
+        assertThat(FixedPointAmount.of(new BigDecimal(text))).isEqualTo(units);
+    }
+
+    @Test
+    void shouldMapUnrepresentableValuesToSentinels() {
+        assertThat(FixedPointAmount.parse("0.00001")).isEqualTo(FixedPointAmount.BELOW_MINIMUM);
+        assertThat(FixedPointAmount.parse("1.00001")).isEqualTo(FixedPointAmount.TOO_PRECISE);
+        assertThat(FixedPointAmount.parse("922337203685477.5808")).isEqualTo(FixedPointAmount.TOO_LARGE);
+        assertThat(FixedPointAmount.parse("1e40")).isEqualTo(FixedPointAmount.TOO_LARGE);
+        assertThat(FixedPointAmount.parse((CharSequence) null)).isEqualTo(FixedPointAmount.ABSENT);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "-", ".", "12a", "1e", "1.2.3"})
+    void shouldRejectMalformedNumbers(String text) {
+        assertThatThrownBy(() -> FixedPointAmount.parse(text)).isInstanceOf(NumberFormatException.class);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "10005000, 1000.5",
+            "1, 0.0001",
+            "420000, 42",
+            "50, 0.005",
+            "-1000000, -100",
+            "9223372036854775807, 922337203685477.5807"
+    })
+    void shouldFormatWithoutTrailingZeros(long units, String text) {
+        assertThat(FixedPointAmount.toPlainString(units)).isEqualTo(text);
+        assertThat(FixedPointAmount.toBigDecimal(units)).isEqualByComparingTo(text);
+    }
+
+    @Test
+    void shouldRoundTripThroughJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        FxDealRequest request = objectMapper.readValue(
+                "{\"dealUniqueId\":\"DEAL-001\",\"dealAmount\":1000.50}", FxDealRequest.class);
+        FxDealRequest missing = objectMapper.readValue("{\"dealUniqueId\":\"DEAL-002\"}", FxDealRequest.class);
+        FxDealRequest explicitNull = objectMapper.readValue(
+                "{\"dealUniqueId\":\"DEAL-003\",\"dealAmount\":null}", FxDealRequest.class);
+
+        assertThat(request.getDealAmount()).isEqualTo(10_005_000L);
+        assertThat(objectMapper.writeValueAsString(request)).contains("\"dealAmount\":1000.5");
+        assertThat(missing.getDealAmount()).isEqualTo(FixedPointAmount.ABSENT);
+        assertThat(explicitNull.getDealAmount()).isEqualTo(FixedPointAmount.ABSENT);
+    }
+}
@@ -0,0 +1,83 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.service.BatchDryRunService;
+import com.progressoft.clustereddata.service.DryRunProperties;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Dry run of a large batch, one thread versus all cores. Duplicate queries
+ * go to a stub store that knows no deals, so this measures validation,
+ * in-batch duplicate detection and the fork-join overhead; about one deal
+ * in twenty is invalid and one in fifty repeats an earlier ID.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=BatchDryRunBenchmark};
+ * deals per second is {@code dealCount} divided by the reported time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BatchDryRunBenchmark {
+
+    @Param({"500000"})
+    private int dealCount;
+
+    /**
+     * {@code 0} means one thread per core
+     */
+    @Param({"1", "0"})
+    private int parallelism;
+
+    private BatchImportRequest request;
+    private BatchDryRunService dryRunService;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 10, 0);
+        List<FxDealRequest> deals = new ArrayList<>(dealCount);
+        for (int i = 0; i < dealCount; i++) {
+            String id = i % 50 == 49 ? "DEAL-" + random.nextInt(i) : "DEAL-" + i;
+            String currency = i % 20 == 19 ? "ABC" : "EUR";
+            deals.add(new FxDealRequest(id, "USD", currency, timestamp.plusSeconds(i),
+                    FixedPointAmount.parse((1 + random.nextInt(1_000_000)) + "." + random.nextInt(100))));
+        }
+        request = new BatchImportRequest(deals);
+
+        DryRunProperties properties = new DryRunProperties();
+        properties.setParallelism(parallelism);
+        dryRunService = new BatchDryRunService(
+                new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator()),
+                new FxDealMapper(),
+                mock(FxDealRepository.class, withSettings().stubOnly()),
+                mock(ObjectProvider.class, withSettings().stubOnly()),
+                mock(ObjectProvider.class, withSettings().stubOnly()),
+                properties);
+    }
+
+    @Benchmark
+    public BatchImportResponse dryRun() {
+        return dryRunService.dryRun(request);
+    }
+}
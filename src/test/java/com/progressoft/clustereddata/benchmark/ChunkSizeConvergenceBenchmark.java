@@ -0,0 +1,94 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.progressoft.clustereddata.service.BatchTuningProperties;
+import com.progressoft.clustereddata.service.ChunkSizeController;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convergence of {@link ChunkSizeController} against a simulated database
+ * whose commit latency changes while a long import runs: a fast phase with
+ * its best throughput near 2000 rows per commit, a loaded phase near 1000
+ * rows, then the fast phase again. Each commit costs a fixed round trip, a
+ * per-row cost and a quadratic penalty past a knee (lock and WAL pressure),
+ * with 10% random noise.
+ * <p>
+ * The score is wall time of the controller itself; the interesting numbers
+ * are the secondary counters: simulated rows per second over the whole run
+ * and the chunk size chosen at the end of each phase, next to a fixed chunk
+ * size of 1000 as the baseline. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=ChunkSizeConvergenceBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ChunkSizeConvergenceBenchmark {
+
+    private static final int CHUNKS_PER_PHASE = 200;
+    private static final Phase[] PHASES = {
+            new Phase(5_000_000, 20_000, 2_000),
+            new Phase(20_000_000, 60_000, 800),
+            new Phase(5_000_000, 20_000, 2_000)
+    };
+
+    @Param({"adaptive", "fixed"})
+    public String strategy;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Result {
+        public double simulatedRowsPerSecond;
+        public double fastPhaseChunkSize;
+        public double loadedPhaseChunkSize;
+        public double recoveredChunkSize;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            simulatedRowsPerSecond = 0;
+            fastPhaseChunkSize = 0;
+            loadedPhaseChunkSize = 0;
+            recoveredChunkSize = 0;
+        }
+    }
+
+    @Benchmark
+    public void importUnderChangingLatency(Result result) {
+        BatchTuningProperties properties = new BatchTuningProperties();
+        properties.setLatencyCeiling(Duration.ofSeconds(1));
+        ChunkSizeController controller = new ChunkSizeController(properties);
+        SplittableRandom random = new SplittableRandom(42);
+
+        long rows = 0;
+        long nanos = 0;
+        int[] endSizes = new int[PHASES.length];
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            for (int chunk = 0; chunk < CHUNKS_PER_PHASE; chunk++) {
+                int size = "adaptive".equals(strategy) ? controller.chunkSize() : properties.getInitialChunkSize();
+                long elapsed = (long) (PHASES[phase].commitNanos(size) * (0.95 + random.nextDouble(0.1)));
+                controller.record(size, elapsed);
+                rows += size;
+                nanos += elapsed;
+            }
+            endSizes[phase] = "adaptive".equals(strategy) ? controller.chunkSize() : properties.getInitialChunkSize();
+        }
+
+        result.simulatedRowsPerSecond = rows * 1e9 / nanos;
+        result.fastPhaseChunkSize = endSizes[0];
+        result.loadedPhaseChunkSize = endSizes[1];
+        result.recoveredChunkSize = endSizes[2];
+    }
+
+    private record Phase(long fixedNanos, long perRowNanos, int knee) {
+
+        long commitNanos(int rows) {
+            long over = Math.max(0, rows - knee);
+            return fixedNanos + rows * perRowNanos + over * over * 100;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.validation.DealAmountValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one batch worth of deal amounts on the ingest path, BigDecimal
+ * versus {@link FixedPointAmount} units.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=DealAmountBenchmark}; the
+ * profile adds {@code -prof gc}, so {@code gc.alloc.rate.norm} shows the
+ * bytes allocated per batch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealAmountBenchmark {
+
+    private static final BigDecimal MINIMUM = new BigDecimal("0.0001");
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private char[][] amounts;
+    private String batchJson;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Random random = new Random(42);
+        amounts = new char[batchSize][];
+        StringBuilder json = new StringBuilder("{\"deals\":[");
+        for (int i = 0; i < batchSize; i++) {
+            String amount = (1 + random.nextInt(10_000_000)) + "." + random.nextInt(100);
+            amounts[i] = amount.toCharArray();
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"dealUniqueId\":\"DEAL-").append(i)
+                    .append("\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\"")
+                    .append(",\"dealTimestamp\":\"2024-01-01T10:00:00\",\"dealAmount\":").append(amount).append('}');
+        }
+        batchJson = json.append("]}").toString();
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    /**
+     * Parse, the checks done by {@code @Positive}/{@code @DecimalMin}/{@code @Digits},
+     * the scaling needed by the hot window, JDBC bind value and a running total
+     */
+    @Benchmark
+    public BigDecimal bigDecimalAmounts(Blackhole blackhole) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (char[] text : amounts) {
+            BigDecimal amount = new BigDecimal(text);
+            BigDecimal stripped = amount.stripTrailingZeros();
+            boolean valid = amount.signum() > 0
+                    && amount.compareTo(MINIMUM) >= 0
+                    && stripped.precision() - stripped.scale() <= 15
+                    && Math.max(stripped.scale(), 0) <= 4;
+            blackhole.consume(valid);
+            blackhole.consume(amount.setScale(FixedPointAmount.SCALE, RoundingMode.UNNECESSARY)
+                    .unscaledValue()
+                    .longValueExact());
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long fixedPointAmounts(Blackhole blackhole) {
+        long total = 0;
+        for (char[] text : amounts) {
+            long units = FixedPointAmount.parse(text, 0, text.length);
+            blackhole.consume(DealAmountValidator.violation(units) == null);
+            blackhole.consume(units);
+            total += units;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public List<FxDealRequest> deserializeBatchFixedPoint() throws JsonProcessingException {
+        return objectMapper.readValue(batchJson, BatchImportRequest.class).getDeals();
+    }
+
+    @Benchmark
+    public List<LegacyDealRequest> deserializeBatchBigDecimal() throws JsonProcessingException {
+        return objectMapper.readValue(batchJson, LegacyBatchRequest.class).deals;
+    }
+
+    /**
+     * Shape of the request before amounts became fixed point
+     */
+    public static class LegacyDealRequest {
+        public String dealUniqueId;
+        public String fromCurrencyIsoCode;
+        public String toCurrencyIsoCode;
+        public LocalDateTime dealTimestamp;
+        public BigDecimal dealAmount;
+    }
+
+    public static class LegacyBatchRequest {
+        public List<LegacyDealRequest> deals;
+    }
+}
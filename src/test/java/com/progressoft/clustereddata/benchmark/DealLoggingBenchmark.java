@@ -0,0 +1,124 @@
+package com.progressoft.clustereddata.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.logging.SampledLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logging cost per deal on the single-deal path: the old synchronous INFO line
+ * per deal (plus the {@code FxDeal.toString()} the validator used to log),
+ * the same line through the async appender, and the sampled logger in front
+ * of the async appender.
+ * <p>
+ * Lines go to a file, so the synchronous variants include the write. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=DealLoggingBenchmark}; threads are
+ * set to 4 so appender contention shows up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DealLoggingBenchmark {
+
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSS} %5level [%thread] %logger{36} : %msg%n";
+
+    private LoggerContext context;
+    private Path logFile;
+    private OutputStream logStream;
+    private Logger syncLogger;
+    private Logger asyncLogger;
+    private SampledLogger sampledLogger;
+    private FxDeal deal;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new LoggerContext();
+        logFile = Files.createTempFile("deal-logging-benchmark", ".log");
+        logStream = Files.newOutputStream(logFile);
+
+        OutputStreamAppender<ILoggingEvent> file = new OutputStreamAppender<>();
+        file.setContext(context);
+        file.setEncoder(encoder());
+        file.setOutputStream(logStream);
+        file.start();
+
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(8192 / 5);
+        async.setNeverBlock(true);
+        async.addAppender(file);
+        async.start();
+
+        syncLogger = logger("sync", file);
+        asyncLogger = logger("async", async);
+        sampledLogger = SampledLogger.every(Duration.ofSeconds(1), logger("sampled", async));
+
+        deal = new FxDeal("DEAL-000042", "USD", "EUR", LocalDateTime.of(2024, 1, 1, 10, 0), 10_000_000L,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        logStream.close();
+        Files.deleteIfExists(logFile);
+    }
+
+    @Benchmark
+    public void syncPerDealWithEntity() {
+        syncLogger.info("Validating FX deal: {}", deal);
+        syncLogger.info("Creating FX deal with ID: {}", deal.getDealUniqueId());
+        syncLogger.info("Successfully created FX deal: {}", deal.getDealUniqueId());
+    }
+
+    @Benchmark
+    public void syncPerDeal() {
+        syncLogger.info("Successfully created FX deal: {}", deal.getDealUniqueId());
+    }
+
+    @Benchmark
+    public void asyncPerDeal() {
+        asyncLogger.info("Successfully created FX deal: {}", deal.getDealUniqueId());
+    }
+
+    @Benchmark
+    public void sampledPerDeal() {
+        sampledLogger.info("Successfully created FX deal: {}", deal.getDealUniqueId());
+    }
+
+    private PatternLayoutEncoder encoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Logger logger(String name, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
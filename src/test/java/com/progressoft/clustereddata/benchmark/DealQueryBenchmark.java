@@ -0,0 +1,119 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.query.DealPage;
+import com.progressoft.clustereddata.query.DealQueryProperties;
+import com.progressoft.clustereddata.query.DealQueryService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Pair pages and largest-deal queries on a multi-million row fx_deals, without
+ * (V7) and with (V8) the composite index on currency pair and deal timestamp.
+ * <p>
+ * Needs PostgreSQL; each layout is migrated into its own schema with the real
+ * Flyway scripts and filled once with {@code benchmark.rows} deals (5,000,000
+ * by default) over 20 currency pairs and 30 days. Every operation queries a
+ * random pair and a random one-hour window. Connection settings default to the
+ * docker-compose database and can be overridden with
+ * {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user} and
+ * {@code -Dbenchmark.jdbc.password}. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=DealQueryBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DealQueryBenchmark {
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final int DAYS = 30;
+
+    @Param({"unindexed", "indexed"})
+    public String layout;
+
+    private DealQueryService service;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        String schema = "bench_query_" + layout;
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/fx_deals_warehouse");
+        String user = System.getProperty("benchmark.jdbc.user", "fx_user");
+        String password = System.getProperty("benchmark.jdbc.password", "fx_password");
+        long rows = Long.getLong("benchmark.rows", 5_000_000L);
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(schema)
+                .cleanDisabled(false)
+                .locations("classpath:db/migration", "classpath:db/vendor/postgresql")
+                .target("unindexed".equals(layout) ? MigrationVersion.fromVersion("7") : MigrationVersion.LATEST)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema, user, password));
+        // Rising timestamps like live traffic, pairs spread evenly, amounts log-uniform up to 10M
+        jdbcTemplate.update("INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, to_currency_iso_code, "
+                        + "deal_timestamp, deal_amount) "
+                        + "SELECT 'BENCH-' || n, (ARRAY['USD','EUR','GBP','JPY','CHF'])[1 + n % 5], "
+                        + "(ARRAY['USD','EUR','GBP','JPY','CHF'])[1 + (n % 5 + 1 + (n / 5) % 4) % 5], "
+                        + "TIMESTAMP '2024-01-01' + (n * ? * 86400.0 / ?)::double precision * INTERVAL '1 second', "
+                        + "round(exp(random() * ln(10000000))::numeric, 4) "
+                        + "FROM generate_series(1, CAST(? AS INTEGER)) AS n",
+                DAYS, rows, rows);
+        jdbcTemplate.execute("ANALYZE fx_deals");
+
+        service = new DealQueryService(jdbcTemplate, mock(ObjectProvider.class, withSettings().stubOnly()),
+                new FxDealMapper(), new DealQueryProperties());
+    }
+
+    @Benchmark
+    public DealPage pairPage() {
+        String[] pair = randomPair();
+        LocalDateTime since = randomHour();
+        return service.byPair(pair[0], pair[1], since, since.plusHours(1), null, 100);
+    }
+
+    @Benchmark
+    public List<FxDealResponse> largestOfPair() {
+        String[] pair = randomPair();
+        LocalDateTime since = randomHour();
+        return service.largest(since, since.plusHours(1), pair[0], pair[1], 10);
+    }
+
+    @Benchmark
+    public List<FxDealResponse> largestOfWindow() {
+        LocalDateTime since = randomHour();
+        return service.largest(since, since.plusHours(1), null, null, 10);
+    }
+
+    private static String[] randomPair() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(CURRENCIES.length);
+        int to = (from + 1 + random.nextInt(CURRENCIES.length - 1)) % CURRENCIES.length;
+        return new String[]{CURRENCIES[from], CURRENCIES[to]};
+    }
+
+    private static LocalDateTime randomHour() {
+        return START.plusHours(ThreadLocalRandom.current().nextInt(DAYS * 24 - 1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.controller.RejectionResponses;
+import com.progressoft.clustereddata.dto.ErrorResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.service.DealOutcome;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of rejecting one duplicate or invalid deal, the exception plus
+ * {@code ErrorResponse} path versus {@link DealOutcome} plus pre-serialized
+ * bytes. Only the rejection itself is measured, not the database lookup or
+ * Spring's exception resolution, so the exception path is a lower bound.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=DealRejectionBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DealRejectionBenchmark {
+
+    private static final String PATH = "/api/v1/fx-deals";
+    private static final String DEAL_ID = "DEAL-000042";
+
+    private ObjectMapper objectMapper;
+    private FxDealValidationService validationService;
+    private RejectionResponses rejections;
+    private FxDeal invalidDeal;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        validationService = new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator());
+        rejections = new RejectionResponses();
+        invalidDeal = new FxDeal();
+        invalidDeal.setDealUniqueId(DEAL_ID);
+        invalidDeal.setFromCurrencyIsoCode("XXX");
+        invalidDeal.setToCurrencyIsoCode("EUR");
+        invalidDeal.setDealTimestamp(LocalDateTime.now().plusDays(1));
+        invalidDeal.setDealAmount(FixedPointAmount.parse("-5"));
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> duplicateByException() throws JsonProcessingException {
+        try {
+            throw new DuplicateDealException("Deal with ID '" + DEAL_ID + "' already exists");
+        } catch (DuplicateDealException e) {
+            return errorResponse(HttpStatus.CONFLICT, e.getMessage(), null);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> duplicateByOutcome() {
+        return rejections.duplicate(new DealOutcome.Duplicate(DEAL_ID), PATH);
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> invalidByException() throws JsonProcessingException {
+        try {
+            validationService.validateOrThrow(invalidDeal);
+            throw new AssertionError("deal should be invalid");
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.BAD_REQUEST, e.getMessage(), validationService.validate(invalidDeal));
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> invalidByOutcome() {
+        return rejections.invalid(new DealOutcome.Invalid(DEAL_ID, validationService.check(invalidDeal)), PATH);
+    }
+
+    private ResponseEntity<byte[]> errorResponse(HttpStatus status, String message, List<String> details)
+            throws JsonProcessingException {
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(message)
+                .path(PATH)
+                .details(details)
+                .build();
+        return ResponseEntity.status(status).body(objectMapper.writeValueAsBytes(body));
+    }
+}
@@ -0,0 +1,111 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.json.DealJsonModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON cost of the deal API DTOs with the current {@code ObjectMapper}
+ * configuration ({@code beans}) versus the hand-written codecs plus
+ * Blackbird ({@code codecs}): reading a batch of requests, writing deal
+ * responses and writing a batch import response.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=JsonCodecBenchmark}; the
+ * profile adds {@code -prof gc}, so {@code gc.alloc.rate.norm} shows the
+ * bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"beans", "codecs"})
+    private String mapper;
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private byte[] batchJson;
+    private List<FxDealResponse> responses;
+    private BatchImportResponse batchResponse;
+    private ObjectReader batchReader;
+    private ObjectWriter responseWriter;
+    private ObjectWriter batchResponseWriter;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        if (mapper.equals("codecs")) {
+            objectMapper.registerModule(new BlackbirdModule()).registerModule(new DealJsonModule());
+        }
+        batchReader = objectMapper.readerFor(BatchImportRequest.class);
+        responseWriter = objectMapper.writerFor(FxDealResponse.class);
+        batchResponseWriter = objectMapper.writerFor(BatchImportResponse.class);
+
+        StringBuilder json = new StringBuilder("{\"deals\":[");
+        responses = new ArrayList<>(batchSize);
+        List<String> successful = new ArrayList<>();
+        List<BatchImportResponse.FailedDeal> failed = new ArrayList<>();
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 10, 0, 0);
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"dealUniqueId\":\"DEAL-").append(i)
+                    .append("\",\"fromCurrencyIsoCode\":\"USD\",\"toCurrencyIsoCode\":\"EUR\"")
+                    .append(",\"dealTimestamp\":\"2024-01-01T10:").append(String.format("%02d", i % 60))
+                    .append(":00\",\"dealAmount\":").append(1000 + i).append(".25}");
+            responses.add(new FxDealResponse("DEAL-" + i, "USD", "EUR", timestamp.plusSeconds(i),
+                    10_002_500L + i * 10_000L, timestamp, timestamp));
+            if (i % 10 == 0) {
+                failed.add(BatchImportResponse.FailedDeal.builder()
+                        .dealUniqueId("DEAL-" + i)
+                        .reason("Validation failed")
+                        .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                        .errors(List.of(new DealError("dealAmount", DealError.Code.INVALID_AMOUNT, "Deal amount must be positive")))
+                        .build());
+            } else {
+                successful.add("DEAL-" + i);
+            }
+        }
+        batchJson = json.append("]}").toString().getBytes();
+        batchResponse = new BatchImportResponse(batchSize, successful.size(), failed.size(), 0, successful, failed);
+    }
+
+    @Benchmark
+    public BatchImportRequest readBatchRequest() throws IOException {
+        return batchReader.readValue(batchJson);
+    }
+
+    @Benchmark
+    public int writeDealResponses() throws JsonProcessingException {
+        int bytes = 0;
+        for (FxDealResponse response : responses) {
+            bytes += responseWriter.writeValueAsBytes(response).length;
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] writeBatchResponse() throws JsonProcessingException {
+        return batchResponseWriter.writeValueAsBytes(batchResponse);
+    }
+}
@@ -0,0 +1,104 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput and on-disk size of fx_deals with the original layout
+ * (V1: primary key plus a duplicate unique index and a B-tree on
+ * deal_timestamp) versus the tuned one (V3 and the PostgreSQL V4: primary key
+ * only, BRIN on deal_timestamp and created_at, insert-driven autovacuum) and
+ * the tuned one with compact keys (BIGINT surrogate key, hash index on
+ * deal_id_hash and a hash exclusion constraint instead of the primary key).
+ * <p>
+ * Needs PostgreSQL; each layout is migrated into its own schema with the real
+ * Flyway scripts. One operation inserts and commits 1000 deals with random IDs
+ * and rising timestamps; table and index sizes are printed at the end of each
+ * trial. Connection settings default to the docker-compose database and can be
+ * overridden with {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.user}
+ * and {@code -Dbenchmark.jdbc.password}. Run with
+ * {@code mvn -Pbenchmark test -Dbenchmark=StorageLayoutBenchmark}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class StorageLayoutBenchmark {
+
+    private static final int DEALS_PER_COMMIT = 1_000;
+
+    @Param({"original", "tuned", "compact"})
+    public String layout;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private FxDealBatchWriter batchWriter;
+    private LocalDateTime clock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String schema = "bench_layout_" + layout;
+        String url = System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5432/fx_deals_warehouse");
+        String user = System.getProperty("benchmark.jdbc.user", "fx_user");
+        String password = System.getProperty("benchmark.jdbc.password", "fx_password");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(schema)
+                .cleanDisabled(false)
+                .locations("compact".equals(layout)
+                        ? new String[]{"classpath:db/migration", "classpath:db/vendor/postgresql",
+                                "classpath:db/compact-keys", "classpath:db/vendor-compact-keys/postgresql"}
+                        : new String[]{"classpath:db/migration", "classpath:db/vendor/postgresql"})
+                .target("original".equals(layout) ? MigrationVersion.fromVersion("1") : MigrationVersion.LATEST)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url + (url.contains("?") ? "&" : "?") + "currentSchema=" + schema, user, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        batchWriter = new FxDealBatchWriter(jdbcTemplate);
+        clock = LocalDateTime.of(2024, 1, 1, 0, 0);
+    }
+
+    @TearDown(Level.Trial)
+    public void reportSizes() {
+        List<Map<String, Object>> sizes = jdbcTemplate.queryForList(
+                "SELECT c.relname AS relation, pg_relation_size(c.oid) AS bytes FROM pg_class c "
+                        + "JOIN pg_namespace n ON n.oid = c.relnamespace "
+                        + "WHERE n.nspname = current_schema() AND c.relname LIKE '%fx_deals%' ORDER BY c.relname");
+        System.out.println();
+        for (Map<String, Object> size : sizes) {
+            System.out.printf("%s layout: %-28s %,d bytes%n", layout, size.get("relation"), (Long) size.get("bytes"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DEALS_PER_COMMIT)
+    public void insertCommit() {
+        List<FxDeal> deals = new ArrayList<>(DEALS_PER_COMMIT);
+        for (int i = 0; i < DEALS_PER_COMMIT; i++) {
+            clock = clock.plusNanos(250_000_000);
+            deals.add(new FxDeal(UUID.randomUUID().toString(), "USD", "EUR", clock, 10_000_000L, null, null));
+        }
+        transactionTemplate.executeWithoutResult(status -> batchWriter.insertAll(deals));
+    }
+}
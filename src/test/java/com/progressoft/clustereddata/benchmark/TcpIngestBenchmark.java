@@ -0,0 +1,80 @@
+package com.progressoft.clustereddata.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.ingest.IngestAck;
+import com.progressoft.clustereddata.ingest.TcpIngestClient;
+import com.progressoft.clustereddata.ingest.TcpIngestListener;
+import com.progressoft.clustereddata.ingest.TcpIngestProperties;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealOutcome;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Transport cost of the TCP listener over loopback: pipelined submission of a
+ * batch against stop-and-wait, one round trip per deal. Deals are accepted by
+ * a stub, so no database is involved.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=TcpIngestBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TcpIngestBenchmark {
+
+    @Param({"1000"})
+    private int batchSize;
+
+    private TcpIngestListener listener;
+    private TcpIngestClient client;
+    private List<FxDealRequest> requests;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        FxDealMapper mapper = new FxDealMapper();
+        TcpIngestProperties properties = new TcpIngestProperties();
+        properties.setHost("localhost");
+        properties.setPort(0);
+        properties.setWorkers(4);
+        listener = new TcpIngestListener(properties, objectMapper,
+                request -> new DealOutcome.Accepted(mapper.toResponse(mapper.toEntity(request))));
+        listener.start();
+        client = new TcpIngestClient("localhost", listener.port(), objectMapper);
+        requests = IntStream.range(0, batchSize)
+                .mapToObj(i -> new FxDealRequest("DEAL-" + i, "USD", "EUR",
+                        LocalDateTime.of(2024, 1, 1, 10, 0), FixedPointAmount.parse("1000.50")))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        client.close();
+        listener.close();
+    }
+
+    @Benchmark
+    public List<IngestAck> pipelined() throws IOException {
+        return client.submitAll(requests);
+    }
+
+    @Benchmark
+    public IngestAck stopAndWait() throws IOException {
+        IngestAck last = null;
+        for (FxDealRequest request : requests) {
+            last = client.submit(request);
+        }
+        return last;
+    }
+}
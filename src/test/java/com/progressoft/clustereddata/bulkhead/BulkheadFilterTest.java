@@ -0,0 +1,124 @@
+package com.progressoft.clustereddata.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch releaseBatches = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseBatches.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldKeepSingleDealsFastWhileBulkLaneIsSaturated() throws Exception {
+        Bulkhead single = new Bulkhead("single", new BulkheadProperties.Lane(4, 16, Duration.ofMillis(100)), meterRegistry);
+        Bulkhead bulk = new Bulkhead("bulk", new BulkheadProperties.Lane(2, 0, Duration.ZERO), meterRegistry);
+        BulkheadFilter filter = new BulkheadFilter(single, bulk, objectMapper);
+
+        CountDownLatch batchesRunning = new CountDownLatch(2);
+        FilterChain slowBatch = (request, response) -> {
+            batchesRunning.countDown();
+            await(releaseBatches);
+        };
+        Future<?> firstBatch = executor.submit(() -> run(filter, "/api/v1/fx-deals/batch", slowBatch));
+        Future<?> secondBatch = executor.submit(() -> run(filter, "/api/v1/fx-deals/batch", slowBatch));
+        assertThat(batchesRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejectedBatch = run(filter, "/api/v1/fx-deals/batch", (request, response) -> { });
+        assertThat(rejectedBatch.getStatus()).isEqualTo(503);
+        assertThat(rejectedBatch.getHeader("Retry-After")).isEqualTo("1");
+
+        long worstSingleNanos = 0;
+        for (int i = 0; i < 200; i++) {
+            long started = System.nanoTime();
+            MockHttpServletResponse response = run(filter, "/api/v1/fx-deals", (request, resp) -> { });
+            worstSingleNanos = Math.max(worstSingleNanos, System.nanoTime() - started);
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(worstSingleNanos).isLessThan(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bulk.active()).isEqualTo(2);
+        assertThat(meterRegistry.get("fxdeals.bulkhead.rejected").tag("lane", "bulk").counter().count()).isEqualTo(1);
+
+        releaseBatches.countDown();
+        firstBatch.get(5, TimeUnit.SECONDS);
+        secondBatch.get(5, TimeUnit.SECONDS);
+        assertThat(bulk.active()).isZero();
+    }
+
+    @Test
+    void shouldLetQueuedRequestRunOnceASlotFrees() throws Exception {
+        Bulkhead single = new Bulkhead("single", new BulkheadProperties.Lane(4, 16, Duration.ofMillis(100)), meterRegistry);
+        Bulkhead bulk = new Bulkhead("bulk", new BulkheadProperties.Lane(1, 1, Duration.ofSeconds(5)), meterRegistry);
+        BulkheadFilter filter = new BulkheadFilter(single, bulk, objectMapper);
+
+        CountDownLatch batchRunning = new CountDownLatch(1);
+        Future<?> first = executor.submit(() -> run(filter, "/api/v1/fx-deals/batch", (request, response) -> {
+            batchRunning.countDown();
+            await(releaseBatches);
+        }));
+        assertThat(batchRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<MockHttpServletResponse> queued =
+                executor.submit(() -> run(filter, "/api/v1/fx-deals/batch", (request, response) -> { }));
+        while (bulk.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        releaseBatches.countDown();
+
+        assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldLeaveOtherRequestsAlone() throws Exception {
+        Bulkhead none = new Bulkhead("none", new BulkheadProperties.Lane(0, 0, Duration.ZERO), meterRegistry);
+        BulkheadFilter filter = new BulkheadFilter(none, none, objectMapper);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/fx-deals/DEAL-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, resp) -> { });
+
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse run(BulkheadFilter filter, String path, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
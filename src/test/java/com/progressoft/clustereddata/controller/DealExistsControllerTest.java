@@ -0,0 +1,31 @@
+package com.progressoft.clustereddata.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealExistsControllerTest {
+
+    @Test
+    void shouldSplitLinesAndAllowFinalNewline() {
+        assertThat(DealExistsController.parseLines(bytes("DEAL-1\r\nDEAL-2\nDEAL-3\n")))
+                .containsExactly("DEAL-1", "DEAL-2", "DEAL-3");
+        assertThat(DealExistsController.parseLines(bytes(""))).isEmpty();
+    }
+
+    @Test
+    void shouldRejectBlankLines() {
+        assertThatThrownBy(() -> DealExistsController.parseLines(bytes("DEAL-1\n\nDEAL-2")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+        assertThatThrownBy(() -> DealExistsController.parseLines(bytes("DEAL-1\n  \r\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,6 +1,7 @@
 package com.progressoft.clustereddata.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
 import com.progressoft.clustereddata.dto.BatchImportRequest;
 import com.progressoft.clustereddata.dto.FxDealRequest;
 import com.progressoft.clustereddata.repository.FxDealRepository;
@@ -14,7 +15,6 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 
@@ -119,7 +119,7 @@ class FxDealControllerIntegrationTest {
     @Test
     void shouldReturnBadRequestForNegativeAmount() throws Exception {
         FxDealRequest request = createValidRequest("DEAL-005");
-        request.setDealAmount(new BigDecimal("-100.00"));
+        request.setDealAmount(FixedPointAmount.parse("-100.00"));
 
         mockMvc.perform(post("/api/v1/fx-deals")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -254,7 +254,7 @@ class FxDealControllerIntegrationTest {
         request.setFromCurrencyIsoCode("USD");
         request.setToCurrencyIsoCode("EUR");
         request.setDealTimestamp(LocalDateTime.now().minusHours(1));
-        request.setDealAmount(new BigDecimal("1000.50"));
+        request.setDealAmount(FixedPointAmount.parse("1000.50"));
         return request;
     }
 }
@@ -0,0 +1,61 @@
+package com.progressoft.clustereddata.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.ErrorResponse;
+import com.progressoft.clustereddata.service.DealOutcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RejectionResponsesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final RejectionResponses rejections =
+            new RejectionResponses(Clock.fixed(Instant.parse("2024-03-01T12:30:45.678Z"), ZoneOffset.UTC));
+
+    @Test
+    void shouldWriteDuplicateInErrorResponseShape() throws Exception {
+        ResponseEntity<byte[]> response = rejections.duplicate(new DealOutcome.Duplicate("DEAL-\"7\""), "/api/v1/fx-deals");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        ErrorResponse body = objectMapper.readValue(response.getBody(), ErrorResponse.class);
+        assertThat(body).isEqualTo(ErrorResponse.builder()
+                .timestamp(LocalDateTime.of(2024, 3, 1, 12, 30, 45))
+                .status(409)
+                .error("Conflict")
+                .message("Deal with ID 'DEAL-\"7\"' already exists")
+                .path("/api/v1/fx-deals")
+                .build());
+    }
+
+    @Test
+    void shouldWriteValidationErrorsWithCodes() throws Exception {
+        List<DealError> errors = List.of(
+                new DealError("dealAmount", DealError.Code.INVALID_AMOUNT, "Deal amount must be a positive number"),
+                new DealError("fromCurrencyIsoCode", DealError.Code.INVALID_CURRENCY, "'XXX' is not a valid ISO 4217 code"));
+
+        ResponseEntity<byte[]> response = rejections.invalid(new DealOutcome.Invalid("DEAL-8", errors), "/api/v1/fx-deals");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        ErrorResponse body = objectMapper.readValue(response.getBody(), ErrorResponse.class);
+        assertThat(body.getStatus()).isEqualTo(400);
+        assertThat(body.getError()).isEqualTo("Bad Request");
+        assertThat(body.getMessage()).isEqualTo("Validation failed");
+        assertThat(body.getDetails()).containsExactly(
+                "dealAmount: Deal amount must be a positive number",
+                "fromCurrencyIsoCode: 'XXX' is not a valid ISO 4217 code");
+        assertThat(body.getErrors()).isEqualTo(errors);
+    }
+}
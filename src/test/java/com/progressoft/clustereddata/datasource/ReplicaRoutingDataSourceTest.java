@@ -0,0 +1,86 @@
+package com.progressoft.clustereddata.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing-primary");
+        DataSource replica = h2("routing-replica");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() {
+        String server = readOnly.execute(status -> whoAmI());
+
+        assertThat(server).isEqualTo("routing-replica");
+    }
+
+    @Test
+    void shouldKeepReadWriteTransactionsOnPrimary() {
+        String server = readWrite.execute(status -> whoAmI());
+
+        assertThat(server).isEqualTo("routing-primary");
+        assertThat(whoAmI()).isEqualTo("routing-primary");
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnhealthy() {
+        routingDataSource.setHealthy("replica-0", false);
+
+        String whileUnhealthy = readOnly.execute(status -> whoAmI());
+        routingDataSource.setHealthy("replica-0", true);
+        String onceHealthy = readOnly.execute(status -> whoAmI());
+
+        assertThat(whileUnhealthy).isEqualTo("routing-primary");
+        assertThat(onceHealthy).isEqualTo("routing-replica");
+    }
+
+    @Test
+    void shouldHonourExplicitHints() {
+        String replica = ReadRouting.onReplica(this::whoAmI);
+        String primary = ReadRouting.onPrimary(() -> readOnly.execute(status -> whoAmI()));
+
+        assertThat(replica).isEqualTo("routing-replica");
+        assertThat(primary).isEqualTo("routing-primary");
+    }
+
+    private String whoAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(64))");
+        jdbcTemplate.execute("DELETE FROM whoami");
+        jdbcTemplate.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+}
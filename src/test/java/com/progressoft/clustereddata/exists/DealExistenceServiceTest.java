@@ -0,0 +1,156 @@
+package com.progressoft.clustereddata.exists;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.entity.DealIdHash;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealExistenceServiceTest {
+
+    private final Set<String> stored = new HashSet<>();
+    private final List<String> queried = new ArrayList<>();
+    private JdbcTemplate jdbcTemplate;
+    private FxDealBatchWriter batchWriter;
+    private DealExistenceService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DataSource dataSource = TestDatabases.migrated();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        batchWriter = new FxDealBatchWriter(jdbcTemplate);
+
+        FxDealRepository repository = mock(FxDealRepository.class);
+        when(repository.findExistingDealUniqueIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            queried.addAll(ids);
+            return ids.stream().filter(stored::contains).toList();
+        });
+        ObjectProvider<ShardedFxDealStore> noShards = mock(ObjectProvider.class);
+
+        ExistsProperties properties = new ExistsProperties();
+        properties.setMaxIds(100);
+        properties.setExpectedDeals(10_000);
+        service = new DealExistenceService(repository, noShards, dataSource,
+                new DataSourceTransactionManager(dataSource), properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldReturnBitmapInRequestOrder() {
+        store("DEAL-1", "DEAL-3");
+
+        BitSet existing = service.existing(List.of("DEAL-0", "DEAL-1", "DEAL-2", "DEAL-3"));
+
+        assertThat(existing.stream().toArray()).containsExactly(1, 3);
+    }
+
+    @Test
+    void shouldQueryOnlyIdsTheFilterCannotRuleOut() {
+        store("DEAL-1", "DEAL-2");
+        service.loadFilter();
+        queried.clear();
+
+        List<String> ids = new ArrayList<>(List.of("DEAL-1", "DEAL-2"));
+        for (int i = 0; i < 98; i++) {
+            ids.add("UNKNOWN-" + i);
+        }
+        BitSet existing = service.existing(ids);
+
+        assertThat(existing.stream().toArray()).containsExactly(0, 1);
+        assertThat(queried).contains("DEAL-1", "DEAL-2").hasSizeLessThan(10);
+    }
+
+    @Test
+    void shouldLearnDealsPersistedAfterLoading() {
+        service.loadFilter();
+        FxDeal deal = deal("DEAL-NEW");
+        stored.add("DEAL-NEW");
+
+        service.onDealsPersisted(new DealsPersistedEvent(List.of(deal)));
+
+        assertThat(service.existing(List.of("DEAL-NEW")).get(0)).isTrue();
+    }
+
+    @Test
+    void shouldCatchUpWithDealsWrittenWithoutEvent() {
+        service.loadFilter();
+        // Written by another instance: no event reaches this one
+        store("DEAL-ELSEWHERE");
+        assertThat(service.existing(List.of("DEAL-ELSEWHERE")).get(0)).isFalse();
+
+        service.catchUp();
+
+        assertThat(service.existing(List.of("DEAL-ELSEWHERE")).get(0)).isTrue();
+    }
+
+    @Test
+    void shouldLoadDealsStoredWithoutHash() {
+        jdbcTemplate.update("INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, to_currency_iso_code, "
+                + "deal_timestamp, deal_amount) VALUES ('DEAL-RAW', 'USD', 'EUR', CURRENT_TIMESTAMP, 100)");
+        stored.add("DEAL-RAW");
+
+        service.loadFilter();
+
+        assertThat(service.existing(List.of("DEAL-RAW")).get(0)).isTrue();
+    }
+
+    @Test
+    void shouldRejectTooManyIds() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 101; i++) {
+            ids.add("DEAL-" + i);
+        }
+
+        assertThatThrownBy(() -> service.existing(ids)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldKeepFalsePositiveRateNearTarget() {
+        DealIdBloomFilter filter = new DealIdBloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put(DealIdHash.of("DEAL-" + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(DealIdHash.of("OTHER-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(filter.mightContain(DealIdHash.of("DEAL-42"))).isTrue();
+        assertThat(falsePositives).isLessThan(1_500);
+    }
+
+    private void store(String... ids) {
+        List<FxDeal> deals = new ArrayList<>();
+        for (String id : ids) {
+            deals.add(deal(id));
+            stored.add(id);
+        }
+        batchWriter.insertAll(deals);
+    }
+}
@@ -0,0 +1,182 @@
+package com.progressoft.clustereddata.export;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FxDealColumnarExporterTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    @TempDir
+    Path exportDirectory;
+
+    private JdbcTemplate jdbcTemplate;
+    private FxDealColumnarExporter exporter;
+    private ExportWatermarkStore watermarkStore;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export-test;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE fx_deals (
+                    deal_unique_id VARCHAR(255) PRIMARY KEY,
+                    from_currency_iso_code VARCHAR(3) NOT NULL,
+                    to_currency_iso_code VARCHAR(3) NOT NULL,
+                    deal_timestamp TIMESTAMP NOT NULL,
+                    deal_amount NUMERIC(19, 4) NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    updated_at TIMESTAMP NOT NULL)
+                """);
+
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(exportDirectory.toString());
+        properties.setBatchSize(2);
+        watermarkStore = new ExportWatermarkStore(properties);
+        exporter = new FxDealColumnarExporter(dataSource, new DataSourceTransactionManager(dataSource),
+                properties, watermarkStore, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE fx_deals");
+    }
+
+    @Test
+    void shouldExportRangeAsDictionaryEncodedColumns() throws Exception {
+        insertDeal("DEAL-1", "USD", "EUR", "2024-05-01T10:00:00", "1000.5", NOW.minusSeconds(3600));
+        insertDeal("DEAL-2", "GBP", "JPY", "2024-05-01T11:00:00", "0.0001", NOW.minusSeconds(3600));
+        insertDeal("DEAL-3", "EUR", "USD", "2024-05-01T12:00:00", "25", NOW.minusSeconds(3600));
+        insertDeal("DEAL-4", "CHF", "CAD", "2024-05-02T10:00:00", "99", NOW.minusSeconds(3600));
+
+        ExportResult result = exporter.exportRange(
+                LocalDateTime.parse("2024-05-01T00:00:00"), LocalDateTime.parse("2024-05-02T00:00:00"));
+
+        assertThat(result.getRowCount()).isEqualTo(3);
+
+        CurrencyDictionary currencies = new CurrencyDictionary();
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(Path.of(result.getFile()));
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertThat(root.getSchema().findField(ArrowDealFileWriter.FROM_CURRENCY).getDictionary()).isNotNull();
+
+            int rows = 0;
+            while (reader.loadNextBatch()) {
+                if (rows == 0) {
+                    VarCharVector ids = (VarCharVector) root.getVector(ArrowDealFileWriter.DEAL_UNIQUE_ID);
+                    SmallIntVector from = (SmallIntVector) root.getVector(ArrowDealFileWriter.FROM_CURRENCY);
+                    SmallIntVector to = (SmallIntVector) root.getVector(ArrowDealFileWriter.TO_CURRENCY);
+                    DecimalVector amounts = (DecimalVector) root.getVector(ArrowDealFileWriter.DEAL_AMOUNT);
+                    TimeStampMilliTZVector timestamps = (TimeStampMilliTZVector) root.getVector(ArrowDealFileWriter.DEAL_TIMESTAMP);
+
+                    assertThat(new String(ids.get(0))).isEqualTo("DEAL-1");
+                    assertThat(currencies.codeAt(from.get(0))).isEqualTo("USD");
+                    assertThat(currencies.codeAt(to.get(0))).isEqualTo("EUR");
+                    assertThat(amounts.getObject(0)).isEqualByComparingTo(new BigDecimal("1000.5000"));
+                    assertThat(amounts.getObject(0).scale()).isEqualTo(4);
+                    assertThat(timestamps.get(0))
+                            .isEqualTo(LocalDateTime.parse("2024-05-01T10:00:00").toInstant(ZoneOffset.UTC).toEpochMilli());
+                }
+                rows += root.getRowCount();
+            }
+            assertThat(rows).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void shouldReplaceFileOfReExportedRange() {
+        insertDeal("DEAL-1", "USD", "EUR", "2024-05-01T10:00:00", "10", NOW.minusSeconds(3600));
+        LocalDateTime from = LocalDateTime.parse("2024-05-01T00:00:00");
+        LocalDateTime to = LocalDateTime.parse("2024-05-02T00:00:00");
+        exporter.exportRange(from, to);
+        insertDeal("DEAL-2", "USD", "EUR", "2024-05-01T11:00:00", "20", NOW.minusSeconds(3600));
+
+        ExportResult again = exporter.exportRange(from, to);
+
+        assertThat(again.getRowCount()).isEqualTo(2);
+        assertThat(Path.of(again.getFile())).exists();
+    }
+
+    @Test
+    void shouldExportIncrementallyFromHighWaterMark() {
+        insertDeal("DEAL-1", "USD", "EUR", "2024-05-01T10:00:00", "10", NOW.minusSeconds(600));
+        insertDeal("DEAL-2", "USD", "EUR", "2024-05-01T10:00:00", "20", NOW.minusSeconds(300));
+        insertDeal("DEAL-3", "USD", "EUR", "2024-05-01T10:00:00", "30", NOW.minusSeconds(5));
+
+        ExportResult first = exporter.exportIncremental();
+
+        assertThat(first.getRowCount()).isEqualTo(2);
+        assertThat(watermarkStore.read()).contains(new ExportWatermarkStore.Watermark(NOW.minusSeconds(300), "DEAL-2"));
+
+        ExportResult second = exporter.exportIncremental();
+
+        assertThat(second.getRowCount()).isZero();
+        assertThat(second.getFile()).isNull();
+        assertThat(second.getHighWaterMark()).isEqualTo(NOW.minusSeconds(300));
+    }
+
+    @Test
+    void shouldContinueAfterLastExportedDealWithSameCreatedAt() {
+        insertDeal("DEAL-1", "USD", "EUR", "2024-05-01T10:00:00", "10", NOW.minusSeconds(300));
+        insertDeal("DEAL-2", "USD", "EUR", "2024-05-01T10:00:00", "20", NOW.minusSeconds(300));
+        assertThat(exporter.exportIncremental().getRowCount()).isEqualTo(2);
+
+        // Same created_at as the mark, committed after the previous run
+        insertDeal("DEAL-3", "USD", "EUR", "2024-05-01T10:00:00", "30", NOW.minusSeconds(300));
+
+        ExportResult second = exporter.exportIncremental();
+
+        assertThat(second.getRowCount()).isEqualTo(1);
+        assertThat(watermarkStore.read()).contains(new ExportWatermarkStore.Watermark(NOW.minusSeconds(300), "DEAL-3"));
+        assertThat(exporter.exportIncremental().getRowCount()).isZero();
+    }
+
+    @Test
+    void shouldLeaveDealsWithinSafetyLagForNextRun() {
+        insertDeal("DEAL-1", "USD", "EUR", "2024-05-01T10:00:00", "10", NOW.minusSeconds(300));
+        insertDeal("DEAL-RECENT", "USD", "EUR", "2024-05-01T10:00:00", "20", NOW.minusSeconds(5));
+        assertThat(exporter.exportIncremental().getRowCount()).isEqualTo(1);
+
+        ExportProperties properties = new ExportProperties();
+        properties.setDirectory(exportDirectory.toString());
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:export-test;DB_CLOSE_DELAY=-1", "sa", "");
+        FxDealColumnarExporter later = new FxDealColumnarExporter(dataSource, new DataSourceTransactionManager(dataSource),
+                properties, watermarkStore, Clock.fixed(NOW.plusSeconds(60), ZoneOffset.UTC));
+
+        ExportResult next = later.exportIncremental();
+
+        assertThat(next.getRowCount()).isEqualTo(1);
+        assertThat(next.getHighWaterMark()).isEqualTo(NOW.minusSeconds(5));
+    }
+
+    private void insertDeal(String id, String from, String to, String dealTimestamp, String amount, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO fx_deals VALUES (?, ?, ?, ?, ?, ?, ?)",
+                id, from, to, Timestamp.valueOf(LocalDateTime.parse(dealTimestamp)), new BigDecimal(amount),
+                Timestamp.from(createdAt), Timestamp.from(createdAt));
+    }
+}
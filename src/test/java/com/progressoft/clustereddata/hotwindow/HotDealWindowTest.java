@@ -0,0 +1,129 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.entity.FxDeal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotDealWindowTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final Clock CLOCK = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @Test
+    void shouldSumVolumeOfOnePairWithinLookback() {
+        HotDealWindow window = new HotDealWindow(1_000, 32, Duration.ofHours(4), CLOCK);
+        window.append(List.of(
+                deal("DEAL-001", "EUR", "USD", NOW.minusMinutes(5), "1000.50"),
+                deal("DEAL-002", "EUR", "USD", NOW.minusMinutes(10), "250.2500"),
+                deal("DEAL-003", "EUR", "USD", NOW.minusMinutes(30), "999"),
+                deal("DEAL-004", "USD", "EUR", NOW.minusMinutes(1), "42")));
+
+        PairVolume volume = window.volume("eur", "usd", Duration.ofMinutes(15));
+
+        assertThat(volume.dealCount()).isEqualTo(2);
+        assertThat(volume.totalAmount()).isEqualByComparingTo("1250.75");
+        assertThat(volume.since()).isEqualTo(NOW.minusMinutes(15));
+    }
+
+    @Test
+    void shouldReturnLargestDealsFirst() {
+        HotDealWindow window = new HotDealWindow(1_000, 32, Duration.ofHours(4), CLOCK);
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            deals.add(deal("DEAL-" + i, "GBP", "JPY", NOW.minusMinutes(i % 50), String.valueOf(i)));
+        }
+        deals.add(deal("DEAL-OLD", "GBP", "JPY", NOW.minusHours(2), "1000000"));
+        window.append(deals);
+
+        List<HotDeal> largest = window.largest(Duration.ofHours(1), 3);
+
+        assertThat(largest).extracting(HotDeal::dealUniqueId).containsExactly("DEAL-100", "DEAL-99", "DEAL-98");
+        assertThat(largest.get(0).dealAmount()).isEqualTo(FixedPointAmount.parse("100"));
+        assertThat(largest.get(0).fromCurrencyIsoCode()).isEqualTo("GBP");
+        assertThat(largest.get(0).toCurrencyIsoCode()).isEqualTo("JPY");
+        assertThat(largest.get(0).dealTimestamp()).isEqualTo(NOW.minusMinutes(0));
+    }
+
+    @Test
+    void shouldEvictOldestInsertedDealsWhenFull() {
+        HotDealWindow window = new HotDealWindow(10, 32, Duration.ofHours(4), CLOCK);
+        for (int i = 0; i < 25; i++) {
+            window.append(List.of(deal("DEAL-" + i, "EUR", "USD", NOW.minusMinutes(1), "1")));
+        }
+
+        assertThat(window.size()).isEqualTo(10);
+        assertThat(window.volume("EUR", "USD", Duration.ofHours(1)).dealCount()).isEqualTo(10);
+        assertThat(window.largest(Duration.ofHours(1), 100))
+                .extracting(HotDeal::dealUniqueId)
+                .allMatch(id -> Integer.parseInt(id.substring(5)) >= 15);
+    }
+
+    @Test
+    void shouldEvictOldestDealsWhenIdBytesRunOut() {
+        // 10 slots but only 40 bytes of IDs: four 10-byte IDs at a time
+        HotDealWindow window = new HotDealWindow(10, 4, Duration.ofHours(4), CLOCK);
+        for (int i = 0; i < 9; i++) {
+            window.append(List.of(deal("DEAL-0000" + i, "EUR", "USD", NOW.minusMinutes(1), String.valueOf(i + 1))));
+        }
+
+        assertThat(window.size()).isEqualTo(4);
+        assertThat(window.volume("EUR", "USD", Duration.ofHours(1)).totalAmount()).isEqualByComparingTo("30");
+        assertThat(window.largest(Duration.ofHours(1), 10))
+                .extracting(HotDeal::dealUniqueId)
+                .containsExactly("DEAL-00008", "DEAL-00007", "DEAL-00006", "DEAL-00005");
+    }
+
+    @Test
+    void shouldRejectLookbackBeyondRetention() {
+        HotDealWindow window = new HotDealWindow(10, 32, Duration.ofHours(4), CLOCK);
+
+        assertThatThrownBy(() -> window.volume("EUR", "USD", Duration.ofHours(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldNeverSeeTornRowsWhileWriterWrapsAround() throws InterruptedException {
+        HotDealWindow window = new HotDealWindow(200_000, 32, Duration.ofHours(4), CLOCK);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            int i = 0;
+            while (running.get()) {
+                List<FxDeal> batch = new ArrayList<>(1_000);
+                for (int j = 0; j < 1_000; j++, i++) {
+                    batch.add(deal("DEAL-" + i, "EUR", "USD", NOW.minusMinutes(1), "1"));
+                }
+                window.append(batch);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                PairVolume volume = window.volume("EUR", "USD", Duration.ofHours(1));
+                // Every deal is EUR/USD with amount 1, so both must always agree
+                assertThat(volume.totalAmount()).isEqualByComparingTo(BigDecimal.valueOf(volume.dealCount()));
+                assertThat(volume.dealCount()).isLessThanOrEqualTo(200_000);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static FxDeal deal(String id, String from, String to, LocalDateTime timestamp, String amount) {
+        return new FxDeal(id, from, to, timestamp, FixedPointAmount.parse(amount),
+                LocalDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC), null);
+    }
+}
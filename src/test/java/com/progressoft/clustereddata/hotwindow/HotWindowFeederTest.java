@@ -0,0 +1,57 @@
+package com.progressoft.clustereddata.hotwindow;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotWindowFeederTest {
+
+    private final DataSource dataSource = TestDatabases.migrated();
+    private final HotDealWindow window = new HotDealWindow(1_000, 32, Duration.ofHours(4), Clock.systemDefaultZone());
+
+    @Test
+    void shouldAppendEachLateDealOnceAroundTheRebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        FxDeal stored = created(deal("STORED", now.minusMinutes(10)), now.minusMinutes(10));
+        new FxDealBatchWriter(new JdbcTemplate(dataSource)).insertAll(List.of(stored));
+        HotWindowFeeder feeder = feeder();
+        // Committed before listening started, but published after: read by the rebuild too
+        FxDeal late = created(deal("LATE-READ", now.minusMinutes(5)), now.minusMinutes(5));
+        new FxDealBatchWriter(new JdbcTemplate(dataSource)).insertAll(List.of(late));
+        feeder.onDealsPersisted(new DealsPersistedEvent(List.of(late)));
+        // Created before listening started, but not in the rebuild snapshot
+        feeder.onDealsPersisted(new DealsPersistedEvent(List.of(
+                created(deal("LATE-UNREAD", now.minusMinutes(5)), now.minusMinutes(5)))));
+
+        feeder.rebuild();
+        feeder.onDealsPersisted(new DealsPersistedEvent(List.of(created(deal("AFTER", now), now))));
+
+        assertThat(window.largest(Duration.ofHours(1), 10))
+                .extracting(HotDeal::dealUniqueId)
+                .containsExactlyInAnyOrder("STORED", "LATE-READ", "LATE-UNREAD", "AFTER");
+    }
+
+    private HotWindowFeeder feeder() {
+        return new HotWindowFeeder(window, dataSource, new DataSourceTransactionManager(dataSource),
+                new HotWindowProperties());
+    }
+
+    private static FxDeal created(FxDeal deal, LocalDateTime createdAt) {
+        deal.setCreatedAt(createdAt);
+        deal.setUpdatedAt(createdAt);
+        return deal;
+    }
+}
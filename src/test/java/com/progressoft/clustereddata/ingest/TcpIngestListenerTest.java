@@ -0,0 +1,117 @@
+package com.progressoft.clustereddata.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealOutcome;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TcpIngestListenerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final FxDealMapper mapper = new FxDealMapper();
+    private final Set<String> stored = ConcurrentHashMap.newKeySet();
+    private TcpIngestListener listener;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.close();
+    }
+
+    @Test
+    void shouldAcknowledgePipelinedDealsInOrder() throws Exception {
+        start(8, 4096, 1024);
+        List<FxDealRequest> requests = IntStream.range(0, 2_000)
+                .mapToObj(i -> request("DEAL-" + (i % 1_500)))
+                .toList();
+
+        List<IngestAck> acks;
+        try (TcpIngestClient client = new TcpIngestClient("localhost", listener.port(), objectMapper)) {
+            acks = client.submitAll(requests);
+        }
+
+        assertThat(acks).extracting(IngestAck::dealUniqueId)
+                .containsExactlyElementsOf(requests.stream().map(FxDealRequest::getDealUniqueId).toList());
+        assertThat(acks.subList(0, 1_500)).allMatch(ack -> ack.status() == IngestAck.Status.ACCEPTED);
+        assertThat(acks.subList(1_500, 2_000)).allMatch(ack -> ack.status() == IngestAck.Status.DUPLICATE);
+    }
+
+    @Test
+    void shouldKeepAcknowledgingWhenQueuesAreTiny() throws Exception {
+        start(1, 1, 2);
+        List<FxDealRequest> requests = IntStream.range(0, 500).mapToObj(i -> request("DEAL-" + i)).toList();
+
+        List<IngestAck> acks;
+        try (TcpIngestClient client = new TcpIngestClient("localhost", listener.port(), objectMapper)) {
+            acks = client.submitAll(requests);
+        }
+
+        assertThat(acks).hasSize(500).allMatch(ack -> ack.status() == IngestAck.Status.ACCEPTED);
+        assertThat(stored).hasSize(500);
+    }
+
+    @Test
+    void shouldReportInvalidAndMalformedLines() throws Exception {
+        start(2, 16, 16);
+        try (Socket socket = new Socket("localhost", listener.port());
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+            OutputStream output = socket.getOutputStream();
+            output.write("{\"dealUniqueId\":\"BAD\"}\r\n\n{not json\n".getBytes(StandardCharsets.UTF_8));
+            output.flush();
+            socket.shutdownOutput();
+
+            IngestAck invalid = objectMapper.readValue(reader.readLine(), IngestAck.class);
+            IngestAck malformed = objectMapper.readValue(reader.readLine(), IngestAck.class);
+
+            assertThat(invalid.dealUniqueId()).isEqualTo("BAD");
+            assertThat(invalid.status()).isEqualTo(IngestAck.Status.INVALID);
+            assertThat(invalid.errors()).extracting(DealError::getCode).contains(DealError.Code.INVALID_AMOUNT);
+            assertThat(malformed.status()).isEqualTo(IngestAck.Status.MALFORMED);
+            assertThat(reader.readLine()).isNull();
+        }
+    }
+
+    private void start(int workers, int queueCapacity, int maxInFlight) throws Exception {
+        TcpIngestProperties properties = new TcpIngestProperties();
+        properties.setHost("localhost");
+        properties.setPort(0);
+        properties.setWorkers(workers);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxInFlightPerConnection(maxInFlight);
+        listener = new TcpIngestListener(properties, objectMapper, this::submit);
+        listener.start();
+    }
+
+    private DealOutcome submit(FxDealRequest request) {
+        if (request.getDealAmount() == FixedPointAmount.ABSENT) {
+            return new DealOutcome.Invalid(request.getDealUniqueId(), List.of(
+                    new DealError("dealAmount", DealError.Code.INVALID_AMOUNT, "Deal amount is required")));
+        }
+        if (!stored.add(request.getDealUniqueId())) {
+            return new DealOutcome.Duplicate(request.getDealUniqueId());
+        }
+        return new DealOutcome.Accepted(mapper.toResponse(mapper.toEntity(request)));
+    }
+
+    private static FxDealRequest request(String id) {
+        return new FxDealRequest(id, "USD", "EUR", LocalDateTime.of(2024, 1, 1, 10, 0), FixedPointAmount.parse("1000.50"));
+    }
+}
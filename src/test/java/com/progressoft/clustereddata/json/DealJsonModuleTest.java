@@ -0,0 +1,130 @@
+package com.progressoft.clustereddata.json;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.DealError;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealJsonModuleTest {
+
+    private final ObjectMapper beans = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectMapper codecs = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new BlackbirdModule())
+            .registerModule(new DealJsonModule());
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            """
+            {"dealUniqueId":"D-1","fromCurrencyIsoCode":"USD","toCurrencyIsoCode":"EUR",
+             "dealTimestamp":"2024-02-29T23:59:07","dealAmount":1000.50}""",
+            """
+            {"dealAmount":"42","toCurrencyIsoCode":"JOD","dealUniqueId":"D-2",
+             "fromCurrencyIsoCode":"GBP","dealTimestamp":"0001-01-01T00:00:00"}""",
+            """
+            {"dealUniqueId":"D-3","fromCurrencyIsoCode":null,"dealTimestamp":null,"dealAmount":null}""",
+            """
+            {"dealUniqueId":"D-4","dealAmount":0.00001}""",
+            "{}"
+    })
+    void shouldReadRequestsLikeTheBeanDeserializer(String json) throws Exception {
+        FxDealRequest expected = beans.readValue(json, FxDealRequest.class);
+
+        assertThat(codecs.readValue(json, FxDealRequest.class)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldReadTimestampsWithinByteInput() throws Exception {
+        byte[] json = """
+                {"dealUniqueId":"D-1","dealTimestamp":"2023-12-31T08:15:30","dealAmount":7}""".getBytes();
+
+        FxDealRequest request = codecs.readValue(json, FxDealRequest.class);
+
+        assertThat(request.getDealTimestamp()).isEqualTo(LocalDateTime.of(2023, 12, 31, 8, 15, 30));
+        assertThat(request.getDealAmount()).isEqualTo(70_000L);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"2024-02-32T10:00:00", "2024-13-01T10:00:00", "2024-01-01 10:00:00", "2024-01-01T10:00", "yesterday"})
+    void shouldRejectInvalidTimestampsLikeTheBeanDeserializer(String timestamp) {
+        String json = "{\"dealUniqueId\":\"D-1\",\"dealTimestamp\":\"" + timestamp + "\"}";
+
+        assertThatThrownBy(() -> beans.readValue(json, FxDealRequest.class)).isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> codecs.readValue(json, FxDealRequest.class)).isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    void shouldRejectUnknownFieldsUnlessConfiguredOtherwise() throws Exception {
+        String json = "{\"dealUniqueId\":\"D-1\",\"extra\":{\"nested\":[1,2]},\"dealAmount\":5}";
+
+        assertThatThrownBy(() -> codecs.readValue(json, FxDealRequest.class))
+                .isInstanceOf(UnrecognizedPropertyException.class);
+
+        ObjectMapper lenient = codecs.copy().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        FxDealRequest request = lenient.readValue(json, FxDealRequest.class);
+        assertThat(request.getDealUniqueId()).isEqualTo("D-1");
+        assertThat(request.getDealAmount()).isEqualTo(50_000L);
+    }
+
+    @Test
+    void shouldWriteResponsesLikeTheBeanSerializer() throws Exception {
+        FxDealResponse response = FxDealResponse.builder()
+                .dealUniqueId("D-\"1\"")
+                .fromCurrencyIsoCode("USD")
+                .toCurrencyIsoCode("EUR")
+                .dealTimestamp(LocalDateTime.of(2024, 1, 5, 9, 3, 7))
+                .dealAmount(10_005_000L)
+                .createdAt(LocalDateTime.of(2024, 1, 5, 9, 3, 8, 123_000_000))
+                .build();
+
+        assertThat(codecs.writeValueAsString(response)).isEqualTo(beans.writeValueAsString(response));
+        response.setDealAmount(FixedPointAmount.ABSENT);
+        assertThat(codecs.writeValueAsString(response)).isEqualTo(beans.writeValueAsString(response));
+    }
+
+    @Test
+    void shouldWriteBatchResponsesLikeTheBeanSerializer() throws Exception {
+        BatchImportResponse response = BatchImportResponse.builder()
+                .totalProcessed(3)
+                .successCount(1)
+                .failedCount(2)
+                .duplicateCount(1)
+                .successfulDeals(List.of("D-1"))
+                .failedDeals(List.of(
+                        BatchImportResponse.FailedDeal.builder()
+                                .dealUniqueId("D-2")
+                                .reason("Deal already exists")
+                                .type(BatchImportResponse.FailureType.DUPLICATE)
+                                .build(),
+                        BatchImportResponse.FailedDeal.builder()
+                                .dealUniqueId("D-3")
+                                .reason("Validation failed")
+                                .type(BatchImportResponse.FailureType.VALIDATION_ERROR)
+                                .errors(List.of(new DealError("dealAmount", DealError.Code.INVALID_AMOUNT, "too small")))
+                                .build()))
+                .build();
+
+        String json = codecs.writeValueAsString(response);
+
+        assertThat(json).isEqualTo(beans.writeValueAsString(response));
+        assertThat(codecs.readValue(json, BatchImportResponse.class)).isEqualTo(response);
+        assertThat(codecs.writeValueAsString(new BatchImportResponse()))
+                .isEqualTo(beans.writeValueAsString(new BatchImportResponse()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.progressoft.clustereddata.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SampledLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SampledLoggerTest.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void shouldWriteOneLinePerInterval() {
+        SampledLogger sampled = SampledLogger.every(Duration.ofHours(1), SampledLoggerTest.class);
+
+        for (int i = 0; i < 1_000; i++) {
+            sampled.info("Created deal {}", "DEAL-" + i);
+        }
+
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Created deal DEAL-0");
+    }
+
+    @Test
+    void shouldReportSkippedEventsWithTheNextSample() throws InterruptedException {
+        SampledLogger sampled = SampledLogger.every(Duration.ofMillis(50), SampledLoggerTest.class);
+
+        sampled.info("Created deal {}", "DEAL-1");
+        sampled.info("Created deal {}", "DEAL-2");
+        sampled.info("Created deal {}", "DEAL-3");
+        Thread.sleep(100);
+        sampled.info("Created deal {}", "DEAL-4");
+
+        assertThat(appender.list)
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .containsExactly("Created deal DEAL-1", "Created deal DEAL-4 (+2 similar since last sample)");
+    }
+}
@@ -0,0 +1,77 @@
+package com.progressoft.clustereddata.quantiles;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class AmountSketchTest {
+
+    private static final double ACCURACY = 0.01;
+
+    @Test
+    void shouldEstimateQuantilesWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        long[] amounts = new long[100_000];
+        AmountSketch sketch = new AmountSketch(ACCURACY);
+        for (int i = 0; i < amounts.length; i++) {
+            // Log-normal around 10,000.0000, like deal sizes
+            amounts[i] = Math.max(1, (long) Math.exp(Math.log(100_000_000L) + 1.5 * random.nextGaussian()));
+            sketch.add(amounts[i]);
+        }
+        Arrays.sort(amounts);
+
+        assertThat(sketch.count()).isEqualTo(amounts.length);
+        for (double q : new double[]{0.0, 0.5, 0.95, 0.99, 1.0}) {
+            long exact = amounts[(int) (q * (amounts.length - 1))];
+            assertThat((double) sketch.quantile(q)).as("q=%s", q).isCloseTo(exact, within(exact * ACCURACY + 1));
+        }
+    }
+
+    @Test
+    void shouldReturnMinusOneWhenEmpty() {
+        assertThat(new AmountSketch(ACCURACY).quantile(0.5)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldMergeIntoTheSketchOfAllAmounts() {
+        AmountSketch left = new AmountSketch(ACCURACY);
+        AmountSketch right = new AmountSketch(ACCURACY);
+        AmountSketch all = new AmountSketch(ACCURACY);
+        for (long units = 1; units <= 10_000; units++) {
+            (units % 3 == 0 ? left : right).add(units * 1_000);
+            all.add(units * 1_000);
+        }
+
+        left.merge(right);
+
+        assertThat(left.count()).isEqualTo(10_000);
+        assertThat(left.quantile(0.5)).isEqualTo(all.quantile(0.5));
+        assertThat(left.quantile(0.99)).isEqualTo(all.quantile(0.99));
+    }
+
+    @Test
+    void shouldRejectMergeOfDifferentAccuracies() {
+        assertThatThrownBy(() -> new AmountSketch(0.01).merge(new AmountSketch(0.02)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRoundTripThroughBytes() {
+        AmountSketch sketch = new AmountSketch(ACCURACY);
+        sketch.add(1);
+        sketch.add(12_345_678);
+        sketch.add(Long.MAX_VALUE);
+
+        AmountSketch decoded = AmountSketch.fromBytes(sketch.toBytes());
+
+        assertThat(decoded.relativeAccuracy()).isEqualTo(ACCURACY);
+        assertThat(decoded.count()).isEqualTo(3);
+        assertThat(decoded.quantile(0.5)).isEqualTo(sketch.quantile(0.5));
+        assertThat(decoded.quantile(1.0)).isEqualTo(sketch.quantile(1.0));
+    }
+}
@@ -0,0 +1,157 @@
+package com.progressoft.clustereddata.quantiles;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealQuantileServiceTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private DataSource dataSource;
+    private FxDealBatchWriter batchWriter;
+    private QuantileProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = TestDatabases.migrated();
+        batchWriter = new FxDealBatchWriter(new JdbcTemplate(dataSource));
+        properties = new QuantileProperties();
+        properties.setAlertMinDeals(100);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void shouldTrackQuantilesPerPair() {
+        DealQuantileService service = service(NOW);
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            deals.add(deal("USD-" + i, "USD", "EUR", NOW, i * 10_000L));
+        }
+        deals.add(deal("GBP-1", "GBP", "JPY", NOW, 5_000_000L));
+
+        service.onDealsPersisted(new DealsPersistedEvent(deals));
+
+        PairQuantiles usdEur = service.quantiles("USD", "EUR");
+        assertThat(usdEur.dealCount()).isEqualTo(100);
+        assertThat(usdEur.p50()).isBetween(new BigDecimal("49.5"), new BigDecimal("51.5"));
+        assertThat(usdEur.p99()).isBetween(new BigDecimal("98"), new BigDecimal("100"));
+        assertThat(service.quantiles("EUR", "USD").dealCount()).isZero();
+        assertThat(service.quantiles("EUR", "USD").p50()).isNull();
+        assertThat(service.allQuantiles()).extracting(PairQuantiles::fromCurrencyIsoCode)
+                .containsExactly("GBP", "USD");
+    }
+
+    @Test
+    void shouldCountDealsAboveTheAlertQuantile() {
+        DealQuantileService service = service(NOW);
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 1_024; i++) {
+            deals.add(deal("D-" + i, "USD", "EUR", NOW, 1_000_000L + i));
+        }
+        service.onDealsPersisted(new DealsPersistedEvent(deals));
+
+        service.onDealsPersisted(new DealsPersistedEvent(List.of(
+                deal("SMALL", "USD", "EUR", NOW, 1_000_000L),
+                deal("LARGE", "USD", "EUR", NOW, 900_000_000L))));
+
+        assertThat(meterRegistry.counter("fxdeals.quantiles.large_deals").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecoverFromSnapshotAndReplayLaterDeals() {
+        batchWriter.insertAll(deals("OLD", 50, 10_000L, NOW.minusHours(1).minusMinutes(2)));
+        assertThat(service(NOW.minusHours(1)).writeSnapshot()).isEqualTo(1);
+
+        // Deals in fx_deals before the snapshot are already in it and must not be replayed
+        batchWriter.insertAll(deals("NEW", 50, 1_000_000L, NOW.minusMinutes(30)));
+
+        DealQuantileService restarted = service(NOW);
+        restarted.recover();
+
+        PairQuantiles quantiles = restarted.quantiles("USD", "EUR");
+        assertThat(quantiles.dealCount()).isEqualTo(100);
+        assertThat(quantiles.p95()).isBetween(new BigDecimal("99"), new BigDecimal("101"));
+    }
+
+    @Test
+    void shouldKeepDealsOfEveryInstanceInTheSnapshot() {
+        DealQuantileService first = service(NOW.minusHours(1));
+        DealQuantileService second = service(NOW);
+        batchWriter.insertAll(deals("FIRST", 50, 10_000L, NOW.minusHours(2)));
+        assertThat(first.writeSnapshot()).isEqualTo(1);
+
+        batchWriter.insertAll(deals("SECOND", 50, 1_000_000L, NOW.minusMinutes(30)));
+        assertThat(second.writeSnapshot()).isEqualTo(1);
+        // Already covered by the second instance
+        assertThat(first.writeSnapshot()).isZero();
+
+        DealQuantileService restarted = service(NOW);
+        restarted.recover();
+
+        assertThat(restarted.quantiles("USD", "EUR").dealCount()).isEqualTo(100);
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT deal_count FROM fx_deal_amount_sketches", Long.class)).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRebuildSnapshotOfAnotherAccuracy() {
+        batchWriter.insertAll(deals("OLD", 50, 10_000L, NOW.minusHours(2)));
+        service(NOW.minusHours(1)).writeSnapshot();
+
+        properties.setRelativeAccuracy(0.02);
+        batchWriter.insertAll(deals("NEW", 50, 10_000L, NOW.minusMinutes(30)));
+        assertThat(service(NOW).writeSnapshot()).isEqualTo(1);
+
+        DealQuantileService restarted = service(NOW);
+        restarted.recover();
+
+        PairQuantiles quantiles = restarted.quantiles("USD", "EUR");
+        assertThat(quantiles.dealCount()).isEqualTo(100);
+        assertThat(quantiles.relativeAccuracy()).isEqualTo(0.02);
+    }
+
+    @Test
+    void shouldReplayAllDealsWithoutSnapshot() {
+        batchWriter.insertAll(List.of(
+                deal("D-1", "USD", "EUR", NOW.minusDays(2), 10_000L),
+                deal("D-2", "USD", "EUR", NOW.minusDays(1), 20_000L),
+                deal("D-3", "USD", "EUR", NOW.plusMinutes(1), 30_000L)));
+
+        DealQuantileService service = service(NOW);
+        service.recover();
+
+        assertThat(service.quantiles("USD", "EUR").dealCount()).isEqualTo(2);
+    }
+
+    private DealQuantileService service(LocalDateTime now) {
+        return new DealQuantileService(dataSource, new DataSourceTransactionManager(dataSource), properties,
+                meterRegistry, Clock.fixed(now.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private static List<FxDeal> deals(String prefix, int count, long units, LocalDateTime time) {
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            deals.add(deal(prefix + "-" + i, "USD", "EUR", time, units));
+        }
+        return deals;
+    }
+}
@@ -0,0 +1,121 @@
+package com.progressoft.clustereddata.query;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DealQueryServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private final DealQueryProperties properties = new DealQueryProperties();
+    private DataSource dataSource;
+    private ObjectProvider<ShardedFxDealStore> shardedStore;
+    private DealQueryService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        dataSource = TestDatabases.migrated();
+        shardedStore = mock(ObjectProvider.class);
+        service = new DealQueryService(new JdbcTemplate(dataSource), shardedStore, new FxDealMapper(), properties);
+    }
+
+    @Test
+    void shouldPageThroughOnePairInTimestampOrder() {
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            deals.add(deal("USD-" + i, "USD", "EUR", START.plusMinutes(i / 2), 10_000L * i));
+            deals.add(deal("GBP-" + i, "GBP", "EUR", START.plusMinutes(i), 10_000L * i));
+        }
+        new FxDealBatchWriter(new JdbcTemplate(dataSource)).insertAll(deals);
+
+        List<String> ids = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            DealPage page = service.byPair("usd", "eur", START, START.plusMinutes(10), after, 4);
+            page.deals().forEach(deal -> ids.add(deal.getDealUniqueId()));
+            after = page.next();
+            pages++;
+        } while (after != null);
+
+        // Minutes 0 to 9 hold two USD/EUR deals each
+        assertThat(ids).hasSize(20).doesNotHaveDuplicates().allMatch(id -> id.startsWith("USD-"));
+        assertThat(pages).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReturnLargestDealsOfWindow() {
+        new FxDealBatchWriter(new JdbcTemplate(dataSource)).insertAll(List.of(
+                deal("D-1", "USD", "EUR", START, 50_000L),
+                deal("D-2", "USD", "EUR", START.plusHours(1), 90_000L),
+                deal("D-3", "GBP", "JPY", START.plusHours(2), 70_000L),
+                deal("D-4", "USD", "EUR", START.plusHours(3), 80_000L),
+                deal("D-5", "USD", "EUR", START.plusDays(1), 99_000L)));
+
+        assertThat(service.largest(START, START.plusDays(1), null, null, 3))
+                .extracting(FxDealResponse::getDealUniqueId)
+                .containsExactly("D-2", "D-4", "D-3");
+        assertThat(service.largest(START, START.plusDays(1), "USD", "EUR", 2))
+                .extracting(FxDealResponse::getDealUniqueId)
+                .containsExactly("D-2", "D-4");
+    }
+
+    @Test
+    void shouldMergeResultsOfEveryShard() {
+        DataSource other = TestDatabases.migrated();
+        new FxDealBatchWriter(new JdbcTemplate(dataSource)).insertAll(List.of(
+                deal("A-1", "USD", "EUR", START.plusMinutes(1), 10_000L),
+                deal("A-2", "USD", "EUR", START.plusMinutes(3), 40_000L)));
+        new FxDealBatchWriter(new JdbcTemplate(other)).insertAll(List.of(
+                deal("B-1", "USD", "EUR", START.plusMinutes(2), 30_000L),
+                deal("B-2", "USD", "EUR", START.plusMinutes(4), 20_000L)));
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shards.put("a", dataSource);
+        shards.put("b", other);
+        when(shardedStore.getIfAvailable()).thenReturn(new ShardedFxDealStore(shards, 16));
+
+        DealPage first = service.byPair("USD", "EUR", START, START.plusHours(1), null, 3);
+        DealPage second = service.byPair("USD", "EUR", START, START.plusHours(1), first.next(), 3);
+
+        assertThat(first.deals()).extracting(FxDealResponse::getDealUniqueId).containsExactly("A-1", "B-1", "A-2");
+        assertThat(second.deals()).extracting(FxDealResponse::getDealUniqueId).containsExactly("B-2");
+        assertThat(second.next()).isNull();
+        assertThat(service.largest(START, START.plusHours(1), null, null, 2))
+                .extracting(FxDealResponse::getDealUniqueId)
+                .containsExactly("A-2", "B-1");
+    }
+
+    @Test
+    void shouldRejectInvalidQueries() {
+        assertThatThrownBy(() -> service.byPair("USD", "EUR", START, START, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.byPair("USD", "EUR", START, START.plusDays(1), null, 1_001))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.byPair("USD", "EUR", START, START.plusDays(1), "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.largest(START, START.plusDays(1), "USD", null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
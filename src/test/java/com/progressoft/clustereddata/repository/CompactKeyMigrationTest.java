@@ -0,0 +1,82 @@
+package com.progressoft.clustereddata.repository;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.TestDeals;
+import com.progressoft.clustereddata.entity.DealIdHash;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactKeyMigrationTest {
+
+    private final DataSource dataSource = TestDatabases.h2();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final FxDealBatchWriter batchWriter = new FxDealBatchWriter(jdbcTemplate);
+
+    @Test
+    void shouldBackfillHashesOfExistingDeals() {
+        flyway(MigrationVersion.fromVersion("3"), false).migrate();
+        jdbcTemplate.update("INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, to_currency_iso_code, "
+                + "deal_timestamp, deal_amount) VALUES (?, 'USD', 'EUR', ?, 100)", "DEAL-OLD", Timestamp.valueOf(TestDeals.DEAL_TIME));
+
+        flyway(MigrationVersion.LATEST, true).migrate();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT deal_id_hash FROM fx_deals WHERE deal_unique_id = 'DEAL-OLD'", Long.class))
+                .isEqualTo(DealIdHash.of("DEAL-OLD"));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT id FROM fx_deals WHERE deal_unique_id = 'DEAL-OLD'", Long.class))
+                .isNotNull();
+    }
+
+    @Test
+    void shouldAssignSurrogateKeysAndStillRejectDuplicateIds() {
+        flyway(MigrationVersion.LATEST, true).migrate();
+
+        batchWriter.insertAll(List.of(deal("DEAL-1"), deal("DEAL-2")));
+
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT id FROM fx_deals", Long.class)).hasSize(2);
+        assertThat(jdbcTemplate.queryForList("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS "
+                + "WHERE TABLE_NAME = 'FX_DEALS' AND CONSTRAINT_TYPE = 'PRIMARY KEY'", String.class))
+                .containsExactly("PK_FX_DEALS_ID");
+        assertThat(jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                + "WHERE TABLE_NAME = 'FX_DEALS'", String.class))
+                .contains("IDX_FX_DEALS_ID_HASH")
+                .doesNotContain("UK_FX_DEALS_ID_HASH");
+        assertThatThrownBy(() -> batchWriter.insertAll(List.of(deal("DEAL-1"))))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void shouldFindDealsByHashAndId() {
+        flyway(MigrationVersion.LATEST, true).migrate();
+        batchWriter.insertAll(List.of(deal("DEAL-1")));
+
+        List<String> found = jdbcTemplate.queryForList(
+                "SELECT deal_unique_id FROM fx_deals WHERE deal_id_hash = ? AND deal_unique_id = ?",
+                String.class, DealIdHash.of("DEAL-1"), "DEAL-1");
+
+        assertThat(found).containsExactly("DEAL-1");
+    }
+
+    private Flyway flyway(MigrationVersion target, boolean compactKeys) {
+        List<String> locations = compactKeys
+                ? List.of("classpath:db/migration", "classpath:db/compact-keys", "classpath:db/vendor-compact-keys/h2")
+                : List.of("classpath:db/migration");
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations(locations.toArray(String[]::new))
+                .target(target)
+                .load();
+    }
+}
@@ -0,0 +1,140 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.exists.DealExistenceService;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import com.progressoft.clustereddata.shard.ShardedFxDealStore;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchDryRunServiceTest {
+
+    @Mock
+    private FxDealRepository fxDealRepository;
+
+    @Mock
+    private ObjectProvider<ShardedFxDealStore> shardedStore;
+
+    @Mock
+    private ObjectProvider<DealExistenceService> existenceService;
+
+    private BatchDryRunService dryRunService;
+
+    @BeforeEach
+    void setUp() {
+        DryRunProperties properties = new DryRunProperties();
+        properties.setParallelism(4);
+        properties.setLeafSize(16);
+        dryRunService = new BatchDryRunService(
+                new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator()),
+                new FxDealMapper(),
+                fxDealRepository,
+                shardedStore,
+                existenceService,
+                properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dryRunService.shutdown();
+    }
+
+    @Test
+    void shouldReportLikeAnImportWithoutWriting() {
+        when(fxDealRepository.findExistingDealUniqueIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> ids = invocation.getArgument(0);
+            return ids.contains("DEAL-OLD") ? List.of("DEAL-OLD") : List.of();
+        });
+
+        BatchImportResponse response = dryRunService.dryRun(new BatchImportRequest(List.of(
+                deal("DEAL-1", "10"),
+                deal("DEAL-OLD", "10"),
+                deal("DEAL-2", "-1"),
+                deal("DEAL-1", "10"),
+                deal("DEAL-3", "10"))));
+
+        assertThat(response.getTotalProcessed()).isEqualTo(5);
+        assertThat(response.getSuccessfulDeals()).containsExactly("DEAL-1", "DEAL-3");
+        assertThat(response.getDuplicateCount()).isEqualTo(2);
+        assertThat(response.getFailedDeals())
+                .extracting(BatchImportResponse.FailedDeal::getDealUniqueId, BatchImportResponse.FailedDeal::getType)
+                .containsExactly(
+                        tuple("DEAL-OLD", BatchImportResponse.FailureType.DUPLICATE),
+                        tuple("DEAL-2", BatchImportResponse.FailureType.VALIDATION_ERROR),
+                        tuple("DEAL-1", BatchImportResponse.FailureType.DUPLICATE));
+        verify(fxDealRepository, atLeastOnce()).findExistingDealUniqueIds(anyCollection());
+        verifyNoMoreInteractions(fxDealRepository);
+    }
+
+    @Test
+    void shouldKeepDealOrderAcrossSplitRanges() {
+        List<FxDealRequest> deals = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            // every 7th deal is invalid, every 10th repeats an earlier ID
+            String id = i % 10 == 9 ? "DEAL-" + (i - 5) : "DEAL-" + i;
+            deals.add(deal(id, i % 7 == 0 ? "0" : "1.5"));
+        }
+        when(fxDealRepository.findExistingDealUniqueIds(anyCollection())).thenReturn(List.of());
+
+        BatchImportResponse response = dryRunService.dryRun(new BatchImportRequest(deals));
+
+        List<String> expectedSuccessful = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        List<String> expectedFailed = new ArrayList<>();
+        for (int i = 0; i < deals.size(); i++) {
+            String id = deals.get(i).getDealUniqueId();
+            if (i % 7 == 0 || !seen.add(id)) {
+                expectedFailed.add(id);
+            } else {
+                expectedSuccessful.add(id);
+            }
+        }
+        assertThat(response.getSuccessfulDeals()).containsExactlyElementsOf(expectedSuccessful);
+        assertThat(response.getFailedDeals())
+                .extracting(BatchImportResponse.FailedDeal::getDealUniqueId)
+                .containsExactlyElementsOf(expectedFailed);
+        assertThat(response.getSuccessCount() + response.getFailedCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void shouldAskTheExistenceServiceWhenAvailable() {
+        DealExistenceService existence = mock(DealExistenceService.class);
+        when(existenceService.getIfAvailable()).thenReturn(existence);
+        when(existence.existing(List.of("DEAL-1", "DEAL-2"))).thenReturn(BitSet.valueOf(new long[]{0b10}));
+
+        BatchImportResponse response = dryRunService.dryRun(new BatchImportRequest(List.of(
+                deal("DEAL-1", "10"), deal("DEAL-2", "10"))));
+
+        assertThat(response.getSuccessfulDeals()).containsExactly("DEAL-1");
+        assertThat(response.getDuplicateCount()).isEqualTo(1);
+        verifyNoInteractions(fxDealRepository);
+    }
+
+    private static FxDealRequest deal(String id, String amount) {
+        return new FxDealRequest(id, "USD", "EUR", LocalDateTime.of(2024, 1, 1, 10, 0), FixedPointAmount.parse(amount));
+    }
+}
@@ -0,0 +1,87 @@
+package com.progressoft.clustereddata.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChunkSizeControllerTest {
+
+    private static final long MILLIS = 1_000_000;
+    private static final long MICROS = 1_000;
+
+    @Test
+    void shouldSettleNearBestThroughputAndFollowSlowdown() {
+        ChunkSizeController controller = new ChunkSizeController(properties(Duration.ofSeconds(1)));
+
+        // Optimum near 2000 rows: fixed cost amortised, then lock and WAL pressure past the knee
+        double fast = averageSizeAfter(controller, 300, database(5 * MILLIS, 20 * MICROS, 2_000));
+        assertThat(fast).isBetween(1_500.0, 2_700.0);
+
+        // A loaded database has its optimum near 1000 rows
+        double loaded = averageSizeAfter(controller, 300, database(20 * MILLIS, 60 * MICROS, 800));
+        assertThat(loaded).isBetween(700.0, 1_400.0);
+    }
+
+    @Test
+    void shouldStayUnderLatencyCeilingWhenBiggerIsAlwaysFaster() {
+        ChunkSizeController controller = new ChunkSizeController(properties(Duration.ofMillis(100)));
+        IntToLongFunction database = rows -> 10 * MILLIS + rows * 30 * MICROS;
+
+        averageSizeAfter(controller, 300, database);
+
+        // 100ms allows 3000 rows; the controller probes past it at most once per window
+        assertThat(controller.chunkSize()).isLessThanOrEqualTo(3_000 * 5 / 4);
+        assertThat(controller.chunkSize()).isGreaterThan(1_500);
+    }
+
+    @Test
+    void shouldShrinkImmediatelyOnSlowCommit() {
+        ChunkSizeController controller = new ChunkSizeController(properties(Duration.ofMillis(100)));
+
+        controller.record(1_000, 150 * MILLIS);
+
+        assertThat(controller.chunkSize()).isEqualTo(800);
+    }
+
+    @Test
+    void shouldStayWithinBounds() {
+        BatchTuningProperties properties = properties(Duration.ofSeconds(10));
+        properties.setMaxChunkSize(1_500);
+        ChunkSizeController controller = new ChunkSizeController(properties);
+
+        averageSizeAfter(controller, 100, rows -> rows * MICROS);
+        assertThat(controller.chunkSize()).isBetween(100, 1_500);
+
+        for (int i = 0; i < 20; i++) {
+            controller.record(controller.chunkSize(), 20 * 1_000 * MILLIS);
+        }
+        assertThat(controller.chunkSize()).isEqualTo(100);
+    }
+
+    private static double averageSizeAfter(ChunkSizeController controller, int chunks, IntToLongFunction database) {
+        int[] sizes = new int[chunks];
+        for (int i = 0; i < chunks; i++) {
+            int rows = controller.chunkSize();
+            sizes[i] = rows;
+            controller.record(rows, database.applyAsLong(rows));
+        }
+        return IntStream.of(sizes).skip(chunks / 2).average().orElseThrow();
+    }
+
+    private static IntToLongFunction database(long fixedNanos, long perRowNanos, int knee) {
+        return rows -> {
+            long over = Math.max(0, rows - knee);
+            return fixedNanos + rows * perRowNanos + over * over * 100;
+        };
+    }
+
+    private static BatchTuningProperties properties(Duration latencyCeiling) {
+        BatchTuningProperties properties = new BatchTuningProperties();
+        properties.setLatencyCeiling(latencyCeiling);
+        return properties;
+    }
+}
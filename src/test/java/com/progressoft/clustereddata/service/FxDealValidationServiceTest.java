@@ -1,5 +1,7 @@
 package com.progressoft.clustereddata.service;
 
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.DealError;
 import com.progressoft.clustereddata.entity.FxDeal;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -7,12 +9,12 @@ import jakarta.validation.ValidatorFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 class FxDealValidationServiceTest {
 
@@ -128,7 +130,7 @@ class FxDealValidationServiceTest {
     @Test
     void shouldDetectNegativeAmount() {
         FxDeal deal = createValidFxDeal();
-        deal.setDealAmount(new BigDecimal("-100.00"));
+        deal.setDealAmount(FixedPointAmount.parse("-100.00"));
 
         List<String> errors = validationService.validate(deal);
 
@@ -139,7 +141,7 @@ class FxDealValidationServiceTest {
     @Test
     void shouldDetectZeroAmount() {
         FxDeal deal = createValidFxDeal();
-        deal.setDealAmount(BigDecimal.ZERO);
+        deal.setDealAmount(0L);
 
         List<String> errors = validationService.validate(deal);
 
@@ -150,7 +152,7 @@ class FxDealValidationServiceTest {
     @Test
     void shouldDetectNullAmount() {
         FxDeal deal = createValidFxDeal();
-        deal.setDealAmount(null);
+        deal.setDealAmount(FixedPointAmount.ABSENT);
 
         List<String> errors = validationService.validate(deal);
 
@@ -161,7 +163,7 @@ class FxDealValidationServiceTest {
     @Test
     void shouldDetectAmountBelowMinimum() {
         FxDeal deal = createValidFxDeal();
-        deal.setDealAmount(new BigDecimal("0.00001"));
+        deal.setDealAmount(FixedPointAmount.parse("0.00001"));
 
         List<String> errors = validationService.validate(deal);
 
@@ -176,13 +178,35 @@ class FxDealValidationServiceTest {
         deal.setFromCurrencyIsoCode(null);
         deal.setToCurrencyIsoCode(null);
         deal.setDealTimestamp(null);
-        deal.setDealAmount(null);
+        deal.setDealAmount(FixedPointAmount.ABSENT);
 
         List<String> errors = validationService.validate(deal);
 
         assertThat(errors).hasSize(5);
     }
 
+    @Test
+    void shouldReportStructuredErrorCodes() {
+        FxDeal deal = createValidFxDeal();
+        deal.setDealUniqueId(null);
+        deal.setFromCurrencyIsoCode("ABC");
+        deal.setDealTimestamp(LocalDateTime.now().plusDays(1));
+        deal.setDealAmount(FixedPointAmount.ABSENT);
+
+        List<DealError> errors = validationService.check(deal);
+
+        assertThat(errors)
+                .extracting(DealError::getField, DealError::getCode)
+                .containsExactly(
+                        tuple("dealAmount", DealError.Code.REQUIRED),
+                        tuple("dealTimestamp", DealError.Code.FUTURE_TIMESTAMP),
+                        tuple("dealUniqueId", DealError.Code.BLANK),
+                        tuple("dealUniqueId", DealError.Code.REQUIRED),
+                        tuple("fromCurrencyIsoCode", DealError.Code.INVALID_CURRENCY));
+        assertThat(validationService.validate(deal))
+                .containsExactlyElementsOf(new DealOutcome.Invalid(null, errors).details());
+    }
+
     @Test
     void shouldThrowExceptionWhenValidateOrThrowCalledWithInvalidDeal() {
         FxDeal deal = createValidFxDeal();
@@ -218,7 +242,7 @@ class FxDealValidationServiceTest {
     @Test
     void shouldAcceptMinimumValidAmount() {
         FxDeal deal = createValidFxDeal();
-        deal.setDealAmount(new BigDecimal("0.0001"));
+        deal.setDealAmount(FixedPointAmount.parse("0.0001"));
 
         List<String> errors = validationService.validate(deal);
 
@@ -244,7 +268,7 @@ class FxDealValidationServiceTest {
         deal.setFromCurrencyIsoCode("USD");
         deal.setToCurrencyIsoCode("EUR");
         deal.setDealTimestamp(LocalDateTime.now());
-        deal.setDealAmount(new BigDecimal("1000.50"));
+        deal.setDealAmount(FixedPointAmount.parse("1000.50"));
         return deal;
     }
 }
@@ -0,0 +1,181 @@
+package com.progressoft.clustereddata.service;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import com.progressoft.clustereddata.repository.FxDealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitDealWriterTest {
+
+    @Mock
+    private FxDealRepository fxDealRepository;
+
+    @Mock
+    private FxDealBatchWriter batchWriter;
+
+    @Mock
+    private FxDealService fxDealService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupCommitDealWriter groupCommitDealWriter;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setMaxDelay(Duration.ofMillis(200));
+        properties.setMaxSize(64);
+        properties.setFlushers(1);
+
+        groupCommitDealWriter = new GroupCommitDealWriter(
+                fxDealRepository,
+                batchWriter,
+                new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator()),
+                fxDealService,
+                new FxDealMapper(),
+                transactionManager,
+                event -> { },
+                properties,
+                new SimpleMeterRegistry());
+        groupCommitDealWriter.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        groupCommitDealWriter.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCoalesceConcurrentDealsAndReportIndividualOutcomes() throws Exception {
+        when(fxDealRepository.findExistingDealUniqueIds(anyCollection()))
+                .thenAnswer(invocation -> ((List<String>) invocation.getArgument(0))
+                        .stream()
+                        .filter("DEAL-EXISTING"::equals)
+                        .toList());
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add("DEAL-" + i);
+        }
+        ids.add("DEAL-EXISTING");
+
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<FxDealResponse>> results = new ArrayList<>();
+        try {
+            for (String id : ids) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return groupCommitDealWriter.createDeal(createValidRequest(id));
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < 10; i++) {
+                FxDealResponse response = results.get(i).get();
+                assertThat(response.getDealUniqueId()).isEqualTo("DEAL-" + i);
+            }
+            assertThatThrownBy(() -> results.get(10).get())
+                    .hasCauseInstanceOf(DuplicateDealException.class)
+                    .hasMessageContaining("already exists");
+        } finally {
+            executor.shutdown();
+        }
+
+        ArgumentCaptor<List<FxDeal>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter, atMost(3)).insertAll(inserted.capture());
+        assertThat(inserted.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(10);
+        verifyNoInteractions(fxDealService);
+    }
+
+    @Test
+    void shouldRejectDuplicateWithinTheSameGroup() throws Exception {
+        when(fxDealRepository.findExistingDealUniqueIds(anyCollection())).thenReturn(List.of());
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Future<FxDealResponse> first = executor.submit(() -> {
+                start.await();
+                return groupCommitDealWriter.createDeal(createValidRequest("DEAL-SAME"));
+            });
+            Future<FxDealResponse> second = executor.submit(() -> {
+                start.await();
+                return groupCommitDealWriter.createDeal(createValidRequest("DEAL-SAME"));
+            });
+            start.countDown();
+
+            int created = 0;
+            int duplicates = 0;
+            for (Future<FxDealResponse> result : List.of(first, second)) {
+                try {
+                    result.get();
+                    created++;
+                } catch (Exception e) {
+                    assertThat(e).hasCauseInstanceOf(DuplicateDealException.class);
+                    duplicates++;
+                }
+            }
+            assertThat(created).isEqualTo(1);
+            assertThat(duplicates).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidDealBeforeQueueing() {
+        FxDealRequest request = createValidRequest("DEAL-INVALID");
+        request.setFromCurrencyIsoCode("ABC");
+
+        assertThatThrownBy(() -> groupCommitDealWriter.createDeal(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("FX deal validation failed");
+        verifyNoInteractions(batchWriter);
+    }
+
+    private FxDealRequest createValidRequest(String dealUniqueId) {
+        FxDealRequest request = new FxDealRequest();
+        request.setDealUniqueId(dealUniqueId);
+        request.setFromCurrencyIsoCode("USD");
+        request.setToCurrencyIsoCode("EUR");
+        request.setDealTimestamp(LocalDateTime.now().minusHours(1));
+        request.setDealAmount(FixedPointAmount.parse("1000.50"));
+        return request;
+    }
+}
@@ -0,0 +1,208 @@
+package com.progressoft.clustereddata.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.entity.BatchImportRecord;
+import com.progressoft.clustereddata.exception.IdempotencyKeyReuseException;
+import com.progressoft.clustereddata.repository.BatchImportRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentBatchImportServiceTest {
+
+    @Mock
+    private BatchImportRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final Map<String, BatchImportRecord> stored = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private IdempotentBatchImportService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(repository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+        lenient().when(repository.save(any(BatchImportRecord.class))).thenAnswer(invocation -> {
+            BatchImportRecord record = invocation.getArgument(0);
+            stored.put(record.getIdempotencyKey(), record);
+            return record;
+        });
+
+        service = new IdempotentBatchImportService(repository, objectMapper, new IdempotencyProperties(),
+                transactionManager, new SimpleMeterRegistry(), Clock.systemDefaultZone());
+    }
+
+    @Test
+    void shouldReplayStoredResultWithoutImportingAgain() {
+        AtomicInteger imports = new AtomicInteger();
+        byte[] request = batch("DEAL-001", "DEAL-002");
+
+        IdempotentBatchImportService.Outcome first = service.importDeals("key-1", request, countingImporter(imports));
+        IdempotentBatchImportService.Outcome retry = service.importDeals("key-1", request, countingImporter(imports));
+
+        assertThat(imports).hasValue(1);
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response()).isEqualTo(first.response());
+    }
+
+    @Test
+    void shouldFallBackToContentHashWithoutKey() {
+        AtomicInteger imports = new AtomicInteger();
+
+        service.importDeals(null, batch("DEAL-001"), countingImporter(imports));
+        IdempotentBatchImportService.Outcome retry = service.importDeals(null, batch("DEAL-001"), countingImporter(imports));
+        service.importDeals(null, batch("DEAL-002"), countingImporter(imports));
+
+        assertThat(imports).hasValue(2);
+        assertThat(retry.replayed()).isTrue();
+        assertThat(stored.keySet()).allMatch(key -> key.startsWith(IdempotentBatchImportService.CONTENT_HASH_PREFIX));
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentBatch() {
+        service.importDeals("key-1", batch("DEAL-001"), countingImporter(new AtomicInteger()));
+
+        assertThatThrownBy(() -> service.importDeals("key-1", batch("DEAL-002"), countingImporter(new AtomicInteger())))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+    }
+
+    @Test
+    void shouldNotStoreResultWithProcessingErrors() {
+        AtomicInteger imports = new AtomicInteger();
+        byte[] request = batch("DEAL-001");
+
+        for (int i = 0; i < 2; i++) {
+            service.importDeals("key-1", request, r -> {
+                imports.incrementAndGet();
+                return BatchImportResponse.builder()
+                        .totalProcessed(1)
+                        .failedCount(1)
+                        .successfulDeals(List.of())
+                        .failedDeals(List.of(BatchImportResponse.FailedDeal.builder()
+                                .dealUniqueId("DEAL-001")
+                                .reason("Processing error: connection reset")
+                                .type(BatchImportResponse.FailureType.PROCESSING_ERROR)
+                                .build()))
+                        .build();
+            });
+        }
+
+        assertThat(imports).hasValue(2);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void shouldCoalesceConcurrentAttemptsOntoOneImport() throws Exception {
+        AtomicInteger imports = new AtomicInteger();
+        CountDownLatch importStarted = new CountDownLatch(1);
+        CountDownLatch releaseImport = new CountDownLatch(1);
+        byte[] request = batch("DEAL-001");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<IdempotentBatchImportService.Outcome> first = executor.submit(() ->
+                    service.importDeals("key-1", request, r -> {
+                        imports.incrementAndGet();
+                        importStarted.countDown();
+                        await(releaseImport);
+                        return successFor(read(r));
+                    }));
+            importStarted.await();
+
+            List<Future<IdempotentBatchImportService.Outcome>> retries = List.of(
+                    executor.submit(() -> service.importDeals("key-1", request, countingImporter(imports))),
+                    executor.submit(() -> service.importDeals("key-1", request, countingImporter(imports))));
+            Thread.sleep(100);
+            releaseImport.countDown();
+
+            assertThat(first.get().replayed()).isFalse();
+            for (Future<IdempotentBatchImportService.Outcome> retry : retries) {
+                assertThat(retry.get().replayed()).isTrue();
+                assertThat(retry.get().response()).isEqualTo(first.get().response());
+            }
+            assertThat(imports).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Function<byte[], BatchImportResponse> countingImporter(AtomicInteger imports) {
+        return body -> {
+            imports.incrementAndGet();
+            return successFor(read(body));
+        };
+    }
+
+    private BatchImportRequest read(byte[] body) {
+        try {
+            return objectMapper.readValue(body, BatchImportRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BatchImportResponse successFor(BatchImportRequest request) {
+        List<String> ids = request.getDeals().stream().map(FxDealRequest::getDealUniqueId).toList();
+        return BatchImportResponse.builder()
+                .totalProcessed(ids.size())
+                .successCount(ids.size())
+                .successfulDeals(ids)
+                .failedDeals(List.of())
+                .build();
+    }
+
+    private byte[] batch(String... ids) {
+        List<FxDealRequest> deals = Arrays.stream(ids)
+                .map(id -> new FxDealRequest(id, "USD", "EUR",
+                        LocalDateTime.of(2024, 1, 1, 10, 0), FixedPointAmount.parse("1000.50")))
+                .toList();
+        try {
+            return objectMapper.writeValueAsBytes(new BatchImportRequest(deals));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
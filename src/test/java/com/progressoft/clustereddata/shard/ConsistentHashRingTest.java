@@ -0,0 +1,56 @@
+package com.progressoft.clustereddata.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+
+    @Test
+    void shouldSpreadKeysEvenlyAcrossShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.shardFor("DEAL-" + i), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(4);
+        counts.values().forEach(count -> assertThat(count).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10));
+    }
+
+    @Test
+    void shouldOnlyMoveKeysToTheNewShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 160);
+        ConsistentHashRing after = before.withShard("d");
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String key = "DEAL-" + i;
+            String oldOwner = before.shardFor(key);
+            String newOwner = after.shardFor(key);
+            if (!oldOwner.equals(newOwner)) {
+                assertThat(newOwner).isEqualTo("d");
+                moved++;
+            }
+        }
+
+        assertThat(moved).isBetween(KEYS / 4 * 8 / 10, KEYS / 4 * 12 / 10);
+    }
+
+    @Test
+    void shouldBeIndependentOfShardOrder() {
+        ConsistentHashRing first = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing second = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(first.shardFor("DEAL-" + i)).isEqualTo(second.shardFor("DEAL-" + i));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.progressoft.clustereddata.shard;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.BatchImportRequest;
+import com.progressoft.clustereddata.dto.BatchImportResponse;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.exception.DuplicateDealException;
+import com.progressoft.clustereddata.mapper.FxDealMapper;
+import com.progressoft.clustereddata.service.DealsPersistedEvent;
+import com.progressoft.clustereddata.service.FxDealValidationService;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedFxDealServiceTest {
+
+    private final Map<String, DataSource> dataSources = new LinkedHashMap<>();
+    private ShardedFxDealStore store;
+    private ShardedFxDealService service;
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("shard-a", "shard-b", "shard-c")) {
+            dataSources.put(name, h2());
+        }
+        store = new ShardedFxDealStore(dataSources, 64);
+        service = new ShardedFxDealService(store,
+                new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator()),
+                new FxDealMapper(), event -> { }, 3);
+        ShardingProperties.Shard standby = new ShardingProperties.Shard();
+        standby.setName("shard-d");
+        standby.setStandby(true);
+        rebalancer = new ShardRebalancer(store, 50, List.of(standby), shard -> {
+            DataSource dataSource = h2();
+            dataSources.put(shard.getName(), dataSource);
+            return dataSource;
+        });
+    }
+
+    @Test
+    void shouldSpreadBatchAcrossShardsAndRejectDuplicates() {
+        BatchImportResponse first = service.importDeals(batch(0, 300));
+
+        assertThat(first.getSuccessCount()).isEqualTo(300);
+        assertThat(first.getFailedCount()).isZero();
+        dataSources.values().forEach(dataSource -> assertThat(count(dataSource)).isPositive());
+        assertThat(dataSources.values().stream().mapToInt(this::count).sum()).isEqualTo(300);
+
+        BatchImportResponse retry = service.importDeals(batch(290, 310));
+
+        assertThat(retry.getSuccessCount()).isEqualTo(10);
+        assertThat(retry.getDuplicateCount()).isEqualTo(10);
+        assertThat(retry.getFailedDeals())
+                .allMatch(failed -> failed.getType() == BatchImportResponse.FailureType.DUPLICATE);
+    }
+
+    @Test
+    void shouldRouteSingleDealsToTheirOwningShard() {
+        service.createDeal(request("DEAL-SINGLE"));
+
+        DataSource owner = dataSources.get(store.ownerOf("DEAL-SINGLE"));
+        assertThat(count(owner)).isEqualTo(1);
+        assertThat(service.getDeal("DEAL-SINGLE").getFromCurrencyIsoCode()).isEqualTo("USD");
+        assertThatThrownBy(() -> service.createDeal(request("DEAL-SINGLE")))
+                .isInstanceOf(DuplicateDealException.class);
+    }
+
+    @Test
+    void shouldMoveDealsOntoAddedShardWithoutLosingAny() throws InterruptedException {
+        service.importDeals(batch(0, 400));
+
+        assertThatThrownBy(() -> rebalancer.addShard("shard-x"))
+                .isInstanceOf(IllegalArgumentException.class);
+        rebalancer.addShard("shard-d");
+        while (rebalancer.status().running()) {
+            Thread.sleep(10);
+        }
+
+        assertThat(rebalancer.status().lastError()).isNull();
+        assertThat(store.isRebalancing()).isFalse();
+        assertThat(count(dataSources.get("shard-d"))).isPositive();
+        assertThat(dataSources.values().stream().mapToInt(this::count).sum()).isEqualTo(400);
+        for (int i = 0; i < 400; i++) {
+            String id = "DEAL-" + i;
+            Integer onOwner = new JdbcTemplate(dataSources.get(store.ownerOf(id))).queryForObject(
+                    "SELECT COUNT(*) FROM fx_deals WHERE deal_unique_id = ?", Integer.class, id);
+            assertThat(onOwner).as(id).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldReportDealsOfFailedShardAndKeepTheOthers() {
+        // shard-c can be read but not written, like a shard that went read-only mid-import
+        DriverManagerDataSource readOnly = (DriverManagerDataSource) dataSources.get("shard-c");
+        new JdbcTemplate(readOnly).execute("CREATE USER reader PASSWORD 'reader'");
+        new JdbcTemplate(readOnly).execute("GRANT SELECT ON fx_deals TO reader");
+        Map<String, DataSource> failing = new LinkedHashMap<>(dataSources);
+        // Only admins may pass DB_CLOSE_DELAY, and the database is open already
+        String url = readOnly.getUrl().substring(0, readOnly.getUrl().indexOf(';'));
+        failing.put("shard-c", new DriverManagerDataSource(url, "reader", "reader"));
+        ShardedFxDealStore failingStore = new ShardedFxDealStore(failing, 64);
+        List<DealsPersistedEvent> events = new ArrayList<>();
+        ShardedFxDealService failingService = new ShardedFxDealService(failingStore,
+                new FxDealValidationService(Validation.buildDefaultValidatorFactory().getValidator()),
+                new FxDealMapper(), event -> events.add((DealsPersistedEvent) event), 3);
+
+        BatchImportResponse response = failingService.importDeals(batch(0, 300));
+
+        int onShardC = (int) response.getFailedDeals().stream()
+                .filter(failed -> failed.getType() == BatchImportResponse.FailureType.PROCESSING_ERROR)
+                .count();
+        assertThat(onShardC).isPositive().isEqualTo(response.getFailedCount());
+        assertThat(response.getSuccessCount()).isEqualTo(300 - onShardC)
+                .isEqualTo(count(dataSources.get("shard-a")) + count(dataSources.get("shard-b")));
+        assertThat(response.getFailedDeals())
+                .allMatch(failed -> failingStore.ownerOf(failed.getDealUniqueId()).equals("shard-c"));
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).deals()).hasSize(response.getSuccessCount());
+    }
+
+    private int count(DataSource dataSource) {
+        Integer count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM fx_deals", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static DataSource h2() {
+        DataSource dataSource = TestDatabases.h2();
+        ShardingConfiguration.ShardDataSources.migrate(dataSource, DatabaseDriver.H2);
+        return dataSource;
+    }
+
+    private static BatchImportRequest batch(int from, int to) {
+        List<FxDealRequest> deals = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            deals.add(request("DEAL-" + i));
+        }
+        return new BatchImportRequest(deals);
+    }
+
+    private static FxDealRequest request(String dealUniqueId) {
+        return new FxDealRequest(dealUniqueId, "USD", "EUR",
+                LocalDateTime.now().minusHours(1), FixedPointAmount.parse("1000.50"));
+    }
+}
@@ -0,0 +1,263 @@
+package com.progressoft.clustereddata.spool;
+
+import com.progressoft.clustereddata.amount.FixedPointAmount;
+import com.progressoft.clustereddata.dto.FxDealRequest;
+import com.progressoft.clustereddata.exception.SpoolWriteException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealSpoolTest {
+
+    @TempDir
+    Path spoolDirectory;
+
+    @Test
+    void shouldAcknowledgeConcurrentAppendsAndExposeDepth() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DealSpool spool = newSpool(registry);
+        spool.start();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = IntStream.range(0, 200)
+                    .<Future<?>>mapToObj(i -> executor.submit(() -> spool.append(request("DEAL-" + i))))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+            spool.stop();
+        }
+
+        assertThat(spool.depth()).isEqualTo(200);
+        assertThat(registry.get("fxdeals.spool.depth").gauge().value()).isEqualTo(200);
+    }
+
+    @Test
+    void shouldReplayUndrainedSegmentsAndDropTornTail() throws Exception {
+        DealSpool spool = newSpool(new SimpleMeterRegistry());
+        spool.start();
+        spool.append(request("DEAL-1"));
+        spool.append(request("DEAL-2"));
+        spool.stop();
+
+        Path segment;
+        try (var files = Files.list(spoolDirectory)) {
+            segment = files.filter(path -> Files.isRegularFile(path)).findFirst().orElseThrow();
+        }
+        Files.write(segment, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        DealSpool recovered = newSpool(new SimpleMeterRegistry());
+        recovered.start();
+        try {
+            assertThat(recovered.depth()).isEqualTo(2);
+
+            List<SpoolSegment> segments = recovered.sealedSegments();
+            assertThat(segments).hasSize(1);
+            List<String> ids = SpoolCodec.scan(segments.get(0).getPath())
+                    .deals()
+                    .stream()
+                    .map(deal -> deal.request().getDealUniqueId())
+                    .toList();
+            assertThat(ids).containsExactly("DEAL-1", "DEAL-2");
+
+            recovered.markDrained(segments.get(0));
+            assertThat(recovered.depth()).isZero();
+            assertThat(segments.get(0).getPath()).doesNotExist();
+        } finally {
+            recovered.stop();
+        }
+    }
+
+    @Test
+    void shouldKeepLaterAcknowledgedDealsAfterTornWrite() throws Exception {
+        assertLaterDealsSurviveTornWrite(false);
+    }
+
+    @Test
+    void shouldSealSegmentWhenTornWriteCannotBeCut() throws Exception {
+        assertLaterDealsSurviveTornWrite(true);
+    }
+
+    private void assertLaterDealsSurviveTornWrite(boolean truncateFails) throws Exception {
+        SpoolProperties properties = new SpoolProperties();
+        properties.setDirectory(spoolDirectory.toString());
+        boolean[] firstSegment = {true};
+        DealSpool spool = new DealSpool(properties, new SimpleMeterRegistry(), path -> {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            if (!firstSegment[0]) {
+                return channel;
+            }
+            firstSegment[0] = false;
+            // Fail the second record half way through
+            return new TornWriteChannel(channel, 2, truncateFails);
+        });
+        spool.start();
+        try {
+            spool.append(request("DEAL-1"));
+            assertThatThrownBy(() -> spool.append(request("DEAL-2"))).isInstanceOf(SpoolWriteException.class);
+            spool.append(request("DEAL-3"));
+        } finally {
+            spool.stop();
+        }
+
+        DealSpool rescanned = newSpool(new SimpleMeterRegistry());
+        rescanned.start();
+        try {
+            assertThat(rescanned.depth()).isEqualTo(2);
+            List<String> ids = new ArrayList<>();
+            for (SpoolSegment segment : rescanned.sealedSegments()) {
+                SpoolCodec.scan(segment.getPath()).deals()
+                        .forEach(deal -> ids.add(deal.request().getDealUniqueId()));
+            }
+            assertThat(ids).containsExactly("DEAL-1", "DEAL-3");
+        } finally {
+            rescanned.stop();
+        }
+    }
+
+    private DealSpool newSpool(SimpleMeterRegistry registry) {
+        SpoolProperties properties = new SpoolProperties();
+        properties.setDirectory(spoolDirectory.toString());
+        return new DealSpool(properties, registry);
+    }
+
+    private FxDealRequest request(String dealUniqueId) {
+        return new FxDealRequest(dealUniqueId, "USD", "EUR",
+                LocalDateTime.now().minusHours(1).withNano(0), FixedPointAmount.parse("1000.50"));
+    }
+
+    /**
+     * Writes half of the {@code failingWrite}-th buffer, then throws
+     */
+    private static final class TornWriteChannel extends FileChannel {
+        private final FileChannel delegate;
+        private final int failingWrite;
+        private final boolean truncateFails;
+        private int writes;
+
+        private TornWriteChannel(FileChannel delegate, int failingWrite, boolean truncateFails) {
+            this.delegate = delegate;
+            this.failingWrite = failingWrite;
+            this.truncateFails = truncateFails;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (++writes == failingWrite) {
+                ByteBuffer half = src.slice(src.position(), src.remaining() / 2);
+                delegate.write(half);
+                throw new IOException("Simulated write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (truncateFails) {
+                throw new IOException("Simulated truncate failure");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
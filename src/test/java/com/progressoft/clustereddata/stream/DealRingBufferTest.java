@@ -0,0 +1,65 @@
+package com.progressoft.clustereddata.stream;
+
+import com.progressoft.clustereddata.dto.FxDealResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new DealRingBuffer(1000).capacity()).isEqualTo(1024);
+        assertThat(new DealRingBuffer(1024).capacity()).isEqualTo(1024);
+    }
+
+    @Test
+    void shouldReadPublishedDealsBySequence() {
+        DealRingBuffer ring = new DealRingBuffer(8);
+        assertThat(ring.cursor()).isEqualTo(-1);
+
+        ring.publish(deals(0, 3));
+
+        assertThat(ring.cursor()).isEqualTo(2);
+        assertThat(ring.oldestSequence()).isZero();
+        assertThat(ring.read(1).getDealUniqueId()).isEqualTo("DEAL-1");
+    }
+
+    @Test
+    void shouldDetectLappedReaders() {
+        DealRingBuffer ring = new DealRingBuffer(8);
+
+        ring.publish(deals(0, 10));
+
+        assertThat(ring.oldestSequence()).isEqualTo(2);
+        assertThat(ring.read(1)).isNull();
+        assertThat(ring.read(2).getDealUniqueId()).isEqualTo("DEAL-2");
+        assertThat(ring.read(9).getDealUniqueId()).isEqualTo("DEAL-9");
+    }
+
+    @Test
+    void shouldWakeUpWaitingReaderOnPublish() throws Exception {
+        DealRingBuffer ring = new DealRingBuffer(8);
+        CompletableFuture<Long> waited = CompletableFuture.supplyAsync(() -> {
+            long started = System.nanoTime();
+            ring.awaitPublished(0, TimeUnit.SECONDS.toNanos(30));
+            return System.nanoTime() - started;
+        });
+
+        Thread.sleep(50);
+        ring.publish(deals(0, 1));
+
+        assertThat(waited.get(5, TimeUnit.SECONDS)).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    private static List<FxDealResponse> deals(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> FxDealResponse.builder().dealUniqueId("DEAL-" + i).build())
+                .toList();
+    }
+}
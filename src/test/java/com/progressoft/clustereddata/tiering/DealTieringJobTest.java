@@ -0,0 +1,157 @@
+package com.progressoft.clustereddata.tiering;
+
+import com.progressoft.clustereddata.TestDatabases;
+import com.progressoft.clustereddata.config.CompactKeyProperties;
+import com.progressoft.clustereddata.entity.FxDeal;
+import com.progressoft.clustereddata.repository.FxDealBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.progressoft.clustereddata.TestDeals.deal;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealTieringJobTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private FxDealBatchWriter batchWriter;
+    private DealArchive archive;
+    private DealTieringJob job;
+
+    @BeforeEach
+    void setUp() {
+        useDatabase(TestDatabases.migrated(), false);
+    }
+
+    private void useDatabase(DataSource dataSource, boolean compactKeys) {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        batchWriter = new FxDealBatchWriter(jdbcTemplate);
+        archive = new DealArchive(jdbcTemplate);
+
+        TieringProperties properties = new TieringProperties();
+        properties.setMaxAge(Duration.ofDays(30));
+        properties.setSegmentSize(3);
+        CompactKeyProperties compactKeyProperties = new CompactKeyProperties();
+        compactKeyProperties.setEnabled(compactKeys);
+        job = new DealTieringJob(jdbcTemplate, new DataSourceTransactionManager(dataSource), archive, properties,
+                compactKeyProperties, new SimpleMeterRegistry(),
+                Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldMoveAgedDealsIntoArchiveSegments() {
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            deals.add(deal("OLD-" + i, NOW.minusDays(60).plusMinutes(i)));
+        }
+        deals.add(deal("RECENT-1", NOW.minusDays(1)));
+        batchWriter.insertAll(deals);
+
+        job.archiveAgedDeals();
+
+        assertThat(jdbcTemplate.queryForList("SELECT deal_unique_id FROM fx_deals", String.class))
+                .containsExactly("RECENT-1");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fx_deal_archive_segments", Integer.class))
+                .isEqualTo(3);
+        assertThat(archive.contains("OLD-4")).isTrue();
+        assertThat(archive.contains("RECENT-1")).isFalse();
+        assertThat(archive.findExisting(List.of("OLD-0", "OLD-6", "RECENT-1", "UNKNOWN")))
+                .containsExactlyInAnyOrder("OLD-0", "OLD-6");
+    }
+
+    @Test
+    void shouldArchiveDealsSpreadOverManyWindowsAndSharedTimestamps() {
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            deals.add(deal("SPREAD-" + i, NOW.minusDays(60).plusHours(5L * i)));
+        }
+        // More deals on one timestamp than fit a segment
+        for (int i = 0; i < 5; i++) {
+            deals.add(deal("SAME-" + i, NOW.minusDays(40)));
+        }
+        batchWriter.insertAll(deals);
+
+        job.archiveAgedDeals();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fx_deals", Integer.class)).isZero();
+        assertThat(archive.findExisting(deals.stream().map(FxDeal::getDealUniqueId).toList())).hasSize(15);
+    }
+
+    @Test
+    void shouldReturnArchivedDealUnchanged() {
+        FxDeal original = deal("OLD-1", NOW.minusDays(45));
+        batchWriter.insertAll(List.of(original));
+
+        job.archiveAgedDeals();
+
+        FxDeal archived = archive.find("OLD-1").orElseThrow();
+        assertThat(archived.getFromCurrencyIsoCode()).isEqualTo("USD");
+        assertThat(archived.getToCurrencyIsoCode()).isEqualTo("EUR");
+        assertThat(archived.getDealTimestamp()).isEqualTo(original.getDealTimestamp());
+        assertThat(archived.getDealAmount()).isEqualTo(original.getDealAmount());
+        assertThat(archived.getCreatedAt()).isEqualTo(original.getCreatedAt());
+        assertThat(archive.find("OLD-2")).isEmpty();
+    }
+
+    @Test
+    void shouldKeepLateArrivingDealsHot() {
+        FxDeal late = deal("LATE-1", NOW.minusDays(60));
+        late.setCreatedAt(NOW.minusHours(1));
+        late.setUpdatedAt(NOW.minusHours(1));
+        batchWriter.insertAll(List.of(late));
+
+        job.archiveAgedDeals();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fx_deals", Integer.class)).isEqualTo(1);
+        assertThat(archive.contains("LATE-1")).isFalse();
+    }
+
+    @Test
+    void shouldArchiveDealsStoredWithoutHash() {
+        jdbcTemplate.update("INSERT INTO fx_deals (deal_unique_id, from_currency_iso_code, to_currency_iso_code, "
+                        + "deal_timestamp, deal_amount, created_at, updated_at) VALUES ('RAW-1', 'USD', 'EUR', ?, 100, ?, ?)",
+                Timestamp.valueOf(NOW.minusDays(60)), Timestamp.valueOf(NOW.minusDays(60)),
+                Timestamp.valueOf(NOW.minusDays(60)));
+
+        job.archiveAgedDeals();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM fx_deals", Integer.class)).isZero();
+        assertThat(archive.contains("RAW-1")).isTrue();
+    }
+
+    @Test
+    void shouldDeleteBySurrogateKeyWithCompactKeys() {
+        DataSource dataSource = TestDatabases.h2();
+        Flyway.configure().dataSource(dataSource)
+                .locations("classpath:db/migration", "classpath:db/compact-keys", "classpath:db/vendor-compact-keys/h2")
+                .load().migrate();
+        useDatabase(dataSource, true);
+        List<FxDeal> deals = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            deals.add(deal("OLD-" + i, NOW.minusDays(60).plusMinutes(i)));
+        }
+        deals.add(deal("RECENT-1", NOW.minusDays(1)));
+        batchWriter.insertAll(deals);
+
+        job.archiveAgedDeals();
+
+        assertThat(jdbcTemplate.queryForList("SELECT deal_unique_id FROM fx_deals", String.class))
+                .containsExactly("RECENT-1");
+        assertThat(archive.findExisting(List.of("OLD-0", "OLD-4"))).containsExactlyInAnyOrder("OLD-0", "OLD-4");
+    }
+}